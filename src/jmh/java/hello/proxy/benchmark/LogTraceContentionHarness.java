@@ -0,0 +1,150 @@
+package hello.proxy.benchmark;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.ContextLogTrace;
+import hello.proxy.trace.logtrace.FieldLogTrace;
+import hello.proxy.trace.logtrace.LogTrace;
+import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import hello.proxy.trace.logtrace.ThreadSlotLogTrace;
+import hello.proxy.trace.thread.TraceThreadFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * LogTrace 구현별 동시성 스트레스 테스트, ./gradlew traceContention
+ *
+ * 스레드 1 ~ 64 개가 같은 LogTrace 로 컨트롤러 -> 서비스 -> 리포지토리 3단계 begin/end 를 계속 반복한다.
+ * 구현과 스레드 수마다 다음을 출력한다.
+ * traces/s : 초당 끝낸 트레이스(루트 begin ~ end) 수
+ * corrupted : 트레이스 트리가 깨진 비율, 깊이(level)가 기대와 다르거나 하위 호출의 트레이스 ID 가 루트와 다르거나 예외가 난 경우
+ *
+ * 스레드는 TraceThreadFactory 로 만들어서 ThreadSlotLogTrace 가 스레드 필드 경로를 탄다.
+ * 로그 출력은 src/jmh/resources/logback.xml 에서 버린다.
+ */
+public class LogTraceContentionHarness {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+    private static final long WARMUP_MILLIS = 500;
+    private static final long MEASURE_MILLIS = 2000;
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, Supplier<LogTrace>> logTraces = new LinkedHashMap<>();
+        logTraces.put("FieldLogTrace", FieldLogTrace::new);
+        logTraces.put("ThreadLocalLogTrace", ThreadLocalLogTrace::new);
+        logTraces.put("ContextLogTrace", ContextLogTrace::new);
+        logTraces.put("ThreadSlotLogTrace", ThreadSlotLogTrace::new);
+
+        System.out.printf("%-20s %8s %15s %12s%n", "logTrace", "threads", "traces/s", "corrupted");
+        for (Map.Entry<String, Supplier<LogTrace>> entry : logTraces.entrySet()) {
+            for (int threads : THREAD_COUNTS) {
+                Result result = run(entry.getValue().get(), threads);
+                System.out.printf("%-20s %8d %15.0f %11.4f%%%n", entry.getKey(), threads,
+                        result.tracesPerSecond(), result.corruptedPercent());
+            }
+        }
+    }
+
+    private static Result run(LogTrace logTrace, int threadCount) throws InterruptedException {
+        ThreadFactory threadFactory = new TraceThreadFactory("contention-", true);
+        LongAdder traces = new LongAdder();
+        LongAdder corrupted = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Phase phase = new Phase();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Thread thread = threadFactory.newThread(() -> {
+                awaitQuietly(start);
+                while (phase.state != Phase.STOP) {
+                    boolean ok = trace(logTrace);
+                    if (phase.state == Phase.MEASURE) {
+                        traces.increment();
+                        if (!ok) {
+                            corrupted.increment();
+                        }
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        Thread.sleep(WARMUP_MILLIS);
+        phase.state = Phase.MEASURE;
+        long begin = System.nanoTime();
+        Thread.sleep(MEASURE_MILLIS);
+        phase.state = Phase.STOP;
+        long elapsed = System.nanoTime() - begin;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new Result(traces.sum(), corrupted.sum(), elapsed);
+    }
+
+    //트레이스 하나를 실행하고 트리가 올바른지 확인
+    private static boolean trace(LogTrace logTrace) {
+        try {
+            TraceStatus controller = logTrace.begin("OrderController.request()");
+            long rootId = controller.getRawTraceId();
+            boolean ok = controller.getLevel() == 0;
+
+            TraceStatus service = logTrace.begin("OrderService.orderItem()");
+            ok &= service.getLevel() == 1 && service.getRawTraceId() == rootId;
+
+            TraceStatus repository = logTrace.begin("OrderRepository.save()");
+            ok &= repository.getLevel() == 2 && repository.getRawTraceId() == rootId;
+
+            logTrace.end(repository);
+            logTrace.end(service);
+            logTrace.end(controller);
+            return ok;
+        } catch (RuntimeException e) {
+            //FieldLogTrace 는 다른 스레드가 traceIdHolder 를 null 로 만들면 NPE 가 난다
+            return false;
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Phase {
+        static final int WARMUP = 0;
+        static final int MEASURE = 1;
+        static final int STOP = 2;
+        volatile int state = WARMUP;
+    }
+
+    private static class Result {
+        private final long traces;
+        private final long corrupted;
+        private final long elapsedNanos;
+
+        Result(long traces, long corrupted, long elapsedNanos) {
+            this.traces = traces;
+            this.corrupted = corrupted;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        double tracesPerSecond() {
+            return traces * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        double corruptedPercent() {
+            return traces == 0 ? 0 : corrupted * 100.0 / traces;
+        }
+    }
+}
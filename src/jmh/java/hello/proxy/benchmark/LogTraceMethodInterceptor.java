@@ -0,0 +1,38 @@
+package hello.proxy.benchmark;
+
+import hello.proxy.trace.MethodDescriptors;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+
+import java.lang.reflect.Method;
+
+/**
+ * TimeMethodInterceptor 와 같은 방식의 CGLIB 인터셉터, 시간 로그 대신 LogTrace 를 사용
+ * 다른 프록시 방식과 같은 일을 하도록 맞춘 벤치마크용
+ */
+public class LogTraceMethodInterceptor implements MethodInterceptor {
+
+    private final Object target;
+    private final LogTrace logTrace;
+
+    public LogTraceMethodInterceptor(Object target, LogTrace logTrace) {
+        this.target = target;
+        this.logTrace = logTrace;
+    }
+
+    @Override
+    public Object intercept(Object obj, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+        TraceStatus status = null;
+        try {
+            status = logTrace.begin(MethodDescriptors.of(method));
+            Object result = methodProxy.invoke(target, args);
+            logTrace.end(status);
+            return result;
+        } catch (Exception e) {
+            logTrace.exception(status, e);
+            throw e;
+        }
+    }
+}
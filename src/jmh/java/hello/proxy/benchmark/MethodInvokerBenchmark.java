@@ -0,0 +1,72 @@
+package hello.proxy.benchmark;
+
+import hello.proxy.config.v2_dynamicproxy.handler.MethodInvoker;
+import hello.proxy.config.v2_dynamicproxy.handler.MethodInvokers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDK 동적 프록시 핸들러가 target 을 호출하는 비용
+ *
+ * direct : 인터페이스로 직접 호출, 기준선
+ * reflective : method.invoke(target, args), 호출마다 접근 검사 + 인수 배열 복사 + 예외 감싸기
+ * methodInvoker : MethodInvokers 가 만든 호출기, target 을 미리 잡은 LambdaMetafactory 람다
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodInvokerBenchmark {
+
+    private Calculator target;
+    private Method method;
+    private MethodInvoker invoker;
+    private Object[] args;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        target = new CalculatorImpl();
+        method = Calculator.class.getMethod("add", int.class, int.class);
+        invoker = MethodInvokers.create(target, method);
+        args = new Object[]{1, 2};
+    }
+
+    @Benchmark
+    public int direct() {
+        return target.add(1, 2);
+    }
+
+    @Benchmark
+    public Object reflective() throws Exception {
+        return method.invoke(target, args);
+    }
+
+    @Benchmark
+    public Object methodInvoker() throws Throwable {
+        return invoker.invoke(args);
+    }
+
+    public interface Calculator {
+        int add(int a, int b);
+    }
+
+    public static class CalculatorImpl implements Calculator {
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package hello.proxy.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * 스레드 4개가 같은 프록시를 동시에 호출
+ *
+ * Threads.MAX 는 머신마다 스레드 수가 달라져서 결과를 비교할 수 없으므로 고정한다.
+ * 코어가 4개보다 적으면 스레드끼리 CPU 를 나눠 써서 ns/op 가 경합이 아니라 시분할만큼 늘어난다.
+ * 비교 기준(src/jmh/baseline)의 코어 수는 environment.properties 에 같이 남긴다.
+ */
+@Threads(4)
+public class MultiThreadProxyBenchmark extends ProxyBenchmark {
+}
@@ -0,0 +1,26 @@
+package hello.proxy.benchmark;
+
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+
+/**
+ * 아무것도 하지 않는 LogTrace, 프록시 자체의 비용만 재기 위해 사용
+ */
+public class NoOpLogTrace implements LogTrace {
+
+    private static final TraceStatus STATUS = new TraceStatus(new TraceId(), 0, "noop");
+
+    @Override
+    public TraceStatus begin(String message) {
+        return STATUS;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+    }
+}
@@ -0,0 +1,86 @@
+package hello.proxy.benchmark;
+
+import hello.proxy.config.v5_autoproxy.pointcut.IndexedAspectJPointcut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 자동 프록시 생성기가 시작 시점에 하는 포인트컷 검사(AopUtils.canApply)를 빈 수천 개에 대해 한 번 수행하는 비용
+ *
+ * AspectJExpressionPointcut 은 메서드별 매칭 결과를 캐시하므로 호출마다 포인트컷을 새로 만든다(애플리케이션 시작 1회와 같다).
+ * aspectJ : AutoProxyConfig.advisor3 의 원래 포인트컷
+ * indexed : 같은 표현식에 패키지, 메서드 이름 사전 조건을 더한 IndexedAspectJPointcut
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PointcutMatchBenchmark {
+
+    private static final String EXPRESSION = "execution(* hello.proxy.app..*(..)) && !execution(* hello.proxy.app..noLog(..))";
+
+    @Param({"1000", "5000"})
+    public int beanCount;
+
+    @Param({"16"})
+    public int methodsPerBean;
+
+    private List<Class<?>> beanClasses;
+    private AspectJExpressionPointcut aspectJ;
+    private IndexedAspectJPointcut indexed;
+
+    @Setup(Level.Trial)
+    public void generateBeans() {
+        beanClasses = SyntheticClasses.generate(beanCount, methodsPerBean);
+    }
+
+    @Setup(Level.Invocation)
+    public void newPointcuts() {
+        aspectJ = new AspectJExpressionPointcut();
+        aspectJ.setExpression(EXPRESSION);
+
+        indexed = new IndexedAspectJPointcut();
+        indexed.setExpression(EXPRESSION);
+        indexed.setPackagePrefixes("hello.proxy.app");
+        indexed.setExcludedNames("noLog");
+    }
+
+    @Benchmark
+    public int aspectJ() {
+        return countProxied(aspectJ);
+    }
+
+    @Benchmark
+    public int indexed() {
+        return countProxied(indexed);
+    }
+
+    //프록시 대상이 되는 빈 수, 두 포인트컷의 결과는 같아야 한다
+    private int countProxied(Pointcut pointcut) {
+        int proxied = 0;
+        for (Class<?> beanClass : beanClasses) {
+            if (AopUtils.canApply(pointcut, beanClass)) {
+                proxied++;
+            }
+        }
+        return proxied;
+    }
+}
@@ -0,0 +1,114 @@
+package hello.proxy.benchmark;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.trace.logtrace.ContextLogTrace;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 로그 추적 기능을 프록시 방식별로 호출했을 때의 비용
+ *
+ * logTrace
+ * noop : 아무것도 하지 않는 LogTrace, 프록시 자체의 비용
+ * trace : ContextLogTrace, 로그 이벤트는 만들지만 logback.xml 에서 출력은 버린다(콘솔 I/O 제외)
+ *
+ * 스레드 수는 상속한 클래스의 @Threads 로 정한다.
+ * 할당량(bytes/op)은 build.gradle 의 jmh 설정에서 gc 프로파일러로 같이 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class ProxyBenchmark {
+
+    private static final String ITEM_ID = "itemA";
+
+    @Param({"noop", "trace"})
+    public String logTrace;
+
+    private OrderControllerV1 direct;
+    private OrderControllerV1 interfaceProxy;
+    private OrderControllerV2 concreteProxy;
+    private OrderControllerV1 jdkDynamicProxy;
+    private OrderControllerV2 cglibProxy;
+    private OrderControllerV1 proxyFactory;
+    private OrderControllerV1 postProcessor;
+    private OrderControllerV1 aspect;
+    private OrderControllerV1 bytecodeProxy;
+
+    @Setup
+    public void setUp() {
+        LogTrace trace = "noop".equals(logTrace) ? new NoOpLogTrace() : new ContextLogTrace();
+
+        direct = ProxyStyles.target();
+        interfaceProxy = ProxyStyles.interfaceProxy(trace);
+        concreteProxy = ProxyStyles.concreteProxy(trace);
+        jdkDynamicProxy = ProxyStyles.jdkDynamicProxy(trace);
+        cglibProxy = ProxyStyles.cglibProxy(trace);
+        proxyFactory = ProxyStyles.proxyFactory(trace);
+        postProcessor = ProxyStyles.postProcessor(trace);
+        aspect = ProxyStyles.aspect(trace);
+        bytecodeProxy = ProxyStyles.bytecodeProxy(trace);
+    }
+
+    //프록시 없이 직접 호출, 기준선
+    @Benchmark
+    public String direct() {
+        return direct.request(ITEM_ID);
+    }
+
+    @Benchmark
+    public String interfaceProxy() {
+        return interfaceProxy.request(ITEM_ID);
+    }
+
+    @Benchmark
+    public String concreteProxy() {
+        return concreteProxy.request(ITEM_ID);
+    }
+
+    @Benchmark
+    public String jdkDynamicProxy() {
+        return jdkDynamicProxy.request(ITEM_ID);
+    }
+
+    @Benchmark
+    public String cglibProxy() {
+        return cglibProxy.request(ITEM_ID);
+    }
+
+    @Benchmark
+    public String proxyFactory() {
+        return proxyFactory.request(ITEM_ID);
+    }
+
+    @Benchmark
+    public String postProcessor() {
+        return postProcessor.request(ITEM_ID);
+    }
+
+    @Benchmark
+    public String aspect() {
+        return aspect.request(ITEM_ID);
+    }
+
+    @Benchmark
+    public String bytecodeProxy() {
+        return bytecodeProxy.request(ITEM_ID);
+    }
+}
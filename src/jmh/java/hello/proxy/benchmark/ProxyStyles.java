@@ -0,0 +1,107 @@
+package hello.proxy.benchmark;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.v1_proxy.concrete_proxy.OrderControllerConcreteProxy;
+import hello.proxy.config.v1_proxy.interface_proxy.OrderControllerInterfaceProxy;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceBasicHandler;
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.config.v4_postprocessor.postprocessor.PackageLogTracePostProcessor;
+import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
+import hello.proxy.trace.bytecode.BytecodeProxyFactory;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.cglib.proxy.Enhancer;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * 프로젝트에 있는 프록시 방식을 설정 클래스와 같은 방법으로 만든다
+ *
+ * 대상은 컨트롤러 한 단계만 둔다. 서비스는 아무것도 하지 않아서(리포지토리의 sleep 없음) 프록시 비용만 남는다.
+ * v1(인터페이스)과 v2(구체 클래스) 대상을 각각 만든다.
+ */
+public final class ProxyStyles {
+
+    private ProxyStyles() {
+    }
+
+    public static OrderControllerV1 target() {
+        return new OrderControllerV1Impl(itemId -> {
+        });
+    }
+
+    public static OrderControllerV2 concreteTarget() {
+        return new OrderControllerV2(new OrderServiceV2(null) {
+            @Override
+            public void orderItem(String itemId) {
+            }
+        });
+    }
+
+    //1. 직접 만든 인터페이스 기반 프록시
+    public static OrderControllerV1 interfaceProxy(LogTrace logTrace) {
+        return new OrderControllerInterfaceProxy(target(), logTrace);
+    }
+
+    //2. 직접 만든 구체 클래스 기반 프록시
+    public static OrderControllerV2 concreteProxy(LogTrace logTrace) {
+        return new OrderControllerConcreteProxy(concreteTarget(), logTrace);
+    }
+
+    //3. JDK 동적 프록시
+    public static OrderControllerV1 jdkDynamicProxy(LogTrace logTrace) {
+        return (OrderControllerV1) Proxy.newProxyInstance(OrderControllerV1.class.getClassLoader(),
+                new Class[]{OrderControllerV1.class},
+                new LogTraceBasicHandler(target(), logTrace));
+    }
+
+    //4. CGLIB
+    public static OrderControllerV2 cglibProxy(LogTrace logTrace) {
+        Enhancer enhancer = new Enhancer();
+        enhancer.setSuperclass(OrderControllerV2.class);
+        enhancer.setCallback(new LogTraceMethodInterceptor(concreteTarget(), logTrace));
+        return (OrderControllerV2) enhancer.create(new Class[]{OrderServiceV2.class}, new Object[]{null});
+    }
+
+    //5. ProxyFactory + LogTraceAdvice
+    public static OrderControllerV1 proxyFactory(LogTrace logTrace) {
+        ProxyFactory factory = new ProxyFactory(target());
+        factory.addAdvisor(advisor(logTrace));
+        return (OrderControllerV1) factory.getProxy();
+    }
+
+    //6. 빈 후처리기
+    public static OrderControllerV1 postProcessor(LogTrace logTrace) {
+        PackageLogTracePostProcessor postProcessor = new PackageLogTracePostProcessor("hello.proxy.app", advisor(logTrace));
+        return (OrderControllerV1) postProcessor.postProcessAfterInitialization(target(), "orderControllerV1");
+    }
+
+    //7. @Aspect
+    public static OrderControllerV1 aspect(LogTrace logTrace) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target());
+        factory.addAspect(new LogTraceAspect(logTrace));
+        return factory.getProxy();
+    }
+
+    //8. ASM 바이트코드 프록시, 로그 추적 코드가 메서드 안에 직접 들어 있다
+    public static OrderControllerV1 bytecodeProxy(LogTrace logTrace) {
+        BytecodeProxyFactory factory = new BytecodeProxyFactory(target());
+        factory.setLogTrace(logTrace);
+        factory.setMappedNames("request*", "order*", "save*");
+        return (OrderControllerV1) factory.getProxy();
+    }
+
+    //ProxyFactoryConfigV1, BeanPostProcessorConfig 와 같은 어드바이저
+    private static Advisor advisor(LogTrace logTrace) {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames("request*", "order*", "save*");
+        return new DefaultPointcutAdvisor(pointcut, new LogTraceAdvice(logTrace));
+    }
+}
@@ -0,0 +1,8 @@
+package hello.proxy.benchmark;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/** 스레드 1개 */
+@Threads(1)
+public class SingleThreadProxyBenchmark extends ProxyBenchmark {
+}
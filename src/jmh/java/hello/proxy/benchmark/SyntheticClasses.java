@@ -0,0 +1,68 @@
+package hello.proxy.benchmark;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 가짜 빈 클래스를 ASM 으로 만든다
+ *
+ * 절반은 hello.proxy.app.synthetic 아래(애플리케이션 빈), 절반은 org.example.library 아래(라이브러리 빈)에 만든다.
+ * 각 클래스에는 request/order/save/noLog/get 메서드가 있다.
+ */
+final class SyntheticClasses {
+
+    private static final String[] METHOD_PREFIXES = {"request", "order", "save", "noLog", "get", "find", "update", "delete"};
+
+    private SyntheticClasses() {
+    }
+
+    static List<Class<?>> generate(int count, int methodsPerClass) {
+        SyntheticClassLoader classLoader = new SyntheticClassLoader(SyntheticClasses.class.getClassLoader());
+        List<Class<?>> classes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String packageName = (i % 2 == 0) ? "hello/proxy/app/synthetic/g" + (i % 50) : "org/example/library/g" + (i % 50);
+            String className = packageName + "/Bean" + i;
+            classes.add(classLoader.define(className.replace('/', '.'), classBytes(className, methodsPerClass)));
+        }
+        return classes;
+    }
+
+    private static byte[] classBytes(String internalName, int methodsPerClass) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null, "java/lang/Object", null);
+
+        MethodVisitor init = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        for (int m = 0; m < methodsPerClass; m++) {
+            String name = METHOD_PREFIXES[m % METHOD_PREFIXES.length] + m;
+            MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, name, "(Ljava/lang/String;)V", null, null);
+            mv.visitCode();
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static final class SyntheticClassLoader extends ClassLoader {
+
+        SyntheticClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
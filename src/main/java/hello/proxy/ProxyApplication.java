@@ -10,11 +10,33 @@ import hello.proxy.config.v3_proxyfactory.ProxyFactoryConfigV1;
 import hello.proxy.config.v3_proxyfactory.ProxyFactoryConfigV2;
 import hello.proxy.config.v4_postprocessor.BeanPostProcessorConfig;
 import hello.proxy.config.v5_autoproxy.AutoProxyConfig;
+import hello.proxy.config.v5_autoproxy.BatchingAutoProxyConfig;
+import hello.proxy.config.v5_autoproxy.CachingAutoProxyConfig;
+import hello.proxy.config.v5_autoproxy.CircuitBreakerAutoProxyConfig;
+import hello.proxy.config.v5_autoproxy.CoalescingAutoProxyConfig;
+import hello.proxy.config.v5_autoproxy.ConcurrencyLimitAutoProxyConfig;
 import hello.proxy.config.v6_aop.AopConfig;
+import hello.proxy.config.v7_generated.GeneratedProxyConfig;
+import hello.proxy.config.v8_bytecode.BytecodeProxyConfig;
+import hello.proxy.trace.async.OverflowPolicy;
+import hello.proxy.trace.id.RandomTraceIdGenerator;
+import hello.proxy.trace.id.TimeBasedTraceIdGenerator;
+import hello.proxy.trace.id.TraceIdGenerator;
+import hello.proxy.trace.logtrace.AsyncLogTrace;
 import hello.proxy.trace.logtrace.LogTrace;
-import hello.proxy.trace.logtrace.ThreadLocalLogTrace;
+import hello.proxy.trace.logtrace.MetricsLogTrace;
+import hello.proxy.trace.logtrace.SamplingLogTrace;
+import hello.proxy.trace.logtrace.TailSamplingLogTrace;
+import hello.proxy.trace.metrics.TraceMetricsController;
+import hello.proxy.trace.metrics.TraceMetricsRegistry;
+import hello.proxy.trace.sampling.SamplingRates;
+import hello.proxy.trace.sampling.TailSamplingPolicy;
+import hello.proxy.trace.sampling.TraceSamplingController;
+import hello.proxy.trace.thread.TraceThreadTomcatCustomizer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 
@@ -28,9 +50,23 @@ import org.springframework.context.annotation.Import;
 //@Import(ProxyFactoryConfigV2.class)
 @Import(BeanPostProcessorConfig.class)
 //@Import(AutoProxyConfig.class)
+//자동 프록시 생성기 + 반환값 캐시
+//@Import(CachingAutoProxyConfig.class)
+//자동 프록시 생성기 + 동시에 들어온 같은 호출 합치기
+//@Import(CoalescingAutoProxyConfig.class)
+//자동 프록시 생성기 + 저장 배치
+//@Import(BatchingAutoProxyConfig.class)
+//자동 프록시 생성기 + 동시 실행 한도
+//@Import(ConcurrencyLimitAutoProxyConfig.class)
+//자동 프록시 생성기 + 서킷 브레이커
+//@Import(CircuitBreakerAutoProxyConfig.class)
 //클래스를 스프링 빈으로 등록, AopConfig.class가 빈으로 등록이 되야 클래스안에 @Bean이 빈으로 등록되므로
 //일반적으로 @Configuration 같은 설정 파일을 등록할 때 사용하지만, 스프링 빈을 등록할 때도 사용할 수 있다.
 //@Import(AopConfig.class)
+//컴파일 시점에 애노테이션 프로세서가 만든 프록시
+//@Import(GeneratedProxyConfig.class)
+//ASM 으로 로그 추적 코드를 직접 넣은 프록시
+//@Import(BytecodeProxyConfig.class)
 //주의, 이렇게 안하면 package hello.proxy 밑에 다 스캔
 /**
  * @Configuration 은 내부에 @Component 애노테이션을 포함하고 있어서 컴포넌트 스캔의 대상이 된다.
@@ -45,9 +81,81 @@ public class ProxyApplication {
 	}
 
 	//InterfaceProxyConfig을 실행시키기 위해
+	//로그 출력은 백그라운드 writer 스레드가 처리, 동기로 출력하려면 new ThreadLocalLogTrace()
+	//AsyncLogTrace 는 close() 가 있어서 컨테이너 종료 시 남은 로그를 모두 쓰고 종료된다
+	//SamplingLogTrace 로 감싸서 루트 메시지별 비율만큼만 로그를 남긴다
+	//MetricsLogTrace 는 가장 바깥에 두어서 샘플링과 상관없이 모든 호출의 지표를 남긴다
+	//trace.tail.enabled=true 이면 AsyncLogTrace 대신 느리거나 실패한 트레이스만 남기는 TailSamplingLogTrace 사용
 	@Bean
-	public LogTrace logTrace() {
-		return new ThreadLocalLogTrace();
+	public LogTrace logTrace(@Value("${trace.async.capacity:8192}") int capacity,
+							 @Value("${trace.async.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+							 @Value("${trace.async.batch-size:256}") int batchSize,
+							 @Value("${trace.async.sample-ratio:10}") int sampleRatio,
+							 @Value("${trace.tail.enabled:false}") boolean tailEnabled,
+							 @Value("${trace.tail.max-events:1024}") int tailMaxEvents,
+							 TraceIdGenerator traceIdGenerator,
+							 TraceMetricsRegistry traceMetricsRegistry,
+							 SamplingRates samplingRates,
+							 TailSamplingPolicy tailSamplingPolicy) {
+		LogTrace writer;
+		if (tailEnabled) {
+			writer = new TailSamplingLogTrace(tailSamplingPolicy, tailMaxEvents, traceIdGenerator);
+		} else {
+			writer = new AsyncLogTrace(capacity, overflowPolicy, batchSize, sampleRatio, traceIdGenerator);
+		}
+		SamplingLogTrace samplingLogTrace = new SamplingLogTrace(writer, samplingRates);
+		return new MetricsLogTrace(samplingLogTrace, traceMetricsRegistry);
+	}
+
+	@Bean
+	public TraceMetricsRegistry traceMetricsRegistry() {
+		return new TraceMetricsRegistry();
+	}
+
+	//rates 예) OrderControllerV1.request()=0.1,OrderControllerV2.request()=0.5
+	@Bean
+	public SamplingRates samplingRates(@Value("${trace.sampling.default-rate:1.0}") double defaultRate,
+									   @Value("${trace.sampling.rates:}") String rates) {
+		return SamplingRates.parse(defaultRate, rates);
+	}
+
+	//method-thresholds 예) OrderRepositoryV1.save()=500,OrderServiceV1.orderItem()=800 (ms)
+	@Bean
+	public TailSamplingPolicy tailSamplingPolicy(@Value("${trace.tail.slo-ms:1000}") long sloMs,
+												 @Value("${trace.tail.keep-errors:true}") boolean keepErrors,
+												 @Value("${trace.tail.method-thresholds:}") String methodThresholds) {
+		return TailSamplingPolicy.parse(sloMs, keepErrors, methodThresholds);
+	}
+
+	//http://localhost:8080/trace/sampling, 실행 중에 비율 변경
+	@Bean
+	public TraceSamplingController traceSamplingController(SamplingRates samplingRates) {
+		return new TraceSamplingController(samplingRates);
+	}
+
+	//http://localhost:8080/trace/metrics, Prometheus 텍스트 형식
+	@Bean
+	public TraceMetricsController traceMetricsController(TraceMetricsRegistry traceMetricsRegistry) {
+		return new TraceMetricsController(traceMetricsRegistry);
+	}
+
+	//trace.thread.tomcat=true 이면 Tomcat 요청 스레드를 TraceThread 로 만든다
+	//AsyncLogTrace, ThreadSlotLogTrace 가 ThreadLocal 조회 없이 스레드 필드에서 TraceContext 를 꺼낸다
+	@Bean
+	@ConditionalOnProperty(name = "trace.thread.tomcat", havingValue = "true")
+	public TraceThreadTomcatCustomizer traceThreadTomcatCustomizer(@Value("${server.tomcat.threads.min-spare:10}") int minSpareThreads,
+																   @Value("${server.tomcat.threads.max:200}") int maxThreads) {
+		return new TraceThreadTomcatCustomizer(minSpareThreads, maxThreads);
+	}
+
+	//random : 스레드별 난수, time : 시간 + 노드 번호 + 순번(서버마다 node-id 를 다르게)
+	@Bean
+	public TraceIdGenerator traceIdGenerator(@Value("${trace.id.generator:random}") String generator,
+											 @Value("${trace.id.node-id:0}") long nodeId) {
+		if ("time".equals(generator)) {
+			return new TimeBasedTraceIdGenerator(nodeId);
+		}
+		return new RandomTraceIdGenerator();
 	}
 
 }
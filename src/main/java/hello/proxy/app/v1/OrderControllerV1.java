@@ -1,5 +1,6 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.generator.TraceProxy;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 //수동 등록하는
 @RequestMapping
 @ResponseBody
+@TraceProxy({"request*", "order*", "save*"})
 public interface OrderControllerV1 {
 
     //logTrace 적용할 대상
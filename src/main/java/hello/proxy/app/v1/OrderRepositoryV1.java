@@ -1,5 +1,11 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.coalesce.Coalescible;
+import hello.proxy.generator.TraceProxy;
+
+@TraceProxy({"request*", "order*", "save*"})
 public interface OrderRepositoryV1 {
+    //같은 itemId 로 동시에 들어온 저장은 한 번만(CoalescingAutoProxyConfig)
+    @Coalescible
     void save(String itemId);
 }
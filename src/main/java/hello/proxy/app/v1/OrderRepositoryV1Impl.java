@@ -1,6 +1,10 @@
 package hello.proxy.app.v1;
 
-public class OrderRepositoryV1Impl implements OrderRepositoryV1 {
+import hello.proxy.batch.BulkSave;
+
+import java.util.List;
+
+public class OrderRepositoryV1Impl implements OrderRepositoryV1, BulkSave<String> {
     @Override
     public void save(String itemId) {
         //저장 로직
@@ -10,6 +14,18 @@ public class OrderRepositoryV1Impl implements OrderRepositoryV1 {
         sleep(1000);
     }
 
+    //여러 건을 한 번에 저장, 저장 한 번의 시간은 건수와 상관없이 같다
+    //하나라도 잘못된 항목이 있으면 아무것도 저장하지 않는다
+    @Override
+    public void saveAll(List<String> itemIds) {
+        for (String itemId : itemIds) {
+            if (itemId.equals("ex")) {
+                throw new IllegalStateException("예외 발생!");
+            }
+        }
+        sleep(1000);
+    }
+
     private void sleep(int millis) {
         try {
             Thread.sleep(millis);
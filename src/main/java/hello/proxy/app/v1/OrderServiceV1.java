@@ -1,5 +1,8 @@
 package hello.proxy.app.v1;
 
+import hello.proxy.generator.TraceProxy;
+
+@TraceProxy({"request*", "order*", "save*"})
 public interface OrderServiceV1 {
     void orderItem(String itemId);
 }
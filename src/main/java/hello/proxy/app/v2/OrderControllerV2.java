@@ -1,5 +1,6 @@
 package hello.proxy.app.v2;
 
+import hello.proxy.generator.TraceProxy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 @Slf4j
 @RequestMapping
 @ResponseBody
+@TraceProxy({"request*", "order*", "save*"})
 public class OrderControllerV2 {
 
     private final OrderServiceV2 orderService;
@@ -1,5 +1,8 @@
 package hello.proxy.app.v2;
 
+import hello.proxy.generator.TraceProxy;
+
+@TraceProxy({"request*", "order*", "save*"})
 public class OrderServiceV2 {
     private final OrderRepositoryV2 orderRepository;
 
@@ -2,6 +2,8 @@ package hello.proxy.app.v3;
 
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public class OrderRepositoryV3 {
 
@@ -13,6 +15,18 @@ public class OrderRepositoryV3 {
         sleep(1000);
     }
 
+    //여러 건을 한 번에 저장, 저장 한 번의 시간은 건수와 상관없이 같다
+    //하나라도 잘못된 항목이 있으면 아무것도 저장하지 않는다
+    //인터페이스가 없는 구체 클래스라 BulkSave 를 구현하지 않는다, BatchingAdvice 는 이 메서드를 이름으로 찾는다
+    public void saveAll(List<String> itemIds) {
+        for (String itemId : itemIds) {
+            if (itemId.equals("ex")) {
+                throw new IllegalStateException("예외 발생!");
+            }
+        }
+        sleep(1000);
+    }
+
     private void sleep(int millis) {
         try {
             Thread.sleep(millis);
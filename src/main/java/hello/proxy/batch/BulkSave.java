@@ -0,0 +1,19 @@
+package hello.proxy.batch;
+
+import java.util.List;
+
+/**
+ * 여러 건을 한 번에 저장하는 리포지토리 SPI
+ *
+ * BatchingAdvice 는 save(item) 호출을 모아서 saveAll(items) 한 번으로 넘긴다.
+ * saveAll 이 예외를 던지면 배치를 반으로 나눠서 다시 saveAll 한다. 한 건만 남았는데도 실패하면 그 항목의 호출만 예외를 받는다.
+ * 그래서 saveAll 은 전부 저장하거나 전부 저장하지 않아야 한다(일부만 저장하고 예외를 던지면 다시 저장된다).
+ *
+ * 인터페이스가 없는 구체 클래스(OrderRepositoryV2, V3)는 이 인터페이스를 구현하지 않는다.
+ * 구현하면 ProxyFactory, 빈 후처리기가 JDK 동적 프록시를 만들어서 클래스 타입으로 주입할 수 없게 된다.
+ * 대신 public void saveAll(List) 메서드만 두면 BatchingAdvice 가 같은 방식으로 쓴다.
+ */
+public interface BulkSave<T> {
+
+    void saveAll(List<T> items);
+}
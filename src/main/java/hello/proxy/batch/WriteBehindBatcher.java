@@ -0,0 +1,186 @@
+package hello.proxy.batch;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 여러 요청 스레드의 저장을 모아서 한 번에 저장하는 배처
+ *
+ * 요청 스레드는 submit(item) 으로 큐에 넣고 CompletableFuture 를 받는다.
+ * flusher 스레드 하나가 큐에서 꺼내서 maxBatchSize 개가 모이거나, 첫 항목을 꺼낸 뒤 linger 시간이 지나면 BulkSave.saveAll() 을 한 번 호출한다.
+ * 배치가 끝나면 배치 안의 모든 future 를 완료한다.
+ *
+ * 저장 한 번에 1초가 걸리면 스레드 100 개가 save() 를 호출해도 저장은 100 번이 아니라 100 / maxBatchSize 번이다.
+ *
+ * saveAll 이 실패하면 배치를 반으로 나눠서 각각 다시 saveAll 한다. 한 건만 남았는데도 실패하면 그 항목의 future 만 예외로 완료한다.
+ * 64 건 중 하나가 잘못된 경우 단건으로 64 번 저장하는 대신 saveAll 을 2 * log2(64) + 1 = 13 번 정도 호출한다.
+ * 큐가 가득 차면 submit() 이 빈자리가 날 때까지 기다린다(요청 스레드가 느려지는 것으로 부하를 되돌림).
+ */
+@Slf4j
+public class WriteBehindBatcher<T> {
+
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final BulkSave<T> bulkSave;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<Pending<T>> queue;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder itemCount = new LongAdder();
+    private final LongAdder splitCount = new LongAdder();
+
+    /**
+     * @param maxBatchSize 한 번에 saveAll 로 넘길 최대 항목 수
+     * @param linger 첫 항목을 꺼낸 뒤 다음 항목을 기다리는 최대 시간
+     * @param queueCapacity 아직 저장하지 않은 항목을 담아 둘 큐 크기
+     */
+    public WriteBehindBatcher(String name, BulkSave<T> bulkSave, int maxBatchSize, long linger, TimeUnit unit, int queueCapacity) {
+        this.bulkSave = bulkSave;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerNanos = unit.toNanos(linger);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.flusher = new Thread(this::flushLoop, "write-behind-" + name);
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /** 배치가 저장되면 완료되는 future, 큐가 가득 차면 기다린다 */
+    public CompletableFuture<Void> submit(T item) throws InterruptedException {
+        if (!running) {
+            throw new IllegalStateException("종료된 배처입니다.");
+        }
+        Pending<T> pending = new Pending<>(item);
+        queue.put(pending);
+        //넣는 사이에 close() 가 호출됐으면 flusher 가 이 항목을 보지 못하고 끝날 수 있다
+        //아직 큐에 있으면 꺼내서 실패로 완료, 이미 flusher 가 꺼냈으면 flusher 가 완료한다
+        //running 을 다시 읽었을 때 true 였다면 flusher 는 종료 전에 큐가 빈 것을 확인하므로 이 항목을 꺼낸다
+        if (!running && queue.remove(pending)) {
+            pending.future.completeExceptionally(new IllegalStateException("종료된 배처입니다."));
+        }
+        return pending.future;
+    }
+
+    private void flushLoop() {
+        List<Pending<T>> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Pending<T> first = queue.poll(POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                collect(batch, System.nanoTime() + lingerNanos);
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        //인터럽트로 끝났으면 남은 항목은 저장하지 않았다고 알린다
+        failRemaining();
+    }
+
+    private void failRemaining() {
+        Pending<T> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(new IllegalStateException("배처가 종료되어 저장하지 못했습니다."));
+        }
+    }
+
+    //batch 가 가득 차거나 deadline 이 지날 때까지 모은다
+    private void collect(List<Pending<T>> batch, long deadline) throws InterruptedException {
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            if (batch.size() >= maxBatchSize) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending<T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Pending<T>> batch) {
+        batchCount.increment();
+        itemCount.add(batch.size());
+        save(batch);
+    }
+
+    //실패하면 반으로 나눠서 다시 저장, 잘못된 항목이 k 개면 saveAll 호출은 대략 2k * log2(n) 번
+    private void save(List<Pending<T>> batch) {
+        List<T> items = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            items.add(pending.item);
+        }
+
+        try {
+            bulkSave.saveAll(items);
+        } catch (Throwable ex) {
+            if (batch.size() == 1) {
+                batch.get(0).future.completeExceptionally(ex);
+                return;
+            }
+            log.debug("saveAll failed, split batch: size={} ex={}", items.size(), ex.toString());
+            splitCount.increment();
+            int half = batch.size() / 2;
+            save(batch.subList(0, half));
+            save(batch.subList(half, batch.size()));
+            return;
+        }
+        for (Pending<T> pending : batch) {
+            pending.future.complete(null);
+        }
+    }
+
+    /**
+     * 새 항목은 더 받지 않고, 큐에 남은 항목을 모두 저장한 다음 flusher 를 종료한다.
+     * flusher 가 끝난 뒤에도 큐에 남은 항목이 있으면 실패로 완료해서 기다리는 스레드가 멈추지 않게 한다.
+     */
+    public void close() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        if (!flusher.isAlive()) {
+            failRemaining();
+        }
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    public long getItemCount() {
+        return itemCount.sum();
+    }
+
+    //saveAll 이 실패해서 반으로 나눈 횟수
+    public long getSplitCount() {
+        return splitCount.sum();
+    }
+
+    private static final class Pending<T> {
+
+        final T item;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Pending(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package hello.proxy.breaker;
+
+/**
+ * 서킷이 열려 있어서 호출하지 않고 거절
+ *
+ * 서킷이 열려 있는 동안 모든 호출이 이 예외를 받으므로 CircuitBreaker 마다 하나만 만들어 두고 재사용한다.
+ * 스택 트레이스를 만들지도, 채우지도 않는다(재사용하는 객체라 채워도 의미가 없다).
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    public CallNotPermittedException(String name) {
+        super("서킷이 열려 있어서 호출하지 않습니다. name=" + name, null, false, false);
+    }
+}
@@ -0,0 +1,230 @@
+package hello.proxy.breaker;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 락 없는 서킷 브레이커
+ *
+ * CLOSED : 모두 호출한다. 최근 windowSize 번의 결과로 실패율, 느린 호출 비율을 계산해서 기준 이상이면 OPEN
+ * OPEN : 호출하지 않고 미리 만들어 둔 CallNotPermittedException 을 던진다. waitDuration 이 지나면 HALF_OPEN
+ * HALF_OPEN : halfOpenCalls 번만 시험 호출, 모두 성공하면 CLOSED, 하나라도 실패하거나 느리면 다시 OPEN
+ *
+ * 상태는 AtomicInteger 하나, 상태 변경은 CAS 에 성공한 스레드 하나만 한다.
+ * 최근 결과는 windowSize 칸짜리 링(AtomicIntegerArray)에 순서대로 덮어쓴다.
+ * 칸을 getAndSet 으로 바꾸면서 이전 결과를 빼고 새 결과를 더하므로 실패 수, 느린 호출 수를 매번 다시 세지 않는다.
+ * CLOSED 에서 성공한 호출의 비용은 상태 읽기, 순번 증가, 칸 교체 정도다.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int CLOSED = 0;
+    private static final int OPEN = 1;
+    private static final int HALF_OPEN = 2;
+    private static final State[] STATES = {State.CLOSED, State.OPEN, State.HALF_OPEN};
+
+    //링의 칸에 저장하는 결과 비트
+    private static final int RECORDED = 1;
+    private static final int FAILED = 2;
+    private static final int SLOW = 4;
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final int slowCallRateThreshold;
+    private final long slowCallDurationNanos;
+    private final long waitDurationNanos;
+    private final int halfOpenCalls;
+    private final CallNotPermittedException notPermitted;
+
+    private final AtomicInteger state = new AtomicInteger(CLOSED);
+    private volatile long openedAtNanos;
+
+    //CLOSED 에서의 최근 결과
+    private final AtomicIntegerArray outcomes;
+    private final AtomicLong nextSlot = new AtomicLong();
+    private final AtomicInteger recordedCalls = new AtomicInteger();
+    private final AtomicInteger failedCalls = new AtomicInteger();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+
+    //HALF_OPEN 에서의 시험 호출
+    private final AtomicInteger halfOpenPermits = new AtomicInteger();
+    private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+
+    private final LongAdder successCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder slowCount = new LongAdder();
+    private final LongAdder notPermittedCount = new LongAdder();
+    private final LongAdder transitionCount = new LongAdder();
+
+    public CircuitBreaker(String name, CircuitBreakerSettings settings) {
+        this.name = name;
+        this.windowSize = settings.getWindowSize();
+        this.minimumCalls = Math.min(settings.getMinimumCalls(), windowSize);
+        this.failureRateThreshold = settings.getFailureRateThreshold();
+        this.slowCallRateThreshold = settings.getSlowCallRateThreshold();
+        this.slowCallDurationNanos = settings.getSlowCallDurationNanos();
+        this.waitDurationNanos = settings.getWaitDurationNanos();
+        this.halfOpenCalls = settings.getHalfOpenCalls();
+        this.outcomes = new AtomicIntegerArray(windowSize);
+        this.notPermitted = new CallNotPermittedException(name);
+    }
+
+    /** 호출해도 되면 true, false 면 notPermitted() 를 던진다 */
+    public boolean tryAcquire() {
+        int current = state.get();
+        if (current == CLOSED) {
+            return true;
+        }
+        if (current == OPEN) {
+            if (System.nanoTime() - openedAtNanos < waitDurationNanos) {
+                notPermittedCount.increment();
+                return false;
+            }
+            if (state.compareAndSet(OPEN, HALF_OPEN)) {
+                halfOpenSuccesses.set(0);
+                halfOpenPermits.set(halfOpenCalls);
+                transitioned(State.OPEN, State.HALF_OPEN);
+            }
+            current = state.get();
+        }
+        if (current == HALF_OPEN) {
+            if (halfOpenPermits.getAndDecrement() > 0) {
+                return true;
+            }
+            notPermittedCount.increment();
+            return false;
+        }
+        return current == CLOSED;
+    }
+
+    public CallNotPermittedException notPermitted() {
+        return notPermitted;
+    }
+
+    public void onSuccess(long durationNanos) {
+        successCount.increment();
+        record(slowOutcome(durationNanos));
+    }
+
+    public void onError(long durationNanos) {
+        failureCount.increment();
+        record(FAILED | slowOutcome(durationNanos));
+    }
+
+    private int slowOutcome(long durationNanos) {
+        if (durationNanos >= slowCallDurationNanos) {
+            slowCount.increment();
+            return SLOW;
+        }
+        return 0;
+    }
+
+    private void record(int outcome) {
+        int current = state.get();
+        if (current == CLOSED) {
+            recordClosed(outcome);
+        } else if (current == HALF_OPEN) {
+            recordHalfOpen(outcome);
+        }
+        //OPEN 이 되기 전에 시작한 호출의 결과는 버린다
+    }
+
+    private void recordClosed(int outcome) {
+        int slot = (int) (nextSlot.getAndIncrement() % windowSize);
+        int previous = outcomes.getAndSet(slot, RECORDED | outcome);
+        int calls = ((previous & RECORDED) == 0) ? recordedCalls.incrementAndGet() : recordedCalls.get();
+        adjust(failedCalls, previous, outcome, FAILED);
+        adjust(slowCalls, previous, outcome, SLOW);
+
+        if (calls < minimumCalls) {
+            return;
+        }
+        //정상 호출은 비율을 올리지 않으므로 계산할 필요가 없다, minimumCalls 에 막 도달한 호출만 예외
+        if (outcome == 0 && calls != minimumCalls) {
+            return;
+        }
+        if (failedCalls.get() * 100 >= failureRateThreshold * calls
+                || slowCalls.get() * 100 >= slowCallRateThreshold * calls) {
+            open(CLOSED);
+        }
+    }
+
+    private static void adjust(AtomicInteger counter, int previous, int outcome, int bit) {
+        int delta = ((outcome & bit) != 0 ? 1 : 0) - ((previous & bit) != 0 ? 1 : 0);
+        if (delta != 0) {
+            counter.addAndGet(delta);
+        }
+    }
+
+    private void recordHalfOpen(int outcome) {
+        if (outcome != 0) {
+            open(HALF_OPEN);
+            return;
+        }
+        if (halfOpenSuccesses.incrementAndGet() >= halfOpenCalls && state.compareAndSet(HALF_OPEN, CLOSED)) {
+            resetWindow();
+            transitioned(State.HALF_OPEN, State.CLOSED);
+        }
+    }
+
+    private void open(int from) {
+        openedAtNanos = System.nanoTime();
+        if (state.compareAndSet(from, OPEN)) {
+            transitioned(STATES[from], State.OPEN);
+        }
+    }
+
+    //다시 닫을 때 이전 결과는 잊는다
+    private void resetWindow() {
+        for (int i = 0; i < windowSize; i++) {
+            outcomes.set(i, 0);
+        }
+        recordedCalls.set(0);
+        failedCalls.set(0);
+        slowCalls.set(0);
+    }
+
+    private void transitioned(State from, State to) {
+        transitionCount.increment();
+        log.info("circuit breaker state changed: name={} {} -> {}", name, from, to);
+    }
+
+    public State getState() {
+        return STATES[state.get()];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSuccessCount() {
+        return successCount.sum();
+    }
+
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    public long getSlowCount() {
+        return slowCount.sum();
+    }
+
+    //서킷이 열려 있어서 호출하지 않은 수
+    public long getNotPermittedCount() {
+        return notPermittedCount.sum();
+    }
+
+    public long getTransitionCount() {
+        return transitionCount.sum();
+    }
+}
@@ -0,0 +1,80 @@
+package hello.proxy.breaker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CircuitBreaker 설정
+ *
+ * windowSize : 최근 몇 번의 호출로 실패율, 느린 호출 비율을 계산할지
+ * minimumCalls : 이만큼 호출이 쌓이기 전에는 열지 않는다
+ * failureRateThreshold, slowCallRateThreshold : 이 비율(%) 이상이면 연다
+ * slowCallDuration : 이보다 오래 걸리면 느린 호출
+ * waitDuration : 연 다음 이 시간이 지나면 반열림(HALF_OPEN)으로 몇 번만 시험 호출
+ * halfOpenCalls : 반열림에서 허용하는 시험 호출 수, 모두 성공하면 닫고 하나라도 실패하면 다시 연다
+ */
+public class CircuitBreakerSettings {
+
+    private int windowSize = 20;
+    private int minimumCalls = 10;
+    private int failureRateThreshold = 50;
+    private int slowCallRateThreshold = 100;
+    private long slowCallDurationNanos = TimeUnit.SECONDS.toNanos(2);
+    private long waitDurationNanos = TimeUnit.SECONDS.toNanos(5);
+    private int halfOpenCalls = 3;
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(int slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public void setSlowCallDuration(long slowCallDuration, TimeUnit unit) {
+        this.slowCallDurationNanos = unit.toNanos(slowCallDuration);
+    }
+
+    public void setWaitDuration(long waitDuration, TimeUnit unit) {
+        this.waitDurationNanos = unit.toNanos(waitDuration);
+    }
+
+    public void setHalfOpenCalls(int halfOpenCalls) {
+        this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public int getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public int getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public long getSlowCallDurationNanos() {
+        return slowCallDurationNanos;
+    }
+
+    public long getWaitDurationNanos() {
+        return waitDurationNanos;
+    }
+
+    public int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+}
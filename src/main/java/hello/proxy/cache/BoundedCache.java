@@ -0,0 +1,179 @@
+package hello.proxy.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 크기 제한이 있는 동시성 캐시
+ *
+ * 조회(get)
+ * ConcurrentHashMap.get() 한 번, 락도 없고 객체도 만들지 않는다.
+ * 적중하면 항목의 참조 비트를 올리고, 빈도 스케치(FrequencySketch)에 접근을 기록한다.
+ *
+ * 저장(put)
+ * 크기 제한 안이면 그냥 넣는다.
+ * 가득 찼으면 CLOCK 으로 밀려날 후보를 고른다. 시계 바늘이 돌면서 참조 비트가 있는 항목은 비트만 내리고 지나간다.
+ * 그다음 TinyLFU admission, 새 키의 접근 빈도가 후보보다 높을 때만 후보를 빼고 새 항목을 넣는다.
+ * 한 번 쓰고 마는 키가 자주 쓰는 항목을 밀어내지 못한다(스캔에 강함).
+ * 저장은 락 하나로 순서를 맞춘다. 캐시는 적중이 대부분이라 저장 경로의 락은 병목이 되지 않는다.
+ *
+ * 만료(TTL)
+ * 항목마다 만료 시각을 들고 있다. 조회할 때 지났으면 없는 것으로 보고 지운다.
+ * 조회되지 않는 만료 항목은 시계 바늘이 지나가면서 먼저 치운다.
+ *
+ * 값으로 null 은 넣을 수 없다(null 은 "없음").
+ */
+public class BoundedCache<K, V> {
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<K, Node<K, V>> map;
+    private final FrequencySketch sketch;
+    private final CacheMetrics metrics = new CacheMetrics();
+
+    //CLOCK 링, 아래 필드는 evictionLock 안에서만 바꾼다
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final Node<K, V>[] ring;
+    private int used;
+    private int hand;
+
+    @SuppressWarnings("unchecked")
+    public BoundedCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize 는 1 이상이어야 합니다. maximumSize=" + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.map = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16));
+        this.sketch = new FrequencySketch(maximumSize);
+        this.ring = (Node<K, V>[]) new Node[maximumSize];
+    }
+
+    /** 없거나 만료되었으면 null */
+    public V get(K key) {
+        sketch.increment(key);
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            metrics.recordMiss();
+            return null;
+        }
+        if (node.isExpired(System.nanoTime())) {
+            //링의 자리는 시계 바늘이 지나갈 때 회수한다
+            if (map.remove(key, node)) {
+                metrics.recordExpiration();
+            }
+            metrics.recordMiss();
+            return null;
+        }
+        //이미 올라가 있으면 쓰지 않는다, 자주 읽는 항목의 캐시 라인을 코어끼리 뺏고 뺏기지 않도록
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        metrics.recordHit();
+        return node.value;
+    }
+
+    /**
+     * @param ttlNanos 0 이하면 저장하지 않는다
+     * @return 저장했으면 true, admission 에서 거절되었으면 false
+     */
+    public boolean put(K key, V value, long ttlNanos) {
+        if (value == null) {
+            throw new IllegalArgumentException("null 은 캐시할 수 없습니다. key=" + key);
+        }
+        if (ttlNanos <= 0) {
+            return false;
+        }
+        Node<K, V> node = new Node<>(key, value, System.nanoTime() + ttlNanos);
+        evictionLock.lock();
+        try {
+            Node<K, V> existing = map.get(key);
+            if (existing != null && existing.slot >= 0 && ring[existing.slot] == existing) {
+                //같은 키면 자리를 그대로 물려받는다
+                node.slot = existing.slot;
+            } else if (used < maximumSize) {
+                node.slot = used++;
+            } else {
+                int slot = findVictimSlot(key);
+                if (slot < 0) {
+                    metrics.recordRejection();
+                    return false;
+                }
+                node.slot = slot;
+            }
+            ring[node.slot] = node;
+            map.put(key, node);
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /** 밀어낼 자리를 찾는다, 새 키가 admission 에서 거절되면 -1 */
+    private int findVictimSlot(K candidateKey) {
+        long now = System.nanoTime();
+        //참조 비트는 한 바퀴에 모두 내려가므로 두 바퀴 안에 반드시 후보가 나온다
+        for (int i = 0; i < maximumSize * 2; i++) {
+            int slot = hand;
+            hand = (hand + 1 == maximumSize) ? 0 : hand + 1;
+            Node<K, V> node = ring[slot];
+            if (map.get(node.key) != node) {
+                //조회 중에 만료로 지워졌거나 다른 값으로 바뀐 자리
+                return slot;
+            }
+            if (node.isExpired(now)) {
+                if (map.remove(node.key, node)) {
+                    metrics.recordExpiration();
+                }
+                return slot;
+            }
+            if (node.referenced) {
+                node.referenced = false;
+                continue;
+            }
+            //TinyLFU, 새 키가 후보보다 자주 쓰였을 때만 교체
+            if (sketch.frequency(candidateKey) <= sketch.frequency(node.key)) {
+                return -1;
+            }
+            map.remove(node.key, node);
+            metrics.recordEviction();
+            return slot;
+        }
+        return -1;
+    }
+
+    public void invalidate(K key) {
+        map.remove(key);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public CacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    private static final class Node<K, V> {
+
+        final K key;
+        final V value;
+        final long expiresAtNanos;
+        //CLOCK 참조 비트, 조회 스레드는 올리기만 하므로 경쟁해도 결과가 같다
+        volatile boolean referenced;
+        //ring 안의 위치, evictionLock 안에서만 쓴다
+        int slot = -1;
+
+        Node(K key, V value, long expiresAtNanos) {
+            this.key = key;
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package hello.proxy.cache;
+
+import java.util.Arrays;
+
+/**
+ * 메서드 + 인수로 만든 캐시 키
+ *
+ * 조회할 때는 호출 인수 배열을 그대로 쓰고(복사 없음), 캐시에 저장할 때만 forStore() 로 인수 배열을 복사한다.
+ * 인수 안의 배열도 내용으로 비교한다(Arrays.deepEquals).
+ */
+public final class CacheKey {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final int methodId;
+    private final Object[] args;
+    private final int hash;
+
+    public CacheKey(int methodId, Object[] args) {
+        this.methodId = methodId;
+        this.args = (args == null) ? NO_ARGS : args;
+        this.hash = 31 * methodId + Arrays.deepHashCode(this.args);
+    }
+
+    //저장용 키, 호출한 쪽에서 인수 배열을 바꿔도 캐시 키가 바뀌지 않도록 복사
+    public CacheKey forStore() {
+        return (args.length == 0) ? this : new CacheKey(methodId, args.clone());
+    }
+
+    public int getMethodId() {
+        return methodId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey other = (CacheKey) o;
+        return methodId == other.methodId && hash == other.hash && Arrays.deepEquals(args, other.args);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheKey{methodId=" + methodId + ", args=" + Arrays.deepToString(args) + "}";
+    }
+}
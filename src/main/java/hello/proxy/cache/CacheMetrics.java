@@ -0,0 +1,74 @@
+package hello.proxy.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 캐시 적중, 실패, 제거 횟수
+ *
+ * hit : 캐시에서 찾음
+ * miss : 없거나 만료되어 target 을 호출함
+ * eviction : 크기 제한 때문에 다른 항목에 자리를 내주고 제거됨
+ * expiration : TTL 이 지나서 제거됨
+ * rejection : 새 항목의 접근 빈도가 밀려날 항목보다 낮아서 저장하지 않음(TinyLFU admission)
+ */
+public class CacheMetrics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void recordExpiration() {
+        expirations.increment();
+    }
+
+    void recordRejection() {
+        rejections.increment();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    public double getHitRate() {
+        long hit = getHitCount();
+        long total = hit + getMissCount();
+        return (total == 0) ? 0.0 : (double) hit / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheMetrics{hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + ", expirations=" + getExpirationCount()
+                + ", rejections=" + getRejectionCount() + "}";
+    }
+}
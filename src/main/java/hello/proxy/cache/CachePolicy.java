@@ -0,0 +1,46 @@
+package hello.proxy.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메서드별 캐시 유지 시간(TTL)
+ *
+ * 이름은 로그 메시지와 같은 "OrderServiceV1.orderItem()" 형식(MethodDescriptors.nameOf)
+ * 따로 정하지 않은 메서드는 defaultTtl, TTL 이 0 인 메서드는 캐시하지 않는다.
+ */
+public class CachePolicy {
+
+    private final long defaultTtlNanos;
+    private final Map<String, Long> methodTtlNanos;
+
+    public CachePolicy(long defaultTtl, TimeUnit unit, Map<String, Long> methodTtlNanos) {
+        this.defaultTtlNanos = unit.toNanos(defaultTtl);
+        this.methodTtlNanos = new HashMap<>(methodTtlNanos);
+    }
+
+    /**
+     * @param methodTtls "OrderRepositoryV1.find()=5000, OrderServiceV1.orderItem()=0" 형식, 단위는 ms
+     */
+    public static CachePolicy parse(long defaultTtlMs, String methodTtls) {
+        Map<String, Long> ttls = new HashMap<>();
+        if (methodTtls != null && !methodTtls.isBlank()) {
+            for (String entry : methodTtls.split(",")) {
+                int index = entry.lastIndexOf('=');
+                if (index < 0) {
+                    throw new IllegalArgumentException("메서드 TTL 형식이 잘못되었습니다. entry=" + entry);
+                }
+                long ttlMs = Long.parseLong(entry.substring(index + 1).trim());
+                ttls.put(entry.substring(0, index).trim(), TimeUnit.MILLISECONDS.toNanos(ttlMs));
+            }
+        }
+        return new CachePolicy(defaultTtlMs, TimeUnit.MILLISECONDS, ttls);
+    }
+
+    /** 0 이면 캐시하지 않음 */
+    public long ttlNanos(String methodName) {
+        Long ttl = methodTtlNanos.get(methodName);
+        return ttl != null ? ttl : defaultTtlNanos;
+    }
+}
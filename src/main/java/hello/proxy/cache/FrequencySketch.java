@@ -0,0 +1,107 @@
+package hello.proxy.cache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 키별 최근 접근 빈도를 대략 세는 Count-Min Sketch(TinyLFU)
+ *
+ * 키를 직접 저장하지 않고 4비트 카운터(최대 15) 16개를 long 하나에 담는다.
+ * 키 하나는 서로 다른 해시 4개로 카운터 4개를 올리고, 빈도는 그중 가장 작은 값이다(충돌이 있어도 크게 세지는 않음).
+ * 카운터를 올린 횟수가 sampleSize 에 도달하면 모든 카운터를 절반으로 줄여서 오래된 인기를 잊는다.
+ *
+ * 카운터는 CAS 로 올리므로 락이 없다. 절반으로 줄이는 중에 올라간 값 일부를 잃을 수 있지만 근사치라 문제 없다.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+    private static final int MAX_COUNT = 15;
+
+    private final AtomicLongArray table;
+    private final int tableMask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+    private final AtomicBoolean resetting = new AtomicBoolean();
+
+    FrequencySketch(int maximumSize) {
+        int length = Integer.highestOneBit(Math.max(16, maximumSize) - 1) << 1;
+        this.table = new AtomicLongArray(length);
+        this.tableMask = length - 1;
+        this.sampleSize = 10 * Math.max(16, maximumSize);
+    }
+
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = hash(hash, i);
+            int shift = shiftOf(h);
+            int count = (int) ((table.get(indexOf(h)) >>> shift) & 0xfL);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            long h = hash(hash, i);
+            added |= incrementAt(indexOf(h), shiftOf(h));
+        }
+        if (added && additions.incrementAndGet() >= sampleSize) {
+            reset();
+        }
+    }
+
+    private boolean incrementAt(int index, int shift) {
+        long mask = 0xfL << shift;
+        while (true) {
+            long value = table.get(index);
+            if ((value & mask) == mask) {
+                return false;
+            }
+            if (table.compareAndSet(index, value, value + (1L << shift))) {
+                return true;
+            }
+        }
+    }
+
+    //모든 카운터를 절반으로, 동시에 여러 스레드가 들어오면 하나만 한다
+    private void reset() {
+        if (!resetting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (int i = 0; i < table.length(); i++) {
+                long value;
+                do {
+                    value = table.get(i);
+                } while (!table.compareAndSet(i, value, (value >>> 1) & RESET_MASK));
+            }
+            additions.set(additions.get() / 2);
+        } finally {
+            resetting.set(false);
+        }
+    }
+
+    private static long hash(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        return h ^ (h >>> 32);
+    }
+
+    private int indexOf(long h) {
+        return (int) h & tableMask;
+    }
+
+    //long 안의 카운터 16개 중 하나(4비트 단위)
+    private static int shiftOf(long h) {
+        return (int) (h >>> 40 & 15) << 2;
+    }
+
+    private static int spread(int hash) {
+        return hash * 0x9e3779b9;
+    }
+}
@@ -0,0 +1,30 @@
+package hello.proxy.cache;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Method 마다 하나씩 주는 번호, CacheKey 의 메서드 부분으로 쓴다
+ *
+ * MethodDescriptor 번호는 "클래스 전체 이름.메서드()" 마다 하나라서
+ * 오버로드된 메서드가 번호를 같이 쓴다.
+ * 캐시 키로 쓰면 인수가 같을 때 다른 메서드의 결과를 돌려주게 되므로 Method 자체로 번호를 매긴다.
+ */
+public final class MethodIds {
+
+    private static final Map<Method, Integer> ids = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private MethodIds() {
+    }
+
+    public static int of(Method method) {
+        Integer id = ids.get(method);
+        if (id != null) {
+            return id;
+        }
+        return ids.computeIfAbsent(method, m -> nextId.incrementAndGet());
+    }
+}
@@ -0,0 +1,18 @@
+package hello.proxy.coalesce;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 같은 인수로 동시에 들어온 호출을 하나로 합쳐도 되는 메서드 표시
+ *
+ * 먼저 들어온 호출 하나만 target 을 실행하고, 실행 중에 같은 인수로 들어온 호출은 기다렸다가 같은 결과(또는 예외)를 받는다.
+ * 같은 인수면 결과가 같고, 한 번만 실행해도 되는 메서드에만 붙인다(조회, 멱등한 저장 등).
+ * 인터페이스 메서드에 붙여도 된다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalescible {
+}
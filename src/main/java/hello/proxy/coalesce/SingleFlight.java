@@ -0,0 +1,123 @@
+package hello.proxy.coalesce;
+
+import hello.proxy.cache.CacheKey;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 같은 키로 동시에 실행 중인 호출을 하나로 합친다(single-flight)
+ *
+ * 키마다 실행 중인 호출(Flight)을 하나만 등록한다.
+ * 먼저 등록한 호출(leader)이 실제로 실행하고, 실행 중에 같은 키로 들어온 호출(follower)은 등록된 Flight 가 끝나기를 기다려서
+ * 같은 결과를 돌려받는다. 예외도 같은 예외 객체를 그대로 다시 던진다(스택 트레이스는 leader 스레드의 것).
+ *
+ * 결과를 보관하지 않는다. 실행이 끝나면 바로 등록을 지우므로 그다음 호출은 다시 실행한다(캐시는 CachingAdvice).
+ * 기다리는 중에 인터럽트되어도 결과를 받을 때까지 기다리고, 인터럽트 상태는 다시 설정해 둔다.
+ */
+public class SingleFlight {
+
+    private final ConcurrentHashMap<CacheKey, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public Object execute(CacheKey key, Call call) throws Throwable {
+        Flight flight = new Flight(key);
+        Flight leader = join(flight);
+        if (leader != null) {
+            return leader.await();
+        }
+        Object result;
+        try {
+            result = call.call();
+        } catch (Throwable ex) {
+            fail(flight, ex);
+            throw ex;
+        }
+        complete(flight, result);
+        return result;
+    }
+
+    /**
+     * flight 를 등록한다
+     * @return 등록했으면(이 호출이 leader) null, 같은 키로 실행 중인 호출이 있으면 그 Flight
+     */
+    public Flight join(Flight flight) {
+        Flight leader = inFlight.putIfAbsent(flight.key, flight);
+        if (leader == null) {
+            executions.increment();
+        } else {
+            coalesced.increment();
+        }
+        return leader;
+    }
+
+    //leader 가 실행을 마치면 호출, 기다리던 follower 를 모두 깨운다
+    public void complete(Flight flight, Object result) {
+        flight.result = result;
+        finish(flight);
+    }
+
+    public void fail(Flight flight, Throwable ex) {
+        flight.error = ex;
+        finish(flight);
+    }
+
+    private void finish(Flight flight) {
+        inFlight.remove(flight.key, flight);
+        //result, error 는 countDown() -> await() 로 follower 스레드에 보인다
+        flight.done.countDown();
+    }
+
+    //실제로 실행한 호출 수
+    public long getExecutionCount() {
+        return executions.sum();
+    }
+
+    //실행하지 않고 다른 호출의 결과를 받은 호출 수
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @FunctionalInterface
+    public interface Call {
+        Object call() throws Throwable;
+    }
+
+    public static final class Flight {
+
+        private final CacheKey key;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Object result;
+        private Throwable error;
+
+        public Flight(CacheKey key) {
+            this.key = key;
+        }
+
+        //leader 가 끝날 때까지 기다렸다가 같은 결과를 반환하거나 같은 예외를 던진다
+        public Object await() throws Throwable {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (error != null) {
+                throw error;
+            }
+            return result;
+        }
+    }
+}
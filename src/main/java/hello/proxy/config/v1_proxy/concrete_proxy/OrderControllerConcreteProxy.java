@@ -1,6 +1,8 @@
 package hello.proxy.config.v1_proxy.concrete_proxy;
 
 import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.MethodDescriptors;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 
@@ -19,6 +21,9 @@ import hello.proxy.trace.logtrace.LogTrace;
  .*/
 public class OrderControllerConcreteProxy extends OrderControllerV2 {
 
+    //로그 메시지는 클래스 로딩 시점에 한 번만 등록
+    private static final MethodDescriptor REQUEST = MethodDescriptors.of("OrderController.request()");
+
     private final OrderControllerV2 target;
     private final LogTrace logTrace;
 
@@ -33,7 +38,7 @@ public class OrderControllerConcreteProxy extends OrderControllerV2 {
     public String request(String itemId) {
         TraceStatus status = null;
         try {
-            status = logTrace.begin("OrderController.request()");
+            status = logTrace.begin(REQUEST);
 
             //target 호출
             /**실제 객체 OrderControllerV2를 호출  */
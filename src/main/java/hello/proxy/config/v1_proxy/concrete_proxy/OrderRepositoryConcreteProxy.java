@@ -1,12 +1,17 @@
 package hello.proxy.config.v1_proxy.concrete_proxy;
 
 import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.MethodDescriptors;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 //구체 클래스 기반 프록시 - 적용
 //인터페이스가 아닌 실제 프록시 적용 대상이 되는 구체 클래스를 상속받아
 public class OrderRepositoryConcreteProxy extends OrderRepositoryV2 {
 
+    //로그 메시지는 클래스 로딩 시점에 한 번만 등록
+    private static final MethodDescriptor SAVE = MethodDescriptors.of("OrderRepository.request()");
+
     private final OrderRepositoryV2 target;
     private final LogTrace logTrace;
 
@@ -19,7 +24,7 @@ public class OrderRepositoryConcreteProxy extends OrderRepositoryV2 {
     public void save(String itemId) {
         TraceStatus status = null;
         try {
-            status = logTrace.begin("OrderRepository.request()");
+            status = logTrace.begin(SAVE);
             //target 호출
             target.save(itemId);
             logTrace.end(status);
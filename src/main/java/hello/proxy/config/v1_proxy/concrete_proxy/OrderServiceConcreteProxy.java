@@ -1,11 +1,16 @@
 package hello.proxy.config.v1_proxy.concrete_proxy;
 
 import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.MethodDescriptors;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 
 public class OrderServiceConcreteProxy extends OrderServiceV2 {
 
+    //로그 메시지는 클래스 로딩 시점에 한 번만 등록
+    private static final MethodDescriptor ORDER_ITEM = MethodDescriptors.of("OrderService.orderItem()");
+
     private final OrderServiceV2 target;
     private final LogTrace logTrace;
 
@@ -28,7 +33,7 @@ public class OrderServiceConcreteProxy extends OrderServiceV2 {
 
         TraceStatus status = null;
         try {
-            status = logTrace.begin("OrderService.orderItem()");
+            status = logTrace.begin(ORDER_ITEM);
             //target 호출
             target.orderItem(itemId);
             logTrace.end(status);
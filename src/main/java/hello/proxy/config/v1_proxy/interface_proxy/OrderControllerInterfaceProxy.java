@@ -1,6 +1,8 @@
 package hello.proxy.config.v1_proxy.interface_proxy;
 
 import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.MethodDescriptors;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +18,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OrderControllerInterfaceProxy implements OrderControllerV1 {
 
+    //로그 메시지는 클래스 로딩 시점에 한 번만 등록
+    private static final MethodDescriptor REQUEST = MethodDescriptors.of("OrderController.request()");
+
     //@Autowired 생략됨
     //OrderControllerV1 구현체를 주입받음
     //수동 등록된 빈이 주입되는
@@ -27,7 +32,7 @@ public class OrderControllerInterfaceProxy implements OrderControllerV1 {
 
         TraceStatus status = null;
         try {
-            status = logTrace.begin("OrderController.request()");
+            status = logTrace.begin(REQUEST);
             //target 호출
             /**
              * 클라이언트가 호출할 실제 객체 OrderControllerImplV1의 request를
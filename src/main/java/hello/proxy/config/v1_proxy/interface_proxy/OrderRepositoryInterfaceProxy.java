@@ -1,6 +1,8 @@
 package hello.proxy.config.v1_proxy.interface_proxy;
 
 import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.MethodDescriptors;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +10,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OrderRepositoryInterfaceProxy implements OrderRepositoryV1 {
 
+    //로그 메시지는 클래스 로딩 시점에 한 번만 등록
+    private static final MethodDescriptor SAVE = MethodDescriptors.of("OrderRepository.request()");
+
     //실제 객체 호출
     private final OrderRepositoryV1 target;
     private final LogTrace logTrace;
@@ -17,7 +22,7 @@ public class OrderRepositoryInterfaceProxy implements OrderRepositoryV1 {
 
         TraceStatus status = null;
         try {
-            status = logTrace.begin("OrderRepository.request()");
+            status = logTrace.begin(SAVE);
             //target 호출
             target.save(itemId);
             logTrace.end(status);
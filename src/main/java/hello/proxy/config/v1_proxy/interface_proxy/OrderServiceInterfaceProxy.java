@@ -2,6 +2,8 @@ package hello.proxy.config.v1_proxy.interface_proxy;
 
 import hello.proxy.app.v1.OrderRepositoryV1;
 import hello.proxy.app.v1.OrderServiceV1;
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.MethodDescriptors;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +11,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class OrderServiceInterfaceProxy implements OrderServiceV1 {
 
+    //로그 메시지는 클래스 로딩 시점에 한 번만 등록
+    private static final MethodDescriptor ORDER_ITEM = MethodDescriptors.of("OrderService.orderItem()");
+
     private final OrderServiceV1 target;
     private final LogTrace logTrace;
 
@@ -19,7 +24,7 @@ public class OrderServiceInterfaceProxy implements OrderServiceV1 {
 
         try {
 
-            status = logTrace.begin("OrderService.orderItem()");
+            status = logTrace.begin(ORDER_ITEM);
             //target 호출
             target.orderItem(itemId);
             logTrace.end(status);
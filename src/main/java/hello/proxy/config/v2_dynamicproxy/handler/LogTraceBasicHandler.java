@@ -1,5 +1,6 @@
 package hello.proxy.config.v2_dynamicproxy.handler;
 
+import hello.proxy.trace.MethodDescriptors;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 
@@ -16,11 +17,14 @@ public class LogTraceBasicHandler implements InvocationHandler {
     //프록시가 호출할 대상
     private final Object target;
     private final LogTrace logTrace;
+    //method.invoke() 대신 메서드별로 캐시한 MethodHandle 로 target 호출
+    private final MethodInvokers invokers;
 
     //클라이언트가 원래 호출하려던 대상인 구현체 target 주입받음
     public LogTraceBasicHandler(Object target, LogTrace logTrace) {
         this.target = target;
         this.logTrace = logTrace;
+        this.invokers = new MethodInvokers(target);
     }
 
     //Object proxy 프록시 자신
@@ -30,6 +34,8 @@ public class LogTraceBasicHandler implements InvocationHandler {
     //method.invoke(target, args) :
     //리플렉션을 사용해서 target 인스턴스의 메서드를 실행한다.
     //args는 메서드 호출시 넘겨줄 인수이다
+    //지금은 invokers.get(method).invoke(args) 로 바꿔서 접근 검사 없이 호출하고,
+    //target 의 예외도 InvocationTargetException 으로 감싸지 않고 그대로 받는다
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 
@@ -38,14 +44,12 @@ public class LogTraceBasicHandler implements InvocationHandler {
             //LogTrace 에 사용할 메시지이다. 프록시를 직접 개발할 때는 "OrderController.request()" 와
             //같이 프록시마다 호출되는 클래스와 메서드 이름을 직접 남겼다. 이제는 Method 를 통해서 호출되는
             //메서드 정보와 클래스 정보를 동적으로 확인할 수 있기 때문에 이 정보를 사용
-            String message = method.getDeclaringClass().getSimpleName() + "." +
-                    method.getName() + "()";
-
-            status = logTrace.begin(message);
+            //메시지는 Method 마다 처음 한 번만 만들어서 MethodDescriptors 에 보관한다
+            status = logTrace.begin(MethodDescriptors.of(method));
 
             //로직 호출
             //구현체인 target의 메서드 여기서 호출
-            Object result = method.invoke(target, args);
+            Object result = invokers.get(method).invoke(args);
 
             logTrace.end(status);
 
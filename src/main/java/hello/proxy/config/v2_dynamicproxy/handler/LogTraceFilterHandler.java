@@ -1,11 +1,19 @@
 package hello.proxy.config.v2_dynamicproxy.handler;
 
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.MethodDescriptors;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.PatternMatchUtils;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**http://localhost:8080/v1/no-log
 //요구사항에 의해 이것을 호출 했을 때는 로그가 남으면 안된다.
@@ -25,7 +33,16 @@ import java.lang.reflect.Method;
 //*xxx* : xxx가 있으면 참
 //String[] patterns : 적용할 패턴은 생성자를 통해서 외부에서 받는다
 
-//특정 패턴은 설정 클래스에 배열로 만들어놓음 */
+//특정 패턴은 설정 클래스에 배열로 만들어놓음
+
+//메서드 이름은 바뀌지 않으니 패턴 매칭 결과도 바뀌지 않는다.
+//프록시가 받을 수 있는 메서드는 target 이 구현한 인터페이스의 메서드(+ equals, hashCode, toString)가 전부라서
+//생성자에서 한 번에 매칭하고 결과(로그 대상 여부, MethodDescriptor, 호출기)를 TracedMethod 배열에 넣어 둔다.
+//배열 위치는 Method.hashCode() 로 정하기 때문에 호출할 때는 배열 한 칸 읽기 + Method 비교라서
+//패턴이 수백 개로 늘어나도, 호출이 몇 번이 되어도 비용이 같다. 락이나 ConcurrentHashMap 조회도 없다.
+//프록시 클래스가 넘기는 Method 는 getMethods() 로 얻은 것과 다른 객체라서 == 로는 찾지 못한다.
+//그래서 처음 equals 로 찾았을 때 그 Method 객체를 기억해 두고, 이후에는 == 비교만 한다.
+//프록시 클래스는 Method 를 static 필드에 한 번만 만들어 두므로 같은 메서드는 항상 같은 객체로 들어온다. */
 public class LogTraceFilterHandler implements InvocationHandler {
 
     //프록시가 호출할 대상
@@ -33,6 +50,13 @@ public class LogTraceFilterHandler implements InvocationHandler {
     private final LogTrace logTrace;
     //메서드명이 이거일때만 로그를 남기는
     private final String[] patterns;
+    //Method.hashCode() 로 위치를 정한 메서드별 매칭 결과, 생성자에서 다 채우고 이후에는 읽기만 한다
+    private final TracedMethod[] tracedMethods;
+    private final int mask;
+    //target 이 구현하지 않은 인터페이스의 메서드, 처음 한 번만 만든다
+    private final ConcurrentHashMap<Method, TracedMethod> otherMethods = new ConcurrentHashMap<>();
+    //패턴 매칭을 실행한 횟수, 메서드마다 한 번
+    private final AtomicInteger matchCount = new AtomicInteger();
 
     //클라이언트가 원래 호출하려던 대상인 구현체 target 주입받음
     //생성자로 패턴을 주입받음
@@ -40,6 +64,19 @@ public class LogTraceFilterHandler implements InvocationHandler {
         this.target = target;
         this.logTrace = logTrace;
         this.patterns = patterns;
+
+        Set<Method> methods = proxiedMethods(target.getClass());
+        //절반 이상 비워 두어서 대부분 첫 칸에서 찾는다
+        int size = Integer.highestOneBit(methods.size() * 2 - 1) << 1;
+        this.tracedMethods = new TracedMethod[size];
+        this.mask = size - 1;
+        for (Method method : methods) {
+            int i = method.hashCode() & mask;
+            while (tracedMethods[i] != null) {
+                i = (i + 1) & mask;
+            }
+            tracedMethods[i] = createTracedMethod(method);
+        }
     }
 
     //Object proxy 프록시 자신
@@ -49,27 +86,25 @@ public class LogTraceFilterHandler implements InvocationHandler {
     //method.invoke(target, args) :
     //리플렉션을 사용해서 target 인스턴스의 메서드를 실행한다.
     //args는 메서드 호출시 넘겨줄 인수이다
+    //지금은 메서드별로 만들어 둔 tracedMethod.invoker 로 접근 검사 없이 호출하고,
+    //target 의 예외도 InvocationTargetException 으로 감싸지 않고 그대로 받는다
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 
-        //프록시가 호출하는 메서드 이름을 가져옴
-        String methodName = method.getName();
+        TracedMethod tracedMethod = tracedMethod(method);
 
-        //가져온 메서드이름과 패턴 배열을 넣고 매칭되는지 확인,
-        //매칭이 안되면 밑에 코드처럼 로그를 출력하는 코드를 실행안하는
-        //method.invoke(target, args); 이 코드에 너무 연연하지 말자?
-        if (!PatternMatchUtils.simpleMatch(patterns, methodName)) {
-            return method.invoke(target, args);
+        //패턴에 매칭이 안되면 밑에 코드처럼 로그를 출력하는 코드를 실행안하는
+        //매칭 결과는 생성자에서 한 번만 계산해 둔 값
+        if (!tracedMethod.traced) {
+            return tracedMethod.invoker.invoke(args);
         }
 
         TraceStatus status = null;
         try {
-            String message = method.getDeclaringClass().getSimpleName() + "." +
-                    method.getName() + "()";
-            status = logTrace.begin(message);
+            status = logTrace.begin(tracedMethod.descriptor);
 
             //로직 호출
-            Object result = method.invoke(target, args);
+            Object result = tracedMethod.invoker.invoke(args);
             logTrace.end(status);
 
             return result;
@@ -79,4 +114,70 @@ public class LogTraceFilterHandler implements InvocationHandler {
             throw e;
         }
     }
+
+    public int getMatchCount() {
+        return matchCount.get();
+    }
+
+    private TracedMethod tracedMethod(Method method) {
+        int start = method.hashCode() & mask;
+        TracedMethod tracedMethod;
+        //프록시 클래스의 Method 객체를 한 번 본 뒤로는 == 로 찾는다
+        for (int i = start; (tracedMethod = tracedMethods[i]) != null; i = (i + 1) & mask) {
+            if (tracedMethod.seen == method) {
+                return tracedMethod;
+            }
+        }
+        //처음 보는 Method 객체, equals 로 찾고 기억해 둔다
+        for (int i = start; (tracedMethod = tracedMethods[i]) != null; i = (i + 1) & mask) {
+            if (tracedMethod.method.equals(method)) {
+                tracedMethod.seen = method;
+                return tracedMethod;
+            }
+        }
+        //target 이 구현하지 않은 인터페이스로 프록시를 만든 경우만 여기로 온다
+        TracedMethod other = otherMethods.get(method);
+        if (other != null) {
+            return other;
+        }
+        return otherMethods.computeIfAbsent(method, this::createTracedMethod);
+    }
+
+    //가져온 메서드이름과 패턴 배열을 넣고 매칭되는지 확인, 메서드마다 한 번만 실행된다
+    private TracedMethod createTracedMethod(Method method) {
+        matchCount.incrementAndGet();
+        boolean traced = PatternMatchUtils.simpleMatch(patterns, method.getName());
+        return new TracedMethod(method, traced, MethodDescriptors.of(method), MethodInvokers.create(target, method));
+    }
+
+    //JDK 동적 프록시는 인터페이스 메서드와 Object 의 equals, hashCode, toString 만 핸들러로 넘긴다
+    private static Set<Method> proxiedMethods(Class<?> targetClass) {
+        Set<Method> methods = new LinkedHashSet<>();
+        for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+            methods.addAll(Arrays.asList(ifc.getMethods()));
+        }
+        methods.add(ClassUtils.getMethod(Object.class, "equals", Object.class));
+        methods.add(ClassUtils.getMethod(Object.class, "hashCode"));
+        methods.add(ClassUtils.getMethod(Object.class, "toString"));
+        return methods;
+    }
+
+    private static class TracedMethod {
+
+        private final Method method;
+        private final boolean traced;
+        private final MethodDescriptor descriptor;
+        private final MethodInvoker invoker;
+        //마지막으로 equals 로 찾은 프록시 쪽 Method 객체
+        //volatile 이 아니라서 다른 스레드는 늦게 볼 수 있지만, 그동안은 equals 로 찾을 뿐 결과는 같다
+        private Method seen;
+
+        TracedMethod(Method method, boolean traced, MethodDescriptor descriptor, MethodInvoker invoker) {
+            this.method = method;
+            this.seen = method;
+            this.traced = traced;
+            this.descriptor = descriptor;
+            this.invoker = invoker;
+        }
+    }
 }
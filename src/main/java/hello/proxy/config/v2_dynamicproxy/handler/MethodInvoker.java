@@ -0,0 +1,12 @@
+package hello.proxy.config.v2_dynamicproxy.handler;
+
+/**
+ * target 에 이미 묶여 있는 메서드 호출기
+ *
+ * target 의 메서드가 던진 예외는 InvocationTargetException 으로 감싸지 않고 그대로 던진다.
+ */
+@FunctionalInterface
+public interface MethodInvoker {
+
+    Object invoke(Object[] args) throws Throwable;
+}
@@ -0,0 +1,205 @@
+package hello.proxy.config.v2_dynamicproxy.handler;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 핸들러 하나(target 하나)에 대한 Method -> MethodInvoker 캐시
+ *
+ * method.invoke(target, args) 의 문제
+ * 1. 호출할 때마다 리플렉션 접근 검사를 거친다.
+ * 2. target 이 던진 예외가 InvocationTargetException 으로 감싸져서 나온다.
+ *    핸들러는 이걸 그대로 로그에 남기고 다시 던지기 때문에 클라이언트는 원래 예외(IllegalStateException 등)를 받지 못한다.
+ *
+ * 그래서 메서드마다 처음 한 번만 호출기를 만들어 캐시한다.
+ * 1. 인수가 3개 이하면 LambdaMetafactory 로 target 을 미리 잡은 람다(ArityN)를 만든다.
+ *    람다 클래스 안에서 target 메서드를 invokeinterface/invokevirtual 로 직접 부르므로 JIT 이 인라인할 수 있다.
+ *    MethodHandle 을 필드에 두고 invokeExact 하면 핸들이 상수가 아니라서 인라인되지 않고 리플렉션과 비슷하게 느리다.
+ * 2. 인수가 더 많거나 람다를 만들 수 없으면 target 을 미리 묶고(bindTo) 인수 배열을 펼치는(asSpreader) MethodHandle.
+ * 이후 호출은 Map 조회 한 번 + 람다(또는 invokeExact) 호출이고, 예외도 감싸지지 않고 그대로 올라온다.
+ *
+ * public 이 아니라서 MethodHandle 을 만들 수 없는 메서드만 리플렉션으로 호출하고,
+ * 이때도 InvocationTargetException 은 벗겨서 원래 예외를 던진다.
+ *
+ * 호출할 메서드를 미리 다 아는 곳(LogTraceFilterHandler)은 Map 없이 create() 로 바로 만들어 쓴다.
+ */
+public class MethodInvokers {
+
+    //invokeExact 에 맞추기 위해 모든 핸들을 (Object[])Object 형태로 바꾼다
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+    //람다 클래스는 이 클래스의 nestmate 로 만들어진다
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Object target;
+    private final ConcurrentHashMap<Method, MethodInvoker> invokers = new ConcurrentHashMap<>();
+
+    public MethodInvokers(Object target) {
+        this.target = target;
+    }
+
+    public MethodInvoker get(Method method) {
+        MethodInvoker invoker = invokers.get(method);
+        if (invoker != null) {
+            return invoker;
+        }
+        return invokers.computeIfAbsent(method, m -> create(target, m));
+    }
+
+    public static MethodInvoker create(Object target, Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            return reflective(target, method);
+        }
+
+        MethodInvoker invoker = lambda(target, method, handle);
+        if (invoker != null) {
+            return invoker;
+        }
+
+        MethodHandle spreader = handle.bindTo(target)
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(INVOKER_TYPE);
+        return args -> (Object) spreader.invokeExact(args);
+    }
+
+    //인수 개수, void 여부에 맞는 ArityN 람다를 만들고 (Object[])Object 로 감싼다, 만들 수 없으면 null
+    private static MethodInvoker lambda(Object target, Method method, MethodHandle handle) {
+        int arity = method.getParameterCount();
+        boolean isVoid = method.getReturnType() == void.class;
+        if (arity > 3 || !isVisible(method.getDeclaringClass())) {
+            return null;
+        }
+
+        Object f;
+        try {
+            f = metafactory(target, method, handle, isVoid ? VOID_ARITIES[arity] : ARITIES[arity]);
+        } catch (Throwable e) {
+            return null;
+        }
+
+        switch (arity) {
+            case 0:
+                if (isVoid) {
+                    VoidArity0 v0 = (VoidArity0) f;
+                    return args -> {
+                        v0.invoke();
+                        return null;
+                    };
+                }
+                Arity0 a0 = (Arity0) f;
+                return args -> a0.invoke();
+            case 1:
+                if (isVoid) {
+                    VoidArity1 v1 = (VoidArity1) f;
+                    return args -> {
+                        v1.invoke(args[0]);
+                        return null;
+                    };
+                }
+                Arity1 a1 = (Arity1) f;
+                return args -> a1.invoke(args[0]);
+            case 2:
+                if (isVoid) {
+                    VoidArity2 v2 = (VoidArity2) f;
+                    return args -> {
+                        v2.invoke(args[0], args[1]);
+                        return null;
+                    };
+                }
+                Arity2 a2 = (Arity2) f;
+                return args -> a2.invoke(args[0], args[1]);
+            default:
+                if (isVoid) {
+                    VoidArity3 v3 = (VoidArity3) f;
+                    return args -> {
+                        v3.invoke(args[0], args[1], args[2]);
+                        return null;
+                    };
+                }
+                Arity3 a3 = (Arity3) f;
+                return args -> a3.invoke(args[0], args[1], args[2]);
+        }
+    }
+
+    private static Object metafactory(Object target, Method method, MethodHandle handle, Class<?> arityType) throws Throwable {
+        Method sam = arityType.getMethods()[0];
+        MethodType samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+        //int 인수는 Integer 로 받아서 언박싱, int 반환은 박싱해서 Object 로
+        MethodType instantiatedType = MethodType.methodType(method.getReturnType(), method.getParameterTypes()).wrap();
+        if (method.getReturnType() == void.class) {
+            instantiatedType = instantiatedType.changeReturnType(void.class);
+        }
+        CallSite site = LambdaMetafactory.metafactory(LOOKUP, "invoke",
+                MethodType.methodType(arityType, method.getDeclaringClass()),
+                samType, handle, instantiatedType);
+        return site.getTarget().invoke(target);
+    }
+
+    //람다 클래스는 이 클래스의 클래스 로더에서 만들어지므로, 그 로더가 target 의 타입을 볼 수 있어야 한다
+    private static boolean isVisible(Class<?> type) {
+        try {
+            return Class.forName(type.getName(), false, MethodInvokers.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static MethodInvoker reflective(Object target, Method method) {
+        try {
+            method.setAccessible(true);
+        } catch (InaccessibleObjectException | SecurityException e) {
+            //모듈이 열려 있지 않으면 접근 검사를 끄지 못한다, 그대로 호출해 보고 안 되면 IllegalAccessException
+        }
+        return args -> {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private static final Class<?>[] ARITIES = {Arity0.class, Arity1.class, Arity2.class, Arity3.class};
+    private static final Class<?>[] VOID_ARITIES = {VoidArity0.class, VoidArity1.class, VoidArity2.class, VoidArity3.class};
+
+    interface Arity0 {
+        Object invoke() throws Throwable;
+    }
+
+    interface Arity1 {
+        Object invoke(Object a0) throws Throwable;
+    }
+
+    interface Arity2 {
+        Object invoke(Object a0, Object a1) throws Throwable;
+    }
+
+    interface Arity3 {
+        Object invoke(Object a0, Object a1, Object a2) throws Throwable;
+    }
+
+    interface VoidArity0 {
+        void invoke() throws Throwable;
+    }
+
+    interface VoidArity1 {
+        void invoke(Object a0) throws Throwable;
+    }
+
+    interface VoidArity2 {
+        void invoke(Object a0, Object a1) throws Throwable;
+    }
+
+    interface VoidArity3 {
+        void invoke(Object a0, Object a1, Object a2) throws Throwable;
+    }
+}
@@ -0,0 +1,109 @@
+package hello.proxy.config.v3_proxyfactory;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.framework.AopConfigException;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 프록시를 프록시로 감싸지 않는 ProxyFactory
+ *
+ * new ProxyFactory(proxy1) 처럼 이미 프록시인 객체를 target 으로 주면
+ * client -> proxy2(advisor2) -> proxy1(advisor1) -> target
+ * 호출마다 프록시를 두 번 지나간다. 빈 후처리기 N 개가 각각 프록시를 만들면 N 번 지나간다.
+ *
+ * FlatProxyFactory 는 target 이 Advised(스프링 AOP 프록시)이면 안쪽 프록시를 풀어서
+ * 실제 target 하나에 어드바이저를 모두 모은 프록시 하나를 만든다.
+ * client -> proxy(advisor2, advisor1) -> target
+ *
+ * 호출 순서는 프록시를 겹쳤을 때와 같다. 나중에 추가한(바깥) 어드바이저가 안쪽 프록시의 어드바이저보다 먼저 호출된다.
+ * 안쪽 프록시는 건드리지 않는다(frozen 이어도 된다).
+ * TargetSource 가 static 이 아닌 프록시(풀링, 핫스왑 등)는 호출마다 target 이 바뀌므로 풀지 않고 그대로 감싼다.
+ */
+public class FlatProxyFactory extends ProxyFactory {
+
+    //어드바이저 목록 뒤쪽에 있는 안쪽 프록시 어드바이저 수, 새 어드바이저는 그 앞에 넣는다
+    private final int innerAdvisorCount;
+    private final boolean flattened;
+
+    public FlatProxyFactory(Object target) {
+        List<Advisor> innerAdvisors = new ArrayList<>();
+        List<Class<?>> innerInterfaces = new ArrayList<>();
+        boolean proxyTargetClass = false;
+        boolean exposeProxy = false;
+
+        Object current = target;
+        while (current instanceof Advised) {
+            Advised advised = (Advised) current;
+            TargetSource targetSource = advised.getTargetSource();
+            if (!targetSource.isStatic()) {
+                break;
+            }
+            for (Advisor advisor : advised.getAdvisors()) {
+                innerAdvisors.add(advisor);
+            }
+            for (Class<?> proxiedInterface : advised.getProxiedInterfaces()) {
+                innerInterfaces.add(proxiedInterface);
+            }
+            proxyTargetClass |= advised.isProxyTargetClass() || AopUtils.isCglibProxy(current);
+            exposeProxy |= advised.isExposeProxy();
+            current = targetOf(targetSource);
+        }
+
+        setTarget(current);
+        setInterfaces(ClassUtils.getAllInterfaces(current));
+        //안쪽 프록시가 도입(introduction)한 인터페이스도 유지
+        for (Class<?> innerInterface : innerInterfaces) {
+            addInterface(innerInterface);
+        }
+        setProxyTargetClass(proxyTargetClass);
+        setExposeProxy(exposeProxy);
+        for (Advisor advisor : innerAdvisors) {
+            super.addAdvisor(advisor);
+        }
+        this.innerAdvisorCount = innerAdvisors.size();
+        this.flattened = current != target;
+    }
+
+    private static Object targetOf(TargetSource targetSource) {
+        try {
+            return targetSource.getTarget();
+        } catch (Exception e) {
+            throw new AopConfigException("안쪽 프록시의 target 을 꺼낼 수 없습니다. targetSource=" + targetSource, e);
+        }
+    }
+
+    @Override
+    public void addAdvisor(Advisor advisor) throws AopConfigException {
+        addAdvisor(outerPosition(), advisor);
+    }
+
+    @Override
+    public void addAdvisors(Collection<Advisor> advisors) {
+        for (Advisor advisor : advisors) {
+            addAdvisor(advisor);
+        }
+    }
+
+    @Override
+    public void addAdvice(Advice advice) throws AopConfigException {
+        addAdvice(outerPosition(), advice);
+    }
+
+    private int outerPosition() {
+        return getAdvisorCount() - innerAdvisorCount;
+    }
+
+    //안쪽 프록시를 풀어서 합쳤는지
+    public boolean isFlattened() {
+        return flattened;
+    }
+}
@@ -2,14 +2,19 @@ package hello.proxy.config.v3_proxyfactory;
 
 import hello.proxy.app.v1.*;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.config.v3_proxyfactory.advice.RateLimitAdvice;
+import hello.proxy.config.v3_proxyfactory.fusion.AdviceFusion;
+import hello.proxy.ratelimit.RateLimiter;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
 import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 
 /** 프록시 팩토리 사용,
  *
@@ -17,8 +22,16 @@ import org.springframework.context.annotation.Configuration;
  * */
 @Slf4j
 @Configuration
+@Import(RateLimitConfig.class)
 public class ProxyFactoryConfigV1 {
 
+    //ratelimit.enabled=true 일 때만 있다
+    private final ObjectProvider<RateLimiter> rateLimiter;
+
+    public ProxyFactoryConfigV1(ObjectProvider<RateLimiter> rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
     @Bean
     public OrderControllerV1 orderControllerV1(LogTrace logTrace) {
         //서비스를 파라미터로 받는 구현 객체 생성, 실제 객체
@@ -28,14 +41,21 @@ public class ProxyFactoryConfigV1 {
         /** 인터페이스 사용하므로 JDK 동적 프록시 적용*/
         ProxyFactory factory = new ProxyFactory(orderController);
 
+        //비율 제한을 먼저 추가해서 로그 추적 어드바이저보다 바깥에 둔다, 거절된 요청은 로그를 남기지 않는다
+        addRateLimit(factory);
+
         //프록시 팩토리에 어드바이저 추가
         //하나의 어드바이스 하나의 포인트컷 하나의 어드바이저
         //getAdvisor() 에서 포인트컷 어드바이스 만들어 어드아비저 객체에 넣어 어드바이저 반환
         factory.addAdvisor(getAdvisor(logTrace));
 
+        //비율 제한 + 로그 추적 어드바이저를 FusedInterceptor 하나로 합친다, 호출마다 인터셉터 체인을 한 단계만 탄다
+        //비율 제한이 꺼져 있어서 어드바이저가 하나뿐이면 아무것도 바꾸지 않는다
+        boolean fused = AdviceFusion.fuse(factory);
+
         //프록시 객체 가져옴, 실제 객체 타입으로 캐스팅
         OrderControllerV1 proxy = (OrderControllerV1) factory.getProxy();
-        log.info("ProxyFactory proxy={}, target={}", proxy.getClass(), orderController.getClass());
+        log.info("ProxyFactory proxy={}, target={}, fused={}", proxy.getClass(), orderController.getClass(), fused);
 
         //프록시 객체 반환
         return proxy;
@@ -67,6 +87,15 @@ public class ProxyFactoryConfigV1 {
         return proxy;
     }
 
+    //request(itemId) 의 itemId 마다, 그리고 전체로 호출 비율 제한
+    private void addRateLimit(ProxyFactory factory) {
+        rateLimiter.ifAvailable(limiter -> {
+            NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+            pointcut.setMappedNames("request*");
+            factory.addAdvisor(new DefaultPointcutAdvisor(pointcut, new RateLimitAdvice(limiter)));
+        });
+    }
+
     private Advisor getAdvisor(LogTrace logTrace) {
         /**pointcut 생성
          *
@@ -0,0 +1,42 @@
+package hello.proxy.config.v3_proxyfactory;
+
+import hello.proxy.ratelimit.KeyedTokenBuckets;
+import hello.proxy.ratelimit.RateLimitKeyResolver;
+import hello.proxy.ratelimit.RateLimitMode;
+import hello.proxy.ratelimit.RateLimiter;
+import hello.proxy.ratelimit.TokenBucket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ratelimit.enabled=true 일 때만 RateLimiter 를 빈으로 등록
+ *
+ * ProxyFactoryConfigV1 은 이 빈이 있으면 컨트롤러 프록시에 RateLimitAdvice 를,
+ * AopConfig 는 RateLimitAspect 를 추가한다. 어느 쪽이든 같은 RateLimiter 를 쓴다.
+ * permits-per-second 가 0 이면 그 제한(키별 또는 전체)은 끈다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ratelimit.enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(@Value("${ratelimit.mode:FAIL_FAST}") RateLimitMode mode,
+                                   @Value("${ratelimit.max-wait-ms:100}") long maxWaitMs,
+                                   @Value("${ratelimit.key-arg-index:0}") int keyArgIndex,
+                                   @Value("${ratelimit.max-keys:10000}") int maxKeys,
+                                   @Value("${ratelimit.key.permits-per-second:10}") double keyPermitsPerSecond,
+                                   @Value("${ratelimit.key.burst:20}") int keyBurst,
+                                   @Value("${ratelimit.global.permits-per-second:200}") double globalPermitsPerSecond,
+                                   @Value("${ratelimit.global.burst:400}") int globalBurst) {
+        KeyedTokenBuckets keyBuckets = keyPermitsPerSecond > 0
+                ? new KeyedTokenBuckets(maxKeys, keyBurst, keyPermitsPerSecond) : null;
+        TokenBucket globalBucket = globalPermitsPerSecond > 0
+                ? new TokenBucket(globalBurst, globalPermitsPerSecond) : null;
+        return new RateLimiter("OrderControllerV1.request()", RateLimitKeyResolver.argument(keyArgIndex),
+                keyBuckets, globalBucket, mode, maxWaitMs, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,201 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import hello.proxy.batch.BulkSave;
+import hello.proxy.batch.WriteBehindBatcher;
+import hello.proxy.config.v3_proxyfactory.fusion.FusibleAdvice;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * save(item) 호출을 모아서 BulkSave.saveAll(items) 로 한 번에 저장하는 어드바이스
+ *
+ * target 이 BulkSave 를 구현하거나 public saveAll(List) 메서드가 있고, 인수가 하나인 메서드에만 동작한다. 나머지는 그대로 proceed()
+ * target + 메서드마다 WriteBehindBatcher 를 하나씩 만든다(flusher 스레드 하나).
+ *
+ * void 메서드는 자기 항목이 들어간 배치가 저장될 때까지 기다렸다가 반환한다(실패하면 그 예외를 던진다).
+ * waitTimeout 안에 저장되지 않으면 IllegalStateException, 항목은 큐에 남아 있어서 나중에 저장될 수 있다.
+ * CompletableFuture, CompletionStage, Future 를 반환하는 메서드는 기다리지 않고 바로 future 를 반환한다(write-behind).
+ *
+ * 저장은 flusher 스레드에서 target 을 직접 호출하므로 이 어드바이스 안쪽의 어드바이스는 호출되지 않는다.
+ * 포인트컷은 saveAll 과 같은 저장을 하는 단건 메서드(save)에만 걸어야 한다.
+ */
+public class BatchingAdvice implements FusibleAdvice {
+
+    private static final Object PROCEED = new Object();
+    private static final Method NO_SAVE_ALL = ReflectionUtils.findMethod(Object.class, "toString");
+
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final int queueCapacity;
+    private final long waitTimeoutNanos;
+    private final Map<BatcherKey, WriteBehindBatcher<Object>> batchers = new ConcurrentHashMap<>();
+    //target 클래스 -> saveAll(List) 메서드, 없으면 NO_SAVE_ALL
+    private final Map<Class<?>, Method> saveAllMethods = new ConcurrentHashMap<>();
+
+    public BatchingAdvice(int maxBatchSize, long linger, TimeUnit unit, int queueCapacity) {
+        this(maxBatchSize, linger, unit, queueCapacity, TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * @param waitTimeoutMs void 메서드가 자기 항목이 저장되기를 기다리는 최대 시간(ms)
+     */
+    public BatchingAdvice(int maxBatchSize, long linger, TimeUnit unit, int queueCapacity, long waitTimeoutMs) {
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = unit.toNanos(linger);
+        this.queueCapacity = queueCapacity;
+        this.waitTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = batch(invocation);
+        return result == PROCEED ? invocation.proceed() : result;
+    }
+
+    //FusedInterceptor 에서 호출, 배치로 저장했으면 안쪽 어드바이스와 target 을 건너뛴다
+    @Override
+    public Object before(MethodInvocation invocation) throws Throwable {
+        Object result = batch(invocation);
+        return result == PROCEED ? PROCEED : FusibleAdvice.shortCircuit(result);
+    }
+
+    @Override
+    public Object afterReturning(Object state, Object result) {
+        return result;
+    }
+
+    @Override
+    public void afterThrowing(Object state, Throwable ex) {
+    }
+
+    private Object batch(MethodInvocation invocation) throws Throwable {
+        Object target = invocation.getThis();
+        Method method = invocation.getMethod();
+        if (method.getParameterCount() != 1 || isBulkSave(method) || !supportsBulkSave(target)) {
+            return PROCEED;
+        }
+
+        CompletableFuture<Void> future = batcherOf(target, method).submit(invocation.getArguments()[0]);
+        if (returnsFuture(method)) {
+            return future;
+        }
+        try {
+            future.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("배치 저장을 기다리다 시간 초과. method=" + method.getName()
+                    + ", timeoutMs=" + TimeUnit.NANOSECONDS.toMillis(waitTimeoutNanos));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private WriteBehindBatcher<Object> batcherOf(Object target, Method method) {
+        BatcherKey key = new BatcherKey(target, method);
+        WriteBehindBatcher<Object> batcher = batchers.get(key);
+        if (batcher != null) {
+            return batcher;
+        }
+        return batchers.computeIfAbsent(key, k -> new WriteBehindBatcher<>(
+                target.getClass().getSimpleName() + "." + method.getName(),
+                bulkSaveOf(target),
+                maxBatchSize, lingerNanos, TimeUnit.NANOSECONDS, queueCapacity));
+    }
+
+    private boolean supportsBulkSave(Object target) {
+        return target instanceof BulkSave || saveAllMethod(target.getClass()) != NO_SAVE_ALL;
+    }
+
+    @SuppressWarnings("unchecked")
+    private BulkSave<Object> bulkSaveOf(Object target) {
+        if (target instanceof BulkSave) {
+            return (BulkSave<Object>) target;
+        }
+        Method saveAll = saveAllMethod(target.getClass());
+        return items -> ReflectionUtils.invokeMethod(saveAll, target, items);
+    }
+
+    private Method saveAllMethod(Class<?> targetClass) {
+        Method saveAll = saveAllMethods.get(targetClass);
+        if (saveAll != null) {
+            return saveAll;
+        }
+        //public 메서드만 찾는다, 클래스가 public 이 아니어도 호출할 수 있게 setAccessible
+        return saveAllMethods.computeIfAbsent(targetClass, c -> {
+            Method found = ClassUtils.getMethodIfAvailable(c, "saveAll", List.class);
+            if (found == null) {
+                return NO_SAVE_ALL;
+            }
+            ReflectionUtils.makeAccessible(found);
+            return found;
+        });
+    }
+
+    private static boolean isBulkSave(Method method) {
+        return method.getName().equals("saveAll") && method.getParameterTypes()[0] == List.class;
+    }
+
+    private static boolean returnsFuture(Method method) {
+        Class<?> returnType = method.getReturnType();
+        return returnType == CompletableFuture.class || returnType == CompletionStage.class || returnType == Future.class;
+    }
+
+    /** 스프링 빈으로 등록하면 컨테이너 종료 시 호출, 큐에 남은 항목을 모두 저장하고 종료 */
+    public void close() throws InterruptedException {
+        for (WriteBehindBatcher<Object> batcher : batchers.values()) {
+            batcher.close();
+        }
+    }
+
+    //배치 수, 저장한 항목 수로 평균 배치 크기를 본다
+    public long getBatchCount() {
+        return batchers.values().stream().mapToLong(WriteBehindBatcher::getBatchCount).sum();
+    }
+
+    public long getItemCount() {
+        return batchers.values().stream().mapToLong(WriteBehindBatcher::getItemCount).sum();
+    }
+
+    private static final class BatcherKey {
+
+        private final Object target;
+        private final Method method;
+
+        BatcherKey(Object target, Method method) {
+            this.target = target;
+            this.method = method;
+        }
+
+        //target 은 equals() 가 아니라 같은 객체인지로 비교
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BatcherKey)) {
+                return false;
+            }
+            BatcherKey other = (BatcherKey) o;
+            return target == other.target && method.equals(other.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(target), method);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import hello.proxy.cache.BoundedCache;
+import hello.proxy.cache.CacheKey;
+import hello.proxy.cache.CachePolicy;
+import hello.proxy.cache.MethodIds;
+import hello.proxy.config.v3_proxyfactory.fusion.FusibleAdvice;
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.MethodDescriptors;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메서드 반환값을 캐시하는 어드바이스
+ *
+ * 키는 메서드(MethodIds 번호) + 인수, 같은 인수로 다시 호출하면 target 을 호출하지 않고 캐시한 값을 돌려준다.
+ * ProxyFactory.addAdvice(), DefaultPointcutAdvisor 에 그대로 쓸 수 있다(AutoProxyConfig 의 어드바이저와 같은 방식).
+ *
+ * 캐시 적중 경로에서 새로 만드는 객체는 CacheKey 하나뿐이다. 저장할 때만 인수 배열을 복사한다.
+ * 메서드별 설정(번호, TTL)은 Method 마다 처음 한 번만 계산한다.
+ *
+ * void 메서드와 TTL 이 0 인 메서드는 캐시하지 않고 그대로 호출한다. 예외는 캐시하지 않는다.
+ * 번호는 Method 마다 하나라서 같은 클래스의 빈이 여럿이면 캐시를 함께 쓴다. TTL 설정만 "클래스 단순 이름.메서드()" 로 찾는다.
+ */
+public class CachingAdvice implements FusibleAdvice {
+
+    //null 반환도 캐시하기 위한 표시, BoundedCache 는 null 을 "없음" 으로 쓴다
+    private static final Object NULL_VALUE = new Object();
+    //캐시하지 않는 메서드의 before 상태
+    private static final Object NOT_CACHED = new Object();
+
+    private final BoundedCache<CacheKey, Object> cache;
+    private final CachePolicy policy;
+    private final Map<Method, CachedMethod> cachedMethods = new ConcurrentHashMap<>();
+
+    public CachingAdvice(BoundedCache<CacheKey, Object> cache, CachePolicy policy) {
+        this.cache = cache;
+        this.policy = policy;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        CachedMethod cachedMethod = cachedMethod(invocation.getMethod());
+        if (!cachedMethod.cacheable) {
+            return invocation.proceed();
+        }
+
+        CacheKey key = new CacheKey(cachedMethod.id, invocation.getArguments());
+        Object cached = cache.get(key);
+        if (cached != null) {
+            return unwrap(cached);
+        }
+
+        Object result = invocation.proceed();
+        put(key, cachedMethod.ttlNanos, result);
+        return result;
+    }
+
+    //FusedInterceptor 에서 호출, 적중하면 ShortCircuit 으로 target 호출을 건너뛴다
+    @Override
+    public Object before(MethodInvocation invocation) {
+        CachedMethod cachedMethod = cachedMethod(invocation.getMethod());
+        if (!cachedMethod.cacheable) {
+            return NOT_CACHED;
+        }
+        CacheKey key = new CacheKey(cachedMethod.id, invocation.getArguments());
+        Object cached = cache.get(key);
+        if (cached != null) {
+            return FusibleAdvice.shortCircuit(unwrap(cached));
+        }
+        return new PendingPut(key, cachedMethod.ttlNanos);
+    }
+
+    @Override
+    public Object afterReturning(Object state, Object result) {
+        if (state instanceof PendingPut) {
+            PendingPut pending = (PendingPut) state;
+            put(pending.key, pending.ttlNanos, result);
+        }
+        return result;
+    }
+
+    @Override
+    public void afterThrowing(Object state, Throwable ex) {
+    }
+
+    private CachedMethod cachedMethod(Method method) {
+        CachedMethod cachedMethod = cachedMethods.get(method);
+        if (cachedMethod != null) {
+            return cachedMethod;
+        }
+        return cachedMethods.computeIfAbsent(method, this::resolve);
+    }
+
+    private CachedMethod resolve(Method method) {
+        MethodDescriptor descriptor = MethodDescriptors.of(method);
+        long ttlNanos = policy.ttlNanos(descriptor.getName());
+        boolean cacheable = method.getReturnType() != void.class && ttlNanos > 0;
+        return new CachedMethod(MethodIds.of(method), ttlNanos, cacheable);
+    }
+
+    private void put(CacheKey key, long ttlNanos, Object result) {
+        cache.put(key.forStore(), result == null ? NULL_VALUE : result, ttlNanos);
+    }
+
+    private static Object unwrap(Object cached) {
+        return cached == NULL_VALUE ? null : cached;
+    }
+
+    public BoundedCache<CacheKey, Object> getCache() {
+        return cache;
+    }
+
+    private static final class CachedMethod {
+
+        final int id;
+        final long ttlNanos;
+        final boolean cacheable;
+
+        CachedMethod(int id, long ttlNanos, boolean cacheable) {
+            this.id = id;
+            this.ttlNanos = ttlNanos;
+            this.cacheable = cacheable;
+        }
+    }
+
+    //캐시에 없을 때 before -> afterReturning 으로 넘기는 상태
+    private static final class PendingPut {
+
+        final CacheKey key;
+        final long ttlNanos;
+
+        PendingPut(CacheKey key, long ttlNanos) {
+            this.key = key;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import hello.proxy.breaker.CircuitBreaker;
+import hello.proxy.breaker.CircuitBreakerSettings;
+import hello.proxy.config.v3_proxyfactory.fusion.FusibleAdvice;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * target 마다 서킷 브레이커를 두는 어드바이스
+ *
+ * OrderRepository.save("ex") 처럼 계속 실패하는 target 은 서킷이 열리고,
+ * 그동안은 target 호출, 안쪽 어드바이스(LogTrace.exception 로그), 스택 트레이스 생성 없이 미리 만든 예외 하나를 던진다.
+ * 로그 추적 어드바이스보다 바깥에 두어야 로그 비용까지 아낀다(어드바이저 order).
+ */
+public class CircuitBreakerAdvice implements FusibleAdvice {
+
+    private final CircuitBreakerSettings settings;
+    private final Map<Object, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerAdvice(CircuitBreakerSettings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        CircuitBreaker breaker = breakerOf(invocation.getThis());
+        if (!breaker.tryAcquire()) {
+            throw breaker.notPermitted();
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            breaker.onSuccess(System.nanoTime() - start);
+            return result;
+        } catch (Throwable ex) {
+            breaker.onError(System.nanoTime() - start);
+            throw ex;
+        }
+    }
+
+    //FusedInterceptor 에서 호출, 서킷이 열려 있으면 안쪽 어드바이스의 before 도 호출되지 않는다
+    @Override
+    public Object before(MethodInvocation invocation) {
+        CircuitBreaker breaker = breakerOf(invocation.getThis());
+        if (!breaker.tryAcquire()) {
+            throw breaker.notPermitted();
+        }
+        return new Call(breaker, System.nanoTime());
+    }
+
+    @Override
+    public Object afterReturning(Object state, Object result) {
+        Call call = (Call) state;
+        call.breaker.onSuccess(System.nanoTime() - call.startNanos);
+        return result;
+    }
+
+    @Override
+    public void afterThrowing(Object state, Throwable ex) {
+        Call call = (Call) state;
+        call.breaker.onError(System.nanoTime() - call.startNanos);
+    }
+
+    private CircuitBreaker breakerOf(Object target) {
+        CircuitBreaker breaker = breakers.get(target);
+        if (breaker != null) {
+            return breaker;
+        }
+        return breakers.computeIfAbsent(target, t -> new CircuitBreaker(t.getClass().getSimpleName(), settings));
+    }
+
+    public Collection<CircuitBreaker> getBreakers() {
+        return breakers.values();
+    }
+
+    private static final class Call {
+
+        final CircuitBreaker breaker;
+        final long startNanos;
+
+        Call(CircuitBreaker breaker, long startNanos) {
+            this.breaker = breaker;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import hello.proxy.cache.CacheKey;
+import hello.proxy.cache.MethodIds;
+import hello.proxy.coalesce.SingleFlight;
+import hello.proxy.config.v3_proxyfactory.fusion.FusibleAdvice;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 같은 메서드를 같은 인수로 동시에 호출하면 target 은 한 번만 호출하는 어드바이스
+ *
+ * 예) /v1/request?itemId=X 가 동시에 100 번 들어오면 OrderRepositoryV1Impl.save("X") 의 1초짜리 작업을 한 번만 하고
+ * 나머지 99 번은 그 작업이 끝나기를 기다렸다가 같은 결과(예외)를 받는다.
+ *
+ * 키는 CachingAdvice 와 같은 CacheKey(메서드 + 인수), 메서드는 로그 이름이 아니라 Method 마다 매긴 번호(MethodIds)
+ * 어디에 적용할지는 포인트컷이 정한다. 보통 @Coalescible 을 붙인 메서드만(CoalescingAutoProxyConfig)
+ */
+public class CoalescingAdvice implements FusibleAdvice {
+
+    private final SingleFlight singleFlight;
+
+    public CoalescingAdvice(SingleFlight singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        return singleFlight.execute(keyOf(invocation), invocation::proceed);
+    }
+
+    //FusedInterceptor 에서 호출, follower 는 leader 의 결과로 바로 돌아간다
+    @Override
+    public Object before(MethodInvocation invocation) throws Throwable {
+        SingleFlight.Flight flight = new SingleFlight.Flight(keyOf(invocation));
+        SingleFlight.Flight leader = singleFlight.join(flight);
+        if (leader != null) {
+            return FusibleAdvice.shortCircuit(leader.await());
+        }
+        return flight;
+    }
+
+    @Override
+    public Object afterReturning(Object state, Object result) {
+        singleFlight.complete((SingleFlight.Flight) state, result);
+        return result;
+    }
+
+    @Override
+    public void afterThrowing(Object state, Throwable ex) {
+        singleFlight.fail((SingleFlight.Flight) state, ex);
+    }
+
+    //실행 중에는 키가 맵에 남아 있으므로 인수 배열은 복사해 둔다
+    private static CacheKey keyOf(MethodInvocation invocation) {
+        return new CacheKey(MethodIds.of(invocation.getMethod()), invocation.getArguments()).forStore();
+    }
+
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+}
@@ -0,0 +1,100 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import hello.proxy.config.v3_proxyfactory.fusion.FusibleAdvice;
+import hello.proxy.limit.ConcurrencyLimiter;
+import hello.proxy.limit.GradientLimit;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * target 마다 동시 실행 수를 제한하는 어드바이스(bulkhead)
+ *
+ * 한도는 고정값이 아니라 응답 시간을 보고 GradientLimit 이 조정한다.
+ * 한도를 넘은 호출은 기다리지 않고 LimitExceededException 으로 바로 실패한다.
+ *
+ * 한도는 target(빈) 하나에 하나, 같은 빈의 메서드들은 한도를 함께 쓴다.
+ */
+public class ConcurrencyLimitAdvice implements FusibleAdvice {
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final Map<Object, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitAdvice(int initialLimit, int minLimit, int maxLimit, long window, TimeUnit unit) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ConcurrencyLimiter limiter = limiterOf(invocation.getThis());
+        if (!limiter.tryAcquire()) {
+            throw limiter.rejection();
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Object result = invocation.proceed();
+            success = true;
+            return result;
+        } finally {
+            limiter.release(start, success);
+        }
+    }
+
+    //FusedInterceptor 에서 호출, 허가와 시작 시간을 after 로 넘긴다
+    @Override
+    public Object before(MethodInvocation invocation) {
+        ConcurrencyLimiter limiter = limiterOf(invocation.getThis());
+        if (!limiter.tryAcquire()) {
+            throw limiter.rejection();
+        }
+        return new Permit(limiter, System.nanoTime());
+    }
+
+    @Override
+    public Object afterReturning(Object state, Object result) {
+        Permit permit = (Permit) state;
+        permit.limiter.release(permit.startNanos, true);
+        return result;
+    }
+
+    @Override
+    public void afterThrowing(Object state, Throwable ex) {
+        Permit permit = (Permit) state;
+        permit.limiter.release(permit.startNanos, false);
+    }
+
+    private ConcurrencyLimiter limiterOf(Object target) {
+        ConcurrencyLimiter limiter = limiters.get(target);
+        if (limiter != null) {
+            return limiter;
+        }
+        return limiters.computeIfAbsent(target, t -> new ConcurrencyLimiter(new GradientLimit(
+                t.getClass().getSimpleName(), initialLimit, minLimit, maxLimit, windowNanos, TimeUnit.NANOSECONDS)));
+    }
+
+    //target 별 한도, 실행 중인 수, 거절 수를 볼 때
+    public Collection<ConcurrencyLimiter> getLimiters() {
+        return limiters.values();
+    }
+
+    private static final class Permit {
+
+        final ConcurrencyLimiter limiter;
+        final long startNanos;
+
+        Permit(ConcurrencyLimiter limiter, long startNanos) {
+            this.limiter = limiter;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import hello.proxy.hedge.HedgeMetrics;
+import hello.proxy.hedge.LatencyTracker;
+import hello.proxy.trace.thread.TraceThreadFactory;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 느린 호출을 한 번 더 보내고 먼저 끝난 결과를 쓰는 어드바이스(hedged request)
+ *
+ * 메서드마다 최근 응답 시간의 백분위(기본 p95)를 LatencyTracker 로 유지한다.
+ * 기록하는 값은 첫 호출(primary) 자신의 응답 시간이다. 먼저 끝난 쪽(hedge 가 이기면 hedge)의 시간을 기록하면
+ * 느린 호출이 hedge 로 가려져서 p95 가 점점 내려가고, 그만큼 hedge 를 더 자주 보내게 된다.
+ * 진 primary 는 취소되므로 취소될 때까지 걸린 시간(실제 응답 시간의 하한, p95 이상)을 기록한다.
+ * 호출은 executor 에서 실행하고, 호출 스레드는 p95 만큼만 기다린다.
+ * 그때까지 끝나지 않으면 같은 호출을 하나 더 보내고(hedge), 둘 중 먼저 성공한 결과를 반환하고 나머지는 취소(인터럽트)한다.
+ * 하나가 실패하면 나머지를 기다리고, 둘 다 실패하면 먼저 끝난 쪽의 예외를 던진다.
+ *
+ * 같은 호출을 두 번 실행할 수 있으므로 멱등한 메서드에만 적용해야 한다.
+ * 예제 애플리케이션의 리포지토리에는 save() 같은 쓰기만 있어서 설정(ProxyFactoryConfigV1, V2)에는 넣지 않았다.
+ * 조회 메서드에 @Hedgeable 을 붙이고 new AnnotationMatchingPointcut(null, Hedgeable.class, true) 어드바이저로 추가한다.
+ * 호출은 ProxyMethodInvocation.invocableClone() 으로 복사해서 실행하므로 이 어드바이스 안쪽의 어드바이스와 target 은 executor 스레드에서 실행된다.
+ *
+ * executor 는 스레드 수와 큐 크기가 정해져 있다. 가득 차면 hedge 를 보내지 않고,
+ * 첫 호출조차 넣을 수 없으면 호출 스레드에서 그대로 실행한다.
+ */
+public class HedgingAdvice implements MethodInterceptor {
+
+    private static final int MIN_SAMPLES = 20;
+
+    private final double quantile;
+    private final long windowNanos;
+    private final ThreadPoolExecutor executor;
+    private final Map<Method, LatencyTracker> trackers = new ConcurrentHashMap<>();
+    private final HedgeMetrics metrics = new HedgeMetrics();
+
+    /**
+     * @param quantile 이 백분위보다 오래 걸리면 hedge, 예) 0.95
+     * @param poolSize executor 스레드 수
+     * @param queueCapacity executor 큐 크기
+     * @param window 백분위를 다시 계산하는 주기
+     */
+    public HedgingAdvice(double quantile, int poolSize, int queueCapacity, long window, TimeUnit unit) {
+        this.quantile = quantile;
+        this.windowNanos = unit.toNanos(window);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new TraceThreadFactory("hedge-", true));
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        LatencyTracker tracker = trackerOf(invocation.getMethod());
+        long threshold = tracker.threshold();
+        long start = System.nanoTime();
+
+        //아직 기준 백분위가 없거나 복사할 수 없는 호출이면 그대로
+        if (threshold == 0 || !(invocation instanceof ProxyMethodInvocation)) {
+            Object result = invocation.proceed();
+            tracker.record(System.nanoTime() - start);
+            return result;
+        }
+        metrics.recordCall();
+
+        ProxyMethodInvocation proxyInvocation = (ProxyMethodInvocation) invocation;
+        Race race = new Race();
+        Attempt primary = new Attempt(proxyInvocation.invocableClone(), race, tracker, start);
+        if (!trySubmit(primary)) {
+            Object result = invocation.proceed();
+            tracker.record(System.nanoTime() - start);
+            return result;
+        }
+
+        Attempt hedge = null;
+        Attempt winner;
+        try {
+            try {
+                winner = race.first.get(threshold, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                hedge = hedge(proxyInvocation, race, primary);
+                winner = race.first.get();
+            }
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+            throw e;
+        }
+
+        //진 쪽은 취소, 이미 끝났으면 아무 일도 없다
+        Attempt loser = (winner == primary) ? hedge : primary;
+        if (loser != null) {
+            loser.cancel(true);
+        }
+        if (winner == hedge && hedge.succeeded()) {
+            metrics.recordHedgeWin();
+        }
+        return winner.result();
+    }
+
+    //두 번째 호출, 그사이 첫 호출이 실패로 끝났으면(race 가 끝났으면) 보내지 않는다
+    private Attempt hedge(ProxyMethodInvocation invocation, Race race, Attempt primary) {
+        race.pending.incrementAndGet();
+        if (race.first.isDone()) {
+            return null;
+        }
+        Attempt hedge = new Attempt(invocation.invocableClone(), race, null, 0);
+        if (!trySubmit(hedge)) {
+            //보내지 못한 hedge 는 첫 호출의 결과를 막지 않도록 실패로 센다
+            //그사이 첫 호출이 실패로 끝났으면 race 를 끝낼 Attempt 가 더 없으므로 여기서 끝낸다
+            if (race.pending.decrementAndGet() == 0) {
+                race.first.complete(primary);
+            }
+            return null;
+        }
+        metrics.recordHedge();
+        return hedge;
+    }
+
+    private boolean trySubmit(Attempt attempt) {
+        try {
+            executor.execute(attempt);
+            return true;
+        } catch (RejectedExecutionException e) {
+            metrics.recordRejected();
+            return false;
+        }
+    }
+
+    private LatencyTracker trackerOf(Method method) {
+        LatencyTracker tracker = trackers.get(method);
+        if (tracker != null) {
+            return tracker;
+        }
+        return trackers.computeIfAbsent(method, m -> new LatencyTracker(quantile, windowNanos, TimeUnit.NANOSECONDS, MIN_SAMPLES));
+    }
+
+    public HedgeMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 스프링 빈으로 등록하면 컨테이너 종료 시 호출
+     * 실행 중인 호출은 인터럽트하고, 큐에서 꺼내지 못한 호출은 취소해서 기다리던 스레드가 CancellationException 으로 풀려나게 한다.
+     */
+    public void close() {
+        for (Runnable queued : executor.shutdownNow()) {
+            ((Attempt) queued).cancel(false);
+        }
+    }
+
+    //먼저 성공한 Attempt, 모두 실패하면 마지막으로 끝난 Attempt
+    private static final class Race {
+
+        final CompletableFuture<Attempt> first = new CompletableFuture<>();
+        final AtomicInteger pending = new AtomicInteger(1);
+
+        //취소된 Attempt 도 실패로 센다, 진 쪽의 취소는 이미 first 가 끝난 뒤라 아무 일도 없다
+        void done(Attempt attempt) {
+            if (attempt.succeeded() || pending.decrementAndGet() == 0) {
+                first.complete(attempt);
+            }
+        }
+    }
+
+    private static final class Attempt extends FutureTask<Object> {
+
+        private final Race race;
+        //primary 만 자기 응답 시간을 기록한다, hedge 는 null
+        private final LatencyTracker tracker;
+        private final long startNanos;
+
+        Attempt(MethodInvocation invocation, Race race, LatencyTracker tracker, long startNanos) {
+            super(() -> proceed(invocation));
+            this.race = race;
+            this.tracker = tracker;
+            this.startNanos = startNanos;
+        }
+
+        //끝나거나 취소될 때 한 번 호출된다
+        @Override
+        protected void done() {
+            if (tracker != null) {
+                tracker.record(System.nanoTime() - startNanos);
+            }
+            race.done(this);
+        }
+
+        boolean succeeded() {
+            try {
+                get();
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        Object result() throws Throwable {
+            try {
+                return get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static Object proceed(MethodInvocation invocation) throws Exception {
+            try {
+                return invocation.proceed();
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        }
+    }
+}
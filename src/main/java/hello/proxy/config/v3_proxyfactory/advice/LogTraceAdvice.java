@@ -1,8 +1,9 @@
 package hello.proxy.config.v3_proxyfactory.advice;
 
+import hello.proxy.config.v3_proxyfactory.fusion.FusibleAdvice;
+import hello.proxy.trace.MethodDescriptors;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
-import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
 import java.lang.reflect.Method;
@@ -10,8 +11,10 @@ import java.lang.reflect.Method;
 /** 실제 어플리케이션에 적용할 어드바이스 만들기, MethodInterceptor는 어드바이스의 자식 클래스
  *
  * MethodInterceptor를 구현해야함, CGLIB와 이름이 똑같아서 헷갈릴수잇음
+ *
+ * FusibleAdvice 도 구현해서 AdviceFusion 으로 다른 어드바이스와 하나의 인터셉터로 합칠 수 있다
  */
-public class LogTraceAdvice implements MethodInterceptor {
+public class LogTraceAdvice implements FusibleAdvice {
 
     //프록시에 적용할 로직, 공통 로직, 변하지 않는 로직
 
@@ -35,12 +38,10 @@ public class LogTraceAdvice implements MethodInterceptor {
 
         try {
             //invocation 메서드 정보 가져오고
-            //메서드 이름 토대로 메시지 만듬
+            //메서드 이름 토대로 메시지 만듬, 메시지는 Method 마다 처음 한 번만 만들어서 MethodDescriptors 에 보관
             Method method = invocation.getMethod();
-            String message = method.getDeclaringClass().getSimpleName() + "." +
-                    method.getName() + "()";
 
-            status = logTrace.begin(message);
+            status = logTrace.begin(MethodDescriptors.of(method));
 
             /**로직 호출, 실제 객체 호출, invocation.proceed()로 편리하게 */
             Object result = invocation.proceed();
@@ -54,4 +55,24 @@ public class LogTraceAdvice implements MethodInterceptor {
             throw e;
         }
     }
+
+    //FusedInterceptor 에서 호출, invoke() 와 같은 로직을 proceed() 전후로 나눈 것
+    @Override
+    public Object before(MethodInvocation invocation) {
+        return logTrace.begin(MethodDescriptors.of(invocation.getMethod()));
+    }
+
+    @Override
+    public Object afterReturning(Object state, Object result) {
+        logTrace.end((TraceStatus) state);
+        return result;
+    }
+
+    //invoke() 처럼 Exception 만 기록한다
+    @Override
+    public void afterThrowing(Object state, Throwable ex) {
+        if (ex instanceof Exception) {
+            logTrace.exception((TraceStatus) state, (Exception) ex);
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package hello.proxy.config.v3_proxyfactory.advice;
+
+import hello.proxy.config.v3_proxyfactory.fusion.FusibleAdvice;
+import hello.proxy.ratelimit.RateLimiter;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 호출 비율을 제한하는 어드바이스
+ *
+ * 키(itemId 등)는 RateLimiter 의 RateLimitKeyResolver 가 메서드 인수에서 꺼낸다.
+ * 허용되지 않은 호출은 target 을 호출하지 않고 RateLimitedException 으로 실패한다.
+ * 토큰은 호출 전에 꺼내고 끝나도 돌려주지 않으므로 after 에서는 할 일이 없다.
+ */
+public class RateLimitAdvice implements FusibleAdvice {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitAdvice(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        rateLimiter.acquire(invocation.getMethod(), invocation.getArguments());
+        return invocation.proceed();
+    }
+
+    @Override
+    public Object before(MethodInvocation invocation) {
+        rateLimiter.acquire(invocation.getMethod(), invocation.getArguments());
+        return null;
+    }
+
+    @Override
+    public Object afterReturning(Object state, Object result) {
+        return result;
+    }
+
+    @Override
+    public void afterThrowing(Object state, Throwable ex) {
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+}
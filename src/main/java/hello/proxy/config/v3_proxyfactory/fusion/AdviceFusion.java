@@ -0,0 +1,58 @@
+package hello.proxy.config.v3_proxyfactory.fusion;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.framework.AdvisedSupport;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+/**
+ * 프록시 팩토리에 등록된 어드바이저들을 FusedInterceptor 하나로 합친다(선택 기능)
+ *
+ * ProxyFactory proxyFactory = new ProxyFactory(target);
+ * proxyFactory.addAdvisor(advisor2);
+ * proxyFactory.addAdvisor(advisor1);
+ * AdviceFusion.fuse(proxyFactory);  //getProxy() 전, 어드바이저를 모두 추가한 다음
+ *
+ * 모든 어드바이저가 FusibleAdvice 를 가진 PointcutAdvisor 이고 런타임 포인트컷(인수까지 보는)이 아닐 때만 합친다.
+ * 그렇지 않으면 아무것도 바꾸지 않고 false 를 반환한다.
+ * 합친 어드바이저의 포인트컷은 각 포인트컷의 합집합이다. 메서드별로 어떤 어드바이스를 적용할지는 FusedInterceptor 가 다시 고른다.
+ */
+public final class AdviceFusion {
+
+    private AdviceFusion() {
+    }
+
+    public static boolean fuse(AdvisedSupport advised) {
+        Advisor[] advisors = advised.getAdvisors();
+        if (advisors.length < 2 || advised.isFrozen()) {
+            return false;
+        }
+
+        PointcutAdvisor[] fusible = new PointcutAdvisor[advisors.length];
+        for (int i = 0; i < advisors.length; i++) {
+            if (!isFusible(advisors[i])) {
+                return false;
+            }
+            fusible[i] = (PointcutAdvisor) advisors[i];
+        }
+
+        ComposablePointcut pointcut = new ComposablePointcut(fusible[0].getPointcut());
+        for (int i = 1; i < fusible.length; i++) {
+            pointcut.union(fusible[i].getPointcut());
+        }
+
+        for (int i = advisors.length - 1; i >= 0; i--) {
+            advised.removeAdvisor(i);
+        }
+        advised.addAdvisor(0, new DefaultPointcutAdvisor(pointcut, new FusedInterceptor(fusible)));
+        return true;
+    }
+
+    private static boolean isFusible(Advisor advisor) {
+        if (!(advisor instanceof PointcutAdvisor) || !(advisor.getAdvice() instanceof FusibleAdvice)) {
+            return false;
+        }
+        return !((PointcutAdvisor) advisor).getPointcut().getMethodMatcher().isRuntime();
+    }
+}
@@ -0,0 +1,117 @@
+package hello.proxy.config.v3_proxyfactory.fusion;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 여러 FusibleAdvice 를 하나로 합친 인터셉터
+ *
+ * 어드바이저가 N 개인 프록시는 호출마다 ReflectiveMethodInvocation.proceed() 가 인터셉터를 하나씩 재귀로 호출한다.
+ * client -> proxy -> advice1.invoke -> proceed -> advice2.invoke -> proceed -> ... -> target
+ *
+ * FusedInterceptor 는 반복문으로 처리한다.
+ * client -> proxy -> fused.invoke { before1, before2, ... proceed, ... after2, after1 }
+ * 어드바이스 수와 상관없이 호출 스택 깊이가 같고, proceed() 도 한 번만 한다.
+ *
+ * 메서드마다 적용할 어드바이스 배열은 처음 호출할 때 각 어드바이저의 포인트컷으로 골라서 캐시한다.
+ */
+public class FusedInterceptor implements MethodInterceptor {
+
+    private static final FusibleAdvice[] EMPTY = new FusibleAdvice[0];
+
+    //바깥(먼저 호출) -> 안쪽 순서
+    private final PointcutAdvisor[] advisors;
+    private final Map<MethodClassKey, FusibleAdvice[]> chains = new ConcurrentHashMap<>();
+
+    public FusedInterceptor(PointcutAdvisor[] advisors) {
+        for (PointcutAdvisor advisor : advisors) {
+            if (!(advisor.getAdvice() instanceof FusibleAdvice)) {
+                throw new IllegalArgumentException("FusibleAdvice 가 아닙니다. advice=" + advisor.getAdvice());
+            }
+        }
+        this.advisors = advisors.clone();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        FusibleAdvice[] chain = chainOf(invocation);
+        if (chain.length == 0) {
+            return invocation.proceed();
+        }
+
+        Object[] states = new Object[chain.length];
+        int entered = 0;
+        Object result = null;
+        boolean shortCircuited = false;
+        try {
+            for (; entered < chain.length; entered++) {
+                Object state = chain[entered].before(invocation);
+                if (state instanceof FusibleAdvice.ShortCircuit) {
+                    //안쪽 어드바이스와 target 은 건너뛰고, 이미 들어온 바깥 어드바이스만 after 를 호출
+                    result = ((FusibleAdvice.ShortCircuit) state).getValue();
+                    shortCircuited = true;
+                    break;
+                }
+                states[entered] = state;
+            }
+            if (!shortCircuited) {
+                result = invocation.proceed();
+            }
+        } catch (Throwable ex) {
+            for (int i = entered - 1; i >= 0; i--) {
+                chain[i].afterThrowing(states[i], ex);
+            }
+            throw ex;
+        }
+        //complete() 는 try 밖에서, afterReturning 이 던진 예외로 위의 afterThrowing 이 한 번 더 불리지 않도록
+        return complete(chain, states, entered, result);
+    }
+
+    //afterReturning 을 안쪽부터 호출, 중간에 예외가 나면 더 바깥 어드바이스는 afterThrowing
+    private static Object complete(FusibleAdvice[] chain, Object[] states, int entered, Object result) throws Throwable {
+        int i = entered - 1;
+        try {
+            for (; i >= 0; i--) {
+                result = chain[i].afterReturning(states[i], result);
+            }
+            return result;
+        } catch (Throwable ex) {
+            for (int j = i - 1; j >= 0; j--) {
+                chain[j].afterThrowing(states[j], ex);
+            }
+            throw ex;
+        }
+    }
+
+    private FusibleAdvice[] chainOf(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        Object target = invocation.getThis();
+        Class<?> targetClass = (target != null) ? AopUtils.getTargetClass(target) : method.getDeclaringClass();
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+        FusibleAdvice[] chain = chains.get(key);
+        if (chain == null) {
+            chain = chains.computeIfAbsent(key, k -> resolveChain(method, targetClass));
+        }
+        return chain;
+    }
+
+    private FusibleAdvice[] resolveChain(Method method, Class<?> targetClass) {
+        List<FusibleAdvice> chain = new ArrayList<>(advisors.length);
+        for (PointcutAdvisor advisor : advisors) {
+            if (advisor.getPointcut().getClassFilter().matches(targetClass)
+                    && advisor.getPointcut().getMethodMatcher().matches(method, targetClass)) {
+                chain.add((FusibleAdvice) advisor.getAdvice());
+            }
+        }
+        return chain.isEmpty() ? EMPTY : chain.toArray(EMPTY);
+    }
+}
@@ -0,0 +1,47 @@
+package hello.proxy.config.v3_proxyfactory.fusion;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * 하나의 인터셉터로 합칠 수 있는 어드바이스
+ *
+ * invoke() 의 "proceed() 전 / 정상 반환 후 / 예외 후" 를 나눠서 구현한다.
+ * FusedInterceptor 는 여러 어드바이스의 before 를 차례로 호출하고 proceed() 를 한 번만 한 다음
+ * after 를 역순으로 호출한다. 어드바이스가 N 개여도 호출 스택은 한 단계다.
+ *
+ * invoke() 도 그대로 구현하므로 합치지 않고 일반 어드바이스로도 쓸 수 있다.
+ */
+public interface FusibleAdvice extends MethodInterceptor {
+
+    /**
+     * proceed() 전에 호출
+     * @return after 에 다시 넘겨 받을 상태(TraceStatus, 시작 시간 등),
+     *         shortCircuit(value) 를 반환하면 target 과 안쪽 어드바이스를 호출하지 않고 value 를 결과로 한다
+     */
+    Object before(MethodInvocation invocation) throws Throwable;
+
+    //정상 반환 후, 반환한 값이 바깥 어드바이스에 넘어가는 결과
+    Object afterReturning(Object state, Object result) throws Throwable;
+
+    //예외 발생 후, 예외는 FusedInterceptor 가 다시 던진다
+    void afterThrowing(Object state, Throwable ex);
+
+    static ShortCircuit shortCircuit(Object value) {
+        return new ShortCircuit(value);
+    }
+
+    //before 에서 반환하면 target 을 호출하지 않고 바로 결과를 돌려준다(캐시 적중 등)
+    final class ShortCircuit {
+
+        private final Object value;
+
+        private ShortCircuit(Object value) {
+            this.value = value;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+    }
+}
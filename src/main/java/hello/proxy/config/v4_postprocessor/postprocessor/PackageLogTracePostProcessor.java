@@ -1,23 +1,56 @@
 package hello.proxy.config.v4_postprocessor.postprocessor;
 
+import hello.proxy.config.v3_proxyfactory.FlatProxyFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyConfig;
 import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
 /**빈 후처리기 만들기, 스프링 컨테어니에 빈을 등록하기 전에 빈 객체 조작
  *
  * BeanPostProcessor를 구현해야함
  *
  * 원본 객체를 프록시 객체로 변환
+ *
+ * 시작 시간 최적화
+ * 포인트컷이 적용될 메서드가 하나도 없는 빈은 프록시로 만들지 않는다(AopUtils.canApply)
+ * 적용 여부와 프록시 인터페이스는 빈 클래스마다 한 번만 계산해서 캐시한다
+ * 프록시 설정(ProxyConfig)은 frozen 으로 하나만 만들어 모든 프록시가 같이 쓴다.
+ * 같은 클래스의 프록시는 설정이 같으므로 JDK/CGLIB 가 만들어 둔 프록시 클래스를 재사용한다.
+ * 빈마다 남기던 INFO 로그는 DEBUG 로 내리고, 컨테이너 초기화가 끝나면 프록시 생성에 든 시간을 한 번 출력한다
+ * 이미 스프링 AOP 프록시인 빈은 FlatProxyFactory 로 어드바이저를 합쳐서 프록시 하나로 만든다
  * */
 //특정 패키지 밑으로 작업, 특정 패키지에 있는 빈들만 프록시로 만드는
 @Slf4j
-public class PackageLogTracePostProcessor implements BeanPostProcessor {
+public class PackageLogTracePostProcessor implements BeanPostProcessor, SmartInitializingSingleton {
+
+    //프록시를 만들지 않는 클래스 표시
+    private static final Class<?>[] NOT_APPLICABLE = new Class<?>[0];
 
     private final String basePackage;
     private final Advisor advisor;
 
+    //모든 프록시가 공유하는 설정, frozen 이면 어드바이저가 바뀌지 않으므로 CGLIB 가 고정된 인터셉터 체인을 쓴다
+    private final ProxyConfig sharedConfig;
+
+    //빈 클래스 -> 프록시 인터페이스, 클래스 기반(CGLIB) 프록시면 길이 0 배열, 대상이 아니면 NOT_APPLICABLE
+    private final Map<Class<?>, Class<?>[]> proxyInterfaces = new ConcurrentHashMap<>();
+
+    private final LongAdder proxyCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+    private final LongAdder proxyCreationNanos = new LongAdder();
+
     /** 어드바이스와 포인트컷을 갖고있는 어드바이저를 외부에서 주입
      * 모든 스프링 빈들에 프록시를 적용할 필요는 없다.
      * 여기서는 특정 패키지와 그 하위에 위치한 스프링 빈들만 프록시를 적용
@@ -26,6 +59,8 @@ public class PackageLogTracePostProcessor implements BeanPostProcessor {
     public PackageLogTracePostProcessor(String basePackage, Advisor advisor) {
         this.basePackage = basePackage;
         this.advisor = advisor;
+        this.sharedConfig = new ProxyConfig();
+        this.sharedConfig.setFrozen(true);
     }
 
     /**빈의 초기화 끝나고 나서, 빈 객체가 만들어지고 나서 프록시 적용
@@ -34,36 +69,102 @@ public class PackageLogTracePostProcessor implements BeanPostProcessor {
    @Override
     public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
 
-        //빈 이름과, 빈의 클래스 타입을 로그로 출력
-        log.info("param beanName={} bean={}", beanName, bean.getClass());
-
         //프록시 적용 대상 여부 체크
         //프록시 적용 대상이 아니면 원본을 그대로 진행
         //app패키지 하위에 있는 것들만 프록시를 적용
+        //패키지 검사, 포인트컷 검사 결과는 클래스마다 한 번만 계산
+        //이미 프록시인 빈은 프록시 클래스가 아닌 실제 target 클래스로 검사
+        Class<?> beanClass = AopUtils.getTargetClass(bean);
+        Class<?>[] interfaces = proxyInterfaces.computeIfAbsent(beanClass, this::resolveProxyInterfaces);
+        if (interfaces == NOT_APPLICABLE) {
+            skippedCount.increment();
+            return bean;
+        }
 
-        //빈의 패키지 이름 가져옴
-        String packageName = bean.getClass().getPackageName();
+        long start = System.nanoTime();
 
-        /**빈 패키지 이름이 생성자로 들어온 basePackage으로 시작하지 않으면
-        //등록하려던 빈 그냥 컨테이너에 등록*/
-        if (!packageName.startsWith(basePackage)) {
-            return bean;
+        //다른 빈 후처리기가 먼저 프록시로 만든 빈이면 프록시를 한 겹 더 씌우지 않고 어드바이저를 합친다
+        if (bean instanceof Advised) {
+            return flatten(bean, beanName, start);
         }
 
-        //프록시 대상이면 프록시 팩토리 파라미터에
-        //원래 등록하려던 빈을 주입
-        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        //원래 등록하려던 빈을 타겟으로, 인터페이스는 캐시해 둔 것을 사용
+        //new ProxyFactory(bean) 은 빈마다 인터페이스를 다시 찾는다
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(bean);
+        proxyFactory.setInterfaces(interfaces);
 
         //프록시에 어드바이저 추가, 외부에서 받은
         proxyFactory.addAdvisor(advisor);
+        //공유 설정 복사, frozen 이후에는 어드바이저를 추가할 수 없으므로 마지막에
+        proxyFactory.copyFrom(sharedConfig);
 
         //캐스팅 안하고 오브젝트로 꺼냄
         Object proxy = proxyFactory.getProxy();
 
+        proxyCreationNanos.add(System.nanoTime() - start);
+        proxyCount.increment();
+
         //원래 등록하려던 빈의 클래스 타입, 프록시 객체의 클래스 타입 로그로 출력
-        log.info("create proxy: target={} proxy={}", bean.getClass(), proxy.getClass());
+        log.debug("create proxy: beanName={} target={} proxy={}", beanName, beanClass, proxy.getClass());
 
         //프록시 객체 스프링 컨테이너에 등록
         return proxy;
     }
+
+    private Object flatten(Object bean, String beanName, long start) {
+        FlatProxyFactory proxyFactory = new FlatProxyFactory(bean);
+        proxyFactory.addAdvisor(advisor);
+        boolean proxyTargetClass = proxyFactory.isProxyTargetClass();
+        proxyFactory.copyFrom(sharedConfig);
+        //안쪽 프록시가 CGLIB 였으면 그대로 클래스 기반으로
+        proxyFactory.setProxyTargetClass(proxyTargetClass);
+        Object proxy = proxyFactory.getProxy();
+
+        proxyCreationNanos.add(System.nanoTime() - start);
+        proxyCount.increment();
+        log.debug("flatten proxy: beanName={} target={} proxy={}", beanName, bean.getClass(), proxy.getClass());
+        return proxy;
+    }
+
+    private Class<?>[] resolveProxyInterfaces(Class<?> beanClass) {
+        /**빈 패키지 이름이 생성자로 들어온 basePackage으로 시작하지 않으면
+        //등록하려던 빈 그냥 컨테이너에 등록*/
+        if (!beanClass.getPackageName().startsWith(basePackage)) {
+            return NOT_APPLICABLE;
+        }
+        //noLog() 만 있는 빈처럼 포인트컷에 맞는 메서드가 하나도 없으면 프록시를 만들어도 호출 비용만 늘어난다
+        if (!AopUtils.canApply(advisor, beanClass)) {
+            log.debug("skip proxy, no matching method: {}", beanClass);
+            return NOT_APPLICABLE;
+        }
+        //인터페이스가 없으면 빈 배열 그대로, ProxyFactory 가 CGLIB 프록시를 만든다
+        return ClassUtils.getAllInterfacesForClass(beanClass, beanClass.getClassLoader());
+    }
+
+    //싱글톤 빈이 모두 만들어진 다음 한 번 호출된다
+    @Override
+    public void afterSingletonsInstantiated() {
+        log.info("proxy creation: proxies={} skipped={} proxyTypes={} time={}ms",
+                getProxyCount(), getSkippedCount(), getProxyTypeCount(),
+                TimeUnit.NANOSECONDS.toMillis(getProxyCreationNanos()));
+    }
+
+    public long getProxyCount() {
+        return proxyCount.sum();
+    }
+
+    //프록시를 만든 빈 클래스 수
+    public long getProxyTypeCount() {
+        return proxyInterfaces.values().stream().filter(interfaces -> interfaces != NOT_APPLICABLE).count();
+    }
+
+    public long getSkippedCount() {
+        return skippedCount.sum();
+    }
+
+    //프록시를 만드는 데 쓴 시간, 컨텍스트 refresh 시간에 그대로 더해진다
+    public long getProxyCreationNanos() {
+        return proxyCreationNanos.sum();
+    }
 }
@@ -3,6 +3,7 @@ package hello.proxy.config.v5_autoproxy;
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
 import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.config.v5_autoproxy.pointcut.IndexedAspectJPointcut;
 import hello.proxy.trace.logtrace.LogTrace;
 import org.springframework.aop.Advisor;
 import org.springframework.aop.aspectj.AspectJExpressionPointcut;
@@ -96,8 +97,12 @@ public class AutoProxyConfig {
     @Bean
     public Advisor advisor3(LogTrace logTrace) {
         //pointcut
-        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        //표현식은 그대로 두고 패키지, 메서드 이름으로 먼저 걸러낸다
+        //hello.proxy.app 밖의 빈(스프링 부트가 등록하는 빈)과 noLog() 는 AspectJ 매칭까지 가지 않는다
+        IndexedAspectJPointcut pointcut = new IndexedAspectJPointcut();
         pointcut.setExpression("execution(* hello.proxy.app..*(..)) && !execution(* hello.proxy.app..noLog(..))");
+        pointcut.setPackagePrefixes("hello.proxy.app");
+        pointcut.setExcludedNames("noLog");
 
         //advice
         LogTraceAdvice advice = new LogTraceAdvice(logTrace);
@@ -0,0 +1,43 @@
+package hello.proxy.config.v5_autoproxy;
+
+import hello.proxy.config.v3_proxyfactory.advice.BatchingAdvice;
+import hello.proxy.config.v5_autoproxy.pointcut.IndexedAspectJPointcut;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AutoProxyConfig + 저장 배치 어드바이저
+ *
+ * 리포지토리의 save(itemId) 호출을 모아서 saveAll(itemIds) 로 한 번에 저장한다(BulkSave 를 구현하거나 saveAll(List) 가 있는 리포지토리만).
+ * 요청 스레드가 많아져도 저장 횟수는 요청 수 / batch.max-size 로 줄어든다.
+ *
+ * BatchingAdvice 는 빈으로 등록해서 컨테이너 종료 시 close() 로 남은 항목을 저장하고 flusher 스레드를 종료한다.
+ */
+@Configuration
+@Import(AutoProxyConfig.class)
+public class BatchingAutoProxyConfig {
+
+    @Bean
+    public BatchingAdvice batchingAdvice(@Value("${batch.max-size:64}") int maxBatchSize,
+                                         @Value("${batch.linger-ms:10}") long lingerMs,
+                                         @Value("${batch.queue-capacity:4096}") int queueCapacity,
+                                         @Value("${batch.wait-timeout-ms:30000}") long waitTimeoutMs) {
+        return new BatchingAdvice(maxBatchSize, lingerMs, TimeUnit.MILLISECONDS, queueCapacity, waitTimeoutMs);
+    }
+
+    @Bean
+    public Advisor batchingAdvisor(BatchingAdvice batchingAdvice) {
+        //save(한 건) 만, saveAll 은 배치가 직접 호출한다
+        IndexedAspectJPointcut pointcut = new IndexedAspectJPointcut();
+        pointcut.setExpression("execution(void hello.proxy.app..*Repository*.save(*))");
+        pointcut.setPackagePrefixes("hello.proxy.app");
+        pointcut.setMappedNames("save");
+        return new DefaultPointcutAdvisor(pointcut, batchingAdvice);
+    }
+}
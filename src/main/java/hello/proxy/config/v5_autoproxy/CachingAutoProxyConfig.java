@@ -0,0 +1,46 @@
+package hello.proxy.config.v5_autoproxy;
+
+import hello.proxy.cache.BoundedCache;
+import hello.proxy.cache.CacheKey;
+import hello.proxy.cache.CachePolicy;
+import hello.proxy.config.v3_proxyfactory.advice.CachingAdvice;
+import hello.proxy.config.v5_autoproxy.pointcut.IndexedAspectJPointcut;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * AutoProxyConfig + 반환값 캐시 어드바이저
+ *
+ * 자동 프록시 생성기는 빈마다 맞는 어드바이저를 모두 모아서 프록시 하나를 만든다.
+ * 로그 추적 어드바이저(advisor3)와 캐시 어드바이저가 같은 프록시에 함께 들어간다.
+ *
+ * 캐시할 메서드는 cache.method-ttls 로 정한다. 기본 TTL(cache.default-ttl-ms) 이 0 이면 나머지는 캐시하지 않는다.
+ * 예) cache.method-ttls=OrderControllerV1.request()=1000
+ */
+@Configuration
+@Import(AutoProxyConfig.class)
+public class CachingAutoProxyConfig {
+
+    @Bean
+    public BoundedCache<CacheKey, Object> methodCache(@Value("${cache.maximum-size:10000}") int maximumSize) {
+        return new BoundedCache<>(maximumSize);
+    }
+
+    @Bean
+    public Advisor cachingAdvisor(BoundedCache<CacheKey, Object> methodCache,
+                                  @Value("${cache.default-ttl-ms:0}") long defaultTtlMs,
+                                  @Value("${cache.method-ttls:}") String methodTtls) {
+        //반환값이 있는 메서드만, void 메서드는 캐시할 것이 없다
+        IndexedAspectJPointcut pointcut = new IndexedAspectJPointcut();
+        pointcut.setExpression("execution(!void hello.proxy.app..*(..))");
+        pointcut.setPackagePrefixes("hello.proxy.app");
+        pointcut.setExcludedNames("noLog");
+
+        CachingAdvice advice = new CachingAdvice(methodCache, CachePolicy.parse(defaultTtlMs, methodTtls));
+        return new DefaultPointcutAdvisor(pointcut, advice);
+    }
+}
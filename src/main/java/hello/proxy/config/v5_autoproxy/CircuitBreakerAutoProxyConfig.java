@@ -0,0 +1,54 @@
+package hello.proxy.config.v5_autoproxy;
+
+import hello.proxy.breaker.CircuitBreakerSettings;
+import hello.proxy.config.v3_proxyfactory.advice.CircuitBreakerAdvice;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AutoProxyConfig + 서킷 브레이커 어드바이저
+ *
+ * 자동 프록시 생성기는 어드바이저를 order 순서로 적용한다. 서킷 브레이커를 가장 먼저(바깥) 두어서
+ * 서킷이 열려 있으면 로그 추적 어드바이저(advisor3)까지 가지 않는다.
+ */
+@Configuration
+@Import(AutoProxyConfig.class)
+public class CircuitBreakerAutoProxyConfig {
+
+    @Bean
+    public CircuitBreakerSettings circuitBreakerSettings(@Value("${breaker.window-size:20}") int windowSize,
+                                                         @Value("${breaker.minimum-calls:10}") int minimumCalls,
+                                                         @Value("${breaker.failure-rate:50}") int failureRate,
+                                                         @Value("${breaker.slow-call-rate:100}") int slowCallRate,
+                                                         @Value("${breaker.slow-call-ms:2000}") long slowCallMs,
+                                                         @Value("${breaker.wait-ms:5000}") long waitMs,
+                                                         @Value("${breaker.half-open-calls:3}") int halfOpenCalls) {
+        CircuitBreakerSettings settings = new CircuitBreakerSettings();
+        settings.setWindowSize(windowSize);
+        settings.setMinimumCalls(minimumCalls);
+        settings.setFailureRateThreshold(failureRate);
+        settings.setSlowCallRateThreshold(slowCallRate);
+        settings.setSlowCallDuration(slowCallMs, TimeUnit.MILLISECONDS);
+        settings.setWaitDuration(waitMs, TimeUnit.MILLISECONDS);
+        settings.setHalfOpenCalls(halfOpenCalls);
+        return settings;
+    }
+
+    @Bean
+    public Advisor circuitBreakerAdvisor(CircuitBreakerSettings circuitBreakerSettings) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression("execution(* hello.proxy.app..*Repository*.*(..))");
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new CircuitBreakerAdvice(circuitBreakerSettings));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,33 @@
+package hello.proxy.config.v5_autoproxy;
+
+import hello.proxy.coalesce.Coalescible;
+import hello.proxy.coalesce.SingleFlight;
+import hello.proxy.config.v3_proxyfactory.advice.CoalescingAdvice;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * AutoProxyConfig + 중복 호출 합치기 어드바이저
+ *
+ * @Coalescible 을 붙인 메서드에만 적용한다(OrderRepositoryV1.save)
+ * checkInherited = true 라서 인터페이스 메서드에 붙인 애노테이션도 구현 클래스(CGLIB 프록시)에서 찾는다.
+ */
+@Configuration
+@Import(AutoProxyConfig.class)
+public class CoalescingAutoProxyConfig {
+
+    @Bean
+    public SingleFlight singleFlight() {
+        return new SingleFlight();
+    }
+
+    @Bean
+    public Advisor coalescingAdvisor(SingleFlight singleFlight) {
+        AnnotationMatchingPointcut pointcut = new AnnotationMatchingPointcut(null, Coalescible.class, true);
+        return new DefaultPointcutAdvisor(pointcut, new CoalescingAdvice(singleFlight));
+    }
+}
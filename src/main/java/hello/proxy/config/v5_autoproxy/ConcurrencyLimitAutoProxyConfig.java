@@ -0,0 +1,40 @@
+package hello.proxy.config.v5_autoproxy;
+
+import hello.proxy.config.v3_proxyfactory.advice.ConcurrencyLimitAdvice;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AutoProxyConfig + 동시 실행 한도 어드바이저
+ *
+ * OrderRepositoryV3.save() 가 느려지면 Tomcat 스레드가 모두 그 앞에서 기다리게 되고 /v3/no-log 까지 응답하지 못한다.
+ * 리포지토리, 서비스에 한도를 두면 한도를 넘는 호출은 바로 실패하고 나머지 스레드는 다른 요청을 처리한다.
+ * 그래서 limit.max 는 Tomcat 요청 스레드 수(기본 200)보다 충분히 작아야 한다. 같으면 한도가 스레드 풀 전체까지 커질 수 있어서
+ * 한도에 걸리기 전에 스레드가 먼저 다 묶인다. 기본값은 스레드 수의 절반인 100 이다.
+ */
+@Configuration
+@Import(AutoProxyConfig.class)
+public class ConcurrencyLimitAutoProxyConfig {
+
+    @Bean
+    public ConcurrencyLimitAdvice concurrencyLimitAdvice(@Value("${limit.initial:20}") int initialLimit,
+                                                         @Value("${limit.min:1}") int minLimit,
+                                                         @Value("${limit.max:100}") int maxLimit,
+                                                         @Value("${limit.window-ms:1000}") long windowMs) {
+        return new ConcurrencyLimitAdvice(initialLimit, minLimit, maxLimit, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Bean
+    public Advisor concurrencyLimitAdvisor(ConcurrencyLimitAdvice concurrencyLimitAdvice) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression("execution(* hello.proxy.app..*Repository*.*(..)) || execution(* hello.proxy.app..*Service*.*(..))");
+        return new DefaultPointcutAdvisor(pointcut, concurrencyLimitAdvice);
+    }
+}
@@ -0,0 +1,164 @@
+package hello.proxy.config.v5_autoproxy.pointcut;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.MethodMatcher;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * 패키지, 메서드 이름으로 먼저 걸러내고 남은 것만 AspectJ 표현식으로 매칭하는 포인트컷
+ *
+ * 자동 프록시 생성기는 빈마다 AopUtils.canApply() 로 모든 어드바이저의 포인트컷을 검사한다.
+ * AspectJExpressionPointcut 은 클래스의 모든 메서드에 대해 ShadowMatch 를 만들어 표현식을 평가하므로
+ * 빈이 많아질수록, 메서드가 많아질수록 애플리케이션 시작 시간이 늘어난다.
+ * 스프링 부트가 등록하는 빈들(hello.proxy.app 밖)도 전부 이 검사를 거친다.
+ *
+ * 여기서는 표현식과 함께 빠른 사전 조건을 준다.
+ * packagePrefixes : 대상 클래스나 그 부모 클래스, 인터페이스 중 하나가 이 패키지(하위 포함)에 있어야 한다. 문자 트라이로 검사
+ *   execution(* hello.proxy.app..*(..)) 은 선언 타입으로 매칭하므로 패키지 밖의 클래스라도
+ *   app 의 클래스를 상속하거나 인터페이스를 구현하면 걸린다. 그래서 대상 클래스 이름만 보면 안 된다.
+ * mappedNames : 메서드 이름이 이 패턴 중 하나와 맞아야 한다. 비어 있으면 이름 조건 없음
+ * excludedNames : 메서드 이름이 이 패턴과 맞으면 제외
+ * 사전 조건을 통과한 클래스, 메서드만 AspectJ 매칭을 한다.
+ *
+ * 주의: 사전 조건은 표현식보다 넓거나 같아야 한다(표현식에 맞는 메서드를 사전 조건이 버리면 안 된다).
+ * 예) execution(* hello.proxy.app..*(..)) && !execution(* hello.proxy.app..noLog(..))
+ *    -> packagePrefixes = hello.proxy.app, excludedNames = noLog
+ */
+public class IndexedAspectJPointcut implements Pointcut, ClassFilter, MethodMatcher {
+
+    private final AspectJExpressionPointcut delegate = new AspectJExpressionPointcut();
+
+    private String[] packagePrefixes = new String[0];
+    private String[] mappedNames = new String[0];
+    private String[] excludedNames = new String[0];
+
+    private NameIndex packageIndex = new NameIndex();
+    private NameIndex mappedIndex = new NameIndex();
+    private NameIndex excludedIndex = new NameIndex();
+
+    public void setExpression(String expression) {
+        delegate.setExpression(expression);
+    }
+
+    public String getExpression() {
+        return delegate.getExpression();
+    }
+
+    //"hello.proxy.app" 이면 hello.proxy.app 과 하위 패키지의 클래스
+    public void setPackagePrefixes(String... packagePrefixes) {
+        this.packagePrefixes = packagePrefixes.clone();
+        String[] patterns = new String[packagePrefixes.length];
+        for (int i = 0; i < packagePrefixes.length; i++) {
+            //hello.proxy.apple 같은 패키지가 걸리지 않도록 '.' 까지 포함한 접두사
+            patterns[i] = packagePrefixes[i] + ".*";
+        }
+        this.packageIndex = new NameIndex(patterns);
+    }
+
+    //NameMatchMethodPointcut.setMappedNames() 와 같은 패턴
+    public void setMappedNames(String... mappedNames) {
+        this.mappedNames = mappedNames.clone();
+        this.mappedIndex = new NameIndex(mappedNames);
+    }
+
+    public void setExcludedNames(String... excludedNames) {
+        this.excludedNames = excludedNames.clone();
+        this.excludedIndex = new NameIndex(excludedNames);
+    }
+
+    @Override
+    public ClassFilter getClassFilter() {
+        return this;
+    }
+
+    @Override
+    public MethodMatcher getMethodMatcher() {
+        return this;
+    }
+
+    @Override
+    public boolean matches(Class<?> clazz) {
+        if (!packageIndex.isEmpty() && !inPackages(clazz)) {
+            return false;
+        }
+        return delegate.matches(clazz);
+    }
+
+    //클래스 계층 전체(부모 클래스, 모든 인터페이스) 중 하나라도 패키지 안에 있으면 통과
+    private boolean inPackages(Class<?> clazz) {
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            if (packageIndex.matches(current.getName()) || interfacesInPackages(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean interfacesInPackages(Class<?> type) {
+        for (Class<?> ifc : type.getInterfaces()) {
+            if (packageIndex.matches(ifc.getName()) || interfacesInPackages(ifc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        if (!matchesName(method.getName())) {
+            return false;
+        }
+        return delegate.matches(method, targetClass);
+    }
+
+    @Override
+    public boolean isRuntime() {
+        return delegate.isRuntime();
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass, Object... args) {
+        return delegate.matches(method, targetClass, args);
+    }
+
+    private boolean matchesName(String name) {
+        if (!mappedIndex.isEmpty() && !mappedIndex.matches(name)) {
+            return false;
+        }
+        return excludedIndex.isEmpty() || !excludedIndex.matches(name);
+    }
+
+    //CGLIB 프록시 클래스 캐시는 어드바이저(포인트컷) equals 로 같은 설정인지 판단한다
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IndexedAspectJPointcut)) {
+            return false;
+        }
+        IndexedAspectJPointcut other = (IndexedAspectJPointcut) o;
+        return Objects.equals(getExpression(), other.getExpression())
+                && Arrays.equals(packagePrefixes, other.packagePrefixes)
+                && Arrays.equals(mappedNames, other.mappedNames)
+                && Arrays.equals(excludedNames, other.excludedNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getExpression(), Arrays.hashCode(packagePrefixes), Arrays.hashCode(mappedNames), Arrays.hashCode(excludedNames));
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedAspectJPointcut: packages=" + Arrays.toString(packagePrefixes)
+                + ", names=" + Arrays.toString(mappedNames)
+                + ", excluded=" + Arrays.toString(excludedNames)
+                + ", expression=" + getExpression();
+    }
+}
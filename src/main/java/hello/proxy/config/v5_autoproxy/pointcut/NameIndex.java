@@ -0,0 +1,98 @@
+package hello.proxy.config.v5_autoproxy.pointcut;
+
+import org.springframework.util.PatternMatchUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 이름 패턴("request*", "*Service", "noLog", "*") 묶음을 미리 컴파일해 둔 매처
+ *
+ * PatternMatchUtils.simpleMatch(patterns, name) 은 이름마다 패턴 전체를 하나씩 비교한다.
+ * 여기서는 패턴 모양에 따라 나눠 둔다.
+ * 정확한 이름 -> HashSet
+ * prefix* -> 문자 단위 트라이, 이름을 앞에서부터 한 번만 읽는다
+ * *suffix -> 뒤집은 문자열의 트라이, 이름을 뒤에서부터 한 번만 읽는다
+ * 그 밖의 모양(a*b*c) -> simpleMatch
+ */
+final class NameIndex {
+
+    private final boolean matchAll;
+    private final Set<String> exact = new HashSet<>();
+    private final Node prefixes = new Node();
+    private final Node suffixes = new Node();
+    private final List<String> others = new ArrayList<>();
+    private final boolean empty;
+
+    NameIndex(String... patterns) {
+        boolean all = false;
+        for (String pattern : patterns) {
+            int first = pattern.indexOf('*');
+            int last = pattern.lastIndexOf('*');
+            if (first == -1) {
+                exact.add(pattern);
+            } else if (pattern.equals("*")) {
+                all = true;
+            } else if (first == pattern.length() - 1) {
+                prefixes.add(pattern.substring(0, first));
+            } else if (last == 0 && first == 0) {
+                suffixes.add(new StringBuilder(pattern.substring(1)).reverse().toString());
+            } else {
+                others.add(pattern);
+            }
+        }
+        this.matchAll = all;
+        this.empty = patterns.length == 0;
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    boolean matches(String name) {
+        if (matchAll || exact.contains(name) || prefixes.matchesPrefixOf(name, false) || suffixes.matchesPrefixOf(name, true)) {
+            return true;
+        }
+        for (String pattern : others) {
+            if (PatternMatchUtils.simpleMatch(pattern, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //트라이 노드, terminal 이면 루트에서 여기까지의 문자열이 등록된 접두사
+    private static final class Node {
+
+        private final Map<Character, Node> children = new HashMap<>();
+        private boolean terminal;
+
+        void add(String key) {
+            Node node = this;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            }
+            node.terminal = true;
+        }
+
+        //등록된 접두사 중 하나로 name 이 시작하는지, reverse 면 name 을 뒤에서부터 읽는다
+        boolean matchesPrefixOf(String name, boolean reverse) {
+            Node node = this;
+            int length = name.length();
+            for (int i = 0; i < length; i++) {
+                if (node.terminal) {
+                    return true;
+                }
+                node = node.children.get(name.charAt(reverse ? length - 1 - i : i));
+                if (node == null) {
+                    return false;
+                }
+            }
+            return node.terminal;
+        }
+    }
+}
@@ -2,8 +2,12 @@ package hello.proxy.config.v6_aop;
 
 import hello.proxy.config.AppV1Config;
 import hello.proxy.config.AppV2Config;
+import hello.proxy.config.v3_proxyfactory.RateLimitConfig;
 import hello.proxy.config.v6_aop.aspect.LogTraceAspect;
+import hello.proxy.config.v6_aop.aspect.RateLimitAspect;
+import hello.proxy.ratelimit.RateLimiter;
 import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -33,7 +37,7 @@ import org.springframework.context.annotation.Import;
  * 3. 어드바이저 생성: @Aspect 어드바이저 빌더를 통해 @Aspect 애노테이션 정보를 기반으로 어드바이저를 생성한다.
  * 4. @Aspect 기반 어드바이저 저장: 생성한 어드바이저를 @Aspect 어드바이저 빌더 내부에 저장한다.
  * */
-@Import({AppV1Config.class, AppV2Config.class})
+@Import({AppV1Config.class, AppV2Config.class, RateLimitConfig.class})
 public class AopConfig {
 
     /**
@@ -47,4 +51,11 @@ public class AopConfig {
     public LogTraceAspect logTraceAspect(LogTrace logTrace) {
         return new LogTraceAspect(logTrace);
     }
+
+    //ratelimit.enabled=true 이면 /v1/request 호출 비율 제한, RateLimiter 는 RateLimitConfig 가 등록
+    @Bean
+    @ConditionalOnProperty(name = "ratelimit.enabled", havingValue = "true")
+    public RateLimitAspect rateLimitAspect(RateLimiter rateLimiter) {
+        return new RateLimitAspect(rateLimiter);
+    }
 }
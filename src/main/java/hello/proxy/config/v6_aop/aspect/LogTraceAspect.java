@@ -1,11 +1,13 @@
 package hello.proxy.config.v6_aop.aspect;
 
+import hello.proxy.trace.MethodDescriptors;
 import hello.proxy.trace.TraceStatus;
 import hello.proxy.trace.logtrace.LogTrace;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 
 import java.lang.reflect.Method;
 
@@ -28,6 +30,9 @@ public class LogTraceAspect {
     /**
      * @Around 의 값에 포인트컷 표현식을 넣는다. 표현식은 AspectJ 표현식을 사용한다.
      * @Around으로 포인트컷, 어디에 적용할건지
+     *
+     * within(hello.proxy.app..*) 을 더하면 클래스 단위로 먼저 걸러지지만(fast match),
+     * 패키지 밖에서 app 의 타입을 상속, 구현한 빈까지 빠져서 execution() 만 쓸 때와 결과가 달라진다. 그래서 쓰지 않는다.
      * */
     @Around("execution(* hello.proxy.app..*(..))")
 
@@ -49,8 +54,10 @@ public class LogTraceAspect {
              * invocation에서 필요한 것들을 다 꺼낼 수 있음.
              * invocation.proceed()가 타겟을 찾아서 그 타겟에 있는 다음 실체를 실행
              * */
-            String message = joinPoint.getSignature().toShortString();
-            status = logTrace.begin(message);
+            //joinPoint.getSignature().toShortString() 은 호출할 때마다 문자열을 새로 만든다
+            //Method 마다 한 번만 만들어 둔 MethodDescriptor 를 사용
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            status = logTrace.begin(MethodDescriptors.of(method));
 
             //로직 호출
             Object result = joinPoint.proceed();
@@ -0,0 +1,33 @@
+package hello.proxy.config.v6_aop.aspect;
+
+import hello.proxy.ratelimit.RateLimiter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * @Aspect 로 만든 호출 비율 제한, RateLimitAdvice 와 같은 RateLimiter 를 쓴다
+ *
+ * /v1/request 의 itemId 마다, 그리고 전체로 제한한다.
+ * LogTraceAspect 보다 먼저(바깥) 실행해서 거절된 호출은 로그 추적을 시작하지 않는다.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RateLimitAspect {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitAspect(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Around("execution(* hello.proxy.app.v1.OrderControllerV1.request(..))")
+    public Object execute(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        rateLimiter.acquire(signature.getMethod(), joinPoint.getArgs());
+        return joinPoint.proceed();
+    }
+}
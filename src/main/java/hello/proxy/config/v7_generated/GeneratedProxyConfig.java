@@ -0,0 +1,29 @@
+package hello.proxy.config.v7_generated;
+
+import hello.proxy.config.AppV1Config;
+import hello.proxy.config.AppV2Config;
+import hello.proxy.config.v7_generated.postprocessor.GeneratedTraceProxyPostProcessor;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * 컴파일 시점에 만든 프록시 적용
+ *
+ * OrderServiceV1, OrderRepositoryV2 등에 @TraceProxy 를 붙이면 빌드할 때 trace-processor 가
+ * OrderServiceV1TraceProxy 처럼 v1_proxy 의 직접 만든 프록시와 같은 코드를 만들어 준다.
+ * 빈 후처리기가 빈을 이 프록시로 감싸서 등록하므로 설정 파일에는 빈 등록만 있으면 된다.
+ *
+ * 직접 만든 프록시처럼 빠르고(리플렉션 없음), 동적 프록시처럼 프록시 클래스를 손으로 만들 필요가 없다.
+ * 런타임에 클래스를 만들지 않으니 애플리케이션 시작도 빠르다.
+ */
+@Configuration
+@Import({AppV1Config.class, AppV2Config.class})
+public class GeneratedProxyConfig {
+
+    @Bean
+    public GeneratedTraceProxyPostProcessor generatedTraceProxyPostProcessor(LogTrace logTrace) {
+        return new GeneratedTraceProxyPostProcessor(logTrace);
+    }
+}
@@ -0,0 +1,33 @@
+package hello.proxy.config.v7_generated.postprocessor;
+
+import hello.proxy.trace.generated.GeneratedTraceProxies;
+import hello.proxy.trace.logtrace.LogTrace;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * 컴파일 시점에 만든 프록시(@TraceProxy)로 빈을 감싸는 빈 후처리기
+ *
+ * PackageLogTracePostProcessor 와 하는 일은 같지만 ProxyFactory 를 쓰지 않는다.
+ * 어떤 빈을 어떤 프록시로 감쌀지는 애노테이션 프로세서가 만든 GeneratedTraceProxies 에 instanceof 로 들어 있어서
+ * 런타임에 프록시 클래스를 만들거나(JDK 동적 프록시, CGLIB) 리플렉션으로 메서드를 호출하지 않는다.
+ */
+@Slf4j
+public class GeneratedTraceProxyPostProcessor implements BeanPostProcessor {
+
+    private final LogTrace logTrace;
+
+    public GeneratedTraceProxyPostProcessor(LogTrace logTrace) {
+        this.logTrace = logTrace;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Object proxy = GeneratedTraceProxies.wrap(bean, logTrace);
+        if (proxy != bean) {
+            log.info("generated proxy: target={} proxy={}", bean.getClass(), proxy.getClass());
+        }
+        return proxy;
+    }
+}
@@ -0,0 +1,74 @@
+package hello.proxy.config.v8_bytecode;
+
+import hello.proxy.app.v1.*;
+import hello.proxy.app.v2.OrderControllerV2;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.trace.bytecode.BytecodeProxyFactory;
+import hello.proxy.trace.logtrace.LogTrace;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 바이트코드 프록시 사용
+ *
+ * ProxyFactoryConfigV1, ProxyFactoryConfigV2 와 같은 빈 구성이다.
+ * ProxyFactory 대신 BytecodeProxyFactory 로 프록시를 만든다.
+ * V1 은 인터페이스를 구현한 프록시, V2 는 구체 클래스를 상속한 프록시가 만들어진다.
+ *
+ * ProxyFactory 프록시는 호출마다 MethodInvocation 을 만들고 인터셉터 체인을 따라간다.
+ * 이 프록시는 LogTrace 호출이 메서드 안에 직접 들어 있어서 그런 과정이 없다.
+ */
+@Slf4j
+@Configuration
+public class BytecodeProxyConfig {
+
+    private static final String[] MAPPED_NAMES = {"request*", "order*", "save*"};
+
+    @Bean
+    public OrderControllerV1 orderControllerV1(LogTrace logTrace) {
+        OrderControllerV1 orderController = new OrderControllerV1Impl(orderServiceV1(logTrace));
+        return createProxy(orderController, logTrace);
+    }
+
+    @Bean
+    public OrderServiceV1 orderServiceV1(LogTrace logTrace) {
+        OrderServiceV1 orderService = new OrderServiceV1Impl(orderRepositoryV1(logTrace));
+        return createProxy(orderService, logTrace);
+    }
+
+    @Bean
+    public OrderRepositoryV1 orderRepositoryV1(LogTrace logTrace) {
+        OrderRepositoryV1 orderRepository = new OrderRepositoryV1Impl();
+        return createProxy(orderRepository, logTrace);
+    }
+
+    @Bean
+    public OrderControllerV2 orderControllerV2(LogTrace logTrace) {
+        OrderControllerV2 orderController = new OrderControllerV2(orderServiceV2(logTrace));
+        return createProxy(orderController, logTrace);
+    }
+
+    @Bean
+    public OrderServiceV2 orderServiceV2(LogTrace logTrace) {
+        OrderServiceV2 orderService = new OrderServiceV2(orderRepositoryV2(logTrace));
+        return createProxy(orderService, logTrace);
+    }
+
+    @Bean
+    public OrderRepositoryV2 orderRepositoryV2(LogTrace logTrace) {
+        OrderRepositoryV2 orderRepository = new OrderRepositoryV2();
+        return createProxy(orderRepository, logTrace);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T createProxy(T target, LogTrace logTrace) {
+        BytecodeProxyFactory factory = new BytecodeProxyFactory(target);
+        factory.setLogTrace(logTrace);
+        factory.setMappedNames(MAPPED_NAMES);
+        T proxy = (T) factory.getProxy();
+        log.info("BytecodeProxyFactory proxy={}, target={}", proxy.getClass(), target.getClass());
+        return proxy;
+    }
+}
@@ -0,0 +1,70 @@
+package hello.proxy.hedge;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * hedge 지표
+ *
+ * calls : 기준값이 있어서 hedge 대상이 된 호출
+ * hedges : 기준 시간 안에 끝나지 않아서 한 번 더 보낸 호출
+ * hedgeWins : 나중에 보낸 호출이 먼저 끝난 경우
+ * rejected : executor 가 가득 차서 hedge 를 보내지 못했거나 호출 스레드에서 그대로 실행한 경우
+ *
+ * hedgeRate = hedges / calls, p95 기준이면 5% 근처여야 한다
+ * winRate = hedgeWins / hedges, 낮으면 느린 원인이 호출마다 다르지 않다는 뜻(hedge 가 소용 없음)
+ */
+public class HedgeMetrics {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public void recordCall() {
+        calls.increment();
+    }
+
+    public void recordHedge() {
+        hedges.increment();
+    }
+
+    public void recordHedgeWin() {
+        hedgeWins.increment();
+    }
+
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    public long getCallCount() {
+        return calls.sum();
+    }
+
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public double getHedgeRate() {
+        long call = getCallCount();
+        return call == 0 ? 0.0 : (double) getHedgeCount() / call;
+    }
+
+    public double getWinRate() {
+        long hedge = getHedgeCount();
+        return hedge == 0 ? 0.0 : (double) getHedgeWinCount() / hedge;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgeMetrics{calls=" + getCallCount() + ", hedges=" + getHedgeCount()
+                + ", hedgeWins=" + getHedgeWinCount() + ", rejected=" + getRejectedCount() + "}";
+    }
+}
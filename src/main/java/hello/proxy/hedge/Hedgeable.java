@@ -0,0 +1,18 @@
+package hello.proxy.hedge;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 한 번 더 보내도(hedge) 되는 메서드 표시
+ *
+ * HedgingAdvice 는 같은 호출을 두 번 실행하고, 진 쪽은 인터럽트로 취소한다.
+ * 두 번 실행해도 결과와 상태가 같은 메서드(조회 등)에만 붙인다. save() 같은 쓰기에는 붙이지 않는다.
+ * 인터페이스 메서드에 붙여도 된다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Hedgeable {
+}
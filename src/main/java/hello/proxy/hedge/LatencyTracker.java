@@ -0,0 +1,57 @@
+package hello.proxy.hedge;
+
+import hello.proxy.trace.metrics.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메서드 하나의 최근 응답 시간 백분위(예: p95)
+ *
+ * LatencyHistogram 에 기록하다가 window 가 지나면 그 구간의 백분위를 계산해서 기준값(threshold)으로 두고
+ * 새 히스토그램으로 바꾼다. 오래된 응답 시간은 다음 구간부터 반영되지 않는다.
+ * 구간 안의 기록이 minSamples 보다 적으면 바꾸지 않고 계속 모은다(몇 건으로 정한 p95 는 믿을 수 없다).
+ *
+ * threshold() 는 volatile 읽기 하나, 백분위 계산은 window 마다 CAS 에 성공한 스레드 하나만 한다.
+ */
+public class LatencyTracker {
+
+    private final double quantile;
+    private final long windowNanos;
+    private final int minSamples;
+
+    private volatile LatencyHistogram current = new LatencyHistogram();
+    //0 이면 아직 기준이 없다
+    private volatile long thresholdNanos;
+    private final AtomicLong nextRotateNanos;
+
+    public LatencyTracker(double quantile, long window, TimeUnit unit, int minSamples) {
+        this.quantile = quantile;
+        this.windowNanos = unit.toNanos(window);
+        this.minSamples = minSamples;
+        this.nextRotateNanos = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+
+    public void record(long nanos) {
+        current.record(nanos);
+        long now = System.nanoTime();
+        long next = nextRotateNanos.get();
+        if (now - next >= 0 && nextRotateNanos.compareAndSet(next, now + windowNanos)) {
+            rotate();
+        }
+    }
+
+    private void rotate() {
+        LatencyHistogram.Snapshot snapshot = current.snapshot();
+        if (snapshot.getCount() < minSamples) {
+            return;
+        }
+        thresholdNanos = snapshot.valueAtQuantile(quantile);
+        current = new LatencyHistogram();
+    }
+
+    /** 이 시간보다 오래 걸리면 느린 호출, 0 이면 아직 모르는 상태 */
+    public long threshold() {
+        return thresholdNanos;
+    }
+}
@@ -0,0 +1,72 @@
+package hello.proxy.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 락 없는 동시 실행 허가(permit)
+ *
+ * 실행 중인 호출 수(inFlight)를 CAS 로 올린다. 한도(GradientLimit)에 도달했으면 기다리지 않고 바로 거절한다.
+ * 느려진 저장소 앞에 요청 스레드가 쌓여서 다른 요청(/v3/no-log 등)까지 처리하지 못하는 것을 막는다(bulkhead).
+ */
+public class ConcurrencyLimiter {
+
+    private final GradientLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimiter(GradientLimit limit) {
+        this.limit = limit;
+    }
+
+    /** 허가를 얻었으면 true, 반드시 release() 로 돌려줘야 한다 */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param startNanos tryAcquire() 직후의 System.nanoTime()
+     * @param success 정상 완료만 응답 시간을 한도 계산에 쓴다, 예외는 빨리 끝나도 정상 응답 시간이 아니다
+     */
+    public void release(long startNanos, boolean success) {
+        int current = inFlight.getAndDecrement();
+        if (success) {
+            limit.onSample(System.nanoTime() - startNanos, current);
+        }
+    }
+
+    public LimitExceededException rejection() {
+        return new LimitExceededException(limit.getName(), limit.getLimit());
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getLimitChangeCount() {
+        return limit.getLimitChangeCount();
+    }
+}
@@ -0,0 +1,133 @@
+package hello.proxy.limit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 응답 시간을 보고 스스로 조정하는 동시 실행 한도(gradient 방식)
+ *
+ * 부하가 없을 때의 응답 시간(longRtt)과 최근 응답 시간(shortRtt)을 비교한다.
+ * gradient = longRtt / shortRtt (0.5 ~ 1.0)
+ * 최근 응답이 느려졌으면(대기열이 생겼으면) gradient 가 1 보다 작아져서 한도가 줄고,
+ * 그대로면 gradient 가 1 이라 sqrt(limit) 만큼 여유를 두고 한도가 늘어난다.
+ * newLimit = limit * gradient + sqrt(limit)
+ * limit = limit * (1 - smoothing) + newLimit * smoothing
+ *
+ * 호출마다 계산하지 않는다. 응답 시간은 LongAdder 에 더해 두고, window 가 지나면 CAS 에 성공한 스레드 하나만 한도를 다시 계산한다.
+ * 실행 중인 호출이 한도의 절반도 안 되면(부하가 적으면) 한도를 늘리지 않는다. 쓰지도 않는 한도가 끝없이 커지지 않도록.
+ */
+@Slf4j
+public class GradientLimit {
+
+    //longRtt 를 따라가는 비율, 작을수록 천천히 따라간다
+    private static final double LONG_RTT_ALPHA = 0.05;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final long windowNanos;
+
+    private volatile int limit;
+
+    //window 동안 모은 값, update() 에서 꺼내고 비운다
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder sampleCount = new LongAdder();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong nextUpdateNanos;
+
+    //update() 에서만 쓴다, CAS 에 성공한 스레드 하나만 들어온다
+    //하지만 window 마다 다른 스레드일 수 있고, CAS 는 이전 스레드가 CAS 뒤에 쓴 값을 보장하지 않으므로 volatile
+    private volatile double estimatedLimit;
+    private volatile double longRttNanos;
+
+    private final LongAdder limitChanges = new LongAdder();
+
+    public GradientLimit(String name, int initialLimit, int minLimit, int maxLimit, long window, TimeUnit unit) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("한도 설정이 잘못되었습니다. initial=" + initialLimit + " min=" + minLimit + " max=" + maxLimit);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = 0.2;
+        this.windowNanos = unit.toNanos(window);
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.nextUpdateNanos = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 정상 완료된 호출 하나의 응답 시간
+     * @param inFlight 이 호출이 끝날 때 실행 중이던 호출 수(자기 포함)
+     */
+    public void onSample(long rttNanos, int inFlight) {
+        rttSum.add(rttNanos);
+        sampleCount.increment();
+        if (inFlight > maxInFlight.get()) {
+            maxInFlight.accumulateAndGet(inFlight, Math::max);
+        }
+
+        long now = System.nanoTime();
+        long next = nextUpdateNanos.get();
+        if (now - next >= 0 && nextUpdateNanos.compareAndSet(next, now + windowNanos)) {
+            update();
+        }
+    }
+
+    private void update() {
+        long count = sampleCount.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        int peakInFlight = maxInFlight.getAndSet(0);
+        if (count == 0) {
+            return;
+        }
+        double shortRtt = (double) sum / count;
+
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+        } else {
+            longRttNanos += (shortRtt - longRttNanos) * LONG_RTT_ALPHA;
+        }
+        //부하가 빠져서 최근이 훨씬 빠르면 기준을 빨리 내린다
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        //부하가 적은 구간에서는 늘리지 않는다
+        if (peakInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, longRttNanos / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+
+        int next = (int) estimatedLimit;
+        if (next != limit) {
+            log.debug("concurrency limit changed: name={} {} -> {} shortRtt={}ms longRtt={}ms", name, limit, next,
+                    TimeUnit.NANOSECONDS.toMillis((long) shortRtt), TimeUnit.NANOSECONDS.toMillis((long) longRttNanos));
+            limit = next;
+            limitChanges.increment();
+        }
+    }
+
+    //한도가 바뀐 횟수
+    public long getLimitChangeCount() {
+        return limitChanges.sum();
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,13 @@
+package hello.proxy.limit;
+
+/**
+ * 동시 실행 한도를 넘어서 거절된 호출
+ *
+ * 거절은 부하가 몰릴 때 많이 나오므로 스택 트레이스를 만들지 않는다.
+ */
+public class LimitExceededException extends RuntimeException {
+
+    public LimitExceededException(String name, int limit) {
+        super("동시 실행 한도 초과. name=" + name + " limit=" + limit, null, false, false);
+    }
+}
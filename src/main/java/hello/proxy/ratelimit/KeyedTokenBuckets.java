@@ -0,0 +1,117 @@
+package hello.proxy.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 키(itemId 등)마다 토큰 버킷을 하나씩 두는 맵, 키 수는 maxKeys 를 넘지 않는다
+ *
+ * 키는 요청 파라미터라 종류가 끝없이 늘어날 수 있다. maxKeys 를 넘으면 한 스레드만 정리하고
+ * 나머지 스레드는 기다리지 않고 지나간다(tryLock).
+ *
+ * 정리 순서
+ * 1. 가득 찬 버킷을 모두 지운다. 다시 만들어도 가득 찬 상태로 시작하므로 지워도 제한이 달라지지 않는다.
+ * 2. 그래도 많으면 남은 토큰이 많은 버킷부터 maxKeys 의 90% 까지 지운다. 지운 키는 다음 호출에서 가득 찬 버킷을 새로 받는다.
+ *    토큰을 다 쓴(제한 중인) 키를 지우면 그 키는 곧바로 burst 를 다시 받는다. 새 키를 계속 만들어 제한을 푸는 일이 없도록
+ *    가득 찬 상태와 가장 가까운 버킷부터 지운다.
+ * 90% 까지 지우는 이유는 새 키마다 정리가 돌지 않게 하기 위해서다.
+ */
+public class KeyedTokenBuckets {
+
+    private final int maxKeys;
+    private final int lowWaterMark;
+    private final int capacity;
+    private final double permitsPerSecond;
+    private final Map<Object, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public KeyedTokenBuckets(int maxKeys, int capacity, double permitsPerSecond) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys 는 1 이상이어야 합니다. maxKeys=" + maxKeys);
+        }
+        this.maxKeys = maxKeys;
+        this.lowWaterMark = maxKeys - maxKeys / 10;
+        this.capacity = capacity;
+        this.permitsPerSecond = permitsPerSecond;
+        //설정이 잘못됐으면 첫 요청이 아니라 생성할 때 실패하도록
+        new TokenBucket(capacity, permitsPerSecond);
+    }
+
+    public TokenBucket get(Object key) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, permitsPerSecond));
+        if (buckets.size() > maxKeys) {
+            evict();
+        }
+        return bucket;
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            Iterator<TokenBucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isFull()) {
+                    iterator.remove();
+                    evictionCount.increment();
+                }
+            }
+            if (buckets.size() > lowWaterMark) {
+                evictMostTokens(buckets.size() - lowWaterMark);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    //남은 토큰이 많은 순서로 count 개를 지운다, 정리는 90% 까지 한 번에 하므로 정렬 비용은 새 키 여러 개에 나눠진다
+    private void evictMostTokens(int count) {
+        List<Candidate> candidates = new ArrayList<>(buckets.size());
+        for (Map.Entry<Object, TokenBucket> entry : buckets.entrySet()) {
+            candidates.add(new Candidate(entry.getKey(), entry.getValue()));
+        }
+        candidates.sort(Comparator.comparingInt((Candidate candidate) -> candidate.tokens).reversed());
+
+        for (int i = 0; i < candidates.size() && count > 0; i++) {
+            Candidate candidate = candidates.get(i);
+            //정리하는 동안 다른 스레드가 같은 키를 지우고 새로 만들었으면 그 버킷은 두고 넘어간다
+            if (buckets.remove(candidate.key, candidate.bucket)) {
+                evictionCount.increment();
+                count--;
+            }
+        }
+    }
+
+    private static class Candidate {
+        private final Object key;
+        private final TokenBucket bucket;
+        //정렬 중에 바뀌지 않도록 한 번만 읽어 둔다
+        private final int tokens;
+
+        Candidate(Object key, TokenBucket bucket) {
+            this.key = key;
+            this.bucket = bucket;
+            this.tokens = bucket.getAvailableTokens();
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+}
@@ -0,0 +1,27 @@
+package hello.proxy.ratelimit;
+
+import java.lang.reflect.Method;
+
+/**
+ * 호출한 메서드와 인수로 비율 제한 키를 만든다
+ *
+ * ProxyFactory 어드바이스는 MethodInvocation 에서, @Aspect 는 ProceedingJoinPoint 에서 꺼낸 값으로 호출한다.
+ */
+@FunctionalInterface
+public interface RateLimitKeyResolver {
+
+    //인수가 없거나 null 일 때 쓰는 키
+    Object NO_KEY = "-";
+
+    Object resolve(Method method, Object[] args);
+
+    //index 번째 인수를 키로, request(itemId) 면 argument(0)
+    static RateLimitKeyResolver argument(int index) {
+        return (method, args) -> {
+            if (index >= args.length || args[index] == null) {
+                return NO_KEY;
+            }
+            return args[index];
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package hello.proxy.ratelimit;
+
+/**
+ * 토큰이 없을 때 동작
+ */
+public enum RateLimitMode {
+
+    //기다리지 않고 바로 RateLimitedException
+    FAIL_FAST,
+
+    //max-wait 안에 토큰이 생기면 기다렸다가 실행, 아니면 RateLimitedException
+    BLOCK
+}
@@ -0,0 +1,18 @@
+package hello.proxy.ratelimit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 호출 비율 제한을 넘어서 거절된 호출
+ *
+ * 트래픽이 몰릴 때 많이 나오므로 스택 트레이스를 만들지 않는다.
+ * 컨트롤러까지 올라가면 500 이 아니라 429 Too Many Requests 로 응답한다.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class RateLimitedException extends RuntimeException {
+
+    public RateLimitedException(String name, Object key) {
+        super("호출 비율 제한 초과. name=" + name + " key=" + key, null, false, false);
+    }
+}
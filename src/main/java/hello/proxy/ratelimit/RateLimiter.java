@@ -0,0 +1,95 @@
+package hello.proxy.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 키별 토큰 버킷 + 전체 토큰 버킷으로 호출 비율을 제한
+ *
+ * 키 버킷을 먼저 보고 전체 버킷을 본다. 반대로 하면 한 키가 몰릴 때 거절될 호출이 전체 토큰까지 써버린다.
+ * 키 버킷, 전체 버킷은 각각 null 이면 제한하지 않는다.
+ *
+ * 스프링에 의존하지 않으므로 ProxyFactory 어드바이스(RateLimitAdvice)와 @Aspect(RateLimitAspect)가 같은 객체를 쓴다.
+ */
+@Slf4j
+public class RateLimiter {
+
+    private final String name;
+    private final RateLimitKeyResolver keyResolver;
+    private final KeyedTokenBuckets keyBuckets;
+    private final TokenBucket globalBucket;
+    private final RateLimitMode mode;
+    private final long maxWaitNanos;
+
+    private final LongAdder permittedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * @param keyBuckets 키별 버킷, null 이면 전체 제한만
+     * @param globalBucket 전체 버킷, null 이면 키별 제한만
+     * @param maxWait BLOCK 모드에서 토큰을 기다리는 최대 시간(키 버킷, 전체 버킷 합계)
+     */
+    public RateLimiter(String name, RateLimitKeyResolver keyResolver, KeyedTokenBuckets keyBuckets, TokenBucket globalBucket,
+                       RateLimitMode mode, long maxWait, TimeUnit unit) {
+        this.name = name;
+        this.keyResolver = keyResolver;
+        this.keyBuckets = keyBuckets;
+        this.globalBucket = globalBucket;
+        this.mode = mode;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    //허용되지 않으면 RateLimitedException
+    public void acquire(Method method, Object[] args) {
+        acquire(keyResolver.resolve(method, args));
+    }
+
+    public void acquire(Object key) {
+        boolean permitted = mode == RateLimitMode.BLOCK ? acquireBlocking(key) : acquireNow(key);
+        if (!permitted) {
+            rejectedCount.increment();
+            log.debug("rate limited: name={} key={}", name, key);
+            throw new RateLimitedException(name, key);
+        }
+        permittedCount.increment();
+    }
+
+    private boolean acquireNow(Object key) {
+        if (keyBuckets != null && !keyBuckets.get(key).tryAcquire()) {
+            return false;
+        }
+        return globalBucket == null || globalBucket.tryAcquire();
+    }
+
+    private boolean acquireBlocking(Object key) {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        if (keyBuckets != null && !keyBuckets.get(key).tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        return globalBucket == null || globalBucket.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public RateLimitMode getMode() {
+        return mode;
+    }
+
+    //지금 들고 있는 키 버킷 수
+    public int getKeyCount() {
+        return keyBuckets == null ? 0 : keyBuckets.size();
+    }
+
+    public long getPermittedCount() {
+        return permittedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+}
@@ -0,0 +1,137 @@
+package hello.proxy.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 락 없는 토큰 버킷
+ *
+ * 남은 토큰 수와 마지막으로 토큰을 채운 시각을 long 하나에 넣고 CAS 로만 바꾼다.
+ * 상위 44 비트 : 마지막으로 채운 시각(마이크로초, 약 203일 주기로 돈다)
+ * 하위 20 비트 : 남은 토큰 수(최대 1,048,575)
+ *
+ * 토큰은 따로 채우는 스레드 없이 꺼낼 때 지난 시간만큼 계산해서 채운다.
+ * 채운 토큰 수만큼만 시각을 앞으로 옮기므로 토큰 하나가 안 되는 남은 시간은 다음 계산으로 넘어간다.
+ */
+public class TokenBucket {
+
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long TIME_MASK = (1L << (64 - TOKEN_BITS)) - 1;
+    //이보다 크게 지났다고 나오면 다른 스레드가 더 늦은 시각을 먼저 기록한 것(시계가 뒤로 간 것처럼 보임)
+    private static final long MAX_ELAPSED = TIME_MASK >>> 1;
+    private static final long ORIGIN = System.nanoTime();
+
+    public static final int MAX_CAPACITY = (int) TOKEN_MASK;
+
+    private final int capacity;
+    private final long microsPerToken;
+    private final AtomicLong state;
+
+    /**
+     * @param capacity 한 번에 몰아서 쓸 수 있는 토큰 수(burst)
+     * @param permitsPerSecond 초당 채우는 토큰 수, 최대 1,000,000
+     */
+    public TokenBucket(int capacity, double permitsPerSecond) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity 는 1 ~ " + MAX_CAPACITY + " 사이여야 합니다. capacity=" + capacity);
+        }
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond 는 0 보다 커야 합니다. permitsPerSecond=" + permitsPerSecond);
+        }
+        this.capacity = capacity;
+        this.microsPerToken = Math.max(1, Math.round(1_000_000 / permitsPerSecond));
+        //처음에는 가득 찬 상태
+        this.state = new AtomicLong(pack(capacity, nowMicros()));
+    }
+
+    //토큰이 있으면 하나 꺼내고 true, 없으면 기다리지 않고 false
+    public boolean tryAcquire() {
+        return consume() == 0;
+    }
+
+    /**
+     * timeout 안에 토큰이 생기면 기다렸다가 꺼낸다
+     * 기다려도 timeout 안에 토큰이 생기지 않을 것 같으면 기다리지 않고 바로 false
+     * 기다리는 중에 인터럽트되면 인터럽트 상태를 남기고 false
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            long waitNanos = consume();
+            if (waitNanos == 0) {
+                return true;
+            }
+            if (waitNanos > deadline - System.nanoTime()) {
+                return false;
+            }
+            LockSupport.parkNanos(this, waitNanos);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 토큰 하나를 꺼낸다
+     * @return 꺼냈으면 0, 토큰이 없으면 다음 토큰이 생길 때까지 남은 시간(ns)
+     */
+    private long consume() {
+        while (true) {
+            long current = state.get();
+            long now = nowMicros();
+            long tokens = current & TOKEN_MASK;
+            long last = current >>> TOKEN_BITS;
+
+            long elapsed = elapsed(last, now);
+            long refill = elapsed / microsPerToken;
+            if (tokens + refill >= capacity) {
+                tokens = capacity;
+                last = now;
+            } else if (refill > 0) {
+                tokens += refill;
+                last = (last + refill * microsPerToken) & TIME_MASK;
+            }
+
+            if (tokens == 0) {
+                long waitMicros = microsPerToken - elapsed(last, now);
+                return TimeUnit.MICROSECONDS.toNanos(Math.max(1, waitMicros));
+            }
+            if (state.compareAndSet(current, pack(tokens - 1, last))) {
+                return 0;
+            }
+        }
+    }
+
+    //지금 꺼낼 수 있는 토큰 수, 상태는 바꾸지 않는다
+    public int getAvailableTokens() {
+        long current = state.get();
+        long tokens = current & TOKEN_MASK;
+        long refill = elapsed(current >>> TOKEN_BITS, nowMicros()) / microsPerToken;
+        return (int) Math.min(capacity, tokens + refill);
+    }
+
+    //가득 찬 버킷은 버리고 새로 만들어도 상태가 같다
+    public boolean isFull() {
+        return getAvailableTokens() == capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private static long elapsed(long last, long now) {
+        long elapsed = (now - last) & TIME_MASK;
+        return elapsed > MAX_ELAPSED ? 0 : elapsed;
+    }
+
+    private static long pack(long tokens, long micros) {
+        return (micros << TOKEN_BITS) | tokens;
+    }
+
+    private static long nowMicros() {
+        return ((System.nanoTime() - ORIGIN) / 1000) & TIME_MASK;
+    }
+}
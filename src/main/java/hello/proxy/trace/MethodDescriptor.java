@@ -0,0 +1,38 @@
+package hello.proxy.trace;
+
+/**
+ * 트레이스 대상 메서드 하나의 메타 정보, MethodDescriptors 에서만 만든다
+ *
+ * id : 키마다 하나씩 붙는 0 부터 시작하는 번호, 지표 등을 배열 인덱스로 바로 찾을 때 사용
+ * key : "hello.proxy.app.v1.OrderControllerV1.request()" 처럼 선언한 클래스의 전체 이름으로 만든 구분용 이름
+ * name : 로그에 남길 "OrderControllerV1.request()" 형태의 이름, 처음 한 번만 만든다
+ */
+public final class MethodDescriptor {
+
+    private final int id;
+    private final String key;
+    private final String name;
+
+    MethodDescriptor(int id, String key, String name) {
+        this.id = id;
+        this.key = key;
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,91 @@
+package hello.proxy.trace;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 모든 프록시 방식이 함께 쓰는 MethodDescriptor 저장소
+ *
+ * 지금까지는 호출할 때마다 프록시가 메시지 문자열을 새로 만들었다.
+ * getDeclaringClass().getSimpleName() + "." + getName() + "()" 또는 joinPoint.getSignature().toShortString()
+ * 이제는 Method(또는 직접 만든 프록시의 이름)마다 처음 한 번만 이름을 만들고 번호를 붙여 둔다.
+ * 프록시는 MethodDescriptor 를 필드에 들고 있다가 LogTrace.begin(MethodDescriptor) 로 넘긴다.
+ *
+ * 번호는 키(key) 기준이다. Method 의 키는 선언한 클래스의 전체 이름 + 메서드 이름이라서
+ * 패키지만 다른 같은 이름의 클래스는 로그 이름(name)이 같아도 번호가 다르다.
+ * 같은 Method 를 여러 경로(JDK 프록시, getMethods())로 받아도 키가 같으므로 같은 번호를 쓴다.
+ * 조회는 ConcurrentHashMap.get() 한 번이고, 등록은 처음 한 번만 일어난다.
+ */
+public final class MethodDescriptors {
+
+    private static final ConcurrentHashMap<Method, MethodDescriptor> BY_METHOD = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, MethodDescriptor> BY_KEY = new ConcurrentHashMap<>();
+    //id -> MethodDescriptor, 가득 차면 두 배로 늘려서 바꾼다, size 까지만 채워져 있다
+    private static volatile MethodDescriptor[] byId = new MethodDescriptor[16];
+    //byId 에 쓴 다음 늘리므로 size 를 먼저 읽으면 그 앞의 칸은 채워져 있다
+    private static volatile int size;
+
+    private MethodDescriptors() {
+    }
+
+    public static MethodDescriptor of(Method method) {
+        MethodDescriptor descriptor = BY_METHOD.get(method);
+        if (descriptor != null) {
+            return descriptor;
+        }
+        return BY_METHOD.computeIfAbsent(method, m -> of(keyOf(m), nameOf(m)));
+    }
+
+    /** 직접 만든 프록시처럼 Method 없이 이름만 있는 경우, 이름이 곧 키 */
+    public static MethodDescriptor of(String name) {
+        return of(name, name);
+    }
+
+    /**
+     * 생성된 프록시처럼 Method 객체는 없지만 선언한 클래스를 아는 경우
+     * @param key keyOf(Method) 와 같은 형식
+     * @param name 로그에 남길 이름, nameOf(Method) 와 같은 형식
+     */
+    public static MethodDescriptor of(String key, String name) {
+        MethodDescriptor descriptor = BY_KEY.get(key);
+        if (descriptor != null) {
+            return descriptor;
+        }
+        return BY_KEY.computeIfAbsent(key, k -> register(k, name));
+    }
+
+    /** 등록되지 않은 id 이면 null */
+    public static MethodDescriptor get(int id) {
+        int count = size;
+        return id >= 0 && id < count ? byId[id] : null;
+    }
+
+    public static int size() {
+        return size;
+    }
+
+    //"hello.proxy.app.v1.OrderControllerV1.request()", 번호를 나누는 기준
+    public static String keyOf(Method method) {
+        return method.getDeclaringClass().getName() + "." + method.getName() + "()";
+    }
+
+    //"OrderControllerV1.request()", 로그에 남기는 이름
+    public static String nameOf(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "()";
+    }
+
+    //BY_KEY.computeIfAbsent() 안에서만 호출된다, 번호가 빠지지 않도록 클래스 락으로 순서를 맞춘다
+    private static synchronized MethodDescriptor register(String key, String name) {
+        int id = size;
+        MethodDescriptor[] descriptors = byId;
+        if (id == descriptors.length) {
+            descriptors = Arrays.copyOf(descriptors, id * 2);
+            byId = descriptors;
+        }
+        MethodDescriptor descriptor = new MethodDescriptor(id, key, name);
+        descriptors[id] = descriptor;
+        size = id + 1;
+        return descriptor;
+    }
+}
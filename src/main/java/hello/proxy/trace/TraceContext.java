@@ -0,0 +1,85 @@
+package hello.proxy.trace;
+
+import hello.proxy.trace.id.TraceIdGenerator;
+
+import java.util.Arrays;
+
+/**
+ * 스레드 하나의 트레이스 상태를 담는 객체, 스레드마다 하나씩 두고 계속 재사용한다
+ *
+ * ThreadLocalLogTrace 는 깊이가 바뀔 때마다 TraceId 를 새로 만들고 ThreadLocal 에 get(), set() 한다.
+ * TraceContext 는 TraceId 하나의 level 만 올렸다 내리고, TraceStatus 도 깊이별로 미리 만들어 둔 것을 돌려쓴다.
+ * 한 번 도달한 깊이까지는 begin(), end() 에서 객체를 만들지 않는다.
+ *
+ * 한 스레드에서만 사용해야 한다. 반환한 TraceStatus 는 같은 깊이의 다음 begin() 에서 다시 쓰인다.
+ * TraceStatus 는 공유하는 TraceId 를 참조하지 않고 begin() 시점의 id, level 을 복사해 둔다.
+ * 그래도 상태 객체 자체는 재사용되므로 end() 한 뒤에는 들고 있으면 안 된다(다른 스레드로 넘기는 것도 안 된다).
+ */
+public class TraceContext {
+
+    private static final int INITIAL_DEPTH = 8;
+
+    private final TraceIdGenerator generator;
+    private final TraceId traceId = TraceId.empty();
+    private TraceStatus[] statuses = new TraceStatus[INITIAL_DEPTH];
+    //열려 있는 begin() 의 개수, 0 이면 진행 중인 트레이스가 없다
+    private int depth;
+
+    public TraceContext() {
+        this(TraceId.defaultGenerator());
+    }
+
+    public TraceContext(TraceIdGenerator generator) {
+        this.generator = generator;
+    }
+
+    public TraceStatus begin(String message, long startTimeNanos) {
+        return begin(message, -1, startTimeNanos);
+    }
+
+    public TraceStatus begin(MethodDescriptor method, long startTimeNanos) {
+        return begin(method.getName(), method.getId(), startTimeNanos);
+    }
+
+    private TraceStatus begin(String message, int methodId, long startTimeNanos) {
+        if (depth == 0) {
+            traceId.restart(generator.nextId());
+        } else {
+            traceId.nextLevel();
+        }
+
+        if (depth == statuses.length) {
+            statuses = Arrays.copyOf(statuses, depth * 2);
+        }
+        TraceStatus status = statuses[depth];
+        if (status == null) {
+            status = new TraceStatus();
+            statuses[depth] = status;
+        }
+        status.reset(traceId, startTimeNanos, message, methodId);
+        depth++;
+        return status;
+    }
+
+    public void end() {
+        if (depth == 0) {
+            throw new IllegalStateException("진행 중인 트레이스가 없습니다.");
+        }
+        depth--;
+        if (depth > 0) {
+            traceId.previousLevel();
+        }
+    }
+
+    public boolean isActive() {
+        return depth > 0;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public TraceId getTraceId() {
+        return traceId;
+    }
+}
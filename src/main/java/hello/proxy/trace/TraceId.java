@@ -1,24 +1,50 @@
 package hello.proxy.trace;
 
-import java.util.UUID;
+import hello.proxy.trace.id.RandomTraceIdGenerator;
+import hello.proxy.trace.id.TraceIdGenerator;
 
+/**
+ * 트레이스 ID 와 깊이(level)
+ *
+ * id 는 TraceIdGenerator 가 만든 64비트 long 으로 들고 있다.
+ * 16진수 문자열은 로그를 실제로 쓸 때 getId() 나 toString() 으로 만든다.
+ * 로거에 TraceId 자체를 넘기면 로그 레벨이 꺼져 있을 때는 문자열을 만들지 않는다.
+ *
+ * createNextId(), createPreviousId() 는 호출마다 새 TraceId 를 만든다(FieldLogTrace, ThreadLocalLogTrace 용).
+ * TraceContext 는 스레드마다 TraceId 하나를 두고 restart(), nextLevel(), previousLevel() 로 그 자리에서 값만 바꾼다.
+ */
 public class TraceId {
 
-    private String id;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    //64비트, 16자리 16진수
+    private static final int ID_LENGTH = 16;
+
+    private static final TraceIdGenerator DEFAULT_GENERATOR = new RandomTraceIdGenerator();
+
+    private long id;
     private int level;
 
     public TraceId() {
-        this.id = createId();
+        this(DEFAULT_GENERATOR);
+    }
+
+    public TraceId(TraceIdGenerator generator) {
+        this.id = generator.nextId();
         this.level = 0;
     }
 
-    private TraceId(String id, int level) {
+    TraceId(long id, int level) {
         this.id = id;
         this.level = level;
     }
 
-    private String createId() {
-        return UUID.randomUUID().toString().substring(0, 8);
+    //TraceContext 가 재사용할 빈 TraceId
+    static TraceId empty() {
+        return new TraceId(0L, 0);
+    }
+
+    static TraceIdGenerator defaultGenerator() {
+        return DEFAULT_GENERATOR;
     }
 
     public TraceId createNextId() {
@@ -29,15 +55,48 @@ public class TraceId {
         return new TraceId(id, level - 1);
     }
 
+    //새 트레이스 시작, TraceContext 전용
+    void restart(long id) {
+        this.id = id;
+        this.level = 0;
+    }
+
+    void nextLevel() {
+        level++;
+    }
+
+    void previousLevel() {
+        level--;
+    }
+
     public boolean isFirstLevel() {
         return level == 0;
     }
 
     public String getId() {
+        return toHex(id);
+    }
+
+    public long getRawId() {
         return id;
     }
 
     public int getLevel() {
         return level;
     }
+
+    @Override
+    public String toString() {
+        return getId();
+    }
+
+    /** 로그에 쓸 때만 호출, long id 를 16자리 16진수 문자열로 */
+    public static String toHex(long id) {
+        char[] chars = new char[ID_LENGTH];
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            chars[i] = HEX[(int) (id & 0xf)];
+            id >>>= 4;
+        }
+        return new String(chars);
+    }
 }
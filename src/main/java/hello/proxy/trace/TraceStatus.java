@@ -2,25 +2,74 @@ package hello.proxy.trace;
 
 public class TraceStatus {
 
+    //TraceContext 가 돌려쓰는 TraceStatus 는 null, getTraceId() 를 처음 부를 때 rawTraceId, level 로 만든다
     private TraceId traceId;
-    private Long startTimeMs;
+    //begin() 시점의 트레이스 ID, TraceContext 의 TraceId 는 다음 트레이스에서 값이 바뀌므로 복사해 둔다
+    private long rawTraceId;
+    //시작 시점의 깊이, TraceContext 의 TraceId 는 계속 바뀌므로 따로 들고 있는다
+    private int level;
+    //System.nanoTime() 값, 경과 시간 계산용(벽시계 시각이 아님)
+    private long startTimeNanos;
     private String message;
+    //MethodDescriptor 로 시작했으면 그 id, 문자열 메시지로 시작했으면 -1
+    private int methodId = -1;
 
-    public TraceStatus(TraceId traceId, Long startTimeMs, String message) {
+    public TraceStatus(TraceId traceId, long startTimeNanos, String message) {
         this.traceId = traceId;
-        this.startTimeMs = startTimeMs;
+        this.rawTraceId = traceId.getRawId();
+        this.level = traceId.getLevel();
+        this.startTimeNanos = startTimeNanos;
         this.message = message;
     }
 
-    public Long getStartTimeMs() {
-        return startTimeMs;
+    //TraceContext 가 미리 만들어 두고 재사용하는 TraceStatus
+    TraceStatus() {
+    }
+
+    /**
+     * TraceContext 전용, 공유하는 TraceId 는 참조로 들고 있지 않고 id, level 값만 복사한다.
+     * 그래야 하위 깊이의 begin() 이나 다음 트레이스가 TraceId 를 바꿔도 이 상태의 값은 그대로다.
+     */
+    void reset(TraceId traceId, long startTimeNanos, String message, int methodId) {
+        this.traceId = null;
+        this.rawTraceId = traceId.getRawId();
+        this.level = traceId.getLevel();
+        this.startTimeNanos = startTimeNanos;
+        this.message = message;
+        this.methodId = methodId;
+    }
+
+    public long getStartTimeNanos() {
+        return startTimeNanos;
+    }
+
+    //begin() 부터 지금까지 걸린 시간
+    public long elapsedNanos() {
+        return System.nanoTime() - startTimeNanos;
     }
 
     public String getMessage() {
         return message;
     }
 
+    public int getMethodId() {
+        return methodId;
+    }
+
+    //재사용하는 TraceStatus 는 처음 부를 때 TraceId 를 하나 만든다, 핫 패스에서는 getRawTraceId() 를 쓴다
     public TraceId getTraceId() {
+        if (traceId == null) {
+            traceId = new TraceId(rawTraceId, level);
+        }
         return traceId;
     }
+
+    //begin() 시점의 트레이스 ID(64비트 값), 객체를 만들지 않는다
+    public long getRawTraceId() {
+        return rawTraceId;
+    }
+
+    public int getLevel() {
+        return level;
+    }
 }
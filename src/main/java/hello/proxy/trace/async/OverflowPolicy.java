@@ -0,0 +1,14 @@
+package hello.proxy.trace.async;
+
+/**
+ * 링 버퍼가 가득 찼을 때(또는 가득 차가고 있을 때) 요청 스레드가 취할 동작
+ *
+ * DROP : 버퍼가 가득 차면 이벤트를 버리고 바로 돌아간다. 요청 스레드는 절대 멈추지 않는다.
+ * SAMPLE : 버퍼가 일정 수위 이상 차면 트레이스 ID 기준으로 일부 트레이스만 남긴다.
+ *          같은 트레이스의 이벤트는 함께 남거나 함께 버려지므로 호출 트리가 깨지지 않는다.
+ *          그래도 가득 차면 DROP 과 같다.
+ * BLOCK : 빈 슬롯이 생길 때까지 요청 스레드가 기다린다. 로그는 잃지 않지만 디스크가 느리면 요청도 느려진다.
+ */
+public enum OverflowPolicy {
+    DROP, SAMPLE, BLOCK
+}
@@ -0,0 +1,64 @@
+package hello.proxy.trace.async;
+
+/**
+ * 링 버퍼의 슬롯 하나, 요청 스레드가 기록하고 writer 스레드가 읽는다
+ *
+ * 슬롯은 버퍼 생성 시점에 미리 만들어 두고 계속 재사용한다. 요청 스레드는 값만 채워 넣고
+ * 문자열 포맷팅은 writer 스레드가 꺼내 갈 때 한다.
+ * 요청 스레드의 TraceId 는 계속 바뀌므로 참조가 아니라 id, level 값을 복사해 둔다.
+ */
+public class TraceEvent {
+
+    public enum Type {
+        BEGIN, END, EXCEPTION
+    }
+
+    //링 버퍼가 발행(publish)할 때 사용하는 시퀀스
+    long sequence;
+
+    private Type type;
+    private long traceId;
+    private int level;
+    private String message;
+    private long resultTimeMs;
+    private Exception exception;
+
+    public void set(Type type, long traceId, int level, String message, long resultTimeMs, Exception exception) {
+        this.type = type;
+        this.traceId = traceId;
+        this.level = level;
+        this.message = message;
+        this.resultTimeMs = resultTimeMs;
+        this.exception = exception;
+    }
+
+    //writer 가 다 쓰고 나면 참조를 끊어서 GC 대상이 되도록
+    void clear() {
+        this.message = null;
+        this.exception = null;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getResultTimeMs() {
+        return resultTimeMs;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+}
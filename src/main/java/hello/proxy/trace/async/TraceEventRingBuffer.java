@@ -0,0 +1,111 @@
+package hello.proxy.trace.async;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * 크기가 고정된 lock-free MPSC(다수 생산자, 단일 소비자) 링 버퍼
+ *
+ * 슬롯마다 시퀀스 번호를 두는 방식(Vyukov bounded queue)
+ * 생산자: tail 을 CAS 로 하나 차지 -> 슬롯에 값 기록 -> 슬롯 시퀀스를 올려서 발행
+ * 소비자: 슬롯 시퀀스가 발행 상태인지 보고 꺼냄 -> 다 쓰면 다음 바퀴용 시퀀스로 돌려놓음
+ *
+ * 락이 없으므로 요청 스레드끼리 서로를 막지 않고, 슬롯 객체는 재사용하므로 이벤트마다 객체를 만들지 않는다.
+ */
+public class TraceEventRingBuffer {
+
+    private final TraceEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int capacity;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    //소비자 스레드만 쓰고, 생산자는 size() 계산할 때만 읽는다
+    private volatile long head;
+
+    public TraceEventRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("capacity 는 2 이상이어야 합니다. capacity=" + requestedCapacity);
+        }
+        //인덱스 계산을 & 연산으로 하기 위해 2의 거듭제곱으로 올림
+        this.capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new TraceEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new TraceEvent();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 빈 슬롯 하나를 차지한다. 버퍼가 가득 차 있으면 null
+     * 차지한 슬롯은 값을 채운 뒤 반드시 publish() 해야 한다.
+     */
+    public TraceEvent claim() {
+        long t = tail.get();
+        while (true) {
+            int index = (int) (t & mask);
+            long diff = sequences.get(index) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    TraceEvent event = slots[index];
+                    event.sequence = t;
+                    return event;
+                }
+                t = tail.get();
+            } else if (diff < 0) {
+                //한 바퀴 전 슬롯을 소비자가 아직 안 꺼내감 -> 가득 참
+                return null;
+            } else {
+                //다른 생산자가 먼저 가져감
+                t = tail.get();
+            }
+        }
+    }
+
+    public void publish(TraceEvent event) {
+        long sequence = event.sequence;
+        sequences.lazySet((int) (sequence & mask), sequence + 1);
+    }
+
+    /**
+     * 소비자 스레드 전용, 발행된 이벤트를 최대 limit 개까지 순서대로 handler 에 넘긴다.
+     * @return 꺼낸 이벤트 수
+     */
+    public int drain(Consumer<TraceEvent> handler, int limit) {
+        long h = head;
+        int count = 0;
+        while (count < limit) {
+            int index = (int) (h & mask);
+            if (sequences.get(index) != h + 1) {
+                break;
+            }
+            TraceEvent event = slots[index];
+            try {
+                handler.accept(event);
+            } finally {
+                event.clear();
+                sequences.lazySet(index, h + capacity);
+                h++;
+                count++;
+                head = h;
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
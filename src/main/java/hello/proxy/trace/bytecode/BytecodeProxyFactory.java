@@ -0,0 +1,142 @@
+package hello.proxy.trace.bytecode;
+
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.PatternMatchUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 로그 추적 코드를 바이트코드에 직접 넣은 프록시를 만드는 팩토리
+ *
+ * 사용법은 ProxyFactory + NameMatchMethodPointcut + LogTraceAdvice 조합과 같다.
+ * BytecodeProxyFactory factory = new BytecodeProxyFactory(target);
+ * factory.setLogTrace(logTrace);
+ * factory.setMappedNames("request*", "order*", "save*");
+ * OrderServiceV2 proxy = (OrderServiceV2) factory.getProxy();
+ *
+ * ProxyFactory 처럼 인터페이스가 있으면 인터페이스를 구현한 프록시, 없으면 클래스를 상속한 프록시를 만든다.
+ * setProxyTargetClass(true) 면 인터페이스가 있어도 클래스를 상속한다.
+ *
+ * 프록시 클래스는 (target 클래스, 인터페이스 기반 여부, 패턴) 마다 한 번만 만들고 재사용한다.
+ * 같은 타입의 빈을 여러 번 프록시해도 클래스가 계속 늘어나지 않는다.
+ * 캐시는 target 클래스에 붙는 ClassValue 라서, target 의 클래스로더(예: devtools 재시작 로더)가 버려지면
+ * 만든 프록시 클래스도 같이 GC 된다. static Map 에 Class 를 키로 두면 클래스로더가 계속 남는다.
+ *
+ * 제약
+ * advice 는 LogTrace 로그 추적 하나로 고정이다(Advisor 를 추가할 수 없다).
+ * 클래스 기반 프록시는 CGLIB 처럼 final 메서드, package-private 메서드,
+ * 다른 패키지 상위 클래스에 선언된 protected 메서드는 재정의하지 못한다.
+ */
+public class BytecodeProxyFactory {
+
+    private static final ClassValue<Map<ProxyKey, Constructor<?>>> proxyConstructors = new ClassValue<>() {
+        @Override
+        protected Map<ProxyKey, Constructor<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final AtomicInteger proxyClassCount = new AtomicInteger();
+
+    private final Object target;
+    private LogTrace logTrace;
+    private String[] mappedNames = new String[0];
+    private boolean proxyTargetClass;
+
+    public BytecodeProxyFactory(Object target) {
+        this.target = Objects.requireNonNull(target, "target");
+    }
+
+    public void setLogTrace(LogTrace logTrace) {
+        this.logTrace = logTrace;
+    }
+
+    //NameMatchMethodPointcut.setMappedNames() 와 같은 패턴, 비어 있으면 모든 메서드에 로그를 남긴다
+    public void setMappedNames(String... mappedNames) {
+        this.mappedNames = mappedNames.clone();
+    }
+
+    public void setProxyTargetClass(boolean proxyTargetClass) {
+        this.proxyTargetClass = proxyTargetClass;
+    }
+
+    public Object getProxy() {
+        if (logTrace == null) {
+            throw new IllegalStateException("logTrace 가 설정되지 않았습니다.");
+        }
+        Class<?> targetClass = target.getClass();
+        Class<?>[] interfaces = proxyTargetClass ? new Class<?>[0] : ClassUtils.getAllInterfacesForClass(targetClass);
+        ProxyKey key = new ProxyKey(interfaces.length > 0, mappedNames);
+
+        Constructor<?> constructor = proxyConstructors.get(targetClass)
+                .computeIfAbsent(key, k -> createProxyClass(targetClass, interfaces));
+        try {
+            return constructor.newInstance(target, logTrace);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("프록시 생성 실패. target=" + targetClass.getName(), e.getTargetException());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("프록시 생성 실패. target=" + targetClass.getName(), e);
+        }
+    }
+
+    private Constructor<?> createProxyClass(Class<?> targetClass, Class<?>[] interfaces) {
+        String[] patterns = mappedNames;
+        Class<?> proxyClass = BytecodeProxyGenerator.generate(targetClass, interfaces, method -> isTraced(method, patterns));
+        proxyClassCount.incrementAndGet();
+        try {
+            return proxyClass.getConstructor(targetClass, LogTrace.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isTraced(Method method, String[] patterns) {
+        if (patterns.length == 0) {
+            return true;
+        }
+        return PatternMatchUtils.simpleMatch(patterns, method.getName());
+    }
+
+    //지금까지 생성한 프록시 클래스 수, 캐시가 동작하는지 확인하는 용도
+    public static int proxyClassCount() {
+        return proxyClassCount.get();
+    }
+
+    //target 클래스는 ClassValue 가 나누므로 키에 넣지 않는다
+    private static final class ProxyKey {
+
+        private final boolean interfaceBased;
+        private final List<String> patterns;
+
+        ProxyKey(boolean interfaceBased, String[] patterns) {
+            this.interfaceBased = interfaceBased;
+            this.patterns = Arrays.asList(patterns);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ProxyKey)) {
+                return false;
+            }
+            ProxyKey other = (ProxyKey) o;
+            return interfaceBased == other.interfaceBased
+                    && patterns.equals(other.patterns);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(interfaceBased, patterns);
+        }
+    }
+}
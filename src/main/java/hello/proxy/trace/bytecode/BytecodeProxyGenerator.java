@@ -0,0 +1,355 @@
+package hello.proxy.trace.bytecode;
+
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.MethodDescriptors;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * spring-core 에 들어 있는 ASM(org.springframework.asm)으로 로그 추적 프록시 클래스를 만든다
+ *
+ * CGLIB 프록시는 모든 호출이 MethodInterceptor.intercept() 를 거치고, 인수는 Object[] 로 박싱된다.
+ * 여기서 만드는 프록시는 config.v1_proxy 의 직접 만든 프록시와 같은 바이트코드다.
+ * 메서드마다 LogTrace.begin(MethodDescriptor) / end() / exception() 호출이 직접 들어 있고,
+ * target 의 메서드도 invokevirtual 로 바로 호출한다(인수 배열, 박싱, 인터셉터 체인 없음).
+ *
+ * 만든 클래스는 target 클래스와 같은 패키지, 같은 클래스로더에 정의한다(MethodHandles.Lookup.defineClass).
+ * 그래서 package-private 클래스도 프록시할 수 있다.
+ *
+ * 만들어지는 클래스 모양
+ * class OrderServiceV2$$TraceProxy$$1 extends OrderServiceV2 (또는 implements 인터페이스들) {
+ *     static final MethodDescriptor METHOD_0 = MethodDescriptors.of("hello.proxy.app.v2.OrderServiceV2.orderItem()", "OrderServiceV2.orderItem()");
+ *     final OrderServiceV2 target;
+ *     final LogTrace logTrace;
+ *     public void orderItem(String itemId) { ...begin, target.orderItem(itemId), end... }
+ * }
+ */
+class BytecodeProxyGenerator {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private static final String TARGET_FIELD = "target";
+    private static final String LOG_TRACE_FIELD = "logTrace";
+
+    private static final String LOG_TRACE = Type.getInternalName(LogTrace.class);
+    private static final String LOG_TRACE_DESC = Type.getDescriptor(LogTrace.class);
+    private static final String DESCRIPTOR_DESC = Type.getDescriptor(MethodDescriptor.class);
+    private static final String BEGIN_DESC = "(" + DESCRIPTOR_DESC + ")" + Type.getDescriptor(TraceStatus.class);
+    private static final String END_DESC = "(" + Type.getDescriptor(TraceStatus.class) + ")V";
+    private static final String EXCEPTION_DESC = "(" + Type.getDescriptor(TraceStatus.class) + Type.getDescriptor(Exception.class) + ")V";
+
+    /**
+     * @param targetClass 호출할 실제 객체의 클래스
+     * @param interfaces 비어 있으면 targetClass 를 상속, 아니면 Object 를 상속하고 이 인터페이스들을 구현
+     * @param traced 로그를 남길 메서드인지, 아니면 target 을 바로 호출
+     */
+    static Class<?> generate(Class<?> targetClass, Class<?>[] interfaces, Predicate<Method> traced) {
+        boolean subclass = interfaces.length == 0;
+        Class<?> superClass = subclass ? targetClass : Object.class;
+        //ClassUtils.getUserClass() 는 이름에 "$$" 가 있으면 CGLIB 프록시로 보고 상위 클래스를 돌려준다
+        //클래스 기반 프록시만 "$$" 를 붙여야 스프링 MVC 가 원래 클래스의 @RequestMapping 을 찾는다
+        String separator = subclass ? "$$" : "$";
+        String proxyName = targetClass.getName() + separator + "TraceProxy" + separator + SEQUENCE.incrementAndGet();
+        String proxyInternalName = proxyName.replace('.', '/');
+        String targetInternalName = Type.getInternalName(targetClass);
+        String targetDesc = Type.getDescriptor(targetClass);
+
+        String[] interfaceNames = new String[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaceNames[i] = Type.getInternalName(interfaces[i]);
+        }
+
+        ClassWriter cw = new ProxyClassWriter(targetClass.getClassLoader());
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_FINAL,
+                proxyInternalName, null, Type.getInternalName(superClass), interfaceNames);
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, TARGET_FIELD, targetDesc, null, null).visitEnd();
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, LOG_TRACE_FIELD, LOG_TRACE_DESC, null, null).visitEnd();
+
+        List<Method> methods = proxiedMethods(subclass ? new Class<?>[]{targetClass} : interfaces, targetClass.getPackageName());
+        Map<Integer, Method> descriptors = new LinkedHashMap<>();
+        for (int i = 0; i < methods.size(); i++) {
+            if (traced.test(methods.get(i))) {
+                String field = "METHOD_" + i;
+                descriptors.put(i, methods.get(i));
+                cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL, field, DESCRIPTOR_DESC, null, null).visitEnd();
+            }
+        }
+
+        writeStaticInitializer(cw, proxyInternalName, descriptors);
+        writeConstructor(cw, proxyInternalName, superClass, targetDesc);
+        for (int i = 0; i < methods.size(); i++) {
+            String descriptorField = descriptors.containsKey(i) ? "METHOD_" + i : null;
+            writeMethod(cw, proxyInternalName, targetInternalName, targetDesc, methods.get(i), descriptorField);
+        }
+        cw.visitEnd();
+
+        return define(targetClass, cw.toByteArray());
+    }
+
+    //재정의할 메서드, 시그니처가 같은 메서드는 하나만
+    private static List<Method> proxiedMethods(Class<?>[] types, String proxyPackage) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Class<?> type : types) {
+            collectMethods(type, proxyPackage, methods);
+        }
+        methods.values().removeIf(method -> Modifier.isFinal(method.getModifiers()));
+        return new ArrayList<>(methods.values());
+    }
+
+    private static void collectMethods(Class<?> type, String proxyPackage, Map<String, Method> methods) {
+        if (type == null || type == Object.class) {
+            return;
+        }
+        for (Method method : type.getDeclaredMethods()) {
+            int modifiers = method.getModifiers();
+            if (method.isBridge() || method.isSynthetic()
+                    || Modifier.isStatic(modifiers) || Modifier.isPrivate(modifiers)
+                    || (!Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers))) {
+                continue;
+            }
+            String key = method.getName() + Type.getMethodDescriptor(method);
+            //다른 패키지 상위 클래스의 protected 메서드는 프록시에서 target.method() 로 부를 수 없다(IllegalAccessError)
+            //target 은 프록시 자신의 타입이 아니므로 protected 접근이 허용되지 않는다, package-private 처럼 재정의하지 않는다
+            if (Modifier.isProtected(modifiers) && !type.getPackageName().equals(proxyPackage)) {
+                continue;
+            }
+            //하위 타입에서 먼저 찾은 것이 우선, final 이면 상위 타입 것도 재정의할 수 없으므로 자리만 차지한다
+            methods.putIfAbsent(key, method);
+        }
+        collectMethods(type.getSuperclass(), proxyPackage, methods);
+        for (Class<?> superInterface : type.getInterfaces()) {
+            collectMethods(superInterface, proxyPackage, methods);
+        }
+    }
+
+    private static void writeStaticInitializer(ClassWriter cw, String proxyInternalName, Map<Integer, Method> descriptors) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_STATIC, "<clinit>", "()V", null, null);
+        mv.visitCode();
+        for (Map.Entry<Integer, Method> entry : descriptors.entrySet()) {
+            mv.visitLdcInsn(MethodDescriptors.keyOf(entry.getValue()));
+            mv.visitLdcInsn(MethodDescriptors.nameOf(entry.getValue()));
+            mv.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(MethodDescriptors.class), "of",
+                    "(Ljava/lang/String;Ljava/lang/String;)" + DESCRIPTOR_DESC, false);
+            mv.visitFieldInsn(Opcodes.PUTSTATIC, proxyInternalName, "METHOD_" + entry.getKey(), DESCRIPTOR_DESC);
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    //(Target target, LogTrace logTrace), 상위 클래스 생성자에는 기본값(null, 0, false)을 넘긴다
+    private static void writeConstructor(ClassWriter cw, String proxyInternalName, Class<?> superClass, String targetDesc) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(" + targetDesc + LOG_TRACE_DESC + ")V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        Constructor<?> superConstructor = superConstructor(superClass);
+        for (Class<?> parameterType : superConstructor.getParameterTypes()) {
+            pushDefault(mv, parameterType);
+        }
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(superClass), "<init>",
+                Type.getConstructorDescriptor(superConstructor), false);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, proxyInternalName, TARGET_FIELD, targetDesc);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitFieldInsn(Opcodes.PUTFIELD, proxyInternalName, LOG_TRACE_FIELD, LOG_TRACE_DESC);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static Constructor<?> superConstructor(Class<?> superClass) {
+        for (Constructor<?> constructor : superClass.getDeclaredConstructors()) {
+            if (!Modifier.isPrivate(constructor.getModifiers())) {
+                return constructor;
+            }
+        }
+        throw new IllegalArgumentException("private 이 아닌 생성자가 필요합니다. class=" + superClass.getName());
+    }
+
+    /**
+     * 로그를 남기는 메서드(descriptorField != null)
+     * TraceStatus status = null;
+     * try {
+     *     status = logTrace.begin(METHOD_n);
+     *     result = target.method(args);
+     *     logTrace.end(status);
+     *     return result;
+     * } catch (Exception e) {
+     *     logTrace.exception(status, e);
+     *     throw e;
+     * }
+     * 로그를 남기지 않는 메서드는 return target.method(args);
+     */
+    private static void writeMethod(ClassWriter cw, String proxyInternalName, String targetInternalName, String targetDesc,
+                                    Method method, String descriptorField) {
+        String methodDesc = Type.getMethodDescriptor(method);
+        Type returnType = Type.getReturnType(method);
+        int access = Modifier.isProtected(method.getModifiers()) ? Opcodes.ACC_PROTECTED : Opcodes.ACC_PUBLIC;
+        if (method.isVarArgs()) {
+            access |= Opcodes.ACC_VARARGS;
+        }
+        String[] exceptions = new String[method.getExceptionTypes().length];
+        for (int i = 0; i < exceptions.length; i++) {
+            exceptions[i] = Type.getInternalName(method.getExceptionTypes()[i]);
+        }
+
+        MethodVisitor mv = cw.visitMethod(access, method.getName(), methodDesc, null, exceptions);
+        mv.visitCode();
+
+        if (descriptorField == null) {
+            invokeTarget(mv, proxyInternalName, targetInternalName, targetDesc, method);
+            mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+            return;
+        }
+
+        int statusLocal = 1;
+        for (Type argumentType : Type.getArgumentTypes(method)) {
+            statusLocal += argumentType.getSize();
+        }
+        int resultLocal = statusLocal + 1;
+        int exceptionLocal = resultLocal + returnType.getSize();
+
+        Label tryStart = new Label();
+        Label tryEnd = new Label();
+        Label handler = new Label();
+        mv.visitTryCatchBlock(tryStart, tryEnd, handler, Type.getInternalName(Exception.class));
+
+        mv.visitInsn(Opcodes.ACONST_NULL);
+        mv.visitVarInsn(Opcodes.ASTORE, statusLocal);
+
+        mv.visitLabel(tryStart);
+        //status = logTrace.begin(METHOD_n)
+        loadLogTrace(mv, proxyInternalName);
+        mv.visitFieldInsn(Opcodes.GETSTATIC, proxyInternalName, descriptorField, DESCRIPTOR_DESC);
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LOG_TRACE, "begin", BEGIN_DESC, true);
+        mv.visitVarInsn(Opcodes.ASTORE, statusLocal);
+
+        //result = target.method(args)
+        invokeTarget(mv, proxyInternalName, targetInternalName, targetDesc, method);
+        if (returnType.getSort() != Type.VOID) {
+            mv.visitVarInsn(returnType.getOpcode(Opcodes.ISTORE), resultLocal);
+        }
+
+        //logTrace.end(status)
+        loadLogTrace(mv, proxyInternalName);
+        mv.visitVarInsn(Opcodes.ALOAD, statusLocal);
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LOG_TRACE, "end", END_DESC, true);
+        mv.visitLabel(tryEnd);
+
+        if (returnType.getSort() != Type.VOID) {
+            mv.visitVarInsn(returnType.getOpcode(Opcodes.ILOAD), resultLocal);
+        }
+        mv.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+
+        //catch (Exception e) { logTrace.exception(status, e); throw e; }
+        mv.visitLabel(handler);
+        mv.visitVarInsn(Opcodes.ASTORE, exceptionLocal);
+        loadLogTrace(mv, proxyInternalName);
+        mv.visitVarInsn(Opcodes.ALOAD, statusLocal);
+        mv.visitVarInsn(Opcodes.ALOAD, exceptionLocal);
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, LOG_TRACE, "exception", EXCEPTION_DESC, true);
+        mv.visitVarInsn(Opcodes.ALOAD, exceptionLocal);
+        mv.visitInsn(Opcodes.ATHROW);
+
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    //target.method(arg1, arg2, ...), 인수는 받은 그대로(박싱 없이) 넘긴다
+    private static void invokeTarget(MethodVisitor mv, String proxyInternalName, String targetInternalName, String targetDesc,
+                                     Method method) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, proxyInternalName, TARGET_FIELD, targetDesc);
+        int local = 1;
+        for (Type argumentType : Type.getArgumentTypes(method)) {
+            mv.visitVarInsn(argumentType.getOpcode(Opcodes.ILOAD), local);
+            local += argumentType.getSize();
+        }
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, targetInternalName, method.getName(), Type.getMethodDescriptor(method), false);
+    }
+
+    private static void loadLogTrace(MethodVisitor mv, String proxyInternalName) {
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, proxyInternalName, LOG_TRACE_FIELD, LOG_TRACE_DESC);
+    }
+
+    private static void pushDefault(MethodVisitor mv, Class<?> type) {
+        if (!type.isPrimitive()) {
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        } else if (type == long.class) {
+            mv.visitInsn(Opcodes.LCONST_0);
+        } else if (type == float.class) {
+            mv.visitInsn(Opcodes.FCONST_0);
+        } else if (type == double.class) {
+            mv.visitInsn(Opcodes.DCONST_0);
+        } else {
+            mv.visitInsn(Opcodes.ICONST_0);
+        }
+    }
+
+    //target 클래스와 같은 패키지, 같은 클래스로더에 정의
+    private static Class<?> define(Class<?> targetClass, byte[] bytes) {
+        try {
+            return java.lang.invoke.MethodHandles.privateLookupIn(targetClass, java.lang.invoke.MethodHandles.lookup())
+                    .defineClass(bytes);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("프록시 클래스를 정의할 수 없습니다. target=" + targetClass.getName(), e);
+        }
+    }
+
+    /**
+     * COMPUTE_FRAMES 에서 두 타입의 공통 상위 타입이 필요할 때 target 의 클래스로더로 찾는다
+     * 기본 구현은 ASM 자신의 클래스로더를 쓰기 때문에 애플리케이션 클래스를 못 찾을 수 있다
+     */
+    private static class ProxyClassWriter extends ClassWriter {
+
+        private final ClassLoader classLoader;
+
+        ProxyClassWriter(ClassLoader classLoader) {
+            super(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected String getCommonSuperClass(String type1, String type2) {
+            try {
+                Class<?> class1 = Class.forName(type1.replace('/', '.'), false, classLoader);
+                Class<?> class2 = Class.forName(type2.replace('/', '.'), false, classLoader);
+                if (class1.isAssignableFrom(class2)) {
+                    return type1;
+                }
+                if (class2.isAssignableFrom(class1)) {
+                    return type2;
+                }
+                if (class1.isInterface() || class2.isInterface()) {
+                    return "java/lang/Object";
+                }
+                do {
+                    class1 = class1.getSuperclass();
+                } while (!class1.isAssignableFrom(class2));
+                return Type.getInternalName(class1);
+            } catch (ClassNotFoundException e) {
+                return "java/lang/Object";
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package hello.proxy.trace.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 스레드별 난수 생성기로 64비트 ID 를 만든다
+ *
+ * UUID.randomUUID() 는 모든 스레드가 SecureRandom 하나를 같이 쓰고 36자 문자열까지 만든다.
+ * ThreadLocalRandom 은 스레드마다 시드를 따로 들고 있어서(SplittableRandom 과 같은 알고리즘) 경합이 없다.
+ * 64비트 전체를 쓰므로 기존 8자리(32비트) ID 보다 충돌 확률이 훨씬 낮다.
+ */
+public class RandomTraceIdGenerator implements TraceIdGenerator {
+
+    @Override
+    public long nextId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+}
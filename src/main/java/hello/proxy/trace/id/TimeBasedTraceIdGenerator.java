@@ -0,0 +1,47 @@
+package hello.proxy.trace.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간 + 노드 + 순번으로 64비트 ID 를 만든다(snowflake 방식)
+ *
+ * | 0 | 타임스탬프 41비트(ms) | 노드 10비트 | 순번 12비트 |
+ *
+ * 노드 번호가 서버마다 다르면 여러 서버에서도 ID 가 겹치지 않고, ID 만 보고 생성 시각과 서버를 알 수 있다.
+ * 마지막 (타임스탬프, 순번)을 AtomicLong 하나에 묶어 CAS 로 올리므로 락이 없다.
+ * 1ms 안에 순번을 다 쓰면 다음 ms 를 미리 당겨 쓴다. ID 는 항상 증가하고 겹치지 않는다.
+ */
+public class TimeBasedTraceIdGenerator implements TraceIdGenerator {
+
+    //2021-01-01T00:00:00Z, 여기서부터 약 69년 사용 가능
+    static final long EPOCH_MS = 1609459200000L;
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+    //(타임스탬프 << SEQUENCE_BITS) | 순번
+    private final AtomicLong lastState = new AtomicLong();
+
+    public TimeBasedTraceIdGenerator(long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId 는 0 ~ " + MAX_NODE_ID + " 사이여야 합니다. nodeId=" + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    @Override
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH_MS) << SEQUENCE_BITS;
+        while (true) {
+            long last = lastState.get();
+            long next = Math.max(last + 1, now);
+            if (lastState.compareAndSet(last, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & SEQUENCE_MASK;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package hello.proxy.trace.id;
+
+/**
+ * 트레이스 ID 생성 전략
+ *
+ * 루트 요청마다 한 번씩 호출되므로 공유 락을 잡거나 문자열을 만들면 안 된다.
+ * ID 는 long 으로만 돌려주고, 문자열 변환은 로그를 실제로 쓸 때 TraceId 가 한다.
+ */
+public interface TraceIdGenerator {
+
+    long nextId();
+}
@@ -0,0 +1,100 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.TraceContext;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스레드마다 TraceContext 하나를 두고 재사용하는 LogTrace 의 공통 부분
+ *
+ * 로그 형식과 깊이 관리는 여기서 하고, 현재 스레드의 TraceContext 를 어디서 꺼낼지만 하위 클래스가 정한다.
+ * ContextLogTrace : ThreadLocal
+ * ThreadSlotLogTrace : TraceThread 의 필드(TraceContextSlot)
+ *
+ * 로거는 하위 클래스 이름으로 만든다. 로그 레벨도 ContextLogTrace, ThreadSlotLogTrace 이름으로 따로 설정할 수 있다.
+ */
+public abstract class AbstractContextLogTrace implements LogTrace {
+
+    private static final String START_PREFIX = "-->";
+    private static final String COMPLETE_PREFIX = "<--";
+    private static final String EX_PREFIX = "<X-";
+
+    private static final int CACHED_LEVELS = 16;
+    private static final String[] START_SPACES = spaces(START_PREFIX);
+    private static final String[] COMPLETE_SPACES = spaces(COMPLETE_PREFIX);
+    private static final String[] EX_SPACES = spaces(EX_PREFIX);
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    @Override
+    public TraceStatus begin(String message) {
+        return logBegin(context().begin(message, System.nanoTime()));
+    }
+
+    @Override
+    public TraceStatus begin(MethodDescriptor method) {
+        return logBegin(context().begin(method, System.nanoTime()));
+    }
+
+    private TraceStatus logBegin(TraceStatus status) {
+        if (log.isInfoEnabled()) {
+            log.info("[{}] {}{}", TraceId.toHex(status.getRawTraceId()), addSpace(START_SPACES, START_PREFIX, status.getLevel()), status.getMessage());
+        }
+        return status;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        long resultTimeMs = TimeUnit.NANOSECONDS.toMillis(status.elapsedNanos());
+        if (log.isInfoEnabled()) {
+            String traceId = TraceId.toHex(status.getRawTraceId());
+            if (e == null) {
+                log.info("[{}] {}{} time={}ms", traceId, addSpace(COMPLETE_SPACES, COMPLETE_PREFIX, status.getLevel()), status.getMessage(), resultTimeMs);
+            } else {
+                log.info("[{}] {}{} time={}ms ex={}", traceId, addSpace(EX_SPACES, EX_PREFIX, status.getLevel()), status.getMessage(), resultTimeMs, e.toString());
+            }
+        }
+
+        context().end();
+    }
+
+    //현재 스레드의 TraceContext
+    protected abstract TraceContext context();
+
+    private static String addSpace(String[] cache, String prefix, int level) {
+        if (level < cache.length) {
+            return cache[level];
+        }
+        return addSpace(prefix, level);
+    }
+
+    private static String[] spaces(String prefix) {
+        String[] spaces = new String[CACHED_LEVELS];
+        for (int level = 0; level < CACHED_LEVELS; level++) {
+            spaces[level] = addSpace(prefix, level);
+        }
+        return spaces;
+    }
+
+    private static String addSpace(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append( (i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+}
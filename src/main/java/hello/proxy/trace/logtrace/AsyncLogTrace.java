@@ -0,0 +1,219 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.async.OverflowPolicy;
+import hello.proxy.trace.async.TraceEvent;
+import hello.proxy.trace.async.TraceEventRingBuffer;
+import hello.proxy.trace.id.RandomTraceIdGenerator;
+import hello.proxy.trace.id.TraceIdGenerator;
+import hello.proxy.trace.thread.TraceContextSlot;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * 로그 출력을 요청 스레드에서 떼어낸 LogTrace
+ *
+ * ThreadLocalLogTrace 는 begin(), complete() 마다 요청 스레드에서 바로 log.info() 를 호출한다.
+ * 컨트롤러 -> 서비스 -> 리포지토리 한 번 호출에 6번의 동기 로그 쓰기가 요청 시간에 그대로 더해진다.
+ *
+ * AsyncLogTrace 는 요청 스레드에서 이벤트(시작/종료/예외)만 링 버퍼에 넣고 바로 돌아간다.
+ * 문자열 포맷팅과 실제 로그 쓰기는 백그라운드 writer 스레드가 배치 단위로 꺼내서 처리한다.
+ * 버퍼가 가득 찼을 때의 동작은 OverflowPolicy 로 정한다.
+ *
+ * 트레이스 ID 와 깊이는 ContextLogTrace 처럼 스레드별 TraceContext 로 관리한다.
+ * TraceThread 에서 실행되면 ThreadLocal 대신 스레드 필드에서 TraceContext 를 꺼낸다(TraceContextSlot).
+ * 이벤트에는 id, level 값을 복사해서 넣으므로 요청 스레드에서는 객체를 만들지 않는다.
+ * 스프링 빈으로 등록하면 컨테이너 종료 시점에 close() 가 호출되어 남은 이벤트를 모두 쓰고 종료한다.
+ */
+@Slf4j
+public class AsyncLogTrace implements LogTrace, AutoCloseable {
+
+    private static final String START_PREFIX = "-->";
+    private static final String COMPLETE_PREFIX = "<--";
+    private static final String EX_PREFIX = "<X-";
+
+    //SAMPLE 정책에서 버퍼가 이 비율 이상 차면 샘플링 시작
+    private static final int SAMPLE_WATERMARK_PERCENT = 75;
+    //writer 가 할 일이 없을 때 쉬는 시간
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    //BLOCK 정책에서 빈 슬롯을 기다리는 간격
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final TraceContextSlot contextHolder;
+
+    private final TraceEventRingBuffer buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final int batchSize;
+    private final int sampleRatio;
+    private final int sampleWatermark;
+
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+
+    //drain() 에 넘길 때마다 람다를 만들지 않도록 한 번만 만들어 둔다
+    private final Consumer<TraceEvent> eventWriter = this::write;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncLogTrace(int capacity, OverflowPolicy overflowPolicy) {
+        this(capacity, overflowPolicy, 256, 10, new RandomTraceIdGenerator());
+    }
+
+    /**
+     * @param capacity 링 버퍼 크기, 2의 거듭제곱으로 올림
+     * @param overflowPolicy 버퍼가 가득 찼을 때의 동작
+     * @param batchSize writer 가 한 번에 꺼내는 최대 이벤트 수
+     * @param sampleRatio SAMPLE 정책에서 몇 개의 트레이스 중 하나를 남길지
+     * @param idGenerator 루트 요청의 트레이스 ID 생성 전략
+     */
+    public AsyncLogTrace(int capacity, OverflowPolicy overflowPolicy, int batchSize, int sampleRatio,
+                         TraceIdGenerator idGenerator) {
+        this.contextHolder = new TraceContextSlot(idGenerator);
+        this.buffer = new TraceEventRingBuffer(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.batchSize = batchSize;
+        this.sampleRatio = Math.max(1, sampleRatio);
+        this.sampleWatermark = buffer.capacity() * SAMPLE_WATERMARK_PERCENT / 100;
+
+        this.writer = new Thread(this::drainLoop, "log-trace-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        TraceStatus status = contextHolder.get().begin(message, System.nanoTime());
+        enqueue(TraceEvent.Type.BEGIN, status, 0, null);
+        return status;
+    }
+
+    @Override
+    public TraceStatus begin(MethodDescriptor method) {
+        TraceStatus status = contextHolder.get().begin(method, System.nanoTime());
+        enqueue(TraceEvent.Type.BEGIN, status, 0, null);
+        return status;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        long resultTimeMs = TimeUnit.NANOSECONDS.toMillis(status.elapsedNanos());
+        TraceEvent.Type type = (e == null) ? TraceEvent.Type.END : TraceEvent.Type.EXCEPTION;
+        enqueue(type, status, resultTimeMs, e);
+
+        contextHolder.get().end();
+    }
+
+    private void enqueue(TraceEvent.Type type, TraceStatus status, long resultTimeMs, Exception e) {
+        long traceId = status.getRawTraceId();
+        if (overflowPolicy == OverflowPolicy.SAMPLE && buffer.size() >= sampleWatermark && !isSampled(traceId)) {
+            droppedCount.increment();
+            return;
+        }
+
+        TraceEvent event = buffer.claim();
+        while (event == null && overflowPolicy == OverflowPolicy.BLOCK && running) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            event = buffer.claim();
+        }
+        if (event == null) {
+            droppedCount.increment();
+            return;
+        }
+
+        event.set(type, traceId, status.getLevel(), status.getMessage(), resultTimeMs, e);
+        buffer.publish(event);
+    }
+
+    //트레이스 ID 기준으로 고르기 때문에 한 트레이스의 이벤트는 모두 남거나 모두 버려진다
+    private boolean isSampled(long traceId) {
+        return Math.floorMod(Long.hashCode(traceId), sampleRatio) == 0;
+    }
+
+    private void drainLoop() {
+        while (true) {
+            int drained = buffer.drain(eventWriter, batchSize);
+            if (drained > 0) {
+                continue;
+            }
+            if (!running && buffer.isEmpty()) {
+                return;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    /**
+     * writer 스레드에서만 호출된다
+     *
+     * writer 스레드는 하나뿐이라 여기서 예외가 새어 나가면 스레드가 죽고, running 은 true 로 남는다.
+     * 그러면 BLOCK 정책의 요청 스레드는 빈 슬롯을 영원히 기다리고 DROP 정책은 모든 이벤트를 버린다.
+     * 그래서 어펜더 실패, 예외의 toString() 실패 등 어떤 예외든 이벤트 하나의 실패로 세고 다음 이벤트를 계속 쓴다.
+     */
+    private void write(TraceEvent event) {
+        try {
+            String traceId = TraceId.toHex(event.getTraceId());
+            switch (event.getType()) {
+                case BEGIN:
+                    log.info("[{}] {}{}", traceId, addSpace(START_PREFIX, event.getLevel()), event.getMessage());
+                    break;
+                case END:
+                    log.info("[{}] {}{} time={}ms", traceId, addSpace(COMPLETE_PREFIX, event.getLevel()), event.getMessage(), event.getResultTimeMs());
+                    break;
+                case EXCEPTION:
+                    log.info("[{}] {}{} time={}ms ex={}", traceId, addSpace(EX_PREFIX, event.getLevel()), event.getMessage(), event.getResultTimeMs(), event.getException().toString());
+                    break;
+            }
+            writtenCount.increment();
+        } catch (Throwable e) {
+            failedCount.increment();
+        }
+    }
+
+    /**
+     * 새 이벤트는 더 받지 않고(BLOCK 대기 중인 스레드도 풀어줌) 버퍼에 남은 이벤트를 모두 쓴 다음 writer 를 종료한다.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    //버퍼에서 꺼냈지만 쓰다가 실패한 이벤트 수
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    private static String addSpace(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append( (i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,33 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceContext;
+import hello.proxy.trace.id.TraceIdGenerator;
+
+/**
+ * 스레드마다 TraceContext 하나를 두고 재사용하는 LogTrace
+ *
+ * ThreadLocalLogTrace 와의 차이
+ * TraceId, TraceStatus 를 깊이마다 새로 만들지 않는다. TraceContext 가 level 만 올렸다 내린다.
+ * ThreadLocal 은 begin(), end() 에서 get() 한 번씩만 한다. set(), remove() 는 하지 않는다.
+ * 시작 시간은 박싱 없이 long(System.nanoTime())으로 들고 있다.
+ * 들여쓰기 문자열은 깊이별로 미리 만들어 두고, 로그 레벨이 꺼져 있으면 문자열을 아예 만들지 않는다.
+ *
+ * 로그가 꺼져 있으면 begin(), end() 는 객체를 하나도 만들지 않는다(처음 도달하는 깊이 제외).
+ */
+public class ContextLogTrace extends AbstractContextLogTrace {
+
+    private final ThreadLocal<TraceContext> contextHolder;
+
+    public ContextLogTrace() {
+        this.contextHolder = ThreadLocal.withInitial(TraceContext::new);
+    }
+
+    public ContextLogTrace(TraceIdGenerator generator) {
+        this.contextHolder = ThreadLocal.withInitial(() -> new TraceContext(generator));
+    }
+
+    @Override
+    protected TraceContext context() {
+        return contextHolder.get();
+    }
+}
@@ -1,11 +1,20 @@
 package hello.proxy.trace.logtrace;
 
+import hello.proxy.trace.MethodDescriptor;
 import hello.proxy.trace.TraceStatus;
 
 public interface LogTrace {
 
     TraceStatus begin(String message);
 
+    /**
+     * 미리 만들어 둔 MethodDescriptor 로 시작, 호출할 때마다 메시지 문자열을 만들지 않는다
+     * TraceContext 를 쓰는 구현은 TraceStatus.getMethodId() 에 id 를 남긴다
+     */
+    default TraceStatus begin(MethodDescriptor method) {
+        return begin(method.getName());
+    }
+
     void end(TraceStatus status);
 
     void exception(TraceStatus status, Exception e);
@@ -0,0 +1,57 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.metrics.TraceMetricsRegistry;
+
+/**
+ * 다른 LogTrace 를 감싸서 메서드별 지표(호출 수, 예외 수, 진행 중, 지연 시간 히스토그램)를 남기는 데코레이터
+ *
+ * 지표의 키는 begin() 에 넘어온 메시지("OrderController.request()" 등)다.
+ * begin(MethodDescriptor) 로 시작한 호출은 메시지 대신 id 로 배열에서 바로 찾는다.
+ * 경과 시간은 TraceStatus 의 System.nanoTime() 기준이고, 로그 출력 시간이 섞이지 않도록 delegate 보다 먼저 잰다.
+ */
+public class MetricsLogTrace implements LogTrace, AutoCloseable {
+
+    private final LogTrace delegate;
+    private final TraceMetricsRegistry registry;
+
+    public MetricsLogTrace(LogTrace delegate, TraceMetricsRegistry registry) {
+        this.delegate = delegate;
+        this.registry = registry;
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        TraceStatus status = delegate.begin(message);
+        registry.get(message).begin();
+        return status;
+    }
+
+    @Override
+    public TraceStatus begin(MethodDescriptor method) {
+        TraceStatus status = delegate.begin(method);
+        registry.get(method).begin();
+        return status;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        registry.get(status).end(status.elapsedNanos(), false);
+        delegate.end(status);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        registry.get(status).end(status.elapsedNanos(), true);
+        delegate.exception(status, e);
+    }
+
+    //감싼 LogTrace 가 AsyncLogTrace 처럼 정리할 자원이 있으면 같이 닫는다
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable) {
+            ((AutoCloseable) delegate).close();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.TraceContext;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.sampling.SamplingRates;
+
+/**
+ * 헤드 기반 샘플링 데코레이터, 루트에서 한 번 결정하면 그 트레이스 전체가 따라간다
+ *
+ * 루트 begin()(깊이 0, TraceId.isFirstLevel() 에 해당)에서 SamplingRates 로 남길지 정한다.
+ * 남기기로 한 트레이스는 하위 호출까지 모두 delegate 로 넘기고,
+ * 버리기로 한 트레이스는 하위 호출까지 모두 delegate 를 거치지 않는다.
+ *
+ * 버리는 트레이스도 TraceStatus 는 돌려줘야 하므로 스레드별 TraceContext 의 재사용 객체를 준다.
+ * 메시지와 시작 시간은 들어 있어서 바깥의 MetricsLogTrace 는 샘플링과 상관없이 모든 호출을 센다.
+ * 버리는 경로는 ThreadLocal 조회 한 번과 nanoTime() 뿐이고 객체를 만들지 않는다.
+ */
+public class SamplingLogTrace implements LogTrace, AutoCloseable {
+
+    private final LogTrace delegate;
+    private final SamplingRates samplingRates;
+    private final ThreadLocal<SamplingState> stateHolder = ThreadLocal.withInitial(SamplingState::new);
+
+    public SamplingLogTrace(LogTrace delegate, SamplingRates samplingRates) {
+        this.delegate = delegate;
+        this.samplingRates = samplingRates;
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        SamplingState state = stateHolder.get();
+        if (state.depth == 0) {
+            state.sampled = samplingRates.sample(message);
+        }
+
+        TraceStatus status = state.sampled
+                ? delegate.begin(message)
+                : state.skipped.begin(message, System.nanoTime());
+        state.depth++;
+        return status;
+    }
+
+    @Override
+    public TraceStatus begin(MethodDescriptor method) {
+        SamplingState state = stateHolder.get();
+        if (state.depth == 0) {
+            state.sampled = samplingRates.sample(method.getName());
+        }
+
+        TraceStatus status = state.sampled
+                ? delegate.begin(method)
+                : state.skipped.begin(method, System.nanoTime());
+        state.depth++;
+        return status;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        SamplingState state = stateHolder.get();
+        state.depth--;
+        if (state.sampled) {
+            delegate.end(status);
+        } else {
+            state.skipped.end();
+        }
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        SamplingState state = stateHolder.get();
+        state.depth--;
+        if (state.sampled) {
+            delegate.exception(status, e);
+        } else {
+            state.skipped.end();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable) {
+            ((AutoCloseable) delegate).close();
+        }
+    }
+
+    private static class SamplingState {
+        private int depth;
+        private boolean sampled;
+        //버리는 트레이스에 돌려줄 TraceStatus
+        private final TraceContext skipped = new TraceContext();
+    }
+}
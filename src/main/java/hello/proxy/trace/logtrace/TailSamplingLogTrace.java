@@ -0,0 +1,204 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.TraceContext;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.id.RandomTraceIdGenerator;
+import hello.proxy.trace.id.TraceIdGenerator;
+import hello.proxy.trace.sampling.TailSamplingPolicy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 꼬리 기반 샘플링 LogTrace, 트레이스가 끝난 뒤에 남길지 정한다
+ *
+ * 실제로 보고 싶은 것은 OrderRepository.save() 에서 예외가 났거나 전체 시간이 SLO 를 넘은 트레이스뿐이다.
+ * 그래서 한 트레이스의 이벤트를 스레드별 버퍼에 쌓아 두기만 하고, 루트가 끝나는 순간
+ * TailSamplingPolicy 로 판단해서 남길 트레이스만 문자열로 만들어 로그로 쓴다.
+ * 버리는 트레이스는 문자열 포맷팅도, 로그 쓰기도 하지 않는다.
+ *
+ * 버퍼는 스레드마다 하나를 계속 재사용하고, 이벤트는 배열에 값만 기록한다.
+ * 한 트레이스의 이벤트가 maxEvents 를 넘으면 나머지는 개수만 센다.
+ */
+@Slf4j
+public class TailSamplingLogTrace implements LogTrace {
+
+    private static final String START_PREFIX = "-->";
+    private static final String COMPLETE_PREFIX = "<--";
+    private static final String EX_PREFIX = "<X-";
+
+    private static final int BEGIN = 0;
+    private static final int END = 1;
+    private static final int EXCEPTION = 2;
+
+    private final TailSamplingPolicy policy;
+    private final int maxEvents;
+    private final ThreadLocal<TraceBuffer> bufferHolder;
+
+    private final LongAdder keptCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+
+    public TailSamplingLogTrace(TailSamplingPolicy policy) {
+        this(policy, 1024, new RandomTraceIdGenerator());
+    }
+
+    /**
+     * @param policy 트레이스를 남길지 정하는 기준
+     * @param maxEvents 트레이스 하나에서 버퍼에 담을 최대 이벤트 수
+     * @param idGenerator 루트 요청의 트레이스 ID 생성 전략
+     */
+    public TailSamplingLogTrace(TailSamplingPolicy policy, int maxEvents, TraceIdGenerator idGenerator) {
+        this.policy = policy;
+        this.maxEvents = maxEvents;
+        this.bufferHolder = ThreadLocal.withInitial(() -> new TraceBuffer(idGenerator));
+    }
+
+    @Override
+    public TraceStatus begin(String message) {
+        TraceBuffer buffer = bufferHolder.get();
+        TraceStatus status = buffer.context.begin(message, System.nanoTime());
+        buffer.add(BEGIN, status.getLevel(), message, 0, null, maxEvents);
+        return status;
+    }
+
+    @Override
+    public TraceStatus begin(MethodDescriptor method) {
+        TraceBuffer buffer = bufferHolder.get();
+        TraceStatus status = buffer.context.begin(method, System.nanoTime());
+        buffer.add(BEGIN, status.getLevel(), method.getName(), 0, null, maxEvents);
+        return status;
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        complete(status, null);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        complete(status, e);
+    }
+
+    private void complete(TraceStatus status, Exception e) {
+        long elapsedNanos = status.elapsedNanos();
+        TraceBuffer buffer = bufferHolder.get();
+        buffer.add(e == null ? END : EXCEPTION, status.getLevel(), status.getMessage(), elapsedNanos, e, maxEvents);
+        if (policy.keepStep(status.getMessage(), elapsedNanos, e != null)) {
+            buffer.keep = true;
+        }
+
+        long traceId = status.getRawTraceId();
+        buffer.context.end();
+        if (buffer.context.isActive()) {
+            return;
+        }
+
+        //루트가 끝남, 남길지 결정
+        if (buffer.keep || policy.keepRoot(elapsedNanos)) {
+            write(traceId, buffer);
+            keptCount.increment();
+        } else {
+            droppedCount.increment();
+        }
+        buffer.clear();
+    }
+
+    private void write(long traceId, TraceBuffer buffer) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        String id = TraceId.toHex(traceId);
+        for (int i = 0; i < buffer.size; i++) {
+            String message = buffer.messages[i];
+            int level = buffer.levels[i];
+            long resultTimeMs = TimeUnit.NANOSECONDS.toMillis(buffer.elapsedNanos[i]);
+            switch (buffer.types[i]) {
+                case BEGIN:
+                    log.info("[{}] {}{}", id, addSpace(START_PREFIX, level), message);
+                    break;
+                case END:
+                    log.info("[{}] {}{} time={}ms", id, addSpace(COMPLETE_PREFIX, level), message, resultTimeMs);
+                    break;
+                case EXCEPTION:
+                    log.info("[{}] {}{} time={}ms ex={}", id, addSpace(EX_PREFIX, level), message, resultTimeMs, buffer.exceptions[i].toString());
+                    break;
+            }
+        }
+        if (buffer.omitted > 0) {
+            log.info("[{}] ... {} events omitted", id, buffer.omitted);
+        }
+    }
+
+    public long getKeptCount() {
+        return keptCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    private static String addSpace(String prefix, int level) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < level; i++) {
+            sb.append( (i == level - 1) ? "|" + prefix : "|   ");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 스레드별로 재사용하는 이벤트 버퍼, 이벤트 하나를 객체 하나로 만들지 않고 배열 여러 개에 나눠 담는다
+     */
+    private static class TraceBuffer {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final TraceContext context;
+
+        private int[] types = new int[INITIAL_CAPACITY];
+        private int[] levels = new int[INITIAL_CAPACITY];
+        private String[] messages = new String[INITIAL_CAPACITY];
+        private long[] elapsedNanos = new long[INITIAL_CAPACITY];
+        private Exception[] exceptions = new Exception[INITIAL_CAPACITY];
+        private int size;
+        private int omitted;
+        private boolean keep;
+
+        TraceBuffer(TraceIdGenerator idGenerator) {
+            this.context = new TraceContext(idGenerator);
+        }
+
+        void add(int type, int level, String message, long elapsed, Exception e, int maxEvents) {
+            if (size == maxEvents) {
+                omitted++;
+                return;
+            }
+            if (size == types.length) {
+                int capacity = Math.min(size * 2, maxEvents);
+                types = Arrays.copyOf(types, capacity);
+                levels = Arrays.copyOf(levels, capacity);
+                messages = Arrays.copyOf(messages, capacity);
+                elapsedNanos = Arrays.copyOf(elapsedNanos, capacity);
+                exceptions = Arrays.copyOf(exceptions, capacity);
+            }
+            types[size] = type;
+            levels[size] = level;
+            messages[size] = message;
+            elapsedNanos[size] = elapsed;
+            exceptions[size] = e;
+            size++;
+        }
+
+        //다음 트레이스를 위해 비움, 참조는 끊어서 GC 대상이 되도록
+        void clear() {
+            Arrays.fill(messages, 0, size, null);
+            Arrays.fill(exceptions, 0, size, null);
+            size = 0;
+            omitted = 0;
+            keep = false;
+        }
+    }
+}
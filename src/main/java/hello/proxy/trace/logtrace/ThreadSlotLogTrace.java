@@ -0,0 +1,34 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceContext;
+import hello.proxy.trace.id.RandomTraceIdGenerator;
+import hello.proxy.trace.id.TraceIdGenerator;
+import hello.proxy.trace.thread.TraceContextSlot;
+
+/**
+ * 스레드에 갇힌(thread-confined) LogTrace, ContextLogTrace 와 같지만 TraceContext 를 찾는 방법만 다르다
+ * ContextLogTrace 를 상속하지 않으므로 쓰지 않는 ThreadLocal 을 만들지 않는다(공통 부분은 AbstractContextLogTrace).
+ *
+ * FieldLogTrace : 모든 스레드가 필드 하나를 같이 써서 동시 요청이면 트레이스가 섞인다.
+ * ThreadLocalLogTrace : 호출마다 ThreadLocalMap 해시 조회와 set(), remove() 를 한다.
+ * ThreadSlotLogTrace : TraceThread(TraceThreadFactory 로 만든 스레드)에서는 스레드 필드의 배열에서 바로 꺼낸다.
+ * 스레드 사이에 공유하는 상태가 없으므로 스레드 수에 비례해서 처리량이 늘어난다.
+ * 일반 스레드에서 호출되면 ThreadLocal 로 동작한다.
+ */
+public class ThreadSlotLogTrace extends AbstractContextLogTrace {
+
+    private final TraceContextSlot slot;
+
+    public ThreadSlotLogTrace() {
+        this(new RandomTraceIdGenerator());
+    }
+
+    public ThreadSlotLogTrace(TraceIdGenerator generator) {
+        this.slot = new TraceContextSlot(generator);
+    }
+
+    @Override
+    protected TraceContext context() {
+        return slot.get();
+    }
+}
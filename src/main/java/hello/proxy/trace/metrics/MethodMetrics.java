@@ -0,0 +1,55 @@
+package hello.proxy.trace.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 트레이스 메시지(예: "OrderController.request()") 하나에 대한 지표
+ *
+ * 호출 수, 예외 수, 진행 중인 호출 수는 LongAdder 로 센다.
+ * LongAdder 는 경합이 생기면 셀을 나눠서(striping) 더하므로 여러 요청 스레드가 같은 메서드를 불러도 서로 막지 않는다.
+ */
+public class MethodMetrics {
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public MethodMetrics(String name) {
+        this.name = name;
+    }
+
+    public void begin() {
+        inFlight.increment();
+    }
+
+    public void end(long elapsedNanos, boolean error) {
+        inFlight.decrement();
+        calls.increment();
+        if (error) {
+            errors.increment();
+        }
+        latency.record(elapsedNanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,91 @@
+package hello.proxy.trace.metrics;
+
+import java.util.List;
+
+/**
+ * TraceMetricsRegistry 의 내용을 Prometheus 텍스트 형식(0.0.4)으로 만든다
+ *
+ * log_trace_calls_total, log_trace_errors_total : counter
+ * log_trace_in_flight : gauge
+ * log_trace_latency_seconds : summary(p50, p90, p99, p99.9, 합계, 개수)
+ */
+public class PrometheusTextFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    public static String write(TraceMetricsRegistry registry) {
+        List<MethodMetrics> all = registry.getAll();
+        StringBuilder sb = new StringBuilder();
+
+        header(sb, "log_trace_calls_total", "counter", "Completed traced calls.");
+        for (MethodMetrics metrics : all) {
+            sample(sb, "log_trace_calls_total", metrics.getName(), null, metrics.getCalls());
+        }
+
+        header(sb, "log_trace_errors_total", "counter", "Traced calls that ended with an exception.");
+        for (MethodMetrics metrics : all) {
+            sample(sb, "log_trace_errors_total", metrics.getName(), null, metrics.getErrors());
+        }
+
+        header(sb, "log_trace_in_flight", "gauge", "Traced calls currently running.");
+        for (MethodMetrics metrics : all) {
+            sample(sb, "log_trace_in_flight", metrics.getName(), null, metrics.getInFlight());
+        }
+
+        header(sb, "log_trace_latency_seconds", "summary", "Traced call latency.");
+        for (MethodMetrics metrics : all) {
+            LatencyHistogram.Snapshot snapshot = metrics.getLatency().snapshot();
+            for (double quantile : QUANTILES) {
+                sample(sb, "log_trace_latency_seconds", metrics.getName(), Double.toString(quantile),
+                        snapshot.valueAtQuantile(quantile) / NANOS_PER_SECOND);
+            }
+            sample(sb, "log_trace_latency_seconds_sum", metrics.getName(), null, snapshot.getSum() / NANOS_PER_SECOND);
+            sample(sb, "log_trace_latency_seconds_count", metrics.getName(), null, snapshot.getCount());
+        }
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String method, String quantile, double value) {
+        sb.append(name).append("{method=\"");
+        escape(sb, method);
+        sb.append('"');
+        if (quantile != null) {
+            sb.append(",quantile=\"").append(quantile).append('"');
+        }
+        sb.append("} ");
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            sb.append((long) value);
+        } else {
+            sb.append(value);
+        }
+        sb.append('\n');
+    }
+
+    //라벨 값의 \, ", 줄바꿈은 이스케이프해야 한다
+    private static void escape(StringBuilder sb, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package hello.proxy.trace.metrics;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 메서드별 지표를 Prometheus 가 긁어갈 수 있게 노출
+ *
+ * http://localhost:8080/trace/metrics
+ * 컴포넌트 스캔 대상(hello.proxy.app)이 아니므로 ProxyApplication 에서 빈으로 등록한다.
+ */
+@RestController
+public class TraceMetricsController {
+
+    private final TraceMetricsRegistry registry;
+
+    public TraceMetricsController(TraceMetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @GetMapping(value = "/trace/metrics", produces = PrometheusTextFormat.CONTENT_TYPE)
+    public String metrics() {
+        return PrometheusTextFormat.write(registry);
+    }
+}
@@ -0,0 +1,78 @@
+package hello.proxy.trace.metrics;
+
+import hello.proxy.trace.MethodDescriptor;
+import hello.proxy.trace.TraceStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 트레이스 메시지(MethodDescriptor 는 키)별 MethodMetrics 저장소
+ *
+ * 메시지 종류는 프록시가 적용된 메서드 수만큼이라 한 번 만들어지면 이후에는 조회만 한다.
+ * MethodDescriptor 로 조회하면 id 를 인덱스로 쓰는 배열에서 바로 꺼낸다(문자열 해시, equals 없음).
+ */
+public class TraceMetricsRegistry {
+
+    private final ConcurrentMap<String, MethodMetrics> metrics = new ConcurrentHashMap<>();
+    //MethodDescriptor id -> MethodMetrics, 새 id 가 들어올 때만 복사해서 바꾼다
+    private volatile MethodMetrics[] byId = new MethodMetrics[0];
+
+    public MethodMetrics get(String method) {
+        MethodMetrics methodMetrics = metrics.get(method);
+        if (methodMetrics != null) {
+            return methodMetrics;
+        }
+        return metrics.computeIfAbsent(method, MethodMetrics::new);
+    }
+
+    public MethodMetrics get(MethodDescriptor method) {
+        MethodMetrics[] metricsById = byId;
+        int id = method.getId();
+        if (id < metricsById.length) {
+            MethodMetrics methodMetrics = metricsById[id];
+            if (methodMetrics != null) {
+                return methodMetrics;
+            }
+        }
+        return register(method);
+    }
+
+    /** begin(MethodDescriptor) 로 시작했으면 id 로, 아니면 메시지로 찾는다 */
+    public MethodMetrics get(TraceStatus status) {
+        int id = status.getMethodId();
+        if (id >= 0) {
+            MethodMetrics[] metricsById = byId;
+            if (id < metricsById.length && metricsById[id] != null) {
+                return metricsById[id];
+            }
+        }
+        return get(status.getMessage());
+    }
+
+    private synchronized MethodMetrics register(MethodDescriptor method) {
+        //키로 등록된 것과 같은 MethodMetrics 를 쓴다, 이름만 있는 MethodDescriptor 는 키가 이름이라 문자열로 시작한 호출과 합쳐진다
+        //패키지만 다른 같은 이름의 클래스는 로그 이름이 같아도 지표를 따로 모은다
+        MethodMetrics methodMetrics = metrics.computeIfAbsent(method.getKey(), k -> new MethodMetrics(method.getName()));
+        MethodMetrics[] metricsById = byId;
+        if (method.getId() >= metricsById.length) {
+            metricsById = Arrays.copyOf(metricsById, Math.max(method.getId() + 1, metricsById.length * 2));
+        } else {
+            metricsById = metricsById.clone();
+        }
+        metricsById[method.getId()] = methodMetrics;
+        byId = metricsById;
+        return methodMetrics;
+    }
+
+    /** 이름순으로 정렬한 목록 */
+    public List<MethodMetrics> getAll() {
+        List<MethodMetrics> all = new ArrayList<>(metrics.values());
+        all.sort(Comparator.comparing(MethodMetrics::getName));
+        return all;
+    }
+}
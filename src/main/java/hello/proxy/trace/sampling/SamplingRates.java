@@ -0,0 +1,82 @@
+package hello.proxy.trace.sampling;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 루트 메시지(예: "OrderControllerV1.request()")별 샘플링 비율
+ *
+ * 비율은 0.0(하나도 안 남김) ~ 1.0(모두 남김)이고, 따로 정하지 않은 루트는 defaultRate 를 쓴다.
+ * 실행 중에 바꿀 수 있고, 바뀐 비율은 다음에 시작하는 트레이스부터 적용된다.
+ */
+public class SamplingRates {
+
+    private final ConcurrentMap<String, Double> rates = new ConcurrentHashMap<>();
+    private volatile double defaultRate;
+
+    public SamplingRates(double defaultRate) {
+        this.defaultRate = checkRate(defaultRate);
+    }
+
+    /**
+     * "OrderControllerV1.request()=0.1, OrderControllerV2.request()=0" 형식의 설정 문자열로 비율을 정한다.
+     */
+    public static SamplingRates parse(double defaultRate, String spec) {
+        SamplingRates samplingRates = new SamplingRates(defaultRate);
+        if (spec == null || spec.isBlank()) {
+            return samplingRates;
+        }
+        for (String entry : spec.split(",")) {
+            int index = entry.lastIndexOf('=');
+            if (index < 0) {
+                throw new IllegalArgumentException("샘플링 비율 형식이 잘못되었습니다. entry=" + entry);
+            }
+            samplingRates.setRate(entry.substring(0, index).trim(), Double.parseDouble(entry.substring(index + 1).trim()));
+        }
+        return samplingRates;
+    }
+
+    /** 루트 begin() 에서 한 번만 호출, 이 트레이스를 남길지 결정 */
+    public boolean sample(String rootMessage) {
+        Double rate = rates.get(rootMessage);
+        double r = (rate == null) ? defaultRate : rate;
+        if (r >= 1.0) {
+            return true;
+        }
+        if (r <= 0.0) {
+            return false;
+        }
+        return ThreadLocalRandom.current().nextDouble() < r;
+    }
+
+    public void setRate(String rootMessage, double rate) {
+        rates.put(rootMessage, checkRate(rate));
+    }
+
+    public void removeRate(String rootMessage) {
+        rates.remove(rootMessage);
+    }
+
+    public double getDefaultRate() {
+        return defaultRate;
+    }
+
+    public void setDefaultRate(double defaultRate) {
+        this.defaultRate = checkRate(defaultRate);
+    }
+
+    /** 이름순으로 정렬한 복사본 */
+    public Map<String, Double> getRates() {
+        return new TreeMap<>(rates);
+    }
+
+    private static double checkRate(double rate) {
+        if (!(rate >= 0.0 && rate <= 1.0)) {
+            throw new IllegalArgumentException("샘플링 비율은 0.0 ~ 1.0 사이여야 합니다. rate=" + rate);
+        }
+        return rate;
+    }
+}
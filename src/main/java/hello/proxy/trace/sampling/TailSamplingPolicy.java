@@ -0,0 +1,58 @@
+package hello.proxy.trace.sampling;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 트레이스가 끝난 뒤(tail) 남길지 정하는 기준
+ *
+ * 다음 중 하나라도 해당하면 트레이스 전체를 남긴다.
+ * 1. 루트 호출 전체 시간이 SLO 이상
+ * 2. 어느 단계에서든 예외 발생(keepErrors 가 true 일 때)
+ * 3. 특정 메서드가 자기 기준 시간 이상 걸림(예: OrderRepositoryV1.save() 가 500ms 이상)
+ */
+public class TailSamplingPolicy {
+
+    private final long sloNanos;
+    private final boolean keepErrors;
+    private final Map<String, Long> methodThresholdNanos;
+
+    public TailSamplingPolicy(long slo, TimeUnit unit, boolean keepErrors, Map<String, Long> methodThresholdNanos) {
+        this.sloNanos = unit.toNanos(slo);
+        this.keepErrors = keepErrors;
+        this.methodThresholdNanos = new HashMap<>(methodThresholdNanos);
+    }
+
+    /**
+     * @param methodThresholds "OrderRepositoryV1.save()=500, OrderServiceV1.orderItem()=800" 형식, 단위는 ms
+     */
+    public static TailSamplingPolicy parse(long sloMs, boolean keepErrors, String methodThresholds) {
+        Map<String, Long> thresholds = new HashMap<>();
+        if (methodThresholds != null && !methodThresholds.isBlank()) {
+            for (String entry : methodThresholds.split(",")) {
+                int index = entry.lastIndexOf('=');
+                if (index < 0) {
+                    throw new IllegalArgumentException("메서드 기준 시간 형식이 잘못되었습니다. entry=" + entry);
+                }
+                long thresholdMs = Long.parseLong(entry.substring(index + 1).trim());
+                thresholds.put(entry.substring(0, index).trim(), TimeUnit.MILLISECONDS.toNanos(thresholdMs));
+            }
+        }
+        return new TailSamplingPolicy(sloMs, TimeUnit.MILLISECONDS, keepErrors, thresholds);
+    }
+
+    /** 단계 하나가 끝날 때마다 호출, 이 단계 때문에 트레이스를 남겨야 하는지 */
+    public boolean keepStep(String message, long elapsedNanos, boolean error) {
+        if (error && keepErrors) {
+            return true;
+        }
+        Long threshold = methodThresholdNanos.get(message);
+        return threshold != null && elapsedNanos >= threshold;
+    }
+
+    /** 루트가 끝날 때 호출 */
+    public boolean keepRoot(long elapsedNanos) {
+        return elapsedNanos >= sloNanos;
+    }
+}
@@ -0,0 +1,56 @@
+package hello.proxy.trace.sampling;
+
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 실행 중에 샘플링 비율을 조회하고 바꾸는 엔드포인트
+ *
+ * 조회 : GET    /trace/sampling
+ * 변경 : POST   /trace/sampling?method=OrderControllerV1.request()&rate=0.1
+ *        method 를 빼면 기본 비율을 바꾼다
+ * 삭제 : DELETE /trace/sampling?method=OrderControllerV1.request() (기본 비율로 돌아감)
+ *
+ * 컴포넌트 스캔 대상(hello.proxy.app)이 아니므로 ProxyApplication 에서 빈으로 등록한다.
+ */
+@RestController
+public class TraceSamplingController {
+
+    private final SamplingRates samplingRates;
+
+    public TraceSamplingController(SamplingRates samplingRates) {
+        this.samplingRates = samplingRates;
+    }
+
+    @GetMapping("/trace/sampling")
+    public String rates() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("default=").append(samplingRates.getDefaultRate()).append('\n');
+        for (Map.Entry<String, Double> entry : samplingRates.getRates().entrySet()) {
+            sb.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @PostMapping("/trace/sampling")
+    public String setRate(@RequestParam(value = "method", required = false) String method,
+                          @RequestParam("rate") double rate) {
+        if (method == null) {
+            samplingRates.setDefaultRate(rate);
+        } else {
+            samplingRates.setRate(method, rate);
+        }
+        return rates();
+    }
+
+    @DeleteMapping("/trace/sampling")
+    public String removeRate(@RequestParam("method") String method) {
+        samplingRates.removeRate(method);
+        return rates();
+    }
+}
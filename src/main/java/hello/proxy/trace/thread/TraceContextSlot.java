@@ -0,0 +1,76 @@
+package hello.proxy.trace.thread;
+
+import hello.proxy.trace.TraceContext;
+import hello.proxy.trace.id.TraceIdGenerator;
+
+import java.lang.ref.Cleaner;
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 스레드별 TraceContext 자리, ThreadLocal<TraceContext> 대신 사용
+ *
+ * 현재 스레드가 TraceThread 이면 스레드 필드의 배열에서 index 로 바로 꺼낸다(ThreadLocalMap 조회 없음).
+ * 일반 스레드(테스트, 스케줄러 등)에서는 ThreadLocal 로 동작한다.
+ * 슬롯마다 index 가 달라서 LogTrace 여러 개가 한 스레드를 같이 써도 서로의 TraceContext 를 건드리지 않는다.
+ *
+ * index 는 살아 있는 슬롯끼리만 겹치지 않으면 된다. 슬롯이 GC 되면 Cleaner 가 index 를 반납하고
+ * 다음 슬롯이 가장 작은 빈 index 를 다시 쓴다. 그래서 LogTrace 를 계속 새로 만들어도(테스트, 리프레시 등)
+ * TraceThread 의 배열은 동시에 살아 있는 슬롯 수 이상으로 커지지 않는다.
+ * 반납된 index 에는 이전 슬롯의 TraceContext 가 남아 있을 수 있으므로 슬롯마다 다른 id 를 같이 저장하고,
+ * id 가 다르면 자기 것이 아니라고 보고 새로 만든다.
+ */
+public class TraceContextSlot {
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    //사용 중인 index
+    private static final BitSet USED_INDICES = new BitSet();
+    //슬롯을 구분하는 id, index 와 달리 반납하지 않는다
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(1);
+
+    private final int index;
+    private final int id = NEXT_ID.getAndIncrement();
+    private final TraceIdGenerator generator;
+    private final ThreadLocal<TraceContext> fallback;
+
+    public TraceContextSlot(TraceIdGenerator generator) {
+        this.index = acquireIndex();
+        this.generator = generator;
+        this.fallback = ThreadLocal.withInitial(() -> new TraceContext(generator));
+        //람다가 this 를 잡으면 GC 되지 않으므로 index 만 넘긴다
+        int index = this.index;
+        CLEANER.register(this, () -> releaseIndex(index));
+    }
+
+    public TraceContext get() {
+        Thread thread = Thread.currentThread();
+        if (thread instanceof TraceThread) {
+            TraceThread traceThread = (TraceThread) thread;
+            TraceContext context = traceThread.getTraceContext(index, id);
+            if (context == null) {
+                context = new TraceContext(generator);
+                traceThread.setTraceContext(index, id, context);
+            }
+            return context;
+        }
+        return fallback.get();
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    private static int acquireIndex() {
+        synchronized (USED_INDICES) {
+            int index = USED_INDICES.nextClearBit(0);
+            USED_INDICES.set(index);
+            return index;
+        }
+    }
+
+    private static void releaseIndex(int index) {
+        synchronized (USED_INDICES) {
+            USED_INDICES.clear(index);
+        }
+    }
+}
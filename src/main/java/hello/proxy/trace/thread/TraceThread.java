@@ -0,0 +1,40 @@
+package hello.proxy.trace.thread;
+
+import hello.proxy.trace.TraceContext;
+
+import java.util.Arrays;
+
+/**
+ * TraceContext 를 필드로 들고 있는 스레드
+ *
+ * ThreadLocal.get() 은 스레드의 ThreadLocalMap 에서 해시로 슬롯을 찾고, 충돌이 나면 옆 칸을 차례로 살펴본다.
+ * TraceThread 는 TraceContextSlot 마다 번호(index)를 받아서 배열에서 바로 꺼낸다.
+ * index 는 반납 후 다른 슬롯이 다시 쓸 수 있어서 어느 슬롯이 저장했는지(id)도 같이 둔다.
+ *
+ * 배열은 이 스레드 안에서만 읽고 쓰므로 동기화하지 않는다.
+ * TraceThreadFactory 로 만들어서 Tomcat 등의 스레드 풀에 넣는다.
+ */
+public class TraceThread extends Thread {
+
+    private TraceContext[] contexts = new TraceContext[4];
+    private int[] owners = new int[4];
+
+    public TraceThread(ThreadGroup group, Runnable target, String name) {
+        super(group, target, name);
+    }
+
+    TraceContext getTraceContext(int index, int owner) {
+        TraceContext[] contexts = this.contexts;
+        return index < contexts.length && owners[index] == owner ? contexts[index] : null;
+    }
+
+    void setTraceContext(int index, int owner, TraceContext context) {
+        if (index >= contexts.length) {
+            int length = Math.max(index + 1, contexts.length * 2);
+            contexts = Arrays.copyOf(contexts, length);
+            owners = Arrays.copyOf(owners, length);
+        }
+        contexts[index] = context;
+        owners[index] = owner;
+    }
+}
@@ -0,0 +1,27 @@
+package hello.proxy.trace.thread;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TraceThread 를 만드는 ThreadFactory, 이름은 prefix + 번호
+ */
+public class TraceThreadFactory implements ThreadFactory {
+
+    private final String namePrefix;
+    private final boolean daemon;
+    private final ThreadGroup group = Thread.currentThread().getThreadGroup();
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+    public TraceThreadFactory(String namePrefix, boolean daemon) {
+        this.namePrefix = namePrefix;
+        this.daemon = daemon;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        TraceThread thread = new TraceThread(group, runnable, namePrefix + threadNumber.getAndIncrement());
+        thread.setDaemon(daemon);
+        return thread;
+    }
+}
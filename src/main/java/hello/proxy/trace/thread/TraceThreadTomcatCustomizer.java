@@ -0,0 +1,38 @@
+package hello.proxy.trace.thread;
+
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tomcat 요청 스레드를 TraceThread 로 바꾼다
+ *
+ * Tomcat 이 기본으로 만드는 스레드 풀과 같은 방식(TaskQueue + Tomcat ThreadPoolExecutor)으로 만들고
+ * ThreadFactory 만 TraceThreadFactory 로 바꿔서 커넥터에 넣는다.
+ * 외부에서 넣은 executor 는 Tomcat 이 종료하지 않으므로 빈이 종료될 때 직접 종료한다.
+ */
+public class TraceThreadTomcatCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory>, DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+
+    public TraceThreadTomcatCustomizer(int minSpareThreads, int maxThreads) {
+        TaskQueue taskQueue = new TaskQueue();
+        this.executor = new ThreadPoolExecutor(minSpareThreads, maxThreads, 60, TimeUnit.SECONDS, taskQueue,
+                new TraceThreadFactory("http-nio-trace-exec-", true));
+        taskQueue.setParent(executor);
+    }
+
+    @Override
+    public void customize(TomcatServletWebServerFactory factory) {
+        factory.addProtocolHandlerCustomizers(protocol -> protocol.setExecutor(executor));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,175 @@
+package hello.proxy.advisor;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.common.advice.TimeAdvice;
+import hello.proxy.common.logtrace.NoOpLogTrace;
+import hello.proxy.common.service.ServiceImpl;
+import hello.proxy.common.service.ServiceInterface;
+import hello.proxy.config.v3_proxyfactory.ProxyFactoryConfigV1;
+import hello.proxy.config.v3_proxyfactory.fusion.AdviceFusion;
+import hello.proxy.config.v3_proxyfactory.fusion.FusedInterceptor;
+import hello.proxy.config.v3_proxyfactory.fusion.FusibleAdvice;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 여러 어드바이저를 FusedInterceptor 하나로 합치기
+ * MultiAdvisorTest.multiAdvisorTest2 와 같은 구성
+ */
+class AdviceFusionTest {
+
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    @DisplayName("합쳐도 호출 순서는 같다")
+    void fuse() {
+        ProxyFactory proxyFactory = new ProxyFactory(new ServiceImpl());
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new TimeAdvice()));
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice2")));
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice1")));
+
+        assertThat(AdviceFusion.fuse(proxyFactory)).isTrue();
+        ServiceInterface proxy = (ServiceInterface) proxyFactory.getProxy();
+        assertThat(((Advised) proxy).getAdvisors()).hasSize(1);
+
+        proxy.save();
+        assertThat(calls).containsExactly("advice2 before", "advice1 before", "advice1 after", "advice2 after");
+    }
+
+    @Test
+    @DisplayName("메서드마다 포인트컷에 맞는 어드바이스만")
+    void pointcutPerMethod() {
+        NameMatchMethodPointcut savePointcut = new NameMatchMethodPointcut();
+        savePointcut.setMappedNames("save");
+
+        ProxyFactory proxyFactory = new ProxyFactory(new ServiceImpl());
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("all")));
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(savePointcut, new RecordingAdvice("save")));
+        AdviceFusion.fuse(proxyFactory);
+        ServiceInterface proxy = (ServiceInterface) proxyFactory.getProxy();
+
+        proxy.find();
+        assertThat(calls).containsExactly("all before", "all after");
+    }
+
+    @Test
+    @DisplayName("shortCircuit 뒤 안쪽 afterReturning 이 예외를 던져도 바깥 afterThrowing 은 한 번만")
+    void shortCircuitAfterReturningFails() {
+        ProxyFactory proxyFactory = new ProxyFactory(new ServiceImpl());
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("outer")));
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("middle") {
+            @Override
+            public Object afterReturning(Object state, Object result) {
+                super.afterReturning(state, result);
+                throw new IllegalStateException("afterReturning 실패");
+            }
+        }));
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("cache") {
+            @Override
+            public Object before(MethodInvocation invocation) {
+                super.before(invocation);
+                return FusibleAdvice.shortCircuit(null);
+            }
+        }));
+        assertThat(AdviceFusion.fuse(proxyFactory)).isTrue();
+        ServiceInterface proxy = (ServiceInterface) proxyFactory.getProxy();
+
+        assertThatThrownBy(proxy::save).isInstanceOf(IllegalStateException.class);
+        assertThat(calls).containsExactly("outer before", "middle before", "cache before", "middle after", "outer exception");
+    }
+
+    @Test
+    @DisplayName("ProxyFactoryConfigV1 컨트롤러 프록시는 비율 제한 + 로그 추적이 하나로 합쳐진다")
+    void proxyFactoryConfigV1() {
+        new ApplicationContextRunner()
+                .withPropertyValues("ratelimit.enabled=true")
+                .withBean(LogTrace.class, NoOpLogTrace::new)
+                .withUserConfiguration(ProxyFactoryConfigV1.class)
+                .run(context -> {
+                    Advisor[] advisors = ((Advised) context.getBean(OrderControllerV1.class)).getAdvisors();
+                    assertThat(advisors).hasSize(1);
+                    assertThat(advisors[0].getAdvice()).isInstanceOf(FusedInterceptor.class);
+                    assertThat(context.getBean(OrderControllerV1.class).request("itemA")).isEqualTo("ok");
+                });
+    }
+
+    @Test
+    @DisplayName("어드바이스 수와 상관없이 호출 스택 깊이가 같다")
+    void stackDepth() {
+        assertThat(targetStackDepth(8)).isEqualTo(targetStackDepth(2));
+    }
+
+    @Test
+    @DisplayName("FusibleAdvice 가 아닌 어드바이저가 있으면 합치지 않는다")
+    void notFusible() {
+        ProxyFactory proxyFactory = new ProxyFactory(new ServiceImpl());
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice1")));
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new MultiAdvisorTest.Advice1()));
+
+        assertThat(AdviceFusion.fuse(proxyFactory)).isFalse();
+        assertThat(proxyFactory.getAdvisors()).hasSize(2);
+    }
+
+    private int targetStackDepth(int adviceCount) {
+        int[] depth = new int[1];
+        ServiceInterface target = new ServiceImpl() {
+            @Override
+            public void save() {
+                depth[0] = Thread.currentThread().getStackTrace().length;
+            }
+        };
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        for (int i = 0; i < adviceCount; i++) {
+            proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new RecordingAdvice("advice" + i)));
+        }
+        AdviceFusion.fuse(proxyFactory);
+        ((ServiceInterface) proxyFactory.getProxy()).save();
+        return depth[0];
+    }
+
+    private class RecordingAdvice implements FusibleAdvice {
+
+        private final String name;
+
+        RecordingAdvice(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Object state = before(invocation);
+            return afterReturning(state, invocation.proceed());
+        }
+
+        @Override
+        public Object before(MethodInvocation invocation) {
+            calls.add(name + " before");
+            return null;
+        }
+
+        @Override
+        public Object afterReturning(Object state, Object result) {
+            calls.add(name + " after");
+            return result;
+        }
+
+        @Override
+        public void afterThrowing(Object state, Throwable ex) {
+            calls.add(name + " exception");
+        }
+    }
+}
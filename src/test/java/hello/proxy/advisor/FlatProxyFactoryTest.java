@@ -0,0 +1,90 @@
+package hello.proxy.advisor;
+
+import hello.proxy.common.service.ConcreteService;
+import hello.proxy.common.service.ServiceImpl;
+import hello.proxy.common.service.ServiceInterface;
+import hello.proxy.config.v3_proxyfactory.FlatProxyFactory;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 프록시를 target 으로 주면 프록시를 겹치지 않고 어드바이저를 합친다
+ * MultiAdvisorTest.multiAdvisorTest1 과 같은 코드, ProxyFactory 대신 FlatProxyFactory
+ */
+class FlatProxyFactoryTest {
+
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    @DisplayName("프록시 두 겹 -> 프록시 하나")
+    void flatten() throws Exception {
+        //client -> proxy(advisor2, advisor1) -> target
+        ServiceInterface target = new ServiceImpl();
+
+        ProxyFactory proxyFactory1 = new ProxyFactory(target);
+        proxyFactory1.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, advice("advice1")));
+        ServiceInterface proxy1 = (ServiceInterface) proxyFactory1.getProxy();
+
+        FlatProxyFactory proxyFactory2 = new FlatProxyFactory(proxy1);
+        proxyFactory2.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, advice("advice2")));
+        ServiceInterface proxy2 = (ServiceInterface) proxyFactory2.getProxy();
+
+        assertThat(proxyFactory2.isFlattened()).isTrue();
+        //안쪽 프록시가 아닌 실제 target 을 바로 감싼다
+        assertThat(((Advised) proxy2).getTargetSource().getTarget()).isSameAs(target);
+        assertThat(((Advised) proxy2).getAdvisors()).hasSize(2);
+
+        //호출 순서는 프록시를 겹쳤을 때와 같다
+        proxy2.save();
+        assertThat(calls).containsExactly("advice2", "advice1");
+    }
+
+    @Test
+    @DisplayName("CGLIB 프록시 세 겹")
+    void flattenCglib() throws Exception {
+        ConcreteService target = new ConcreteService();
+        Object proxy = target;
+        for (String name : new String[]{"advice1", "advice2", "advice3"}) {
+            FlatProxyFactory proxyFactory = new FlatProxyFactory(proxy);
+            proxyFactory.addAdvice(advice(name));
+            proxy = proxyFactory.getProxy();
+        }
+
+        assertThat(AopUtils.isCglibProxy(proxy)).isTrue();
+        assertThat(((Advised) proxy).getTargetSource().getTarget()).isSameAs(target);
+
+        ((ConcreteService) proxy).call();
+        assertThat(calls).containsExactly("advice3", "advice2", "advice1");
+    }
+
+    @Test
+    @DisplayName("프록시가 아니면 ProxyFactory 와 같다")
+    void notAdvised() {
+        FlatProxyFactory proxyFactory = new FlatProxyFactory(new ServiceImpl());
+        proxyFactory.addAdvice(advice("advice1"));
+        ServiceInterface proxy = (ServiceInterface) proxyFactory.getProxy();
+
+        assertThat(proxyFactory.isFlattened()).isFalse();
+        assertThat(AopUtils.isJdkDynamicProxy(proxy)).isTrue();
+        proxy.find();
+        assertThat(calls).containsExactly("advice1");
+    }
+
+    private MethodInterceptor advice(String name) {
+        return invocation -> {
+            calls.add(name);
+            return invocation.proceed();
+        };
+    }
+}
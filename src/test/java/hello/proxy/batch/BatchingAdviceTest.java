@@ -0,0 +1,179 @@
+package hello.proxy.batch;
+
+import hello.proxy.config.v3_proxyfactory.advice.BatchingAdvice;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BatchingAdviceTest {
+
+    //linger 를 길게 잡아서 테스트 중에 들어온 호출이 한 배치로 모이게 한다
+    private final BatchingAdvice advice = new BatchingAdvice(4, 200, TimeUnit.MILLISECONDS, 100);
+
+    @AfterEach
+    void close() throws InterruptedException {
+        advice.close();
+    }
+
+    @Test
+    @DisplayName("void 메서드는 자기 항목이 저장될 때까지 기다렸다가 반환")
+    void blocking() throws Exception {
+        BulkRepository target = new BulkRepository();
+        Repository proxy = proxy(target);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            String itemId = "item" + i;
+            calls.add(executor.submit(() -> proxy.save(itemId)));
+        }
+        for (Future<?> call : calls) {
+            call.get(1, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        //save() 가 반환됐으면 이미 저장된 상태
+        assertThat(target.bulkCalls).hasSize(1);
+        assertThat(target.bulkCalls.get(0)).containsExactlyInAnyOrder("item0", "item1", "item2", "item3");
+        assertThat(target.singleCalls).isEmpty();
+    }
+
+    @Test
+    @DisplayName("void 메서드는 자기 항목의 저장 예외를 그대로 받는다")
+    void blockingException() {
+        Repository proxy = proxy(new BulkRepository());
+
+        assertThatThrownBy(() -> proxy.save("ex")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("void 메서드는 wait-timeout 이 지나면 더 기다리지 않는다")
+    void blockingTimeout() throws InterruptedException {
+        BatchingAdvice timeoutAdvice = new BatchingAdvice(4, 1, TimeUnit.MILLISECONDS, 100, 50);
+        ProxyFactory proxyFactory = new ProxyFactory(new BulkRepository());
+        proxyFactory.addAdvice(timeoutAdvice);
+        Repository proxy = (Repository) proxyFactory.getProxy();
+
+        try {
+            assertThatThrownBy(() -> proxy.save("slow"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("시간 초과");
+        } finally {
+            timeoutAdvice.close();
+        }
+    }
+
+    @Test
+    @DisplayName("future 를 반환하는 메서드는 기다리지 않고 바로 반환")
+    void writeBehind() throws Exception {
+        BulkRepository target = new BulkRepository();
+        Repository proxy = proxy(target);
+
+        CompletableFuture<Void> future = proxy.saveAsync("itemA");
+        assertThat(future).isNotDone();
+        future.get(1, TimeUnit.SECONDS);
+
+        assertThat(target.bulkCalls).containsExactly(List.of("itemA"));
+        assertThat(target.singleCalls).isEmpty();
+    }
+
+    @Test
+    @DisplayName("saveAll 을 직접 호출하면 배치하지 않고 그대로 호출")
+    void saveAllNotBatched() {
+        BulkRepository target = new BulkRepository();
+        Repository proxy = proxy(target);
+
+        proxy.saveAll(List.of("itemA", "itemB"));
+
+        assertThat(target.bulkCalls).containsExactly(List.of("itemA", "itemB"));
+        assertThat(advice.getBatchCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("BulkSave 를 구현하지 않은 구체 클래스도 saveAll(List) 가 있으면 배치, 프록시는 클래스 기반 그대로")
+    void concreteClass() {
+        ConcreteRepository target = new ConcreteRepository();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(advice);
+        ConcreteRepository proxy = (ConcreteRepository) proxyFactory.getProxy();
+
+        proxy.save("itemA");
+
+        assertThat(target.bulkCalls).containsExactly(List.of("itemA"));
+        assertThat(target.singleCalls).isEmpty();
+    }
+
+    private Repository proxy(BulkRepository target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(advice);
+        return (Repository) proxyFactory.getProxy();
+    }
+
+    interface Repository extends BulkSave<String> {
+        void save(String itemId);
+
+        CompletableFuture<Void> saveAsync(String itemId);
+    }
+
+    static class BulkRepository implements Repository {
+
+        final List<List<String>> bulkCalls = Collections.synchronizedList(new ArrayList<>());
+        final List<String> singleCalls = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void save(String itemId) {
+            singleCalls.add(itemId);
+        }
+
+        @Override
+        public CompletableFuture<Void> saveAsync(String itemId) {
+            singleCalls.add(itemId);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void saveAll(List<String> items) {
+            if (items.contains("ex")) {
+                throw new IllegalStateException("예외 발생!");
+            }
+            if (items.contains("slow")) {
+                sleep(500);
+            }
+            bulkCalls.add(new ArrayList<>(items));
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    static class ConcreteRepository {
+
+        final List<List<String>> bulkCalls = Collections.synchronizedList(new ArrayList<>());
+        final List<String> singleCalls = Collections.synchronizedList(new ArrayList<>());
+
+        public void save(String itemId) {
+            singleCalls.add(itemId);
+        }
+
+        public void saveAll(List<String> items) {
+            bulkCalls.add(new ArrayList<>(items));
+        }
+    }
+}
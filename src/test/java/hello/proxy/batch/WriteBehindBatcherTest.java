@@ -0,0 +1,121 @@
+package hello.proxy.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class WriteBehindBatcherTest {
+
+    private final List<List<String>> bulkCalls = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger bulkAttempts = new AtomicInteger();
+    private WriteBehindBatcher<String> batcher;
+
+    @AfterEach
+    void close() throws InterruptedException {
+        batcher.close();
+    }
+
+    @Test
+    @DisplayName("max-size 만큼 모아서 한 번에 저장")
+    void batchBySize() throws Exception {
+        batcher = batcher(4, 1000);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(batcher.submit("item" + i));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(1, TimeUnit.SECONDS);
+
+        assertThat(bulkCalls).hasSize(2);
+        assertThat(bulkCalls.get(0)).containsExactly("item0", "item1", "item2", "item3");
+        assertThat(batcher.getItemCount()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("덜 모여도 linger 시간이 지나면 저장")
+    void batchByLinger() throws Exception {
+        batcher = batcher(100, 10);
+
+        batcher.submit("itemA").get(1, TimeUnit.SECONDS);
+
+        assertThat(bulkCalls).containsExactly(List.of("itemA"));
+    }
+
+    @Test
+    @DisplayName("saveAll 이 실패하면 반으로 나눠서 다시 저장하고, 실패한 항목만 예외")
+    void split() throws Exception {
+        batcher = batcher(8, 1000);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(batcher.submit(i == 5 ? "ex" : "item" + i));
+        }
+
+        for (int i = 0; i < 8; i++) {
+            if (i == 5) {
+                CompletableFuture<Void> ex = futures.get(i);
+                assertThatThrownBy(() -> ex.get(1, TimeUnit.SECONDS)).hasRootCauseInstanceOf(IllegalStateException.class);
+            } else {
+                futures.get(i).get(1, TimeUnit.SECONDS);
+            }
+        }
+        //8 -> 4 + 4 -> 2 + 2 -> 1 + 1, 한 건씩 7 번이 아니라 나눠서 다시 저장
+        assertThat(bulkCalls).flatExtracting(items -> items).hasSize(7).doesNotContain("ex");
+        assertThat(bulkAttempts.get()).isEqualTo(7);
+        assertThat(batcher.getSplitCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("close() 와 동시에 submit 해도 모든 future 가 완료된다")
+    void submitWhileClosing() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            batcher = batcher(4, 1);
+            List<CompletableFuture<Void>> futures = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> submitters = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Thread submitter = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < 100; i++) {
+                            futures.add(batcher.submit("item" + i));
+                        }
+                    } catch (IllegalStateException e) {
+                        //종료된 배처
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                submitter.start();
+                submitters.add(submitter);
+            }
+            batcher.close();
+            for (Thread submitter : submitters) {
+                submitter.join();
+            }
+
+            for (CompletableFuture<Void> future : futures) {
+                //저장됐거나 종료로 실패했거나, 영원히 기다리는 future 는 없다
+                assertThatCode(() -> future.handle((v, ex) -> null).get(1, TimeUnit.SECONDS)).doesNotThrowAnyException();
+            }
+        }
+    }
+
+    private WriteBehindBatcher<String> batcher(int maxBatchSize, long lingerMs) {
+        BulkSave<String> bulkSave = items -> {
+            bulkAttempts.incrementAndGet();
+            if (items.contains("ex")) {
+                throw new IllegalStateException("예외 발생!");
+            }
+            bulkCalls.add(new ArrayList<>(items));
+        };
+        return new WriteBehindBatcher<>("test", bulkSave, maxBatchSize, lingerMs, TimeUnit.MILLISECONDS, 100);
+    }
+}
@@ -0,0 +1,121 @@
+package hello.proxy.breaker;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(3);
+
+    @Test
+    @DisplayName("실패율이 기준 이상이면 열리고, 열려 있으면 같은 예외 객체로 거절")
+    void openOnFailureRate() {
+        CircuitBreaker breaker = new CircuitBreaker("test", settings(50, TimeUnit.MINUTES.toMillis(1)));
+        for (int i = 0; i < 5; i++) {
+            call(breaker, true, FAST);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        for (int i = 0; i < 5; i++) {
+            call(breaker, false, FAST);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.notPermitted()).isSameAs(breaker.notPermitted());
+        assertThat(breaker.notPermitted().getStackTrace()).isEmpty();
+        assertThat(breaker.getNotPermittedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("minimumCalls 전에는 열지 않는다")
+    void minimumCalls() {
+        CircuitBreaker breaker = new CircuitBreaker("test", settings(50, TimeUnit.MINUTES.toMillis(1)));
+        for (int i = 0; i < 9; i++) {
+            call(breaker, false, FAST);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("느린 호출 비율로도 열린다")
+    void openOnSlowCallRate() {
+        CircuitBreakerSettings settings = settings(100, TimeUnit.MINUTES.toMillis(1));
+        settings.setSlowCallRateThreshold(50);
+        CircuitBreaker breaker = new CircuitBreaker("test", settings);
+        for (int i = 0; i < 10; i++) {
+            call(breaker, true, i % 2 == 0 ? SLOW : FAST);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @DisplayName("wait 시간이 지나면 시험 호출, 모두 성공하면 닫힌다")
+    void halfOpenToClosed() throws InterruptedException {
+        CircuitBreaker breaker = openedBreaker();
+        Thread.sleep(20);
+
+        for (int i = 0; i < 3; i++) {
+            call(breaker, true, FAST);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("시험 호출이 실패하면 다시 열린다")
+    void halfOpenToOpen() throws InterruptedException {
+        CircuitBreaker breaker = openedBreaker();
+        Thread.sleep(20);
+
+        call(breaker, false, FAST);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("시험 호출은 halfOpenCalls 번만 허용")
+    void halfOpenPermits() throws InterruptedException {
+        CircuitBreaker breaker = openedBreaker();
+        Thread.sleep(20);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    private CircuitBreaker openedBreaker() {
+        CircuitBreaker breaker = new CircuitBreaker("test", settings(50, 10));
+        for (int i = 0; i < 10; i++) {
+            call(breaker, false, FAST);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private static void call(CircuitBreaker breaker, boolean success, long durationNanos) {
+        assertThat(breaker.tryAcquire()).isTrue();
+        if (success) {
+            breaker.onSuccess(durationNanos);
+        } else {
+            breaker.onError(durationNanos);
+        }
+    }
+
+    private static CircuitBreakerSettings settings(int failureRate, long waitMs) {
+        CircuitBreakerSettings settings = new CircuitBreakerSettings();
+        settings.setWindowSize(10);
+        settings.setMinimumCalls(10);
+        settings.setFailureRateThreshold(failureRate);
+        settings.setSlowCallDuration(2, TimeUnit.SECONDS);
+        settings.setWaitDuration(waitMs, TimeUnit.MILLISECONDS);
+        settings.setHalfOpenCalls(3);
+        return settings;
+    }
+}
@@ -0,0 +1,116 @@
+package hello.proxy.bytecode;
+
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1Impl;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.bytecode.code.BaseCalculator;
+import hello.proxy.common.logtrace.RecordingLogTrace;
+import hello.proxy.trace.bytecode.BytecodeProxyFactory;
+import hello.proxy.trace.logtrace.ContextLogTrace;
+import hello.proxy.trace.logtrace.LogTrace;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ASM 으로 만든 바이트코드 프록시
+ */
+class BytecodeProxyFactoryTest {
+
+    @Test
+    void interfaceProxy() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        BytecodeProxyFactory factory = new BytecodeProxyFactory(new OrderRepositoryV1Impl());
+        factory.setLogTrace(logTrace);
+        factory.setMappedNames("save*");
+
+        OrderRepositoryV1 proxy = (OrderRepositoryV1) factory.getProxy();
+        assertThat(proxy).isNotInstanceOf(OrderRepositoryV1Impl.class);
+
+        assertThatThrownBy(() -> proxy.save("ex"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(logTrace.getMessages()).containsExactly("OrderRepositoryV1.save()");
+        assertThat(logTrace.getExceptionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concreteProxy() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        List<String> saved = new ArrayList<>();
+        OrderRepositoryV2 repository = new OrderRepositoryV2() {
+            @Override
+            public void save(String itemId) {
+                saved.add(itemId);
+            }
+        };
+        BytecodeProxyFactory factory = new BytecodeProxyFactory(new OrderServiceV2(repository));
+        factory.setLogTrace(logTrace);
+        factory.setMappedNames("request*", "order*", "save*");
+
+        OrderServiceV2 proxy = (OrderServiceV2) factory.getProxy();
+        assertThat(proxy.getClass().getSuperclass()).isEqualTo(OrderServiceV2.class);
+
+        proxy.orderItem("itemA");
+        assertThat(saved).containsExactly("itemA");
+        assertThat(logTrace.getMessages()).containsExactly("OrderServiceV2.orderItem()");
+        assertThat(logTrace.getEndCount()).isEqualTo(1);
+    }
+
+    @Test
+    void notMatchedMethod() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        BytecodeProxyFactory factory = new BytecodeProxyFactory(new Calculator());
+        factory.setLogTrace(logTrace);
+        factory.setMappedNames("add*");
+
+        Calculator proxy = (Calculator) factory.getProxy();
+        //원시 타입, long/double 인수와 반환값도 박싱 없이 그대로 넘긴다
+        assertThat(proxy.add(1, 2L)).isEqualTo(3L);
+        assertThat(proxy.half(3.0)).isEqualTo(1.5);
+        assertThat(logTrace.getMessages()).containsExactly("Calculator.add()");
+    }
+
+    @Test
+    void protectedMethodInOtherPackage() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        BytecodeProxyFactory factory = new BytecodeProxyFactory(new ScaledCalculator());
+        factory.setLogTrace(logTrace);
+
+        //다른 패키지 상위 클래스의 protected scale() 은 재정의하지 않는다, 재정의하면 클래스 정의가 VerifyError 로 실패
+        ScaledCalculator proxy = (ScaledCalculator) factory.getProxy();
+        assertThat(proxy.apply(2)).isEqualTo(20);
+        assertThat(logTrace.getMessages()).containsExactly("BaseCalculator.apply()");
+    }
+
+    @Test
+    void proxyClassCache() {
+        LogTrace logTrace = new ContextLogTrace();
+        BytecodeProxyFactory factory1 = new BytecodeProxyFactory(new Calculator());
+        factory1.setLogTrace(logTrace);
+        BytecodeProxyFactory factory2 = new BytecodeProxyFactory(new Calculator());
+        factory2.setLogTrace(logTrace);
+
+        Object proxy1 = factory1.getProxy();
+        Object proxy2 = factory2.getProxy();
+        assertThat(proxy1).isNotSameAs(proxy2);
+        assertThat(proxy1.getClass()).isEqualTo(proxy2.getClass());
+    }
+
+    public static class ScaledCalculator extends BaseCalculator {
+    }
+
+    public static class Calculator {
+
+        public long add(int a, long b) {
+            return a + b;
+        }
+
+        public double half(double value) {
+            return value / 2;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package hello.proxy.bytecode.code;
+
+/**
+ * 프록시와 다른 패키지에 있는 상위 클래스, protected 메서드를 가진다
+ */
+public class BaseCalculator {
+
+    public int apply(int value) {
+        return scale(value);
+    }
+
+    protected int scale(int value) {
+        return value * 10;
+    }
+}
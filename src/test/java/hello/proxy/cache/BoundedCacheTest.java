@@ -0,0 +1,76 @@
+package hello.proxy.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BoundedCacheTest {
+
+    private static final long TTL = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    @DisplayName("같은 메서드, 같은 인수면 적중")
+    void hit() {
+        BoundedCache<CacheKey, Object> cache = new BoundedCache<>(16);
+        cache.put(new CacheKey(1, new Object[]{"itemA"}).forStore(), "ok", TTL);
+
+        assertThat(cache.get(new CacheKey(1, new Object[]{"itemA"}))).isEqualTo("ok");
+        assertThat(cache.get(new CacheKey(1, new Object[]{"itemB"}))).isNull();
+        assertThat(cache.get(new CacheKey(2, new Object[]{"itemA"}))).isNull();
+        assertThat(cache.getMetrics().getHitCount()).isEqualTo(1);
+        assertThat(cache.getMetrics().getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("저장한 뒤 인수 배열을 바꿔도 키는 그대로")
+    void argumentsCopiedOnStore() {
+        BoundedCache<CacheKey, Object> cache = new BoundedCache<>(16);
+        Object[] args = {"itemA"};
+        cache.put(new CacheKey(1, args).forStore(), "ok", TTL);
+        args[0] = "itemB";
+
+        assertThat(cache.get(new CacheKey(1, new Object[]{"itemA"}))).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("TTL 이 지나면 없는 것으로 본다")
+    void expire() throws InterruptedException {
+        BoundedCache<CacheKey, Object> cache = new BoundedCache<>(16);
+        CacheKey key = new CacheKey(1, new Object[0]);
+        cache.put(key, "ok", TimeUnit.MILLISECONDS.toNanos(10));
+        Thread.sleep(20);
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.getMetrics().getExpirationCount()).isEqualTo(1);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("크기 제한을 넘지 않고, 자주 쓰는 항목은 한 번 쓰고 마는 키에 밀려나지 않는다")
+    void frequencyAwareEviction() {
+        BoundedCache<CacheKey, Object> cache = new BoundedCache<>(100);
+        CacheKey hot = new CacheKey(1, new Object[]{"hot"});
+        cache.put(hot, "hot", TTL);
+        for (int i = 0; i < 20; i++) {
+            cache.get(hot);
+        }
+
+        //한 번씩만 쓰는 키로 캐시를 훑는다
+        for (int i = 0; i < 10_000; i++) {
+            CacheKey key = new CacheKey(2, new Object[]{i});
+            if (cache.get(key) == null) {
+                cache.put(key, i, TTL);
+            }
+            if (i % 50 == 0) {
+                cache.get(hot);
+            }
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.get(hot)).isEqualTo("hot");
+        assertThat(cache.getMetrics().getEvictionCount() + cache.getMetrics().getRejectionCount()).isPositive();
+    }
+}
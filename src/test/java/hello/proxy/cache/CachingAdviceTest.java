@@ -0,0 +1,128 @@
+package hello.proxy.cache;
+
+import hello.proxy.common.advice.TimeAdvice;
+import hello.proxy.config.v3_proxyfactory.advice.CachingAdvice;
+import hello.proxy.config.v3_proxyfactory.fusion.AdviceFusion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CachingAdviceTest {
+
+    @Test
+    @DisplayName("같은 인수로 다시 호출하면 target 을 호출하지 않는다")
+    void cache() {
+        ItemServiceImpl target = new ItemServiceImpl();
+        ItemService proxy = proxy(target, CachePolicy.parse(60_000, ""), false);
+
+        assertThat(proxy.find("itemA")).isEqualTo("itemA-1");
+        assertThat(proxy.find("itemA")).isEqualTo("itemA-1");
+        assertThat(proxy.find("itemB")).isEqualTo("itemB-2");
+        assertThat(target.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("TTL 이 0 인 메서드, void 메서드는 캐시하지 않는다")
+    void notCached() {
+        ItemServiceImpl target = new ItemServiceImpl();
+        ItemService proxy = proxy(target, CachePolicy.parse(60_000, "ItemService.find()=0, ItemServiceImpl.find()=0"), false);
+
+        proxy.find("itemA");
+        proxy.find("itemA");
+        proxy.save("itemA");
+        proxy.save("itemA");
+        assertThat(target.calls.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("null 반환도 캐시한다")
+    void cacheNull() {
+        ItemServiceImpl target = new ItemServiceImpl();
+        ItemService proxy = proxy(target, CachePolicy.parse(60_000, ""), false);
+
+        assertThat(proxy.find(null)).isNull();
+        assertThat(proxy.find(null)).isNull();
+        assertThat(target.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("FusedInterceptor 로 합쳐도 같게 동작")
+    void fused() {
+        ItemServiceImpl target = new ItemServiceImpl();
+        ItemService proxy = proxy(target, CachePolicy.parse(60_000, ""), true);
+
+        assertThat(proxy.find("itemA")).isEqualTo("itemA-1");
+        assertThat(proxy.find("itemA")).isEqualTo("itemA-1");
+        assertThat(target.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("오버로드된 메서드는 인수가 같아도 캐시를 따로 쓴다")
+    void overload() {
+        ProxyFactory proxyFactory = new ProxyFactory(new OverloadedServiceImpl());
+        proxyFactory.addAdvice(new CachingAdvice(new BoundedCache<>(100), CachePolicy.parse(60_000, "")));
+        OverloadedService proxy = (OverloadedService) proxyFactory.getProxy();
+
+        assertThat(proxy.find("itemA")).isEqualTo("itemA");
+        assertThat(proxy.find((Object) "itemA")).isEqualTo(5);
+    }
+
+    private ItemService proxy(ItemServiceImpl target, CachePolicy policy, boolean fuse) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new CachingAdvice(new BoundedCache<>(100), policy)));
+        if (fuse) {
+            //AdviceFusion 은 어드바이저가 둘 이상일 때만 합친다
+            proxyFactory.addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, new TimeAdvice()));
+            assertThat(AdviceFusion.fuse(proxyFactory)).isTrue();
+        }
+        return (ItemService) proxyFactory.getProxy();
+    }
+
+    //로그 이름은 둘 다 OverloadedService.find()
+    interface OverloadedService {
+        String find(String itemId);
+
+        Integer find(Object item);
+    }
+
+    static class OverloadedServiceImpl implements OverloadedService {
+
+        @Override
+        public String find(String itemId) {
+            return itemId;
+        }
+
+        @Override
+        public Integer find(Object item) {
+            return item.toString().length();
+        }
+    }
+
+    interface ItemService {
+        String find(String itemId);
+
+        void save(String itemId);
+    }
+
+    static class ItemServiceImpl implements ItemService {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String find(String itemId) {
+            int count = calls.incrementAndGet();
+            return itemId == null ? null : itemId + "-" + count;
+        }
+
+        @Override
+        public void save(String itemId) {
+            calls.incrementAndGet();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.cglib.proxy.MethodInterceptor;
 import org.springframework.cglib.proxy.MethodProxy;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
 
 /**
  * CGLIB에서 공통로직
@@ -37,12 +38,12 @@ public class TimeMethodInterceptor implements MethodInterceptor {
     @Override
     public Object intercept(Object obj, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
         log.info("TimeProxy 실행");
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         Object result = methodProxy.invoke(target, args);
 
-        long endTime = System.currentTimeMillis();
-        long resultTime = endTime - startTime;
+        long endTime = System.nanoTime();
+        long resultTime = TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
         log.info("TimeProxy 종료 resultTime={}", resultTime);
 
         return result;
@@ -0,0 +1,106 @@
+package hello.proxy.coalesce;
+
+import hello.proxy.cache.CacheKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @Test
+    @DisplayName("같은 키로 동시에 들어온 호출은 한 번만 실행하고 결과를 나눠 받는다")
+    void coalesce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CacheKey key = new CacheKey(1, new Object[]{"itemA"});
+
+        List<Future<Object>> results = submitAll(key, () -> {
+            executions.incrementAndGet();
+            release.await();
+            return "ok";
+        });
+        awaitFollowers(CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertThat(result.get(1, TimeUnit.SECONDS)).isEqualTo("ok");
+        }
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(singleFlight.getExecutionCount()).isEqualTo(1);
+        assertThat(singleFlight.getInFlightCount()).isZero();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("예외도 같은 예외를 나눠 받는다")
+    void shareException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException error = new IllegalStateException("예외 발생!");
+        CacheKey key = new CacheKey(1, new Object[]{"ex"});
+
+        List<Future<Object>> results = submitAll(key, () -> {
+            release.await();
+            throw error;
+        });
+        awaitFollowers(CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertThatThrownBy(() -> result.get(1, TimeUnit.SECONDS)).hasCause(error);
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("끝난 뒤에 들어온 호출은 다시 실행한다")
+    void notCached() throws Throwable {
+        AtomicInteger executions = new AtomicInteger();
+        CacheKey key = new CacheKey(1, new Object[]{"itemA"});
+
+        singleFlight.execute(key, executions::incrementAndGet);
+        singleFlight.execute(key, executions::incrementAndGet);
+
+        assertThat(executions.get()).isEqualTo(2);
+        assertThat(singleFlight.getCoalescedCount()).isZero();
+        executor.shutdown();
+    }
+
+    private List<Future<Object>> submitAll(CacheKey key, SingleFlight.Call call) {
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                try {
+                    return singleFlight.execute(key, call);
+                } catch (Exception e) {
+                    throw e;
+                } catch (Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            }));
+        }
+        return results;
+    }
+
+    private void awaitFollowers(int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCoalescedCount() < followers && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(singleFlight.getCoalescedCount()).isEqualTo(followers);
+    }
+}
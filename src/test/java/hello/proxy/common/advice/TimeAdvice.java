@@ -1,9 +1,12 @@
 package hello.proxy.common.advice;
 
+import hello.proxy.config.v3_proxyfactory.fusion.FusibleAdvice;
 import lombok.extern.slf4j.Slf4j;
-import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 스프링이 제공하는 프록시 팩토리 사용
  *
@@ -19,9 +22,11 @@ import org.aopalliance.intercept.MethodInvocation;
  *
  * import org.springframework.cglib.proxy.MethodInterceptor;
  * import org.aopalliance.intercept.MethodInterceptor;
+ *
+ * FusibleAdvice 는 MethodInterceptor 를 상속, AdviceFusion 으로 합칠 때는 before/after 를 사용
  * */
 @Slf4j
-public class TimeAdvice implements MethodInterceptor {
+public class TimeAdvice implements FusibleAdvice {
 
     /**
      * 타겟을 안넣어줘도 됨, 타겟 클래스 정보가 MethodInvocation 객체 안에 있음
@@ -43,7 +48,7 @@ public class TimeAdvice implements MethodInterceptor {
         log.info("TimeProxy 실행");
 
         //실제 객체 호출전 측정 시작
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         /**
          * invocation에서 필요한 것들을 다 꺼낼 수 있음.
@@ -52,10 +57,50 @@ public class TimeAdvice implements MethodInterceptor {
 //        invocation.getMethod().getName()
 
         //실제 객체 끝나고 측정 끝
-        long endTime = System.currentTimeMillis();
-        long resultTime = endTime - startTime;
+        long endTime = System.nanoTime();
+        long resultTime = TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
         log.info("TimeProxy 종료 resultTime={}", resultTime);
 
         return result;
     }
+
+    //before/after 는 스레드마다 안쪽부터 차례로 끝나므로 시작 시간을 스레드별 스택에 쌓는다
+    //state 로 System.nanoTime() 을 돌려주면 호출마다 Long 으로 박싱된다
+    private final ThreadLocal<StartTimes> startTimes = ThreadLocal.withInitial(StartTimes::new);
+
+    @Override
+    public Object before(MethodInvocation invocation) {
+        log.info("TimeProxy 실행");
+        startTimes.get().push(System.nanoTime());
+        return null;
+    }
+
+    @Override
+    public Object afterReturning(Object state, Object result) {
+        long resultTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimes.get().pop());
+        log.info("TimeProxy 종료 resultTime={}", resultTime);
+        return result;
+    }
+
+    @Override
+    public void afterThrowing(Object state, Throwable ex) {
+        long resultTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTimes.get().pop());
+        log.info("TimeProxy 예외 resultTime={}, ex={}", resultTime, ex.toString());
+    }
+
+    private static final class StartTimes {
+        private long[] times = new long[8];
+        private int depth;
+
+        void push(long time) {
+            if (depth == times.length) {
+                times = Arrays.copyOf(times, depth * 2);
+            }
+            times[depth++] = time;
+        }
+
+        long pop() {
+            return times[--depth];
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package hello.proxy.common.logtrace;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.logtrace.ContextLogTrace;
+import hello.proxy.trace.logtrace.LogTrace;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * begin() 에 넘어온 메시지와 end(), exception() 횟수를 기록하는 LogTrace
+ *
+ * 로그 출력은 ContextLogTrace 에 그대로 맡긴다.
+ * 프록시가 어떤 메서드에 로그를 남겼는지 확인할 때 사용
+ */
+public class RecordingLogTrace implements LogTrace {
+
+    private final LogTrace trace = new ContextLogTrace();
+    private final List<String> messages = new ArrayList<>();
+    private int endCount;
+    private int exceptionCount;
+
+    @Override
+    public TraceStatus begin(String message) {
+        messages.add(message);
+        return trace.begin(message);
+    }
+
+    @Override
+    public void end(TraceStatus status) {
+        endCount++;
+        trace.end(status);
+    }
+
+    @Override
+    public void exception(TraceStatus status, Exception e) {
+        exceptionCount++;
+        trace.exception(status, e);
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    public int getEndCount() {
+        return endCount;
+    }
+
+    public int getExceptionCount() {
+        return exceptionCount;
+    }
+}
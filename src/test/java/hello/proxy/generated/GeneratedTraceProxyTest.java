@@ -0,0 +1,79 @@
+package hello.proxy.generated;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v1.OrderControllerV1TraceProxy;
+import hello.proxy.app.v1.OrderRepositoryV1;
+import hello.proxy.app.v1.OrderRepositoryV1Impl;
+import hello.proxy.app.v1.OrderRepositoryV1ImplTraceProxy;
+import hello.proxy.app.v2.OrderRepositoryV2;
+import hello.proxy.app.v2.OrderRepositoryV2TraceProxy;
+import hello.proxy.batch.BulkSave;
+import hello.proxy.common.logtrace.RecordingLogTrace;
+import hello.proxy.trace.generated.GeneratedTraceProxies;
+import hello.proxy.trace.logtrace.ContextLogTrace;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 애노테이션 프로세서가 만든 프록시(@TraceProxy)
+ */
+class GeneratedTraceProxyTest {
+
+    @Test
+    void interfaceProxy() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        OrderControllerV1 target = new OrderControllerV1Impl(itemId -> {
+        });
+
+        Object proxy = GeneratedTraceProxies.wrap(target, logTrace);
+        assertThat(proxy).isInstanceOf(OrderControllerV1TraceProxy.class);
+        //이미 프록시이면 다시 감싸지 않는다
+        assertThat(GeneratedTraceProxies.wrap(proxy, logTrace)).isSameAs(proxy);
+
+        OrderControllerV1 controller = (OrderControllerV1) proxy;
+        assertThat(controller.request("itemA")).isEqualTo("ok");
+        //noLog() 는 패턴에 매칭되지 않아서 로그를 남기지 않는다
+        assertThat(controller.noLog()).isEqualTo("ok");
+        assertThat(logTrace.getMessages()).containsExactly("OrderControllerV1.request()");
+    }
+
+    @Test
+    void concreteProxy() {
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        OrderRepositoryV2 repository = (OrderRepositoryV2) GeneratedTraceProxies.wrap(new OrderRepositoryV2(), logTrace);
+        assertThat(repository).isInstanceOf(OrderRepositoryV2TraceProxy.class);
+
+        assertThatThrownBy(() -> repository.save("ex"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(logTrace.getMessages()).containsExactly("OrderRepositoryV2.save()");
+        assertThat(logTrace.getExceptionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void implementationProxy() {
+        //OrderRepositoryV1Impl 은 BulkSave 도 구현하므로 두 인터페이스를 모두 구현하는 프록시로 감싼다
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        Object proxy = GeneratedTraceProxies.wrap(new OrderRepositoryV1Impl(), logTrace);
+        assertThat(proxy).isInstanceOf(OrderRepositoryV1ImplTraceProxy.class)
+                .isInstanceOf(OrderRepositoryV1.class)
+                .isInstanceOf(BulkSave.class);
+        assertThat(GeneratedTraceProxies.wrap(proxy, logTrace)).isSameAs(proxy);
+
+        @SuppressWarnings("unchecked")
+        BulkSave<String> bulkSave = (BulkSave<String>) proxy;
+        assertThatThrownBy(() -> bulkSave.saveAll(List.of("ex")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(logTrace.getMessages()).containsExactly("BulkSave.saveAll()");
+        assertThat(logTrace.getExceptionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void notTarget() {
+        Object bean = new Object();
+        assertThat(GeneratedTraceProxies.wrap(bean, new ContextLogTrace())).isSameAs(bean);
+    }
+}
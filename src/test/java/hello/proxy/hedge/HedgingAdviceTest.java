@@ -0,0 +1,147 @@
+package hello.proxy.hedge;
+
+import hello.proxy.config.v3_proxyfactory.advice.HedgingAdvice;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class HedgingAdviceTest {
+
+    //window 0 : 기록이 MIN_SAMPLES 만큼 모이면 바로 백분위를 계산
+    private final HedgingAdvice advice = new HedgingAdvice(0.95, 4, 4, 0, TimeUnit.MILLISECONDS);
+
+    @AfterEach
+    void close() {
+        advice.close();
+    }
+
+    @Test
+    @DisplayName("p95 보다 오래 걸리면 한 번 더 보내고 먼저 끝난 결과를 쓴다")
+    void hedge() {
+        SlowOnceRepository target = new SlowOnceRepository();
+        Repository proxy = proxy(target);
+        warmUp(proxy);
+
+        //워밍업 중에도 p95 를 넘는 호출은 hedge 될 수 있으므로 차이로 본다
+        HedgeMetrics metrics = advice.getMetrics();
+        long hedges = metrics.getHedgeCount();
+        long wins = metrics.getHedgeWinCount();
+
+        target.slowCall = target.calls.get() + 1;
+        long start = System.nanoTime();
+        assertThat(proxy.find("itemA")).isEqualTo("itemA");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(elapsedMs).isLessThan(1000);
+        assertThat(metrics.getHedgeCount() - hedges).isEqualTo(1);
+        assertThat(metrics.getHedgeWinCount() - wins).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("기준 안에 끝나면 hedge 하지 않는다")
+    void noHedge() {
+        Repository proxy = proxy(new SlowOnceRepository());
+        warmUp(proxy);
+
+        assertThat(proxy.find("itemA")).isEqualTo("itemA");
+        assertThat(advice.getMetrics().getCallCount()).isPositive();
+        assertThat(advice.getMetrics().getHedgeRate()).isLessThan(0.5);
+    }
+
+    @Test
+    @DisplayName("예외는 그대로 전달")
+    void exception() {
+        Repository proxy = proxy(new SlowOnceRepository());
+        warmUp(proxy);
+
+        assertThatThrownBy(() -> proxy.find("ex")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("close() 하면 큐에 남아 있던 hedge 를 취소해서 기다리던 호출 스레드가 풀린다")
+    void closeReleasesWaitingCaller() throws Exception {
+        //스레드 하나 : 첫 호출이 실행 중이면 hedge 는 큐에서 기다린다
+        HedgingAdvice singleThread = new HedgingAdvice(0.95, 1, 4, 0, TimeUnit.MILLISECONDS);
+        ProxyFactory proxyFactory = new ProxyFactory(new InterruptibleRepository());
+        proxyFactory.addAdvice(singleThread);
+        Repository proxy = (Repository) proxyFactory.getProxy();
+        warmUp(proxy);
+
+        long hedges = singleThread.getMetrics().getHedgeCount();
+        CompletableFuture<String> call = CompletableFuture.supplyAsync(() -> proxy.find("slow"));
+        while (singleThread.getMetrics().getHedgeCount() == hedges) {
+            Thread.sleep(1);
+        }
+
+        //첫 호출은 인터럽트로 실패, 큐에 있던 hedge 는 실행되지 않고 취소
+        singleThread.close();
+        assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+    }
+
+    private Repository proxy(SlowOnceRepository target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addAdvice(advice);
+        return (Repository) proxyFactory.getProxy();
+    }
+
+    private void warmUp(Repository proxy) {
+        for (int i = 0; i < 40; i++) {
+            proxy.find("warm-up");
+        }
+    }
+
+    interface Repository {
+        String find(String itemId);
+    }
+
+    //"slow" 는 오래 걸리고, 인터럽트되면 예외로 끝난다
+    static class InterruptibleRepository implements Repository {
+
+        @Override
+        public String find(String itemId) {
+            try {
+                Thread.sleep(itemId.equals("slow") ? 10_000 : 5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("인터럽트", e);
+            }
+            return itemId;
+        }
+    }
+
+    static class SlowOnceRepository implements Repository {
+
+        final AtomicInteger calls = new AtomicInteger();
+        volatile int slowCall = -1;
+
+        @Override
+        public String find(String itemId) {
+            if (itemId.equals("ex")) {
+                throw new IllegalStateException("예외 발생!");
+            }
+            //slowCall 번째 호출만 오래 걸린다, hedge 로 보낸 다음 호출은 바로 끝난다
+            if (calls.incrementAndGet() == slowCall) {
+                sleep(2000);
+            } else {
+                sleep(5);
+            }
+            return itemId;
+        }
+
+        private void sleep(int millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package hello.proxy.jdkdynamic;
+
+import hello.proxy.common.logtrace.RecordingLogTrace;
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceFilterHandler;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class LogTraceFilterHandlerTest {
+
+    @Test
+    void filter() {
+        //패턴이 수백 개여도 매칭은 메서드마다 처음 한 번만 한다
+        List<String> patterns = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            patterns.add("pattern" + i + "*");
+        }
+        patterns.add("order*");
+
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        LogTraceFilterHandler handler = new LogTraceFilterHandler(new OrderApiImpl(), logTrace, patterns.toArray(new String[0]));
+        OrderApi proxy = (OrderApi) Proxy.newProxyInstance(OrderApi.class.getClassLoader(),
+                new Class[]{OrderApi.class}, handler);
+
+        //생성할 때 OrderApi 의 2개 + equals, hashCode, toString 을 한 번씩 매칭한다
+        assertThat(handler.getMatchCount()).isEqualTo(5);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(proxy.orderItem("itemA")).isEqualTo("ok");
+            assertThat(proxy.noLog()).isEqualTo("ok");
+        }
+        assertThat(proxy.toString()).startsWith(OrderApiImpl.class.getName());
+        assertThat(logTrace.getMessages()).containsExactly(
+                "OrderApi.orderItem()", "OrderApi.orderItem()", "OrderApi.orderItem()");
+        //호출할 때는 다시 매칭하지 않는다
+        assertThat(handler.getMatchCount()).isEqualTo(5);
+    }
+
+    @Test
+    void proxyClassMethods() {
+        //프록시 클래스마다 Method 객체가 따로 있어도 다시 매칭하지 않는다
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        LogTraceFilterHandler handler = new LogTraceFilterHandler(new OrderApiImpl(), logTrace, new String[]{"order*"});
+        OrderApi proxy1 = (OrderApi) Proxy.newProxyInstance(OrderApi.class.getClassLoader(),
+                new Class[]{OrderApi.class}, handler);
+        OrderApi proxy2 = (OrderApi) Proxy.newProxyInstance(OrderApi.class.getClassLoader(),
+                new Class[]{OrderApi.class, Runnable.class}, handler);
+        assertThat(proxy1.getClass()).isNotEqualTo(proxy2.getClass());
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(proxy1.orderItem("itemA")).isEqualTo("ok");
+            assertThat(proxy2.orderItem("itemA")).isEqualTo("ok");
+        }
+        assertThat(logTrace.getMessages()).hasSize(4);
+        assertThat(handler.getMatchCount()).isEqualTo(5);
+    }
+
+    @Test
+    void overload() {
+        //이름이 같은 메서드도 각자 자리를 갖는다
+        RecordingLogTrace logTrace = new RecordingLogTrace();
+        LogTraceFilterHandler handler = new LogTraceFilterHandler(new FinderImpl(), logTrace, new String[]{"find*"});
+        Finder proxy = (Finder) Proxy.newProxyInstance(Finder.class.getClassLoader(),
+                new Class[]{Finder.class}, handler);
+
+        assertThat(proxy.find("a")).isEqualTo("string");
+        assertThat(proxy.find(1)).isEqualTo("int");
+        assertThat(proxy.find("a", "b")).isEqualTo("two");
+        assertThat(logTrace.getMessages()).hasSize(3);
+        assertThat(handler.getMatchCount()).isEqualTo(6);
+    }
+
+    public interface OrderApi {
+        String orderItem(String itemId);
+        String noLog();
+    }
+
+    public static class OrderApiImpl implements OrderApi {
+        @Override
+        public String orderItem(String itemId) {
+            return "ok";
+        }
+
+        @Override
+        public String noLog() {
+            return "ok";
+        }
+    }
+
+    public interface Finder {
+        String find(String id);
+        String find(int id);
+        String find(String first, String second);
+    }
+
+    public static class FinderImpl implements Finder {
+        @Override
+        public String find(String id) {
+            return "string";
+        }
+
+        @Override
+        public String find(int id) {
+            return "int";
+        }
+
+        @Override
+        public String find(String first, String second) {
+            return "two";
+        }
+    }
+}
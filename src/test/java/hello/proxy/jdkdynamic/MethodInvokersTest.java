@@ -0,0 +1,114 @@
+package hello.proxy.jdkdynamic;
+
+import hello.proxy.config.v2_dynamicproxy.handler.LogTraceBasicHandler;
+import hello.proxy.config.v2_dynamicproxy.handler.MethodInvoker;
+import hello.proxy.config.v2_dynamicproxy.handler.MethodInvokers;
+import hello.proxy.trace.logtrace.ContextLogTrace;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * method.invoke(target, args) 대신 캐시한 MethodHandle 로 호출하는 MethodInvokers
+ */
+public class MethodInvokersTest {
+
+    @Test
+    void invoke() throws Throwable {
+        MethodInvokers invokers = new MethodInvokers(new CalculatorImpl());
+        MethodInvoker add = invokers.get(Calculator.class.getMethod("add", int.class, int.class));
+
+        assertThat(add.invoke(new Object[]{1, 2})).isEqualTo(3);
+        //같은 Method 는 같은 invoker
+        assertThat(invokers.get(Calculator.class.getMethod("add", int.class, int.class))).isSameAs(add);
+        //인수가 없는 메서드는 args 가 null 로 넘어온다
+        assertThat(invokers.get(Calculator.class.getMethod("name")).invoke(null)).isEqualTo("calculator");
+    }
+
+    @Test
+    void voidAndManyArgs() throws Throwable {
+        CalculatorImpl calculator = new CalculatorImpl();
+        MethodInvokers invokers = new MethodInvokers(calculator);
+
+        //void 메서드는 null 을 반환
+        assertThat(invokers.get(Calculator.class.getMethod("clear", String.class)).invoke(new Object[]{"x"})).isNull();
+        assertThat(calculator.cleared).isEqualTo("x");
+        //인수가 4개 이상이면 MethodHandle 로 호출
+        MethodInvoker sum = invokers.get(Calculator.class.getMethod("sum", int.class, int.class, int.class, int.class));
+        assertThat(sum.invoke(new Object[]{1, 2, 3, 4})).isEqualTo(10);
+    }
+
+    @Test
+    void exceptionIsNotWrapped() {
+        Calculator proxy = (Calculator) Proxy.newProxyInstance(Calculator.class.getClassLoader(),
+                new Class[]{Calculator.class},
+                new LogTraceBasicHandler(new CalculatorImpl(), new ContextLogTrace()));
+
+        //method.invoke() 였다면 UndeclaredThrowableException(InvocationTargetException) 이 나온다
+        assertThatThrownBy(() -> proxy.fail("ex"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("ex");
+    }
+
+    @Test
+    void notPublicInterface() throws Throwable {
+        //public 이 아닌 인터페이스는 리플렉션으로 호출하지만 예외는 똑같이 벗겨서 던진다
+        MethodInvokers invokers = new MethodInvokers(new HiddenImpl());
+        MethodInvoker fail = invokers.get(Hidden.class.getMethod("fail"));
+
+        assertThatThrownBy(() -> fail.invoke(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("hidden");
+    }
+
+    public interface Calculator {
+        int add(int a, int b);
+        String name();
+        String fail(String message);
+        void clear(String name);
+        int sum(int a, int b, int c, int d);
+    }
+
+    public static class CalculatorImpl implements Calculator {
+
+        private String cleared;
+
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        @Override
+        public String name() {
+            return "calculator";
+        }
+
+        @Override
+        public String fail(String message) {
+            throw new IllegalStateException(message);
+        }
+
+        @Override
+        public void clear(String name) {
+            cleared = name;
+        }
+
+        @Override
+        public int sum(int a, int b, int c, int d) {
+            return a + b + c + d;
+        }
+    }
+
+    interface Hidden {
+        void fail();
+    }
+
+    static class HiddenImpl implements Hidden {
+        @Override
+        public void fail() {
+            throw new IllegalStateException("hidden");
+        }
+    }
+}
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
 
 /**
  * TimeInvocationHandler 은 InvocationHandler 인터페이스를 구현한다.
@@ -29,7 +30,7 @@ public class TimeInvocationHandler implements InvocationHandler {
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
         log.info("TimeProxy 실행");
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         //call이 넘어옴
         //이전에는 target.target의 메서드 이랬는데
@@ -37,9 +38,9 @@ public class TimeInvocationHandler implements InvocationHandler {
         //이렇게 실제 객체인 target을 넘겨주면 target의 메서드 호출
         Object result = method.invoke(target, args);
 
-        long endTime = System.currentTimeMillis();
+        long endTime = System.nanoTime();
 
-        long resultTime = endTime - startTime;
+        long resultTime = TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
 
         log.info("TimeProxy 종료 resultTime={}", resultTime);
 
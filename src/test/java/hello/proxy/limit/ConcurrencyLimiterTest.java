@@ -0,0 +1,64 @@
+package hello.proxy.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("한도를 넘으면 기다리지 않고 거절")
+    void reject() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new GradientLimit("test", 2, 1, 10, 1, TimeUnit.SECONDS));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getRejectedCount()).isEqualTo(1);
+
+        limiter.release(System.nanoTime(), true);
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.getInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("응답 시간이 그대로고 한도까지 쓰고 있으면 한도를 늘린다")
+    void increase() {
+        //window 0 : 응답 시간 하나마다 한도를 다시 계산
+        GradientLimit limit = new GradientLimit("test", 10, 1, 100, 0, TimeUnit.NANOSECONDS);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(10 * MS, limit.getLimit());
+        }
+        assertThat(limit.getLimit()).isGreaterThan(10);
+        assertThat(limit.getLimitChangeCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("응답 시간이 길어지면 한도를 줄인다")
+    void decrease() {
+        GradientLimit limit = new GradientLimit("test", 50, 1, 100, 0, TimeUnit.NANOSECONDS);
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(10 * MS, limit.getLimit());
+        }
+        int before = limit.getLimit();
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(100 * MS, limit.getLimit());
+        }
+        assertThat(limit.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    @DisplayName("한도의 절반도 쓰지 않으면 늘리지 않는다")
+    void appLimited() {
+        GradientLimit limit = new GradientLimit("test", 20, 1, 100, 0, TimeUnit.NANOSECONDS);
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(10 * MS, 1);
+        }
+        assertThat(limit.getLimit()).isEqualTo(20);
+    }
+}
@@ -0,0 +1,94 @@
+package hello.proxy.pointcut;
+
+import hello.proxy.app.v1.OrderControllerV1;
+import hello.proxy.app.v1.OrderControllerV1Impl;
+import hello.proxy.app.v2.OrderServiceV2;
+import hello.proxy.config.v5_autoproxy.pointcut.IndexedAspectJPointcut;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.AopUtils;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 패키지, 메서드 이름 사전 조건 + AspectJ 표현식
+ */
+class IndexedAspectJPointcutTest {
+
+    @Test
+    void sameResultAsExpression() throws NoSuchMethodException {
+        IndexedAspectJPointcut pointcut = pointcut();
+
+        Method request = OrderControllerV1Impl.class.getMethod("request", String.class);
+        Method noLog = OrderControllerV1Impl.class.getMethod("noLog");
+        assertThat(pointcut.matches(request, OrderControllerV1Impl.class)).isTrue();
+        assertThat(pointcut.matches(noLog, OrderControllerV1Impl.class)).isFalse();
+
+        assertThat(AopUtils.canApply(pointcut, OrderServiceV2.class)).isTrue();
+    }
+
+    @Test
+    void otherPackage() {
+        IndexedAspectJPointcut pointcut = pointcut();
+        assertThat(pointcut.matches(StringBuilder.class)).isFalse();
+        assertThat(AopUtils.canApply(pointcut, StringBuilder.class)).isFalse();
+    }
+
+    @Test
+    void subtypeOutsidePackage() throws NoSuchMethodException {
+        //hello.proxy.app 밖의 클래스라도 app 의 타입을 상속, 구현하면 표현식에 걸린다
+        IndexedAspectJPointcut pointcut = pointcut();
+        AspectJExpressionPointcut expression = new AspectJExpressionPointcut();
+        expression.setExpression(pointcut.getExpression());
+
+        for (Class<?> clazz : new Class[]{ExternalController.class, ExternalService.class}) {
+            assertThat(expression.matches(clazz)).isTrue();
+            assertThat(AopUtils.canApply(expression, clazz)).isTrue();
+            assertThat(pointcut.matches(clazz)).isTrue();
+            assertThat(AopUtils.canApply(pointcut, clazz)).isTrue();
+        }
+
+        Method request = ExternalController.class.getMethod("request", String.class);
+        assertThat(pointcut.matches(request, ExternalController.class))
+                .isEqualTo(expression.matches(request, ExternalController.class));
+    }
+
+    @Test
+    void mappedNames() throws NoSuchMethodException {
+        IndexedAspectJPointcut pointcut = pointcut();
+        pointcut.setMappedNames("order*", "save*");
+
+        Method orderItem = OrderServiceV2.class.getMethod("orderItem", String.class);
+        Method request = OrderControllerV1Impl.class.getMethod("request", String.class);
+        assertThat(pointcut.matches(orderItem, OrderServiceV2.class)).isTrue();
+        assertThat(pointcut.matches(request, OrderControllerV1Impl.class)).isFalse();
+    }
+
+    static class ExternalController implements OrderControllerV1 {
+        @Override
+        public String request(String itemId) {
+            return "ok";
+        }
+
+        @Override
+        public String noLog() {
+            return "ok";
+        }
+    }
+
+    static class ExternalService extends OrderServiceV2 {
+        ExternalService() {
+            super(null);
+        }
+    }
+
+    private IndexedAspectJPointcut pointcut() {
+        IndexedAspectJPointcut pointcut = new IndexedAspectJPointcut();
+        pointcut.setExpression("execution(* hello.proxy.app..*(..)) && !execution(* hello.proxy.app..noLog(..))");
+        pointcut.setPackagePrefixes("hello.proxy.app");
+        pointcut.setExcludedNames("noLog");
+        return pointcut;
+    }
+}
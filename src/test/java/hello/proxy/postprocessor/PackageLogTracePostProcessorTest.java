@@ -0,0 +1,62 @@
+package hello.proxy.postprocessor;
+
+import hello.proxy.config.v3_proxyfactory.advice.LogTraceAdvice;
+import hello.proxy.config.v4_postprocessor.postprocessor.PackageLogTracePostProcessor;
+import hello.proxy.trace.logtrace.ContextLogTrace;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 포인트컷이 적용되지 않는 빈은 건너뛰고, 같은 클래스의 프록시는 프록시 클래스를 재사용
+ */
+class PackageLogTracePostProcessorTest {
+
+    private final PackageLogTracePostProcessor postProcessor = new PackageLogTracePostProcessor("hello.proxy.postprocessor", advisor());
+
+    @Test
+    void proxyMatchedBean() {
+        Object proxy1 = postProcessor.postProcessAfterInitialization(new OrderService(), "orderService1");
+        Object proxy2 = postProcessor.postProcessAfterInitialization(new OrderService(), "orderService2");
+
+        assertThat(AopUtils.isCglibProxy(proxy1)).isTrue();
+        assertThat(proxy1.getClass()).isEqualTo(proxy2.getClass());
+        assertThat(postProcessor.getProxyCount()).isEqualTo(2);
+        assertThat(postProcessor.getProxyTypeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void skipNotMatchedBean() {
+        NoLogService bean = new NoLogService();
+        assertThat(postProcessor.postProcessAfterInitialization(bean, "noLogService")).isSameAs(bean);
+        assertThat(postProcessor.getSkippedCount()).isEqualTo(1);
+        assertThat(postProcessor.getProxyCount()).isZero();
+    }
+
+    @Test
+    void skipOtherPackage() {
+        StringBuilder bean = new StringBuilder();
+        assertThat(postProcessor.postProcessAfterInitialization(bean, "other")).isSameAs(bean);
+        assertThat(postProcessor.getSkippedCount()).isEqualTo(1);
+    }
+
+    private static DefaultPointcutAdvisor advisor() {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedNames("request*", "order*", "save*");
+        return new DefaultPointcutAdvisor(pointcut, new LogTraceAdvice(new ContextLogTrace()));
+    }
+
+    static class OrderService {
+        public void orderItem(String itemId) {
+        }
+    }
+
+    static class NoLogService {
+        public String noLog() {
+            return "ok";
+        }
+    }
+}
@@ -2,6 +2,8 @@ package hello.proxy.pureproxy.concreteproxy.code;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * 인터페이스가 없으니 클래스를 그냥 상속받는
  * 시간을 측정하는 부가 기능
@@ -19,13 +21,13 @@ public class TimeProxy extends ConcreteLogic {
     @Override
     public String operation() {
         log.info("TimeDecorator 실행");
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         //주입받은 ConcreteLogic객체의 메서드 결과를 반환하는
         String result = concreteLogic.operation();
 
-        long endTime = System.currentTimeMillis();
-        long resultTime = endTime - startTime;
+        long endTime = System.nanoTime();
+        long resultTime = TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
 
         log.info("TimeDecorator 종료 resultTime={}ms", resultTime);
 
@@ -2,6 +2,8 @@ package hello.proxy.pureproxy.decorator.code;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 public class TimeDecorator implements Component {
 
@@ -17,16 +19,16 @@ public class TimeDecorator implements Component {
     public String operation() {
         log.info("TimeDecorator 실행");
 
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         //operation()로 주입받은 구현체 MessageDecorator의 operation() 실행
         //MessageDecorator의 operation() 실행하면 RealComponent 의 operation() 실행
         //위에 과정의 시간을 측정
         String result = component.operation();
 
-        long endTime = System.currentTimeMillis();
+        long endTime = System.nanoTime();
 
-        long resultTime = endTime - startTime;
+        long resultTime = TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
 
         log.info("TimeDecorator 종료 resultTime={}ms", resultTime);
 
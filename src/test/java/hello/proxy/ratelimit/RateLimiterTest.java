@@ -0,0 +1,157 @@
+package hello.proxy.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    @DisplayName("burst 만큼 쓰고 나면 토큰이 채워질 때까지 거절")
+    void burst() {
+        //1초에 하나씩 채운다, 테스트 중에는 채워지지 않는다
+        TokenBucket bucket = new TokenBucket(3, 1);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        assertThat(bucket.isFull()).isFalse();
+    }
+
+    @Test
+    @DisplayName("지난 시간만큼 토큰을 채운다")
+    void refill() throws InterruptedException {
+        //10ms 에 하나
+        TokenBucket bucket = new TokenBucket(1, 100);
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+
+        Thread.sleep(30);
+        assertThat(bucket.isFull()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 꺼내도 capacity 보다 많이 꺼내지 않는다")
+    void concurrent() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 1);
+        AtomicInteger acquired = new AtomicInteger();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (bucket.tryAcquire()) {
+                        acquired.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        //테스트 중에 1초가 지나면 하나 더 채워질 수 있다
+        assertThat(acquired.get()).isBetween(1000, 1001);
+    }
+
+    @Test
+    @DisplayName("키마다 따로 제한하고, 전체 제한은 모든 키가 같이 쓴다")
+    void keyAndGlobal() {
+        RateLimiter limiter = new RateLimiter("test", RateLimitKeyResolver.argument(0),
+                new KeyedTokenBuckets(100, 2, 1), new TokenBucket(5, 1),
+                RateLimitMode.FAIL_FAST, 0, TimeUnit.MILLISECONDS);
+
+        limiter.acquire("a");
+        limiter.acquire("a");
+        assertThatThrownBy(() -> limiter.acquire("a")).isInstanceOf(RateLimitedException.class);
+
+        //키 a 가 거절된 호출은 전체 토큰을 쓰지 않는다
+        limiter.acquire("b");
+        limiter.acquire("b");
+        limiter.acquire("c");
+        assertThatThrownBy(() -> limiter.acquire("d")).isInstanceOf(RateLimitedException.class);
+
+        assertThat(limiter.getPermittedCount()).isEqualTo(5);
+        assertThat(limiter.getRejectedCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("BLOCK 모드는 max-wait 안에 토큰이 생기면 기다렸다가 허용")
+    void block() {
+        //20ms 에 하나
+        RateLimiter limiter = new RateLimiter("test", RateLimitKeyResolver.argument(0),
+                null, new TokenBucket(1, 50), RateLimitMode.BLOCK, 1, TimeUnit.SECONDS);
+
+        long start = System.nanoTime();
+        limiter.acquire("a");
+        limiter.acquire("a");
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(limiter.getRejectedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("BLOCK 모드도 max-wait 안에 토큰이 생기지 않으면 기다리지 않고 거절")
+    void blockTimeout() {
+        RateLimiter limiter = new RateLimiter("test", RateLimitKeyResolver.argument(0),
+                null, new TokenBucket(1, 1), RateLimitMode.BLOCK, 10, TimeUnit.MILLISECONDS);
+        limiter.acquire("a");
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> limiter.acquire("a")).isInstanceOf(RateLimitedException.class);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    @DisplayName("키 버킷 수는 maxKeys 를 넘지 않는다")
+    void evict() {
+        KeyedTokenBuckets buckets = new KeyedTokenBuckets(100, 1, 1);
+        for (int i = 0; i < 1000; i++) {
+            buckets.get("item" + i).tryAcquire();
+        }
+        assertThat(buckets.size()).isLessThanOrEqualTo(100);
+        assertThat(buckets.getEvictionCount()).isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    @DisplayName("새 키가 계속 들어와도 토큰을 다 쓴 키는 지워지지 않는다")
+    void throttledKeySurvivesChurn() {
+        KeyedTokenBuckets buckets = new KeyedTokenBuckets(100, 5, 1);
+        TokenBucket throttled = buckets.get("hot");
+        for (int i = 0; i < 5; i++) {
+            assertThat(throttled.tryAcquire()).isTrue();
+        }
+
+        //새 키는 토큰을 하나씩만 써서 가득 찬 버킷 정리(1단계)로는 지워지지 않는다
+        for (int i = 0; i < 1000; i++) {
+            buckets.get("item" + i).tryAcquire();
+        }
+
+        assertThat(buckets.size()).isLessThanOrEqualTo(100);
+        assertThat(buckets.get("hot")).isSameAs(throttled);
+        assertThat(buckets.get("hot").tryAcquire()).isFalse();
+    }
+
+    @Test
+    @DisplayName("인수가 없거나 null 이면 NO_KEY")
+    void keyResolver() {
+        RateLimitKeyResolver resolver = RateLimitKeyResolver.argument(0);
+        assertThat(resolver.resolve(null, new Object[]{"item"})).isEqualTo("item");
+        assertThat(resolver.resolve(null, new Object[]{null})).isEqualTo(RateLimitKeyResolver.NO_KEY);
+        assertThat(resolver.resolve(null, new Object[0])).isEqualTo(RateLimitKeyResolver.NO_KEY);
+    }
+}
@@ -0,0 +1,132 @@
+package hello.proxy.scale;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * hello.proxy.app 아래에 가짜 빈 클래스 수천 개를 만든다
+ *
+ * 절반은 V1 처럼 인터페이스 + 구현 클래스, 절반은 V2 처럼 구체 클래스만 있다.
+ * 패키지는 hello.proxy.app.synthetic.g0 ~ g99 로 나눈다.
+ * 모든 빈에 request(), noLog(), orderN(), saveN() 메서드가 있어서 기존 포인트컷이 그대로 적용된다.
+ *
+ * 클래스는 새 클래스로더에 정의하므로 generate() 할 때마다 다른 클래스다(컨텍스트마다 처음부터 프록시를 만든다).
+ */
+class SyntheticApplication {
+
+    private static final int PACKAGES = 100;
+
+    private static final String SERVICE = Type.getInternalName(SyntheticService.class);
+    private static final String CONCRETE = Type.getInternalName(SyntheticConcreteBean.class);
+
+    private final SyntheticClassLoader classLoader;
+    private final List<Class<?>> beanClasses;
+
+    private SyntheticApplication(SyntheticClassLoader classLoader, List<Class<?>> beanClasses) {
+        this.classLoader = classLoader;
+        this.beanClasses = beanClasses;
+    }
+
+    static SyntheticApplication generate(int beanCount) {
+        SyntheticClassLoader classLoader = new SyntheticClassLoader(SyntheticApplication.class.getClassLoader());
+        List<Class<?>> beanClasses = new ArrayList<>(beanCount);
+        for (int i = 0; i < beanCount; i++) {
+            String packageName = "hello/proxy/app/synthetic/g" + (i % PACKAGES) + "/";
+            if (i % 2 == 0) {
+                String interfaceName = packageName + "SyntheticServiceV" + i;
+                classLoader.define(interfaceName, interfaceBytes(interfaceName));
+                String implName = interfaceName + "Impl";
+                beanClasses.add(classLoader.define(implName, beanBytes(implName, "java/lang/Object", interfaceName, i)));
+            } else {
+                String className = packageName + "SyntheticRepositoryV" + i;
+                beanClasses.add(classLoader.define(className, beanBytes(className, CONCRETE, null, i)));
+            }
+        }
+        return new SyntheticApplication(classLoader, beanClasses);
+    }
+
+    //컴포넌트 스캔 대신 빈 정의를 직접 등록
+    void registerBeans(GenericApplicationContext context) {
+        for (Class<?> beanClass : beanClasses) {
+            context.registerBean(beanName(beanClass), beanClass);
+        }
+    }
+
+    ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    List<Class<?>> getBeanClasses() {
+        return beanClasses;
+    }
+
+    static String beanName(Class<?> beanClass) {
+        return beanClass.getName();
+    }
+
+    private static byte[] interfaceBytes(String internalName) {
+        ClassWriter cw = new ClassWriter(0);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_ABSTRACT | Opcodes.ACC_INTERFACE,
+                internalName, null, "java/lang/Object", new String[]{SERVICE});
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static byte[] beanBytes(String internalName, String superName, String interfaceName, int index) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null, superName,
+                interfaceName == null ? null : new String[]{interfaceName});
+
+        MethodVisitor init = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        //String request(String itemId) { return itemId; }
+        MethodVisitor request = cw.visitMethod(Opcodes.ACC_PUBLIC, "request", "(Ljava/lang/String;)Ljava/lang/String;", null, null);
+        request.visitCode();
+        request.visitVarInsn(Opcodes.ALOAD, 1);
+        request.visitInsn(Opcodes.ARETURN);
+        request.visitMaxs(0, 0);
+        request.visitEnd();
+
+        //String noLog() { return "ok"; }
+        MethodVisitor noLog = cw.visitMethod(Opcodes.ACC_PUBLIC, "noLog", "()Ljava/lang/String;", null, null);
+        noLog.visitCode();
+        noLog.visitLdcInsn("ok");
+        noLog.visitInsn(Opcodes.ARETURN);
+        noLog.visitMaxs(0, 0);
+        noLog.visitEnd();
+
+        //void orderN(String itemId), void saveN(String itemId)
+        for (String name : new String[]{"order" + index, "save" + index}) {
+            MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, name, "(Ljava/lang/String;)V", null, null);
+            mv.visitCode();
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static final class SyntheticClassLoader extends ClassLoader {
+
+        SyntheticClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String internalName, byte[] bytes) {
+            return defineClass(internalName.replace('/', '.'), bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package hello.proxy.scale;
+
+import hello.proxy.common.logtrace.NoOpLogTrace;
+import hello.proxy.config.v4_postprocessor.BeanPostProcessorConfig;
+import hello.proxy.config.v5_autoproxy.AutoProxyConfig;
+import hello.proxy.config.v6_aop.AopConfig;
+import hello.proxy.trace.logtrace.LogTrace;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 빈 수천 개짜리 애플리케이션에 프록시 설정을 적용했을 때의 비용
+ *
+ * 설정마다 새로 만든 가짜 빈(SyntheticApplication)으로 컨텍스트를 띄우고 다음을 출력한다.
+ * 컨텍스트 refresh 시간, 프록시가 된 빈 수, 새로 로드된 클래스 수, 메타스페이스 증가량, 호출 1번당 비용(ns)
+ *
+ * 스프링 부트처럼 자동 프록시 생성기(AnnotationAwareAspectJAutoProxyCreator)를 등록하고 CGLIB 프록시를 기본으로 한다.
+ * LogTrace 는 아무것도 하지 않는 구현을 써서 로그 출력이 아닌 프록시 자체의 비용만 잰다.
+ *
+ * 오래 걸려서 ./gradlew test 에서는 빠진다(@Tag("scale")). ./gradlew scaleTest 로 실행
+ * 기본은 빈 1000개, 1만 개로 돌리려면
+ * ./gradlew scaleTest -Pproxy.scale.beans=10000
+ */
+@Slf4j
+@Tag("scale")
+class SyntheticApplicationScaleTest {
+
+    private static final int BEAN_COUNT = Integer.getInteger("proxy.scale.beans", 1000);
+    private static final int DISPATCH_ROUNDS = 200;
+
+    @Test
+    void noProxy() {
+        ScaleResult result = boot(NoProxyConfig.class);
+        assertThat(result.proxiedBeans).isZero();
+    }
+
+    @Test
+    void beanPostProcessor() {
+        ScaleResult result = boot(BeanPostProcessorConfig.class);
+        assertThat(result.proxiedBeans).isEqualTo(BEAN_COUNT);
+    }
+
+    @Test
+    void autoProxy() {
+        ScaleResult result = boot(AutoProxyConfig.class);
+        assertThat(result.proxiedBeans).isEqualTo(BEAN_COUNT);
+    }
+
+    @Test
+    void aspect() {
+        ScaleResult result = boot(AopConfig.class);
+        assertThat(result.proxiedBeans).isEqualTo(BEAN_COUNT);
+    }
+
+    private ScaleResult boot(Class<?> proxyConfig) {
+        SyntheticApplication application = SyntheticApplication.generate(BEAN_COUNT);
+
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setClassLoader(application.getClassLoader());
+        //spring-boot-starter-aop 의 AopAutoConfiguration 과 같은 자동 프록시 생성기 등록
+        AopConfigUtils.registerAspectJAnnotationAutoProxyCreatorIfNecessary(context);
+        AopConfigUtils.forceAutoProxyCreatorToUseClassProxying(context);
+        context.register(NoOpLogTraceConfig.class, proxyConfig);
+        application.registerBeans(context);
+
+        //ProxyFactory.getProxy() 는 스레드 컨텍스트 클래스로더로 프록시 클래스를 만든다
+        Thread thread = Thread.currentThread();
+        ClassLoader original = thread.getContextClassLoader();
+        thread.setContextClassLoader(application.getClassLoader());
+        try {
+            long loadedClassesBefore = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+            long metaspaceBefore = metaspaceUsed();
+            long start = System.nanoTime();
+
+            context.refresh();
+
+            long refreshNanos = System.nanoTime() - start;
+            long metaspaceGrowth = metaspaceUsed() - metaspaceBefore;
+            long loadedClasses = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount() - loadedClassesBefore;
+
+            ScaleResult result = measure(context, application, refreshNanos, loadedClasses, metaspaceGrowth);
+            log.info("[{}] beans={} refresh={}ms proxiedBeans={} proxyClasses={} loadedClasses={} metaspace={}KB dispatch={}ns/call",
+                    proxyConfig.getSimpleName(), BEAN_COUNT, TimeUnit.NANOSECONDS.toMillis(result.refreshNanos),
+                    result.proxiedBeans, result.proxyClasses, result.loadedClasses, result.metaspaceGrowth / 1024,
+                    String.format("%.1f", result.dispatchNanosPerCall));
+            return result;
+        } finally {
+            context.close();
+            thread.setContextClassLoader(original);
+        }
+    }
+
+    private ScaleResult measure(AnnotationConfigApplicationContext context, SyntheticApplication application,
+                                long refreshNanos, long loadedClasses, long metaspaceGrowth) {
+        List<SyntheticService> services = new ArrayList<>();
+        List<SyntheticConcreteBean> concreteBeans = new ArrayList<>();
+        Set<Class<?>> proxyClasses = new HashSet<>();
+        int proxiedBeans = 0;
+        for (Class<?> beanClass : application.getBeanClasses()) {
+            Object bean = context.getBean(SyntheticApplication.beanName(beanClass));
+            if (AopUtils.isAopProxy(bean)) {
+                proxiedBeans++;
+                proxyClasses.add(bean.getClass());
+            }
+            if (bean instanceof SyntheticService) {
+                services.add((SyntheticService) bean);
+            } else {
+                concreteBeans.add((SyntheticConcreteBean) bean);
+            }
+        }
+
+        //한 번 돌려서 JIT 워밍업, 두 번째를 잰다
+        dispatch(services, concreteBeans);
+        long dispatchNanos = dispatch(services, concreteBeans);
+        long calls = (long) DISPATCH_ROUNDS * (services.size() + concreteBeans.size());
+
+        return new ScaleResult(refreshNanos, proxiedBeans, proxyClasses.size(), loadedClasses, metaspaceGrowth,
+                (double) dispatchNanos / calls);
+    }
+
+    private long dispatch(List<SyntheticService> services, List<SyntheticConcreteBean> concreteBeans) {
+        long start = System.nanoTime();
+        int length = 0;
+        for (int round = 0; round < DISPATCH_ROUNDS; round++) {
+            for (SyntheticService service : services) {
+                length += service.request("itemA").length();
+            }
+            for (SyntheticConcreteBean bean : concreteBeans) {
+                length += bean.request("itemA").length();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        assertThat(length).isPositive();
+        return elapsed;
+    }
+
+    private static long metaspaceUsed() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if ("Metaspace".equals(pool.getName())) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return 0;
+    }
+
+    private static class ScaleResult {
+
+        private final long refreshNanos;
+        private final int proxiedBeans;
+        private final int proxyClasses;
+        private final long loadedClasses;
+        private final long metaspaceGrowth;
+        private final double dispatchNanosPerCall;
+
+        ScaleResult(long refreshNanos, int proxiedBeans, int proxyClasses, long loadedClasses, long metaspaceGrowth,
+                    double dispatchNanosPerCall) {
+            this.refreshNanos = refreshNanos;
+            this.proxiedBeans = proxiedBeans;
+            this.proxyClasses = proxyClasses;
+            this.loadedClasses = loadedClasses;
+            this.metaspaceGrowth = metaspaceGrowth;
+            this.dispatchNanosPerCall = dispatchNanosPerCall;
+        }
+    }
+
+    //프록시 없이 띄운 기준선
+    @Configuration
+    static class NoProxyConfig {
+    }
+
+    @Configuration
+    static class NoOpLogTraceConfig {
+
+        @Bean
+        public LogTrace logTrace() {
+            return new NoOpLogTrace();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package hello.proxy.scale;
+
+/**
+ * 가짜 구체 클래스 빈의 부모, 호출 비용을 잴 때 이 타입으로 호출한다
+ */
+public abstract class SyntheticConcreteBean {
+
+    public abstract String request(String itemId);
+
+    public abstract String noLog();
+}
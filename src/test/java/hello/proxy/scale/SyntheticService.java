@@ -0,0 +1,11 @@
+package hello.proxy.scale;
+
+/**
+ * 가짜 인터페이스 빈이 상속하는 인터페이스, 호출 비용을 잴 때 이 타입으로 호출한다
+ */
+public interface SyntheticService {
+
+    String request(String itemId);
+
+    String noLog();
+}
@@ -0,0 +1,81 @@
+package hello.proxy.trace;
+
+import hello.proxy.trace.logtrace.ContextLogTrace;
+import hello.proxy.trace.logtrace.MetricsLogTrace;
+import hello.proxy.trace.metrics.TraceMetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MethodDescriptorsTest {
+
+    @Test
+    void descriptor() throws NoSuchMethodException {
+        Method method = Runnable.class.getMethod("run");
+
+        MethodDescriptor descriptor = MethodDescriptors.of(method);
+        assertThat(descriptor.getName()).isEqualTo("Runnable.run()");
+        //같은 Method, 같은 키면 같은 객체와 id
+        assertThat(MethodDescriptors.of(method)).isSameAs(descriptor);
+        assertThat(MethodDescriptors.of("java.lang.Runnable.run()", "Runnable.run()")).isSameAs(descriptor);
+        assertThat(MethodDescriptors.get(descriptor.getId())).isSameAs(descriptor);
+
+        assertThat(MethodDescriptors.of("Runnable.other()").getId()).isNotEqualTo(descriptor.getId());
+    }
+
+    @Test
+    void sameSimpleName() throws NoSuchMethodException {
+        //단순 이름이 같은 다른 클래스, 로그 이름은 같지만 번호는 따로
+        MethodDescriptor first = MethodDescriptors.of(First.Task.class.getMethod("run"));
+        MethodDescriptor second = MethodDescriptors.of(Second.Task.class.getMethod("run"));
+
+        assertThat(first.getName()).isEqualTo("Task.run()").isEqualTo(second.getName());
+        assertThat(first.getId()).isNotEqualTo(second.getId());
+        assertThat(first.getKey()).isEqualTo(First.Task.class.getName() + ".run()");
+        assertThat(MethodDescriptors.of(first.getKey(), first.getName())).isSameAs(first);
+    }
+
+    @Test
+    void manyDescriptors() {
+        //배열을 두 배씩 늘려도 앞에서 받은 번호로 그대로 찾는다
+        MethodDescriptor[] descriptors = new MethodDescriptor[1000];
+        for (int i = 0; i < descriptors.length; i++) {
+            descriptors[i] = MethodDescriptors.of("MethodDescriptorsTest.many" + i + "()");
+        }
+        for (MethodDescriptor descriptor : descriptors) {
+            assertThat(MethodDescriptors.get(descriptor.getId())).isSameAs(descriptor);
+        }
+        assertThat(MethodDescriptors.size()).isGreaterThan(descriptors[descriptors.length - 1].getId());
+    }
+
+    @Test
+    void metricsById() {
+        TraceMetricsRegistry registry = new TraceMetricsRegistry();
+        MetricsLogTrace trace = new MetricsLogTrace(new ContextLogTrace(), registry);
+        MethodDescriptor descriptor = MethodDescriptors.of("MethodDescriptorsTest.metricsById()");
+
+        TraceStatus status = trace.begin(descriptor);
+        assertThat(status.getMethodId()).isEqualTo(descriptor.getId());
+        assertThat(status.getMessage()).isEqualTo(descriptor.getName());
+        trace.end(status);
+
+        //문자열로 시작한 호출과 같은 지표에 쌓인다
+        trace.end(trace.begin(descriptor.getName()));
+        assertThat(registry.get(descriptor)).isSameAs(registry.get(descriptor.getName()));
+        assertThat(registry.get(descriptor).getCalls()).isEqualTo(2);
+    }
+
+    static class First {
+        public interface Task {
+            void run();
+        }
+    }
+
+    static class Second {
+        public interface Task {
+            void run();
+        }
+    }
+}
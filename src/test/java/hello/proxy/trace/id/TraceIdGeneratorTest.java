@@ -0,0 +1,77 @@
+package hello.proxy.trace.id;
+
+import hello.proxy.trace.TraceId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TraceIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @Test
+    @DisplayName("스레드별 난수 ID 는 여러 스레드에서 만들어도 겹치지 않는다")
+    void random() throws InterruptedException {
+        Set<Long> ids = generate(new RandomTraceIdGenerator());
+        assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+        assertThat(ids.contains(0L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("시간 기반 ID 는 1ms 안에 순번을 다 써도 겹치지 않는다")
+    void timeBased() throws InterruptedException {
+        Set<Long> ids = generate(new TimeBasedTraceIdGenerator(7));
+        assertThat(ids).hasSize(THREADS * IDS_PER_THREAD);
+    }
+
+    @Test
+    @DisplayName("시간 기반 ID 에는 노드 번호가 들어가고 계속 증가한다")
+    void timeBasedLayout() {
+        TimeBasedTraceIdGenerator generator = new TimeBasedTraceIdGenerator(1023);
+        long previous = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            long nodeId = (id >>> TimeBasedTraceIdGenerator.SEQUENCE_BITS) & TimeBasedTraceIdGenerator.MAX_NODE_ID;
+            assertThat(nodeId).isEqualTo(1023L);
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+
+        assertThatThrownBy(() -> new TimeBasedTraceIdGenerator(1024))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("ID 는 로그에 쓸 때 16자리 16진수로 바뀐다")
+    void render() {
+        assertThat(TraceId.toHex(0xabcL)).isEqualTo("0000000000000abc");
+        assertThat(TraceId.toHex(-1L)).isEqualTo("ffffffffffffffff");
+        TraceId traceId = new TraceId(() -> 0x1234L);
+        assertThat(traceId.toString()).isEqualTo("0000000000001234");
+    }
+
+    private Set<Long> generate(TraceIdGenerator generator) throws InterruptedException {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < IDS_PER_THREAD; j++) {
+                    ids.add(generator.nextId());
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return ids;
+    }
+}
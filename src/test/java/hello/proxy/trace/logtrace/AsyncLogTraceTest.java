@@ -0,0 +1,111 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.async.OverflowPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 여러 요청 스레드가 동시에 로그를 남겨도 이벤트가 빠짐없이 writer 로 넘어가는지 확인
+ * 컨트롤러 -> 서비스 -> 리포지토리처럼 3단계로 중첩 호출
+ */
+class AsyncLogTraceTest {
+
+    private static final int THREADS = 4;
+    private static final int TRACES_PER_THREAD = 100;
+    //begin, end 각각 3번
+    private static final int EVENTS_PER_TRACE = 6;
+
+    @Test
+    @DisplayName("BLOCK 정책은 이벤트를 하나도 버리지 않는다")
+    void block() throws Exception {
+        AsyncLogTrace trace = new AsyncLogTrace(16, OverflowPolicy.BLOCK);
+        run(trace);
+        trace.close();
+
+        assertThat(trace.getDroppedCount()).isZero();
+        assertThat(trace.getWrittenCount()).isEqualTo((long) THREADS * TRACES_PER_THREAD * EVENTS_PER_TRACE);
+    }
+
+    @Test
+    @DisplayName("DROP 정책은 버퍼가 가득 차도 기다리지 않고, 쓴 것과 버린 것의 합은 전체 이벤트 수와 같다")
+    void drop() throws Exception {
+        AsyncLogTrace trace = new AsyncLogTrace(16, OverflowPolicy.DROP);
+        run(trace);
+        trace.close();
+
+        assertThat(trace.getWrittenCount() + trace.getDroppedCount())
+                .isEqualTo((long) THREADS * TRACES_PER_THREAD * EVENTS_PER_TRACE);
+    }
+
+    @Test
+    @DisplayName("예외 이벤트도 writer 스레드에서 출력된다")
+    void exception() throws Exception {
+        AsyncLogTrace trace = new AsyncLogTrace(16, OverflowPolicy.BLOCK);
+        TraceStatus status = trace.begin("OrderRepository.save()");
+        trace.exception(status, new IllegalStateException("예외 발생!"));
+        trace.close();
+
+        assertThat(trace.getWrittenCount()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("이벤트 하나를 쓰다가 예외가 나도 writer 스레드는 다음 이벤트를 계속 쓴다")
+    void writeFailure() throws Exception {
+        AsyncLogTrace trace = new AsyncLogTrace(16, OverflowPolicy.BLOCK);
+        TraceStatus failed = trace.begin("OrderRepository.save()");
+        trace.exception(failed, new BrokenException());
+        waitUntil(() -> trace.getFailedCount() == 1);
+
+        run(trace);
+        trace.close();
+
+        assertThat(trace.getFailedCount()).isEqualTo(1L);
+        assertThat(trace.getDroppedCount()).isZero();
+        assertThat(trace.getWrittenCount()).isEqualTo(1L + THREADS * TRACES_PER_THREAD * EVENTS_PER_TRACE);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    //ex={} 를 만들 때 실패하는 예외
+    static class BrokenException extends RuntimeException {
+        @Override
+        public String toString() {
+            throw new IllegalStateException("toString 실패");
+        }
+    }
+
+    private void run(LogTrace trace) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < TRACES_PER_THREAD; j++) {
+                    TraceStatus controller = trace.begin("OrderController.request()");
+                    TraceStatus service = trace.begin("OrderService.orderItem()");
+                    TraceStatus repository = trace.begin("OrderRepository.save()");
+                    trace.end(repository);
+                    trace.end(service);
+                    trace.end(controller);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package hello.proxy.trace.logtrace;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import hello.proxy.trace.TraceId;
+import hello.proxy.trace.TraceStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * ContextLogTrace 는 깊이가 바뀔 때 TraceId, TraceStatus 를 새로 만들지 않는다.
+ * 로그 레벨을 끄면 할당이 없어야 하고, INFO 에서는 같은 로그를 직접 남길 때보다 더 할당하면 안 된다.
+ */
+class ContextLogTraceTest {
+
+    private static final int WARM_UP = 200_000;
+    private static final int ITERATIONS = 100_000;
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ContextLogTrace.class);
+    private Level originalLevel;
+    private boolean originalAdditive;
+
+    @BeforeEach
+    void setUp() {
+        originalLevel = logger.getLevel();
+        originalAdditive = logger.isAdditive();
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.setLevel(originalLevel);
+        logger.setAdditive(originalAdditive);
+    }
+
+    @Test
+    @DisplayName("중첩 호출의 깊이와 트레이스 ID")
+    void levels() {
+        ContextLogTrace trace = new ContextLogTrace();
+
+        TraceStatus controller = trace.begin("OrderController.request()");
+        long traceId = controller.getRawTraceId();
+        assertThat(controller.getLevel()).isEqualTo(0);
+
+        TraceStatus service = trace.begin("OrderService.orderItem()");
+        assertThat(service.getLevel()).isEqualTo(1);
+        assertThat(service.getRawTraceId()).isEqualTo(traceId);
+
+        TraceStatus repository = trace.begin("OrderRepository.save()");
+        assertThat(repository.getLevel()).isEqualTo(2);
+        //하위 깊이가 열려 있어도 상위 상태의 TraceId 는 begin() 시점 그대로
+        assertThat(controller.getTraceId().getLevel()).isEqualTo(0);
+        assertThat(service.getTraceId().getLevel()).isEqualTo(1);
+        assertThat(service.getTraceId().getRawId()).isEqualTo(traceId);
+        trace.exception(repository, new IllegalStateException("예외 발생!"));
+        trace.exception(service, new IllegalStateException("예외 발생!"));
+        assertThat(controller.getTraceId().getLevel()).isEqualTo(0);
+        trace.end(controller);
+
+        //트레이스가 끝나면 다음 begin() 은 새로운 트레이스
+        TraceStatus next = trace.begin("OrderController.request()");
+        assertThat(next.getLevel()).isEqualTo(0);
+        assertThat(next.getRawTraceId()).isNotEqualTo(traceId);
+        trace.end(next);
+    }
+
+    @Test
+    @DisplayName("TraceStatus 는 진행 중에 먼저 꺼낸 TraceId 도 다음 트레이스의 영향을 받지 않는다")
+    void traceIdSnapshot() {
+        ContextLogTrace trace = new ContextLogTrace();
+
+        TraceStatus controller = trace.begin("OrderController.request()");
+        TraceId controllerId = controller.getTraceId();
+        TraceStatus service = trace.begin("OrderService.orderItem()");
+        TraceId serviceId = service.getTraceId();
+        trace.end(service);
+        trace.end(controller);
+
+        //같은 스레드에서 다음 트레이스가 깊이를 더 내려가도 앞서 꺼낸 TraceId 는 그대로
+        long firstId = controllerId.getRawId();
+        TraceStatus next = trace.begin("OrderController.request()");
+        TraceStatus nextService = trace.begin("OrderService.orderItem()");
+        TraceStatus nextRepository = trace.begin("OrderRepository.save()");
+        assertThat(controllerId.getRawId()).isEqualTo(firstId);
+        assertThat(controllerId.getLevel()).isEqualTo(0);
+        assertThat(serviceId.getRawId()).isEqualTo(firstId);
+        assertThat(serviceId.getLevel()).isEqualTo(1);
+        assertThat(next.getRawTraceId()).isNotEqualTo(firstId);
+        trace.end(nextRepository);
+        trace.end(nextService);
+        trace.end(next);
+    }
+
+    @Test
+    @DisplayName("정상 상태에서 begin(), end() 는 힙 할당을 하지 않는다")
+    void noAllocation() {
+        logger.setLevel(Level.OFF);
+        ContextLogTrace trace = new ContextLogTrace();
+
+        //JIT 컴파일과 TraceStatus 풀 채우기
+        traces(trace, WARM_UP);
+        rootTraces(trace, WARM_UP);
+
+        //루트 begin() 의 트레이스 ID 생성까지 포함
+        long before = allocatedBytes();
+        traces(trace, ITERATIONS);
+        long allocated = allocatedBytes() - before;
+
+        //루트 begin(), end() 만 따로, 트레이스마다 새 ID 를 만든다
+        before = allocatedBytes();
+        rootTraces(trace, ITERATIONS);
+        long rootAllocated = allocatedBytes() - before;
+
+        //측정 코드 자체의 할당 몇 바이트를 감안해도 호출당 1바이트 미만
+        assertThat(allocated).isLessThan((long) ITERATIONS);
+        assertThat(rootAllocated).isLessThan((long) ITERATIONS);
+    }
+
+    @Test
+    @DisplayName("INFO 에서 begin(), end() 는 로그 호출 자체 외에는 힙 할당을 하지 않는다")
+    void noAllocationAtInfo() {
+        //INFO 로 켜되 출력은 하지 않는다, 로그 이벤트는 그대로 만들어진다
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        ContextLogTrace trace = new ContextLogTrace();
+
+        traces(trace, WARM_UP);
+        logs(WARM_UP);
+
+        long before = allocatedBytes();
+        traces(trace, ITERATIONS);
+        long allocated = allocatedBytes() - before;
+
+        //같은 인자로 같은 횟수의 로그만 남긴 경우
+        before = allocatedBytes();
+        logs(ITERATIONS);
+        long logOnly = allocatedBytes() - before;
+
+        //TraceId, TraceStatus, 들여쓰기 문자열 할당이 있다면 트레이스당 수십 바이트 이상 차이가 난다
+        assertThat(allocated - logOnly).isLessThan((long) ITERATIONS);
+    }
+
+    private void traces(LogTrace trace, int count) {
+        for (int i = 0; i < count; i++) {
+            TraceStatus controller = trace.begin("OrderController.request()");
+            TraceStatus service = trace.begin("OrderService.orderItem()");
+            TraceStatus repository = trace.begin("OrderRepository.save()");
+            trace.end(repository);
+            trace.end(service);
+            trace.end(controller);
+        }
+    }
+
+    private void rootTraces(LogTrace trace, int count) {
+        for (int i = 0; i < count; i++) {
+            trace.end(trace.begin("OrderController.request()"));
+        }
+    }
+
+    //traces() 가 남기는 것과 같은 로그 6줄을 직접 남긴다
+    private void logs(int count) {
+        String[] messages = {"OrderController.request()", "OrderService.orderItem()", "OrderRepository.save()"};
+        String[] starts = {"", "|-->", "|   |-->"};
+        String[] completes = {"", "|<--", "|   |<--"};
+        for (int i = 0; i < count; i++) {
+            long id = i;
+            for (int level = 0; level < 3; level++) {
+                logger.info("[{}] {}{}", TraceId.toHex(id), starts[level], messages[level]);
+            }
+            for (int level = 2; level >= 0; level--) {
+                logger.info("[{}] {}{} time={}ms", TraceId.toHex(id), completes[level], messages[level], 0L);
+            }
+        }
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,38 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.metrics.MethodMetrics;
+import hello.proxy.trace.metrics.PrometheusTextFormat;
+import hello.proxy.trace.metrics.TraceMetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MetricsLogTraceTest {
+
+    @Test
+    void metrics() {
+        TraceMetricsRegistry registry = new TraceMetricsRegistry();
+        MetricsLogTrace trace = new MetricsLogTrace(new ContextLogTrace(), registry);
+
+        TraceStatus controller = trace.begin("OrderController.request()");
+        assertThat(registry.get("OrderController.request()").getInFlight()).isEqualTo(1L);
+        TraceStatus repository = trace.begin("OrderRepository.save()");
+        trace.exception(repository, new IllegalStateException("예외 발생!"));
+        trace.end(controller);
+
+        MethodMetrics controllerMetrics = registry.get("OrderController.request()");
+        assertThat(controllerMetrics.getCalls()).isEqualTo(1L);
+        assertThat(controllerMetrics.getErrors()).isEqualTo(0L);
+        assertThat(controllerMetrics.getInFlight()).isEqualTo(0L);
+        assertThat(registry.get("OrderRepository.save()").getErrors()).isEqualTo(1L);
+
+        String text = PrometheusTextFormat.write(registry);
+        assertThat(text).contains(
+                "# TYPE log_trace_calls_total counter",
+                "log_trace_calls_total{method=\"OrderController.request()\"} 1",
+                "log_trace_errors_total{method=\"OrderRepository.save()\"} 1",
+                "log_trace_latency_seconds{method=\"OrderController.request()\",quantile=\"0.99\"}",
+                "log_trace_latency_seconds_count{method=\"OrderRepository.save()\"} 1");
+    }
+}
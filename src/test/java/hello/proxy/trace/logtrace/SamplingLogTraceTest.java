@@ -0,0 +1,99 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.sampling.SamplingRates;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SamplingLogTraceTest {
+
+    @Test
+    @DisplayName("루트에서 정한 결과를 하위 호출까지 그대로 따른다")
+    void wholeTrace() {
+        SamplingRates rates = SamplingRates.parse(1.0, "OrderControllerV1.request()=0, OrderControllerV2.request()=1");
+        CountingLogTrace delegate = new CountingLogTrace();
+        SamplingLogTrace trace = new SamplingLogTrace(delegate, rates);
+
+        //V1 은 버림, 하위 호출 메시지의 비율(기본 1.0)과 상관없이 전부 버려진다
+        request(trace, "OrderControllerV1.request()");
+        assertThat(delegate.begins).isEqualTo(0);
+
+        //V2 는 모두 남김
+        request(trace, "OrderControllerV2.request()");
+        assertThat(delegate.begins).isEqualTo(3);
+        assertThat(delegate.ends).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("버린 트레이스도 메시지와 깊이가 있는 TraceStatus 를 돌려준다")
+    void skippedStatus() {
+        SamplingLogTrace trace = new SamplingLogTrace(new CountingLogTrace(), new SamplingRates(0));
+
+        TraceStatus controller = trace.begin("OrderControllerV1.request()");
+        TraceStatus service = trace.begin("OrderServiceV1.orderItem()");
+        assertThat(service.getMessage()).isEqualTo("OrderServiceV1.orderItem()");
+        assertThat(service.getLevel()).isEqualTo(1);
+        trace.exception(service, new IllegalStateException("예외 발생!"));
+        trace.end(controller);
+    }
+
+    @Test
+    @DisplayName("비율만큼 트레이스를 남기고, 실행 중에 비율을 바꿀 수 있다")
+    void rate() {
+        SamplingRates rates = new SamplingRates(1.0);
+        rates.setRate("OrderControllerV1.request()", 0.25);
+        CountingLogTrace delegate = new CountingLogTrace();
+        SamplingLogTrace trace = new SamplingLogTrace(delegate, rates);
+
+        for (int i = 0; i < 10_000; i++) {
+            request(trace, "OrderControllerV1.request()");
+        }
+        //트레이스 하나당 begin 3번
+        assertThat(delegate.begins / 3).isBetween(2_000, 3_000);
+
+        rates.setRate("OrderControllerV1.request()", 0);
+        int before = delegate.begins;
+        request(trace, "OrderControllerV1.request()");
+        assertThat(delegate.begins).isEqualTo(before);
+
+        rates.removeRate("OrderControllerV1.request()");
+        request(trace, "OrderControllerV1.request()");
+        assertThat(delegate.begins).isEqualTo(before + 3);
+    }
+
+    private void request(LogTrace trace, String rootMessage) {
+        TraceStatus controller = trace.begin(rootMessage);
+        TraceStatus service = trace.begin("OrderServiceV1.orderItem()");
+        TraceStatus repository = trace.begin("OrderRepositoryV1.save()");
+        trace.end(repository);
+        trace.end(service);
+        trace.end(controller);
+    }
+
+    static class CountingLogTrace implements LogTrace {
+
+        private final ContextLogTrace trace = new ContextLogTrace();
+        private int begins;
+        private int ends;
+
+        @Override
+        public TraceStatus begin(String message) {
+            begins++;
+            return trace.begin(message);
+        }
+
+        @Override
+        public void end(TraceStatus status) {
+            ends++;
+            trace.end(status);
+        }
+
+        @Override
+        public void exception(TraceStatus status, Exception e) {
+            ends++;
+            trace.exception(status, e);
+        }
+    }
+}
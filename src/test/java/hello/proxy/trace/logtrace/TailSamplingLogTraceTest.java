@@ -0,0 +1,91 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.id.RandomTraceIdGenerator;
+import hello.proxy.trace.sampling.TailSamplingPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TailSamplingLogTraceTest {
+
+    @Test
+    @DisplayName("빠르고 정상인 트레이스는 버리고, 예외가 난 트레이스는 남긴다")
+    void error() {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(TailSamplingPolicy.parse(1000, true, ""));
+
+        request(trace, 0, false);
+        assertThat(trace.getDroppedCount()).isEqualTo(1);
+        assertThat(trace.getKeptCount()).isEqualTo(0);
+
+        request(trace, 0, true);
+        assertThat(trace.getKeptCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("루트 전체 시간이 SLO 이상이면 남긴다")
+    void slo() {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(TailSamplingPolicy.parse(10, false, ""));
+
+        request(trace, 20, false);
+        assertThat(trace.getKeptCount()).isEqualTo(1);
+
+        //keepErrors=false 이므로 예외만으로는 남기지 않는다
+        request(trace, 0, true);
+        assertThat(trace.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("메서드별 기준 시간을 넘은 단계가 있으면 트레이스 전체를 남긴다")
+    void methodThreshold() {
+        TailSamplingPolicy policy = TailSamplingPolicy.parse(10_000, false, "OrderRepositoryV1.save()=10");
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(policy);
+
+        request(trace, 20, false);
+        assertThat(trace.getKeptCount()).isEqualTo(1);
+        assertThat(trace.getDroppedCount()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("버퍼 크기를 넘는 트레이스도 끝까지 처리하고, 다음 트레이스는 깨끗한 버퍼로 시작한다")
+    void overflow() {
+        TailSamplingLogTrace trace = new TailSamplingLogTrace(TailSamplingPolicy.parse(1000, true, ""), 4,
+                new RandomTraceIdGenerator());
+
+        TraceStatus root = trace.begin("OrderControllerV1.request()");
+        for (int i = 0; i < 100; i++) {
+            trace.end(trace.begin("OrderRepositoryV1.save()"));
+        }
+        trace.exception(root, new IllegalStateException("예외 발생!"));
+        assertThat(trace.getKeptCount()).isEqualTo(1);
+
+        request(trace, 0, false);
+        assertThat(trace.getDroppedCount()).isEqualTo(1);
+    }
+
+    private void request(LogTrace trace, long saveMillis, boolean fail) {
+        TraceStatus controller = trace.begin("OrderControllerV1.request()");
+        TraceStatus service = trace.begin("OrderServiceV1.orderItem()");
+        TraceStatus repository = trace.begin("OrderRepositoryV1.save()");
+        sleep(saveMillis);
+        if (fail) {
+            IllegalStateException e = new IllegalStateException("예외 발생!");
+            trace.exception(repository, e);
+            trace.exception(service, e);
+            trace.exception(controller, e);
+            return;
+        }
+        trace.end(repository);
+        trace.end(service);
+        trace.end(controller);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package hello.proxy.trace.logtrace;
+
+import hello.proxy.trace.TraceStatus;
+import hello.proxy.trace.thread.TraceThread;
+import hello.proxy.trace.thread.TraceThreadFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ThreadSlotLogTraceTest {
+
+    @Test
+    void traceThread() throws InterruptedException {
+        ThreadSlotLogTrace first = new ThreadSlotLogTrace();
+        ThreadSlotLogTrace second = new ThreadSlotLogTrace();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread thread = new TraceThreadFactory("test-", false).newThread(() -> {
+            try {
+                assertThat(Thread.currentThread()).isInstanceOf(TraceThread.class);
+                TraceStatus root = first.begin("OrderControllerV1.request()");
+                //다른 LogTrace 는 같은 스레드에서도 자기 TraceContext 를 쓴다
+                TraceStatus other = second.begin("Other.call()");
+                assertThat(other.getLevel()).isEqualTo(0);
+
+                TraceStatus child = first.begin("OrderServiceV1.orderItem()");
+                assertThat(child.getLevel()).isEqualTo(1);
+                assertThat(child.getRawTraceId()).isEqualTo(root.getRawTraceId());
+                first.end(child);
+                second.end(other);
+                first.end(root);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        thread.start();
+        thread.join();
+        assertThat(failure.get()).isNull();
+    }
+
+    @Test
+    void plainThread() {
+        //TraceThread 가 아니면 ThreadLocal 로 동작
+        ThreadSlotLogTrace trace = new ThreadSlotLogTrace();
+        TraceStatus root = trace.begin("OrderControllerV1.request()");
+        TraceStatus child = trace.begin("OrderServiceV1.orderItem()");
+        assertThat(child.getLevel()).isEqualTo(1);
+        trace.end(child);
+        trace.end(root);
+    }
+}
@@ -0,0 +1,63 @@
+package hello.proxy.trace.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("버킷 경계는 끊김 없이 이어지고 값은 자기 버킷 안에 들어간다")
+    void buckets() {
+        for (int i = 1; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            assertThat(LatencyHistogram.lowerBound(i)).isEqualTo(LatencyHistogram.upperBound(i - 1) + 1);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            long value = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+            int index = LatencyHistogram.bucketIndex(value);
+            assertThat(value).isBetween(LatencyHistogram.lowerBound(index), LatencyHistogram.upperBound(index));
+        }
+        assertThat(LatencyHistogram.bucketIndex(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+    }
+
+    @Test
+    @DisplayName("백분위 값의 상대 오차는 약 6% 이내")
+    void quantiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        //1us ~ 1000us 를 고르게
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(1000L);
+        assertThat(snapshot.getMax()).isEqualTo(1_000_000L);
+        assertThat((double) snapshot.valueAtQuantile(0.5)).isCloseTo(500_000d, within(500_000d * 0.07));
+        assertThat((double) snapshot.valueAtQuantile(0.99)).isCloseTo(990_000d, within(990_000d * 0.07));
+        assertThat(snapshot.valueAtQuantile(1.0)).isEqualTo(1_000_000L);
+    }
+
+    @Test
+    @DisplayName("두 히스토그램을 합치면 한 곳에 모두 기록한 것과 같다")
+    void merge() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        LatencyHistogram all = new LatencyHistogram();
+        for (int i = 0; i < 1000; i++) {
+            long value = ThreadLocalRandom.current().nextLong(1, 10_000_000);
+            (i % 2 == 0 ? a : b).record(value);
+            all.record(value);
+        }
+
+        a.merge(b);
+        LatencyHistogram.Snapshot merged = a.snapshot();
+        LatencyHistogram.Snapshot expected = all.snapshot();
+        assertThat(merged.getCount()).isEqualTo(expected.getCount());
+        assertThat(merged.getSum()).isEqualTo(expected.getSum());
+        assertThat(merged.getMax()).isEqualTo(expected.getMax());
+        assertThat(merged.valueAtQuantile(0.99)).isEqualTo(expected.valueAtQuantile(0.99));
+    }
+}
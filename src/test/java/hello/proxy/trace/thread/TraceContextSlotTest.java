@@ -0,0 +1,38 @@
+package hello.proxy.trace.thread;
+
+import hello.proxy.trace.TraceContext;
+import hello.proxy.trace.id.RandomTraceIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TraceContextSlotTest {
+
+    @Test
+    void reuseIndex() throws InterruptedException {
+        //슬롯을 계속 새로 만들어도 GC 된 슬롯의 index 를 다시 쓴다
+        int slots = 10_000;
+        int maxIndex = 0;
+        for (int i = 0; i < slots; i++) {
+            maxIndex = Math.max(maxIndex, new TraceContextSlot(new RandomTraceIdGenerator()).getIndex());
+            if (i % 1000 == 999) {
+                System.gc();
+                Thread.sleep(50);
+            }
+        }
+        assertThat(maxIndex).isLessThan(slots / 2);
+    }
+
+    @Test
+    void staleContext() {
+        //반납된 index 에 남은 이전 슬롯의 TraceContext 는 다른 슬롯에게 보이지 않는다
+        TraceThread thread = new TraceThread(null, () -> {
+        }, "test");
+        TraceContext context = new TraceContext(new RandomTraceIdGenerator());
+        thread.setTraceContext(0, 1, context);
+
+        assertThat(thread.getTraceContext(0, 1)).isSameAs(context);
+        assertThat(thread.getTraceContext(0, 2)).isNull();
+        assertThat(thread.getTraceContext(10, 1)).isNull();
+    }
+}
@@ -0,0 +1,26 @@
+package hello.proxy.generator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컴파일 시점에 로그 추적 프록시를 만들 인터페이스나 클래스에 붙인다
+ *
+ * 인터페이스 : 인터페이스를 구현하는 프록시(OrderServiceInterfaceProxy 와 같은 형태)
+ * 클래스 : 클래스를 상속하는 프록시(OrderRepositoryConcreteProxy 와 같은 형태)
+ * 만들어진 프록시의 이름은 대상 이름 + "TraceProxy", 같은 패키지에 생긴다.
+ *
+ * 런타임에 클래스를 만들지 않으므로(리플렉션, 바이트코드 생성 없음) 직접 만든 프록시와 같은 비용이다.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface TraceProxy {
+
+    /**
+     * 로그를 남길 메서드 이름 패턴, PatternMatchUtils.simpleMatch() 와 같은 규칙("request*", "*Item", "save")
+     * 비어 있으면 모든 메서드, 매칭되지 않는 메서드는 로그 없이 target 을 바로 호출한다
+     */
+    String[] value() default {};
+}
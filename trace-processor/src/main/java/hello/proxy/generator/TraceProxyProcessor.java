@@ -0,0 +1,552 @@
+package hello.proxy.generator;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @TraceProxy 가 붙은 타입마다 로그 추적 프록시 소스를 만드는 애노테이션 프로세서
+ *
+ * config.v1_proxy 의 직접 만든 프록시와 같은 코드를 만든다.
+ * 로그 메시지는 MethodDescriptor 상수로 만들어 두고 LogTrace.begin(MethodDescriptor) 로 넘긴다.
+ *
+ * 상속한 제네릭 멤버는 Types.asMemberOf() 로 대상 타입 기준의 타입을 써서 만든다(BulkSave<String> 이면 List<String>).
+ * @TraceProxy 인터페이스를 구현하면서 다른 인터페이스도 구현하는 클래스는 그 인터페이스들을 모두 구현하는 프록시를 따로 만든다.
+ *
+ * 프록시를 모두 만든 뒤 hello.proxy.trace.generated.GeneratedTraceProxies 를 만든다.
+ * wrap(bean, logTrace) 는 bean 이 @TraceProxy 타입이면 만들어진 프록시로 감싸서 돌려준다(instanceof 비교만, 리플렉션 없음).
+ */
+@SupportedAnnotationTypes("hello.proxy.generator.TraceProxy")
+public class TraceProxyProcessor extends AbstractProcessor {
+
+    private static final String INDEX_PACKAGE = "hello.proxy.trace.generated";
+    private static final String INDEX_NAME = "GeneratedTraceProxies";
+
+    //GeneratedTraceProxies 에 넣을 {대상 타입, 프록시 타입}
+    private final List<String[]> proxies = new ArrayList<>();
+    private final List<String[]> implementationProxies = new ArrayList<>();
+    //프록시를 만든 @TraceProxy 인터페이스, 구현 클래스 프록시를 찾을 때 쓴다
+    private final List<TypeElement> traceInterfaces = new ArrayList<>();
+    private boolean indexWritten;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(TraceProxy.class);
+        if (elements.isEmpty()) {
+            return false;
+        }
+        if (indexWritten) {
+            error(elements.iterator().next(), "@TraceProxy 는 처음 라운드의 소스에만 사용할 수 있습니다.");
+            return false;
+        }
+
+        for (Element element : elements) {
+            if (element.getKind() != ElementKind.INTERFACE && element.getKind() != ElementKind.CLASS) {
+                error(element, "@TraceProxy 는 인터페이스나 클래스에만 붙일 수 있습니다.");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            if (!validate(type)) {
+                continue;
+            }
+            try {
+                generateProxy(type);
+            } catch (IOException e) {
+                error(type, "프록시 생성 실패: " + e.getMessage());
+            }
+        }
+
+        generateImplementationProxies(roundEnv);
+
+        try {
+            generateIndex();
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, INDEX_NAME + " 생성 실패: " + e.getMessage());
+        }
+        indexWritten = true;
+        return false;
+    }
+
+    private boolean validate(TypeElement type) {
+        if (!type.getTypeParameters().isEmpty()) {
+            error(type, "@TraceProxy 는 제네릭 타입을 지원하지 않습니다.");
+            return false;
+        }
+        if (type.getModifiers().contains(Modifier.FINAL)) {
+            error(type, "final 클래스는 상속할 수 없어서 프록시를 만들 수 없습니다.");
+            return false;
+        }
+        if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)
+                && type.getKind() == ElementKind.CLASS) {
+            error(type, "내부 클래스는 지원하지 않습니다. static 중첩 클래스나 최상위 클래스에 사용하세요.");
+            return false;
+        }
+        return true;
+    }
+
+    private void generateProxy(TypeElement type) throws IOException {
+        String packageName = packageOf(type);
+        String typeName = type.getQualifiedName().toString();
+        String proxyName = type.getSimpleName() + "TraceProxy";
+        boolean isInterface = type.getKind() == ElementKind.INTERFACE;
+        String[] patterns = type.getAnnotation(TraceProxy.class).value();
+
+        List<ProxyMethod> methods = new ArrayList<>();
+        for (ExecutableElement method : proxiedMethods(type, isInterface)) {
+            methods.add(new ProxyMethod(method, memberOf(type, method), isTraced(method, patterns)));
+        }
+
+        String supertype = (isInterface ? " implements " : " extends ") + typeName;
+        writeProxy(type, packageName, proxyName, typeName, supertype, isInterface ? null : type, methods);
+        proxies.add(new String[]{typeName, qualifiedName(packageName, proxyName)});
+        if (isInterface) {
+            traceInterfaces.add(type);
+        }
+    }
+
+    /**
+     * @TraceProxy 인터페이스의 구현 클래스 중 다른 인터페이스도 구현하는 클래스의 프록시
+     *
+     * 인터페이스 프록시는 그 인터페이스만 구현한다. OrderRepositoryV1Impl 처럼 BulkSave 도 구현하는 빈을 감싸면
+     * 프록시에서 BulkSave 가 사라져서 BatchingAdvice 등이 saveAll 을 쓰지 못한다.
+     * 그래서 같은 컴파일에 있는 이런 구현 클래스는 구현 클래스가 구현한 인터페이스를 모두 구현하는 프록시를 따로 만든다.
+     * 로그 대상 메서드는 구현 클래스가 구현한 @TraceProxy 인터페이스들의 패턴으로 정한다.
+     */
+    private void generateImplementationProxies(RoundEnvironment roundEnv) {
+        List<TypeElement> types = new ArrayList<>();
+        collectTypes(roundEnv.getRootElements(), types);
+        for (TypeElement type : types) {
+            if (type.getKind() != ElementKind.CLASS
+                    || type.getAnnotation(TraceProxy.class) != null
+                    || !type.getTypeParameters().isEmpty()
+                    || type.getModifiers().contains(Modifier.ABSTRACT)
+                    || !isAccessible(type)) {
+                continue;
+            }
+            List<TypeElement> traced = new ArrayList<>();
+            for (TypeElement traceInterface : traceInterfaces) {
+                if (isSubtype(type.asType(), traceInterface.asType())) {
+                    traced.add(traceInterface);
+                }
+            }
+            if (traced.isEmpty()) {
+                continue;
+            }
+            List<DeclaredType> interfaces = interfacesOf((DeclaredType) type.asType());
+            boolean hasOtherInterface = interfaces.stream()
+                    .anyMatch(ifc -> traced.stream().noneMatch(traceInterface -> isSubtype(traceInterface.asType(), ifc)));
+            if (!hasOtherInterface) {
+                continue;
+            }
+            try {
+                generateImplementationProxy(type, traced, interfaces);
+            } catch (IOException e) {
+                error(type, "프록시 생성 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    private void generateImplementationProxy(TypeElement type, List<TypeElement> traced, List<DeclaredType> interfaces) throws IOException {
+        String packageName = packageOf(type);
+        String typeName = type.getQualifiedName().toString();
+        String proxyName = type.getSimpleName() + "TraceProxy";
+
+        //같은 메서드를 여러 인터페이스가 선언해도 한 번만, 제네릭 인터페이스의 타입 변수는 구현 클래스 기준으로 바꾼다(BulkSave<String>)
+        Map<String, ProxyMethod> methods = new LinkedHashMap<>();
+        for (DeclaredType ifc : interfaces) {
+            for (ExecutableElement method : proxiedMethods((TypeElement) ifc.asElement(), true)) {
+                ExecutableType methodType = memberOf(type, method);
+                String key = method.getSimpleName() + methodType.getParameterTypes().stream()
+                        .map(parameterType -> processingEnv.getTypeUtils().erasure(parameterType).toString())
+                        .collect(Collectors.joining(",", "(", ")"));
+                boolean isTraced = traced.stream()
+                        .anyMatch(traceInterface -> isTraced(method, traceInterface.getAnnotation(TraceProxy.class).value()));
+                methods.putIfAbsent(key, new ProxyMethod(method, methodType, isTraced));
+            }
+        }
+
+        String supertypes = interfaces.stream().map(TypeMirror::toString).collect(Collectors.joining(", ", " implements ", ""));
+        writeProxy(type, packageName, proxyName, typeName, supertypes, null, new ArrayList<>(methods.values()));
+        implementationProxies.add(new String[]{typeName, qualifiedName(packageName, proxyName)});
+    }
+
+    //superclass 가 있으면 그 클래스를 상속하는 프록시(생성자에서 super(..) 호출)
+    private void writeProxy(TypeElement origin, String packageName, String proxyName, String targetName,
+                            String supertypes, TypeElement superclass, List<ProxyMethod> methods) throws IOException {
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName(packageName, proxyName), origin);
+        try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("import hello.proxy.trace.MethodDescriptor;");
+            out.println("import hello.proxy.trace.MethodDescriptors;");
+            out.println("import hello.proxy.trace.TraceStatus;");
+            out.println("import hello.proxy.trace.logtrace.LogTrace;");
+            out.println();
+            out.println("/** " + targetName + " 의 로그 추적 프록시, TraceProxyProcessor 가 만든 코드 */");
+            out.println("@javax.annotation.processing.Generated(\"" + TraceProxyProcessor.class.getName() + "\")");
+            out.println("public class " + proxyName + supertypes + " {");
+            out.println();
+
+            for (int i = 0; i < methods.size(); i++) {
+                ProxyMethod method = methods.get(i);
+                if (method.traced) {
+                    out.println("    private static final MethodDescriptor METHOD_" + i
+                            + " = MethodDescriptors.of(\"" + descriptorKey(method.element)
+                            + "\", \"" + descriptorName(method.element) + "\");");
+                }
+            }
+            out.println();
+            out.println("    private final " + targetName + " target;");
+            out.println("    private final LogTrace logTrace;");
+            out.println();
+            out.println("    public " + proxyName + "(" + targetName + " target, LogTrace logTrace) {");
+            if (superclass != null) {
+                out.println("        super(" + superArguments(superclass) + ");");
+            }
+            out.println("        this.target = target;");
+            out.println("        this.logTrace = logTrace;");
+            out.println("    }");
+
+            for (int i = 0; i < methods.size(); i++) {
+                ProxyMethod method = methods.get(i);
+                out.println();
+                writeMethod(out, method, method.traced ? "METHOD_" + i : null);
+            }
+            out.println("}");
+        }
+    }
+
+    //프록시가 재정의할 메서드, Object 의 메서드와 static, final, private 메서드는 제외
+    private List<ExecutableElement> proxiedMethods(TypeElement type, boolean isInterface) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            Set<Modifier> modifiers = method.getModifiers();
+            TypeElement owner = (TypeElement) method.getEnclosingElement();
+            if (owner.getQualifiedName().contentEquals("java.lang.Object")
+                    || modifiers.contains(Modifier.STATIC)
+                    || modifiers.contains(Modifier.FINAL)
+                    || modifiers.contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            //구체 클래스는 public, protected 메서드만 (package-private 은 다른 패키지의 상위 클래스일 수 있다)
+            if (!isInterface && !modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.PROTECTED)) {
+                continue;
+            }
+            methods.add(method);
+        }
+        return methods;
+    }
+
+    //상속한 제네릭 멤버의 타입 변수를 type 기준으로 바꾼 메서드 타입, interface X extends BulkSave<String> 이면 List<T> -> List<String>
+    private ExecutableType memberOf(TypeElement type, ExecutableElement method) {
+        return (ExecutableType) processingEnv.getTypeUtils().asMemberOf((DeclaredType) type.asType(), method);
+    }
+
+    //type 과 상위 클래스들이 구현한 인터페이스, 타입 인수는 type 기준으로 바뀐 상태(BulkSave<java.lang.String>)
+    private List<DeclaredType> interfacesOf(DeclaredType type) {
+        List<DeclaredType> interfaces = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        collectInterfaces(type, interfaces, names);
+        return interfaces;
+    }
+
+    private void collectInterfaces(DeclaredType type, List<DeclaredType> interfaces, Set<String> names) {
+        for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type)) {
+            DeclaredType declared = (DeclaredType) supertype;
+            if (declared.asElement().getKind() == ElementKind.INTERFACE) {
+                if (names.add(processingEnv.getTypeUtils().erasure(declared).toString())) {
+                    interfaces.add(declared);
+                }
+            } else if (!((TypeElement) declared.asElement()).getQualifiedName().contentEquals("java.lang.Object")) {
+                collectInterfaces(declared, interfaces, names);
+            }
+        }
+    }
+
+    private void collectTypes(Collection<? extends Element> elements, List<TypeElement> types) {
+        for (TypeElement type : ElementFilter.typesIn(elements)) {
+            types.add(type);
+            collectTypes(type.getEnclosedElements(), types);
+        }
+    }
+
+    //같은 패키지의 프록시에서 타입 이름으로 쓸 수 있어야 한다
+    private boolean isAccessible(TypeElement type) {
+        for (Element element = type; element.getKind() != ElementKind.PACKAGE; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isSubtype(TypeMirror type, TypeMirror supertype) {
+        Types types = processingEnv.getTypeUtils();
+        return types.isSubtype(types.erasure(type), types.erasure(supertype));
+    }
+
+    private String packageOf(TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    }
+
+    private static String qualifiedName(String packageName, String simpleName) {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    private void writeMethod(PrintWriter out, ProxyMethod method, String descriptor) {
+        TypeMirror returnType = method.type.getReturnType();
+        boolean isVoid = returnType.getKind() == TypeKind.VOID;
+        String arguments = method.element.getParameters().stream()
+                .map(parameter -> parameter.getSimpleName().toString())
+                .collect(Collectors.joining(", "));
+        String call = "target." + method.element.getSimpleName() + "(" + arguments + ")";
+
+        out.println("    @Override");
+        out.println("    " + signature(method) + " {");
+        if (descriptor == null) {
+            out.println("        " + (isVoid ? "" : "return ") + call + ";");
+            out.println("    }");
+            return;
+        }
+        out.println("        TraceStatus status = null;");
+        out.println("        try {");
+        out.println("            status = logTrace.begin(" + descriptor + ");");
+        if (isVoid) {
+            out.println("            " + call + ";");
+            out.println("            logTrace.end(status);");
+        } else {
+            out.println("            " + returnType + " result = " + call + ";");
+            out.println("            logTrace.end(status);");
+            out.println("            return result;");
+        }
+        out.println("        } catch (Exception e) {");
+        out.println("            logTrace.exception(status, e);");
+        out.println("            throw e;");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    private String signature(ProxyMethod method) {
+        ExecutableElement element = method.element;
+        StringBuilder sb = new StringBuilder();
+        sb.append(element.getModifiers().contains(Modifier.PROTECTED) ? "protected " : "public ");
+
+        List<? extends TypeParameterElement> typeParameters = element.getTypeParameters();
+        if (!typeParameters.isEmpty()) {
+            sb.append(typeParameters.stream().map(this::typeParameter).collect(Collectors.joining(", ", "<", "> ")));
+        }
+        sb.append(method.type.getReturnType()).append(' ').append(element.getSimpleName()).append('(');
+
+        List<? extends VariableElement> parameters = element.getParameters();
+        List<? extends TypeMirror> parameterTypes = method.type.getParameterTypes();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            TypeMirror parameterType = parameterTypes.get(i);
+            if (element.isVarArgs() && i == parameters.size() - 1) {
+                sb.append(((ArrayType) parameterType).getComponentType()).append("...");
+            } else {
+                sb.append(parameterType);
+            }
+            sb.append(' ').append(parameters.get(i).getSimpleName());
+        }
+        sb.append(')');
+
+        List<? extends TypeMirror> thrownTypes = method.type.getThrownTypes();
+        if (!thrownTypes.isEmpty()) {
+            sb.append(thrownTypes.stream().map(TypeMirror::toString).collect(Collectors.joining(", ", " throws ", "")));
+        }
+        return sb.toString();
+    }
+
+    private String typeParameter(TypeParameterElement typeParameter) {
+        List<String> bounds = typeParameter.getBounds().stream()
+                .map(TypeMirror::toString)
+                .filter(bound -> !bound.equals("java.lang.Object"))
+                .collect(Collectors.toList());
+        return bounds.isEmpty()
+                ? typeParameter.getSimpleName().toString()
+                : typeParameter.getSimpleName() + " extends " + String.join(" & ", bounds);
+    }
+
+    //상위 클래스 생성자에 넘길 기본값, 직접 만든 구체 클래스 프록시의 super(null) 과 같다
+    private String superArguments(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            return constructor.getParameters().stream()
+                    .map(parameter -> defaultValue(parameter.asType()))
+                    .collect(Collectors.joining(", "));
+        }
+        error(type, "private 이 아닌 생성자가 필요합니다.");
+        return "";
+    }
+
+    private String defaultValue(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "false";
+            case CHAR:
+                return "'\\0'";
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return "(" + type + ") 0";
+            default:
+                //생성자 오버로딩이 있어도 모호하지 않도록 타입을 적는다
+                return "(" + processingEnv.getTypeUtils().erasure(type) + ") null";
+        }
+    }
+
+    //MethodDescriptors.keyOf(Method) 와 같은 형식, 메서드를 선언한 타입의 바이너리 이름(Class.getName())
+    private String descriptorKey(ExecutableElement method) {
+        TypeElement type = (TypeElement) method.getEnclosingElement();
+        return processingEnv.getElementUtils().getBinaryName(type) + "." + method.getSimpleName() + "()";
+    }
+
+    //MethodDescriptors.nameOf(Method) 와 같은 형식, 메서드를 선언한 타입의 단순 이름
+    private String descriptorName(ExecutableElement method) {
+        return method.getEnclosingElement().getSimpleName() + "." + method.getSimpleName() + "()";
+    }
+
+    private boolean isTraced(ExecutableElement method, String[] patterns) {
+        if (patterns.length == 0) {
+            return true;
+        }
+        String name = method.getSimpleName().toString();
+        for (String pattern : patterns) {
+            if (simpleMatch(pattern, name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //PatternMatchUtils.simpleMatch() 와 같은 규칙, 프로세서는 스프링에 의존하지 않으므로 따로 구현
+    static boolean simpleMatch(String pattern, String str) {
+        int firstIndex = pattern.indexOf('*');
+        if (firstIndex == -1) {
+            return pattern.equals(str);
+        }
+        if (firstIndex == 0) {
+            if (pattern.length() == 1) {
+                return true;
+            }
+            int nextIndex = pattern.indexOf('*', 1);
+            if (nextIndex == -1) {
+                return str.endsWith(pattern.substring(1));
+            }
+            String part = pattern.substring(1, nextIndex);
+            if (part.isEmpty()) {
+                return simpleMatch(pattern.substring(nextIndex), str);
+            }
+            int partIndex = str.indexOf(part);
+            while (partIndex != -1) {
+                if (simpleMatch(pattern.substring(nextIndex), str.substring(partIndex + part.length()))) {
+                    return true;
+                }
+                partIndex = str.indexOf(part, partIndex + 1);
+            }
+            return false;
+        }
+        return str.length() >= firstIndex
+                && pattern.substring(0, firstIndex).equals(str.substring(0, firstIndex))
+                && simpleMatch(pattern.substring(firstIndex), str.substring(firstIndex));
+    }
+
+    private void generateIndex() throws IOException {
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(INDEX_PACKAGE + "." + INDEX_NAME);
+        try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+            out.println("package " + INDEX_PACKAGE + ";");
+            out.println();
+            out.println("import hello.proxy.trace.logtrace.LogTrace;");
+            out.println();
+            out.println("/** @TraceProxy 로 만든 프록시 목록, TraceProxyProcessor 가 만든 코드 */");
+            out.println("@javax.annotation.processing.Generated(\"" + TraceProxyProcessor.class.getName() + "\")");
+            out.println("public final class " + INDEX_NAME + " {");
+            out.println();
+            out.println("    private " + INDEX_NAME + "() {");
+            out.println("    }");
+            out.println();
+            out.println("    /** bean 이 @TraceProxy 타입이면 만들어진 프록시로 감싸고, 아니면 그대로 돌려준다 */");
+            out.println("    public static Object wrap(Object bean, LogTrace logTrace) {");
+            //구현 클래스 프록시가 먼저, 인터페이스 프록시보다 구체적이다
+            List<String[]> all = new ArrayList<>(implementationProxies);
+            all.addAll(proxies);
+            if (!all.isEmpty()) {
+                //이미 프록시이면 다시 감싸지 않는다
+                out.println("        if (" + all.stream().map(proxy -> "bean instanceof " + proxy[1])
+                        .collect(Collectors.joining("\n                || ")) + ") {");
+                out.println("            return bean;");
+                out.println("        }");
+            }
+            for (String[] proxy : all) {
+                out.println("        if (bean instanceof " + proxy[0] + ") {");
+                out.println("            return new " + proxy[1] + "((" + proxy[0] + ") bean, logTrace);");
+                out.println("        }");
+            }
+            out.println("        return bean;");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    //프록시가 재정의할 메서드와 대상 타입 기준의 메서드 타입, 로그 대상 여부
+    private static class ProxyMethod {
+
+        private final ExecutableElement element;
+        private final ExecutableType type;
+        private final boolean traced;
+
+        ProxyMethod(ExecutableElement element, ExecutableType type, boolean traced) {
+            this.element = element;
+            this.type = type;
+            this.traced = traced;
+        }
+    }
+}